@@ -0,0 +1,14 @@
+package com.sensorbite.evacroute.application.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public record DistanceMatrixRequest(
+    @NotEmpty(message = "At least one source coordinate is required")
+    List<String> sources,
+
+    @NotEmpty(message = "At least one target coordinate is required")
+    List<String> targets
+) {
+}
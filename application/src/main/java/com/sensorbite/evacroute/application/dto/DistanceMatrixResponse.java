@@ -0,0 +1,10 @@
+package com.sensorbite.evacroute.application.dto;
+
+import java.util.List;
+
+public record DistanceMatrixResponse(
+    List<List<Double>> distancesMeters,
+    List<List<Boolean>> crossesHazards,
+    long computationTimeMs
+) {
+}
@@ -0,0 +1,8 @@
+package com.sensorbite.evacroute.application.dto;
+
+public record DistanceResponse(
+    double distanceMeters,
+    boolean crossesHazards,
+    long computationTimeMs
+) {
+}
@@ -0,0 +1,8 @@
+package com.sensorbite.evacroute.application.dto;
+
+import java.util.List;
+
+public record MultiLineStringDto(
+    String type,
+    List<List<List<Double>>> coordinates
+) {}
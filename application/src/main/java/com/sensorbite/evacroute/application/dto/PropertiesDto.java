@@ -6,5 +6,13 @@ public record PropertiesDto(
     int hazardousSegmentsAvoided,
     double safetyScore,
     String timestamp,
-    boolean allPathsHazardous
-) {}
+    boolean allPathsHazardous,
+    String algorithm,
+    int settledNodes
+) {
+    public PropertiesDto(double distanceMeters, long computationTimeMs, int hazardousSegmentsAvoided,
+                         double safetyScore, String timestamp, boolean allPathsHazardous) {
+        this(distanceMeters, computationTimeMs, hazardousSegmentsAvoided, safetyScore, timestamp,
+                allPathsHazardous, null, 0);
+    }
+}
@@ -0,0 +1,8 @@
+package com.sensorbite.evacroute.application.dto;
+
+public record ReachabilityPropertiesDto(
+    double maxDistanceMeters,
+    int reachedNodes,
+    long computationTimeMs
+) {
+}
@@ -0,0 +1,8 @@
+package com.sensorbite.evacroute.application.dto;
+
+public record ReachabilityResponse(
+    String type,
+    MultiLineStringDto geometry,
+    ReachabilityPropertiesDto properties
+) {
+}
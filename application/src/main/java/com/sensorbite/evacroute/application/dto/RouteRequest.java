@@ -12,5 +12,11 @@ public record RouteRequest(
     @NotBlank(message = "End coordinate is required")
     @Pattern(regexp = "^-?\\d+(\\.\\d+)?,-?\\d+(\\.\\d+)?$",
              message = "Invalid coordinate format. Expected: 'lat,lon' (e.g., '52.2400,21.0250')")
-    String end
-) {}
+    String end,
+
+    String algorithm
+) {
+    public RouteRequest(String start, String end) {
+        this(start, end, null);
+    }
+}
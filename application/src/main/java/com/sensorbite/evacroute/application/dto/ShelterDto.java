@@ -0,0 +1,10 @@
+package com.sensorbite.evacroute.application.dto;
+
+import java.util.List;
+
+public record ShelterDto(
+    String id,
+    String name,
+    List<Double> coordinates
+) {
+}
@@ -0,0 +1,7 @@
+package com.sensorbite.evacroute.application.dto;
+
+public record ShelterRouteResponse(
+    ShelterDto shelter,
+    RouteResponse route
+) {
+}
@@ -1,20 +1,35 @@
 package com.sensorbite.evacroute.application.mapper;
 
+import com.sensorbite.evacroute.application.dto.DistanceMatrixResponse;
+import com.sensorbite.evacroute.application.dto.DistanceResponse;
 import com.sensorbite.evacroute.application.dto.GeometryDto;
+import com.sensorbite.evacroute.application.dto.MultiLineStringDto;
 import com.sensorbite.evacroute.application.dto.PropertiesDto;
+import com.sensorbite.evacroute.application.dto.ReachabilityPropertiesDto;
+import com.sensorbite.evacroute.application.dto.ReachabilityResponse;
 import com.sensorbite.evacroute.application.dto.RouteResponse;
+import com.sensorbite.evacroute.application.dto.ShelterDto;
+import com.sensorbite.evacroute.application.dto.ShelterRouteResponse;
 import com.sensorbite.evacroute.domain.exception.InvalidCoordinateException;
 import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.DistanceMatrix;
+import com.sensorbite.evacroute.domain.model.Reachability;
 import com.sensorbite.evacroute.domain.model.Route;
+import com.sensorbite.evacroute.domain.model.RouteDistance;
+import com.sensorbite.evacroute.domain.model.Shelter;
+import com.sensorbite.evacroute.domain.model.ShelterRoute;
 import org.mapstruct.Mapper;
 
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Mapper(componentModel = "default")
 public interface RouteMapper {
 
     String ROUTE_GEOMETRY_TYPE = "LineString";
+    String REACHABILITY_GEOMETRY_TYPE = "MultiLineString";
     String GEOJSON_TYPE_FEATURE = "Feature";
 
     /**
@@ -37,12 +52,71 @@ public interface RouteMapper {
                 route.getMetadata().hazardousSegmentsAvoided(),
                 route.getMetadata().safetyScore(),
                 route.getMetadata().timestamp().toString(),
-                route.getMetadata().allPathsHazardous()
+                route.getMetadata().allPathsHazardous(),
+                route.getMetadata().algorithm().name().toLowerCase(Locale.ROOT),
+                route.getMetadata().settledNodes()
         );
 
         return new RouteResponse(GEOJSON_TYPE_FEATURE, geometry, properties);
     }
 
+    default ShelterRouteResponse toShelterRouteResponse(ShelterRoute shelterRoute) {
+        Shelter shelter = shelterRoute.shelter();
+        ShelterDto shelterDto = new ShelterDto(
+                shelter.id(),
+                shelter.name(),
+                List.of(shelter.location().longitude(), shelter.location().latitude())
+        );
+        return new ShelterRouteResponse(shelterDto, toResponse(shelterRoute.route()));
+    }
+
+    default DistanceResponse toDistanceResponse(RouteDistance distance) {
+        return new DistanceResponse(
+                distance.distanceMeters(),
+                distance.crossesHazards(),
+                distance.computationTimeMs()
+        );
+    }
+
+    /**
+     * Rows follow the request's sources and columns its targets; unreachable pairs map to {@code null}.
+     */
+    default DistanceMatrixResponse toDistanceMatrixResponse(DistanceMatrix matrix) {
+        List<List<Double>> distances = new ArrayList<>(matrix.sourceCount());
+        List<List<Boolean>> hazards = new ArrayList<>(matrix.sourceCount());
+        for (int source = 0; source < matrix.sourceCount(); source++) {
+            List<Double> distanceRow = new ArrayList<>(matrix.targetCount());
+            List<Boolean> hazardRow = new ArrayList<>(matrix.targetCount());
+            for (int target = 0; target < matrix.targetCount(); target++) {
+                boolean reachable = matrix.isReachable(source, target);
+                distanceRow.add(reachable ? matrix.distanceMeters(source, target) : null);
+                hazardRow.add(reachable ? matrix.crossesHazards(source, target) : null);
+            }
+            distances.add(distanceRow);
+            hazards.add(hazardRow);
+        }
+        return new DistanceMatrixResponse(distances, hazards, matrix.computationTimeMs());
+    }
+
+    default ReachabilityResponse toReachabilityResponse(Reachability reachability) {
+        MultiLineStringDto geometry = new MultiLineStringDto(
+                REACHABILITY_GEOMETRY_TYPE,
+                reachability.lines().stream()
+                        .map(line -> line.stream()
+                                .map(coord -> List.of(coord.longitude(), coord.latitude()))
+                                .toList())
+                        .toList()
+        );
+
+        ReachabilityPropertiesDto properties = new ReachabilityPropertiesDto(
+                reachability.maxDistanceMeters(),
+                reachability.reachedNodes(),
+                reachability.computationTimeMs()
+        );
+
+        return new ReachabilityResponse(GEOJSON_TYPE_FEATURE, geometry, properties);
+    }
+
     default Coordinate parseCoordinate(String coordString) {
         if (coordString == null || coordString.isBlank()) {
             throw new InvalidCoordinateException("Coordinate string cannot be null or blank");
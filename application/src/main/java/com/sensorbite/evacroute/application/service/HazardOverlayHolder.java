@@ -0,0 +1,139 @@
+package com.sensorbite.evacroute.application.service;
+
+import com.sensorbite.evacroute.domain.model.FloodZone;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import com.sensorbite.evacroute.domain.port.out.HazardDetectionPort;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps the hazard overlay for the current road network snapshot and active
+ * flood zones.
+ *
+ * <p>Hazard detection only runs when the network snapshot or the set of active
+ * flood zones changes; otherwise every request shares the last overlay. A new
+ * snapshot is classified in full, while a zone change on the same snapshot
+ * only reclassifies the segments near the changed zones. Each recomputation
+ * gets a new, strictly increasing version, and an overlay is only published
+ * over an older one, so a slow recomputation for zones that have since been
+ * replaced cannot overwrite the entry of a newer one.</p>
+ *
+ * <p>Concurrent requests that need the same missing overlay share one
+ * recomputation: when an alert changes the flood zones, the first request runs
+ * hazard detection and the others wait for its overlay instead of each running
+ * their own and publishing a version of their own.</p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class HazardOverlayHolder {
+
+    private final HazardDetectionPort hazardDetectionPort;
+    private final AtomicReference<OverlayEntry> current = new AtomicReference<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final Map<OverlayKey, CompletableFuture<HazardOverlay>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the overlay for the given network and active flood zones,
+     * recomputing it only when either has changed.
+     *
+     * @param network current road network snapshot
+     * @param zones active flood zones
+     * @return hazard overlay for the network
+     */
+    public HazardOverlay overlayFor(RoadNetwork network, List<FloodZone> zones) {
+        OverlayEntry entry = current.get();
+        if (entry != null && entry.matches(network, zones)) {
+            return entry.overlay();
+        }
+
+        OverlayKey key = new OverlayKey(network, List.copyOf(zones));
+        CompletableFuture<HazardOverlay> pending = new CompletableFuture<>();
+        CompletableFuture<HazardOverlay> leader = inFlight.putIfAbsent(key, pending);
+        if (leader != null) {
+            return await(leader);
+        }
+        try {
+            HazardOverlay overlay = recompute(network, key.zones());
+            pending.complete(overlay);
+            return overlay;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    private static HazardOverlay await(CompletableFuture<HazardOverlay> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private HazardOverlay recompute(RoadNetwork network, List<FloodZone> zones) {
+        // A leader that registered just after the previous one finished finds its overlay published.
+        OverlayEntry entry = current.get();
+        if (entry != null && entry.matches(network, zones)) {
+            return entry.overlay();
+        }
+
+        boolean incremental = entry != null && entry.network() == network;
+        HazardOverlay overlay = incremental
+                ? network.updateHazards(entry.overlay(), entry.zones(), zones, hazardDetectionPort,
+                        versions.incrementAndGet())
+                : network.detectHazards(zones, hazardDetectionPort, versions.incrementAndGet());
+        if (publish(new OverlayEntry(network, zones, overlay))) {
+            log.debug("[HAZARDS] Published {} hazard overlay v{}: {} hazardous segments from {} flood zones",
+                    incremental ? "updated" : "full", overlay.version(), overlay.hazardousCount(), zones.size());
+        }
+        return overlay;
+    }
+
+    /** Publish an entry unless one with a newer overlay was published meanwhile. */
+    private boolean publish(OverlayEntry next) {
+        while (true) {
+            OverlayEntry published = current.get();
+            if (published != null && published.overlay().version() > next.overlay().version()) {
+                return false;
+            }
+            if (current.compareAndSet(published, next)) {
+                return true;
+            }
+        }
+    }
+
+    private record OverlayEntry(RoadNetwork network, List<FloodZone> zones, HazardOverlay overlay) {
+
+        boolean matches(RoadNetwork network, List<FloodZone> zones) {
+            return this.network == network && this.zones.equals(zones);
+        }
+    }
+
+    /** Network snapshot, compared by identity, and flood zones an overlay is computed for. */
+    private record OverlayKey(RoadNetwork network, List<FloodZone> zones) {
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof OverlayKey key && key.network == network && key.zones.equals(zones);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * System.identityHashCode(network) + zones.hashCode();
+        }
+    }
+}
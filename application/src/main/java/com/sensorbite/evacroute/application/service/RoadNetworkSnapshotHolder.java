@@ -0,0 +1,57 @@
+package com.sensorbite.evacroute.application.service;
+
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import com.sensorbite.evacroute.domain.port.out.RoadNetworkRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the road network snapshot shared by all route requests.
+ *
+ * <p>The network is loaded once (eagerly at startup or lazily on first use) and
+ * then served read-only to every caller. {@link #reload()} builds a complete new
+ * snapshot before publishing it, so in-flight requests keep working on the
+ * previous network and never observe a half-loaded one.</p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class RoadNetworkSnapshotHolder {
+
+    private final RoadNetworkRepository roadNetworkRepository;
+    private final AtomicReference<RoadNetwork> snapshot = new AtomicReference<>();
+    private final Object loadLock = new Object();
+
+    /**
+     * Returns the current snapshot, loading it first if nothing has been loaded yet.
+     *
+     * @return shared read-only road network
+     */
+    public RoadNetwork current() {
+        RoadNetwork network = snapshot.get();
+        if (network != null) {
+            return network;
+        }
+        synchronized (loadLock) {
+            network = snapshot.get();
+            return network != null ? network : reload();
+        }
+    }
+
+    /**
+     * Loads a fresh network from the repository and atomically swaps it in.
+     *
+     * @return the newly published snapshot
+     */
+    public RoadNetwork reload() {
+        RoadNetwork network = roadNetworkRepository.load();
+        if (network == null) {
+            throw new IllegalStateException("Road network repository returned no network");
+        }
+        RoadNetwork previous = snapshot.getAndSet(network);
+        log.info("[SNAPSHOT] Published road network snapshot ({} segments){}",
+                network.getSegments().size(), previous == null ? "" : ", replacing previous snapshot");
+        return network;
+    }
+}
@@ -1,26 +1,41 @@
 package com.sensorbite.evacroute.application.service;
 
+import com.sensorbite.evacroute.application.dto.DistanceMatrixRequest;
+import com.sensorbite.evacroute.application.dto.DistanceMatrixResponse;
+import com.sensorbite.evacroute.application.dto.DistanceResponse;
+import com.sensorbite.evacroute.application.dto.ReachabilityResponse;
 import com.sensorbite.evacroute.application.dto.RouteRequest;
 import com.sensorbite.evacroute.application.dto.RouteResponse;
+import com.sensorbite.evacroute.application.dto.ShelterRouteResponse;
 import com.sensorbite.evacroute.application.mapper.RouteMapper;
+import com.sensorbite.evacroute.domain.exception.RouteNotFoundException;
 import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.DistanceMatrix;
 import com.sensorbite.evacroute.domain.model.FloodZone;
+import com.sensorbite.evacroute.domain.model.Reachability;
 import com.sensorbite.evacroute.domain.model.RoadNetwork;
 import com.sensorbite.evacroute.domain.model.Route;
+import com.sensorbite.evacroute.domain.model.RouteDistance;
+import com.sensorbite.evacroute.domain.model.SearchAlgorithm;
+import com.sensorbite.evacroute.domain.model.ShelterRoute;
+import com.sensorbite.evacroute.domain.port.in.CalculateDistanceUseCase;
+import com.sensorbite.evacroute.domain.port.in.CalculateReachabilityUseCase;
 import com.sensorbite.evacroute.domain.port.in.CalculateRouteUseCase;
+import com.sensorbite.evacroute.domain.port.in.FindNearestShelterUseCase;
 import com.sensorbite.evacroute.domain.port.out.FloodZoneRepository;
-import com.sensorbite.evacroute.domain.port.out.HazardDetectionPort;
-import com.sensorbite.evacroute.domain.port.out.RoadNetworkRepository;
 import com.sensorbite.evacroute.domain.service.RouteCalculationService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Instant;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Slf4j
 @RequiredArgsConstructor
-public class RouteApplicationService implements CalculateRouteUseCase {
+public class RouteApplicationService
+        implements CalculateRouteUseCase, CalculateDistanceUseCase, FindNearestShelterUseCase,
+        CalculateReachabilityUseCase {
 
     /**
      * Maximum allowed straight-line distance between start and end coordinates.
@@ -38,9 +53,30 @@ public class RouteApplicationService implements CalculateRouteUseCase {
      */
     private static final int MAX_ROUTE_DISTANCE_KM = 200;
 
-    private final RoadNetworkRepository roadNetworkRepository;
+    /**
+     * Maximum number of cells (sources x targets) in one distance matrix request.
+     *
+     * <p>Value: 250,000 cells, e.g. 5,000 blocks x 50 shelters. Keeps the
+     * response body and per-request memory bounded.</p>
+     */
+    private static final int MAX_MATRIX_CELLS = 250_000;
+
+    /**
+     * Maximum distance budget of one reachability request.
+     *
+     * <p>Value: 20,000 meters (20 km)</p>
+     *
+     * <p>Rationale: Reachability drives interactive map layers around a point;
+     * the search and the returned geometry grow with the covered area, so the
+     * budget is kept to walking and short driving distances.</p>
+     */
+    private static final double MAX_REACHABILITY_DISTANCE_METERS = 20_000.0;
+
+    private final RoadNetworkSnapshotHolder roadNetworkSnapshotHolder;
     private final FloodZoneRepository floodZoneRepository;
-    private final HazardDetectionPort hazardDetectionPort;
+    private final HazardOverlayHolder hazardOverlayHolder;
+    private final ShelterRegistry shelterRegistry;
+    private final RouteCache routeCache;
     private final RouteCalculationService routeCalculationService;
     private final RouteMapper routeMapper;
 
@@ -50,29 +86,155 @@ public class RouteApplicationService implements CalculateRouteUseCase {
         Coordinate start = routeMapper.parseCoordinate(request.start());
         Coordinate end = routeMapper.parseCoordinate(request.end());
 
-        validateDistance(start, end);
-
-        RoadNetwork network = roadNetworkRepository.load();
-        List<FloodZone> floodZones = floodZoneRepository.loadActiveAt(Instant.now());
+        SearchAlgorithm algorithm = request.algorithm() == null || request.algorithm().isBlank()
+                ? null
+                : SearchAlgorithm.fromName(request.algorithm());
 
-        network.applyFloodZones(floodZones, hazardDetectionPort);
+        validateDistance(start, end);
 
-        Route route = routeCalculationService.calculateRoute(network, start, end);
+        Route route = calculateRoute(start, end, algorithm);
 
-        log.info("Route calculated: {} meters, {} segments, safety score: {}",
+        log.info("Route calculated: {} meters, {} segments, safety score: {}, {} settled {} nodes",
                 route.getMetadata().distanceMeters(),
                 route.getSegments().size(),
-                route.getMetadata().safetyScore());
+                route.getMetadata().safetyScore(),
+                route.getMetadata().algorithm(),
+                route.getMetadata().settledNodes());
 
         return routeMapper.toResponse(route);
     }
 
     @Override
     public Route calculateRoute(Coordinate start, Coordinate end) {
-        RoadNetwork network = roadNetworkRepository.load();
+        return calculateRoute(start, end, null);
+    }
+
+    /**
+     * Snaps both coordinates to road nodes and serves the route from the route
+     * cache when the same nodes were routed with the same algorithm against the
+     * current hazard overlay. Concurrent requests for the same nodes share a
+     * single search. A route not searched for by this call carries the time it
+     * was served and the time serving it took, and no settled nodes.
+     */
+    @Override
+    public Route calculateRoute(Coordinate start, Coordinate end, SearchAlgorithm algorithm) {
+        RoadNetwork network = currentNetwork();
+        int startNode = routeCalculationService.snapToNode(network, start);
+        if (startNode < 0) {
+            throw new RouteNotFoundException("No road network near start coordinate");
+        }
+        int endNode = routeCalculationService.snapToNode(network, end);
+        if (endNode < 0) {
+            throw new RouteNotFoundException("No road network near end coordinate");
+        }
+
+        SearchAlgorithm effectiveAlgorithm = algorithm != null
+                ? algorithm
+                : routeCalculationService.getDefaultAlgorithm();
+        RouteCache.Key key = new RouteCache.Key(network.getHazards().version(), startNode, endNode,
+                effectiveAlgorithm);
+        long startTime = System.currentTimeMillis();
+        AtomicBoolean searched = new AtomicBoolean();
+        Route route = routeCache.getOrCalculate(key, () -> {
+            searched.set(true);
+            return routeCalculationService.calculateRoute(network, startNode, endNode, effectiveAlgorithm);
+        });
+        if (searched.get()) {
+            return route;
+        }
+        return new Route(route.getSegments(),
+                route.getMetadata().servedAgain(Instant.now(), System.currentTimeMillis() - startTime));
+    }
+
+    public ShelterRouteResponse findRouteToNearestShelter(String start) {
+        log.info("Finding route from {} to the nearest shelter", start);
+
+        ShelterRoute shelterRoute = findRouteToNearestShelter(routeMapper.parseCoordinate(start));
+
+        log.info("Nearest shelter {}: {} meters, safety score: {}",
+                shelterRoute.shelter().id(),
+                shelterRoute.route().getMetadata().distanceMeters(),
+                shelterRoute.route().getMetadata().safetyScore());
+
+        return routeMapper.toShelterRouteResponse(shelterRoute);
+    }
+
+    @Override
+    public ShelterRoute findRouteToNearestShelter(Coordinate start) {
+        return routeCalculationService.calculateRouteToNearestShelter(
+                currentNetwork(), start, shelterRegistry.current());
+    }
+
+    public DistanceResponse calculateDistance(RouteRequest request) {
+        Coordinate start = routeMapper.parseCoordinate(request.start());
+        Coordinate end = routeMapper.parseCoordinate(request.end());
+
+        validateDistance(start, end);
+
+        RouteDistance distance = calculateDistance(start, end);
+
+        log.debug("Distance from {} to {}: {} meters, crosses hazards: {}",
+                request.start(), request.end(), distance.distanceMeters(), distance.crossesHazards());
+
+        return routeMapper.toDistanceResponse(distance);
+    }
+
+    @Override
+    public RouteDistance calculateDistance(Coordinate start, Coordinate end) {
+        return routeCalculationService.calculateDistance(currentNetwork(), start, end);
+    }
+
+    public DistanceMatrixResponse calculateDistanceMatrix(DistanceMatrixRequest request) {
+        long cells = (long) request.sources().size() * request.targets().size();
+        if (cells > MAX_MATRIX_CELLS) {
+            throw new IllegalArgumentException(
+                    String.format("Distance matrix exceeds maximum of %d cells (%d requested)",
+                        MAX_MATRIX_CELLS, cells)
+            );
+        }
+        log.info("Calculating {}x{} distance matrix", request.sources().size(), request.targets().size());
+
+        List<Coordinate> sources = request.sources().stream().map(routeMapper::parseCoordinate).toList();
+        List<Coordinate> targets = request.targets().stream().map(routeMapper::parseCoordinate).toList();
+
+        DistanceMatrix matrix = calculateDistanceMatrix(sources, targets);
+
+        log.info("Distance matrix calculated in {} ms", matrix.computationTimeMs());
+
+        return routeMapper.toDistanceMatrixResponse(matrix);
+    }
+
+    @Override
+    public DistanceMatrix calculateDistanceMatrix(List<Coordinate> sources, List<Coordinate> targets) {
+        return routeCalculationService.calculateDistanceMatrix(currentNetwork(), sources, targets);
+    }
+
+    public ReachabilityResponse calculateReachability(String start, double maxDistanceMeters) {
+        if (!(maxDistanceMeters > 0) || maxDistanceMeters > MAX_REACHABILITY_DISTANCE_METERS) {
+            throw new IllegalArgumentException(
+                    String.format("Maximum distance must be greater than 0 and at most %.0f meters (%.1f requested)",
+                        MAX_REACHABILITY_DISTANCE_METERS, maxDistanceMeters)
+            );
+        }
+
+        Reachability reachability = calculateReachability(routeMapper.parseCoordinate(start), maxDistanceMeters);
+
+        log.debug("Reachability from {} within {} meters: {} nodes, {} lines in {} ms",
+                start, maxDistanceMeters, reachability.reachedNodes(), reachability.lines().size(),
+                reachability.computationTimeMs());
+
+        return routeMapper.toReachabilityResponse(reachability);
+    }
+
+    @Override
+    public Reachability calculateReachability(Coordinate start, double maxDistanceMeters) {
+        return routeCalculationService.calculateReachability(currentNetwork(), start, maxDistanceMeters);
+    }
+
+    private RoadNetwork currentNetwork() {
         List<FloodZone> floodZones = floodZoneRepository.loadActiveAt(Instant.now());
-        network.applyFloodZones(floodZones, hazardDetectionPort);
-        return routeCalculationService.calculateRoute(network, start, end);
+        RoadNetwork baseNetwork = roadNetworkSnapshotHolder.current();
+        return baseNetwork.withHazards(hazardOverlayHolder.overlayFor(baseNetwork, floodZones));
     }
 
     private void validateDistance(Coordinate start, Coordinate end) {
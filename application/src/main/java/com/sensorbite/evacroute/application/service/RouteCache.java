@@ -0,0 +1,233 @@
+package com.sensorbite.evacroute.application.service;
+
+import com.sensorbite.evacroute.domain.model.Route;
+import com.sensorbite.evacroute.domain.model.SearchAlgorithm;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of calculated routes, keyed by snapped road nodes.
+ *
+ * <p>During an incident the same start and end points (hospital to shelter,
+ * school to shelter) are requested over and over; they snap to the same road
+ * nodes, so one search serves all of them. Keys carry the hazard overlay
+ * version, which changes whenever the road network or the active flood zones
+ * do, so a route is never served for data it was not calculated on. Seeing a
+ * newer version drops all entries of older ones.</p>
+ *
+ * <p>Entries expire a fixed time after they were stored and the least recently
+ * used entry is evicted once the cache is full. Hits, misses and evictions are
+ * counted for monitoring.</p>
+ *
+ * <p>{@link #getOrCalculate(Key, Supplier)} also coalesces concurrent misses:
+ * when an alert makes hundreds of clients ask for the same route at once, only
+ * the first runs the search and the others wait for its result.</p>
+ */
+@Slf4j
+public class RouteCache {
+
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier nanoClock;
+    private final Map<Key, Entry> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final Map<Key, CompletableFuture<Route>> inFlight = new ConcurrentHashMap<>();
+    private long newestVersion = Long.MIN_VALUE;
+
+    /**
+     * @param maxSize maximum number of cached routes; 0 disables caching
+     * @param ttl time after which a cached route is recalculated
+     */
+    public RouteCache(int maxSize, Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    /**
+     * @param maxSize maximum number of cached routes; 0 disables caching
+     * @param ttl time after which a cached route is recalculated
+     * @param nanoClock monotonic time source in nanoseconds
+     */
+    public RouteCache(int maxSize, Duration ttl, LongSupplier nanoClock) {
+        if (maxSize < 0) {
+            throw new IllegalArgumentException("Route cache size cannot be negative");
+        }
+        if (ttl.isNegative()) {
+            throw new IllegalArgumentException("Route cache TTL cannot be negative");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.nanoClock = nanoClock;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                if (size() > RouteCache.this.maxSize) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached route for a key, if present and not expired.
+     *
+     * @param key snapped request
+     * @return cached route, or {@code null} on a miss
+     */
+    public Route get(Key key) {
+        long now = nanoClock.getAsLong();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            if (entry != null && now - entry.storedAt() < ttlNanos) {
+                hits.increment();
+                return entry.route();
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Returns the cached route for a key, calculating it on a miss.
+     *
+     * <p>Concurrent misses for the same key share one calculation: the first
+     * caller runs it and stores the route, later callers block until it is done
+     * and receive the same route, or the same exception if it failed. Failures
+     * are not cached.</p>
+     *
+     * @param key snapped request
+     * @param calculation calculates the route for the key
+     * @return cached or newly calculated route
+     */
+    public Route getOrCalculate(Key key, Supplier<Route> calculation) {
+        Route cached = get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        CompletableFuture<Route> pending = new CompletableFuture<>();
+        CompletableFuture<Route> leader = inFlight.putIfAbsent(key, pending);
+        if (leader != null) {
+            coalesced.increment();
+            return await(leader);
+        }
+        try {
+            Route route = lookup(key);
+            if (route == null) {
+                route = calculation.get();
+                put(key, route);
+            }
+            pending.complete(route);
+            return route;
+        } catch (RuntimeException e) {
+            pending.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, pending);
+        }
+    }
+
+    private static Route await(CompletableFuture<Route> leader) {
+        try {
+            return leader.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /** Cache lookup without touching the statistics, for a leader that lost a race with a store. */
+    private Route lookup(Key key) {
+        long now = nanoClock.getAsLong();
+        synchronized (entries) {
+            Entry entry = entries.get(key);
+            return entry != null && now - entry.storedAt() < ttlNanos ? entry.route() : null;
+        }
+    }
+
+    /**
+     * Stores a calculated route, evicting the least recently used route if the
+     * cache is full. Routes for an overlay version older than one already seen
+     * are not stored.
+     *
+     * @param key snapped request
+     * @param route route calculated for the key
+     */
+    public void put(Key key, Route route) {
+        if (maxSize == 0) {
+            return;
+        }
+        long now = nanoClock.getAsLong();
+        synchronized (entries) {
+            if (key.hazardVersion() > newestVersion) {
+                if (!entries.isEmpty()) {
+                    log.debug("[CACHE] Hazard overlay v{} published, dropping {} cached routes",
+                            key.hazardVersion(), entries.size());
+                    evictions.add(entries.size());
+                    entries.clear();
+                }
+                newestVersion = key.hazardVersion();
+            } else if (key.hazardVersion() < newestVersion) {
+                return;
+            }
+            entries.put(key, new Entry(route, now));
+        }
+    }
+
+    /** Number of cached routes, including expired ones not yet evicted. */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    public long missCount() {
+        return misses.sum();
+    }
+
+    public long evictionCount() {
+        return evictions.sum();
+    }
+
+    /** Number of misses that waited for a calculation already in flight instead of running their own. */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * Cache key of a route request.
+     *
+     * @param hazardVersion version of the hazard overlay the route is calculated against
+     * @param startNode compact graph node the start coordinate snapped to
+     * @param endNode compact graph node the end coordinate snapped to
+     * @param algorithm search algorithm the route is calculated with, the configured default if none was requested
+     */
+    public record Key(long hazardVersion, int startNode, int endNode, SearchAlgorithm algorithm) {
+    }
+
+    private record Entry(Route route, long storedAt) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.sensorbite.evacroute.application.service;
+
+import com.sensorbite.evacroute.domain.model.Shelter;
+import com.sensorbite.evacroute.domain.port.out.ShelterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the set of registered shelters shared by all nearest-shelter requests.
+ *
+ * <p>Shelters change far less often than flood zones, so they are loaded once
+ * on first use rather than per request. {@link #reload()} swaps in a complete
+ * new set atomically.</p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ShelterRegistry {
+
+    private final ShelterRepository shelterRepository;
+    private final AtomicReference<List<Shelter>> shelters = new AtomicReference<>();
+    private final Object loadLock = new Object();
+
+    /**
+     * Returns the registered shelters, loading them first if nothing has been loaded yet.
+     *
+     * @return immutable list of shelters
+     */
+    public List<Shelter> current() {
+        List<Shelter> registered = shelters.get();
+        if (registered != null) {
+            return registered;
+        }
+        synchronized (loadLock) {
+            registered = shelters.get();
+            return registered != null ? registered : reload();
+        }
+    }
+
+    /**
+     * Loads the shelters from the repository and atomically swaps them in.
+     *
+     * @return the newly registered shelters
+     */
+    public List<Shelter> reload() {
+        List<Shelter> registered = List.copyOf(shelterRepository.loadAll());
+        shelters.set(registered);
+        log.info("[SHELTERS] Registered {} shelters", registered.size());
+        return registered;
+    }
+}
@@ -0,0 +1,131 @@
+package com.sensorbite.evacroute.application.service;
+
+import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.FloodZone;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import com.sensorbite.evacroute.domain.model.RoadSegment;
+import com.sensorbite.evacroute.domain.port.out.HazardDetectionPort;
+import com.sensorbite.evacroute.domain.service.GraphBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("HazardOverlayHolder")
+class HazardOverlayHolderTest {
+
+    private final RoadNetwork network = createNetwork();
+    private final FloodZone olderZone = createZone("older");
+    private final FloodZone newerZone = createZone("newer");
+
+    @Test
+    @DisplayName("should reuse the overlay while network and zones are unchanged")
+    void shouldReuseOverlayWhileUnchanged() {
+        AtomicInteger detections = new AtomicInteger();
+        HazardOverlayHolder holder = new HazardOverlayHolder((segments, zones) -> {
+            detections.incrementAndGet();
+            return Set.of("seg1");
+        });
+
+        HazardOverlay first = holder.overlayFor(network, List.of(olderZone));
+        HazardOverlay second = holder.overlayFor(network, List.of(olderZone));
+
+        assertThat(second).isSameAs(first);
+        assertThat(first.hazardousCount()).isEqualTo(1);
+        assertThat(detections).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("should run one detection for concurrent requests after the zones change")
+    void shouldCoalesceConcurrentRecomputations() throws Exception {
+        CountDownLatch detectionStarted = new CountDownLatch(1);
+        CountDownLatch releaseDetection = new CountDownLatch(1);
+        AtomicInteger detections = new AtomicInteger();
+        HazardOverlayHolder holder = new HazardOverlayHolder((segments, zones) -> {
+            detections.incrementAndGet();
+            detectionStarted.countDown();
+            await(releaseDetection);
+            return Set.of("seg1");
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<CompletableFuture<HazardOverlay>> requests = IntStream.range(0, 8)
+                    .mapToObj(i -> CompletableFuture.supplyAsync(
+                            () -> holder.overlayFor(network, List.of(newerZone)), executor))
+                    .toList();
+            assertThat(detectionStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(200);
+            releaseDetection.countDown();
+
+            HazardOverlay first = requests.get(0).get(5, TimeUnit.SECONDS);
+            for (CompletableFuture<HazardOverlay> request : requests) {
+                assertThat(request.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            }
+            assertThat(detections).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("should not let a slow recomputation for older zones replace a newer overlay")
+    void shouldKeepNewerOverlayWhenOlderRecomputationFinishesLast() throws Exception {
+        CountDownLatch olderStarted = new CountDownLatch(1);
+        CountDownLatch releaseOlder = new CountDownLatch(1);
+        AtomicInteger detections = new AtomicInteger();
+        HazardDetectionPort port = (segments, zones) -> {
+            detections.incrementAndGet();
+            if (zones.contains(olderZone)) {
+                olderStarted.countDown();
+                await(releaseOlder);
+            }
+            return Set.of();
+        };
+        HazardOverlayHolder holder = new HazardOverlayHolder(port);
+
+        CompletableFuture<HazardOverlay> older =
+                CompletableFuture.supplyAsync(() -> holder.overlayFor(network, List.of(olderZone)));
+        assertThat(olderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        HazardOverlay newer = holder.overlayFor(network, List.of(newerZone));
+        releaseOlder.countDown();
+
+        assertThat(older.get(5, TimeUnit.SECONDS).version()).isLessThan(newer.version());
+        assertThat(holder.overlayFor(network, List.of(newerZone))).isSameAs(newer);
+        assertThat(detections).hasValue(2);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static RoadNetwork createNetwork() {
+        List<RoadSegment> segments = List.of(
+                new RoadSegment("seg1", List.of(new Coordinate(52.0, 21.0), new Coordinate(52.1, 21.1)), false),
+                new RoadSegment("seg2", List.of(new Coordinate(52.1, 21.1), new Coordinate(52.2, 21.2)), false));
+        return new RoadNetwork(segments, new GraphBuilder().buildGraph(segments));
+    }
+
+    private static FloodZone createZone(String id) {
+        return new FloodZone(id, List.of(List.of(
+                new Coordinate(52.05, 21.05),
+                new Coordinate(52.06, 21.05),
+                new Coordinate(52.06, 21.06),
+                new Coordinate(52.05, 21.05))), null, null);
+    }
+}
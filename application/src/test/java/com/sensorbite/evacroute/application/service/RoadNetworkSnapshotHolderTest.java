@@ -0,0 +1,89 @@
+package com.sensorbite.evacroute.application.service;
+
+import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.Graph;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import com.sensorbite.evacroute.domain.model.RoadSegment;
+import com.sensorbite.evacroute.domain.port.out.RoadNetworkRepository;
+import com.sensorbite.evacroute.domain.service.GraphBuilder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RoadNetworkSnapshotHolder")
+class RoadNetworkSnapshotHolderTest {
+
+    @Mock
+    private RoadNetworkRepository roadNetworkRepository;
+
+    private RoadNetworkSnapshotHolder holder;
+
+    @BeforeEach
+    void setUp() {
+        holder = new RoadNetworkSnapshotHolder(roadNetworkRepository);
+    }
+
+    @Test
+    @DisplayName("should load lazily on first access and reuse snapshot afterwards")
+    void shouldLoadLazilyAndReuseSnapshot() {
+        RoadNetwork network = createNetwork("seg1");
+        when(roadNetworkRepository.load()).thenReturn(network);
+
+        RoadNetwork first = holder.current();
+        RoadNetwork second = holder.current();
+
+        assertThat(first).isSameAs(network);
+        assertThat(second).isSameAs(network);
+        verify(roadNetworkRepository, times(1)).load();
+    }
+
+    @Test
+    @DisplayName("should swap to new snapshot on reload")
+    void shouldSwapToNewSnapshotOnReload() {
+        RoadNetwork initial = createNetwork("seg1");
+        RoadNetwork reloaded = createNetwork("seg2");
+        when(roadNetworkRepository.load()).thenReturn(initial, reloaded);
+
+        assertThat(holder.current()).isSameAs(initial);
+
+        holder.reload();
+
+        assertThat(holder.current()).isSameAs(reloaded);
+    }
+
+    @Test
+    @DisplayName("should reject missing network and keep previous snapshot")
+    void shouldRejectMissingNetworkAndKeepPreviousSnapshot() {
+        RoadNetwork initial = createNetwork("seg1");
+        when(roadNetworkRepository.load()).thenReturn(initial, (RoadNetwork) null);
+
+        holder.current();
+
+        assertThatThrownBy(() -> holder.reload())
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(holder.current()).isSameAs(initial);
+    }
+
+    private RoadNetwork createNetwork(String segmentId) {
+        List<RoadSegment> segments = List.of(
+                new RoadSegment(segmentId, List.of(
+                        new Coordinate(52.0, 21.0),
+                        new Coordinate(52.1, 21.1)
+                ), false)
+        );
+        Graph graph = new GraphBuilder().buildGraph(segments);
+        return new RoadNetwork(segments, graph);
+    }
+}
@@ -1,7 +1,12 @@
 package com.sensorbite.evacroute.application.service;
 
+import com.sensorbite.evacroute.application.dto.DistanceMatrixRequest;
+import com.sensorbite.evacroute.application.dto.DistanceMatrixResponse;
+import com.sensorbite.evacroute.application.dto.DistanceResponse;
+import com.sensorbite.evacroute.application.dto.ReachabilityResponse;
 import com.sensorbite.evacroute.application.dto.RouteRequest;
 import com.sensorbite.evacroute.application.dto.RouteResponse;
+import com.sensorbite.evacroute.application.dto.ShelterRouteResponse;
 import com.sensorbite.evacroute.application.mapper.RouteMapper;
 import com.sensorbite.evacroute.domain.model.Coordinate;
 import com.sensorbite.evacroute.domain.model.FloodZone;
@@ -10,9 +15,12 @@ import com.sensorbite.evacroute.domain.model.RoadNetwork;
 import com.sensorbite.evacroute.domain.model.RoadSegment;
 import com.sensorbite.evacroute.domain.model.Route;
 import com.sensorbite.evacroute.domain.model.RouteMetadata;
+import com.sensorbite.evacroute.domain.model.SearchAlgorithm;
+import com.sensorbite.evacroute.domain.model.Shelter;
 import com.sensorbite.evacroute.domain.port.out.FloodZoneRepository;
 import com.sensorbite.evacroute.domain.port.out.HazardDetectionPort;
 import com.sensorbite.evacroute.domain.port.out.RoadNetworkRepository;
+import com.sensorbite.evacroute.domain.port.out.ShelterRepository;
 import com.sensorbite.evacroute.domain.service.GraphBuilder;
 import com.sensorbite.evacroute.domain.service.RouteCalculationService;
 import org.junit.jupiter.api.BeforeEach;
@@ -26,12 +34,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
 
+import java.time.Duration;
 import java.time.Instant;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
@@ -53,6 +64,9 @@ class RouteApplicationServiceTest {
     @Mock
     private HazardDetectionPort hazardDetectionPort;
 
+    @Mock
+    private ShelterRepository shelterRepository;
+
     private RouteApplicationService service;
     private RouteMapper routeMapper;
     private RouteCalculationService routeCalculationService;
@@ -62,9 +76,11 @@ class RouteApplicationServiceTest {
         routeMapper = Mappers.getMapper(RouteMapper.class);
         routeCalculationService = new RouteCalculationService();
         service = new RouteApplicationService(
-                roadNetworkRepository,
+                new RoadNetworkSnapshotHolder(roadNetworkRepository),
                 floodZoneRepository,
-                hazardDetectionPort,
+                new HazardOverlayHolder(hazardDetectionPort),
+                new ShelterRegistry(shelterRepository),
+                new RouteCache(100, Duration.ofMinutes(10)),
                 routeCalculationService,
                 routeMapper
         );
@@ -109,6 +125,134 @@ class RouteApplicationServiceTest {
             assertThat(response).isNotNull();
             verify(hazardDetectionPort).detectHazardousSegments(any(), any());
         }
+
+        @Test
+        @DisplayName("should load road network once and reuse snapshot across requests")
+        void shouldLoadRoadNetworkOnceAcrossRequests() {
+            RouteRequest request = new RouteRequest("52.0,21.0", "52.2,21.2");
+            RoadNetwork network = createTestNetwork();
+
+            when(roadNetworkRepository.load()).thenReturn(network);
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of());
+
+            service.calculateRoute(request);
+            service.calculateRoute(request);
+            service.calculateRoute(request);
+
+            verify(roadNetworkRepository, times(1)).load();
+            verify(floodZoneRepository, times(3)).loadActiveAt(any(Instant.class));
+        }
+
+        @Test
+        @DisplayName("should not mutate shared network when applying flood zones")
+        void shouldNotMutateSharedNetworkWhenApplyingFloodZones() {
+            RouteRequest request = new RouteRequest("52.0,21.0", "52.2,21.2");
+            RoadNetwork network = createTestNetwork();
+
+            when(roadNetworkRepository.load()).thenReturn(network);
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of(createTestFloodZone()));
+            when(hazardDetectionPort.detectHazardousSegments(any(), any())).thenReturn(Set.of("seg1"));
+
+            RouteResponse response = service.calculateRoute(request);
+
+            assertThat(response.properties().hazardousSegmentsAvoided()).isEqualTo(1);
+            assertThat(network.getSegments()).noneMatch(RoadSegment::isHazardous);
+            assertThat(network.getHazards().hazardousCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("should reuse hazard overlay while flood zones are unchanged")
+        void shouldReuseHazardOverlayWhileFloodZonesUnchanged() {
+            RouteRequest request = new RouteRequest("52.0,21.0", "52.2,21.2");
+            FloodZone zone = createTestFloodZone();
+
+            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            when(floodZoneRepository.loadActiveAt(any(Instant.class)))
+                    .thenReturn(List.of(zone), List.of(zone), List.of());
+            when(hazardDetectionPort.detectHazardousSegments(any(), any())).thenReturn(Set.of("seg1"));
+
+            service.calculateRoute(request);
+            service.calculateRoute(request);
+            verify(hazardDetectionPort, times(1)).detectHazardousSegments(any(), any());
+
+            service.calculateRoute(request);
+            verify(hazardDetectionPort, times(2)).detectHazardousSegments(any(), any());
+        }
+
+        @Test
+        @DisplayName("should reclassify only segments near a changed flood zone")
+        void shouldReclassifyOnlySegmentsNearChangedFloodZone() {
+            RouteRequest request = new RouteRequest("52.0,21.0", "52.2,21.2");
+            RoadNetwork network = createTestNetwork();
+            FloodZone zone = createTestFloodZone();
+
+            when(roadNetworkRepository.load()).thenReturn(network);
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of(), List.of(zone));
+            when(hazardDetectionPort.detectHazardousSegments(any(), any())).thenReturn(Set.of(), Set.of("seg1"));
+
+            service.calculateRoute(request);
+            RouteResponse response = service.calculateRoute(request);
+
+            verify(hazardDetectionPort).detectHazardousSegments(List.copyOf(network.getSegments()), List.of());
+            verify(hazardDetectionPort).detectHazardousSegments(List.of(network.segmentAt(0)), List.of(zone));
+            assertThat(response.properties().hazardousSegmentsAvoided()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Search algorithm selection")
+    class SearchAlgorithmSelectionTests {
+
+        @Test
+        @DisplayName("should use requested algorithm and report settled nodes")
+        void shouldUseRequestedAlgorithm() {
+            RouteRequest request = new RouteRequest("52.0,21.0", "52.2,21.2", "astar");
+            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of());
+
+            RouteResponse response = service.calculateRoute(request);
+
+            assertThat(response.properties().algorithm()).isEqualTo("astar");
+            assertThat(response.properties().settledNodes()).isPositive();
+        }
+
+        @Test
+        @DisplayName("should fall back to configured algorithm when none is requested")
+        void shouldFallBackToConfiguredAlgorithm() {
+            RouteRequest request = new RouteRequest("52.0,21.0", "52.2,21.2");
+            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of());
+
+            RouteResponse response = service.calculateRoute(request);
+
+            assertThat(response.properties().algorithm()).isEqualTo("dijkstra");
+        }
+
+        @Test
+        @DisplayName("should serve the configured algorithm's cached route when none is requested")
+        void shouldShareCacheEntriesWithConfiguredAlgorithm() {
+            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of());
+            Coordinate start = new Coordinate(52.0, 21.0);
+            Coordinate end = new Coordinate(52.2, 21.2);
+
+            Route searched = service.calculateRoute(start, end, SearchAlgorithm.DIJKSTRA);
+            Route cached = service.calculateRoute(start, end, null);
+
+            assertThat(searched.getMetadata().settledNodes()).isPositive();
+            assertThat(cached.getMetadata().settledNodes()).isZero();
+            assertThat(cached.getSegments()).isEqualTo(searched.getSegments());
+        }
+
+        @Test
+        @DisplayName("should reject unknown algorithm")
+        void shouldRejectUnknownAlgorithm() {
+            RouteRequest request = new RouteRequest("52.0,21.0", "52.2,21.2", "teleport");
+
+            assertThatThrownBy(() -> service.calculateRoute(request))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Unknown search algorithm");
+        }
     }
 
     @Nested
@@ -152,6 +296,152 @@ class RouteApplicationServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Distance lookup")
+    class DistanceLookupTests {
+
+        @Test
+        @DisplayName("should return network distance matching the route length")
+        void shouldReturnDistanceMatchingRouteLength() {
+            RouteRequest request = new RouteRequest("52.0,21.0", "52.2,21.2");
+            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of());
+
+            DistanceResponse distance = service.calculateDistance(request);
+            RouteResponse route = service.calculateRoute(request);
+
+            assertThat(distance.distanceMeters()).isCloseTo(route.properties().distanceMeters(), within(1e-6));
+            assertThat(distance.crossesHazards()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should flag distances that cross flooded segments")
+        void shouldFlagHazardousDistance() {
+            RouteRequest request = new RouteRequest("52.0,21.0", "52.2,21.2");
+            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of(createTestFloodZone()));
+            when(hazardDetectionPort.detectHazardousSegments(any(), any())).thenReturn(Set.of("seg1"));
+
+            DistanceResponse distance = service.calculateDistance(request);
+
+            assertThat(distance.crossesHazards()).isTrue();
+        }
+
+        @Test
+        @DisplayName("should validate distance before loading data")
+        void shouldValidateDistanceBeforeLoadingData() {
+            RouteRequest request = new RouteRequest("0.0,0.0", "89.0,179.0");
+
+            assertThatThrownBy(() -> service.calculateDistance(request))
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            verify(roadNetworkRepository, times(0)).load();
+        }
+    }
+
+    @Nested
+    @DisplayName("Distance matrix")
+    class DistanceMatrixTests {
+
+        @Test
+        @DisplayName("should return one row per source and one column per target")
+        void shouldReturnMatrixShapedByRequest() {
+            DistanceMatrixRequest request = new DistanceMatrixRequest(
+                    List.of("52.0,21.0", "52.1,21.1"), List.of("52.2,21.2"));
+            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of());
+
+            DistanceMatrixResponse response = service.calculateDistanceMatrix(request);
+
+            assertThat(response.distancesMeters()).hasSize(2);
+            assertThat(response.distancesMeters()).allSatisfy(row -> assertThat(row).hasSize(1));
+            assertThat(response.distancesMeters().get(0).get(0))
+                    .isGreaterThan(response.distancesMeters().get(1).get(0));
+            assertThat(response.crossesHazards().get(0).get(0)).isFalse();
+        }
+
+        @Test
+        @DisplayName("should reject matrices exceeding the maximum cell count")
+        void shouldRejectOversizedMatrix() {
+            List<String> points = Collections.nCopies(1_000, "52.0,21.0");
+            DistanceMatrixRequest request = new DistanceMatrixRequest(points, points);
+
+            assertThatThrownBy(() -> service.calculateDistanceMatrix(request))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("exceeds maximum");
+
+            verify(roadNetworkRepository, times(0)).load();
+        }
+    }
+
+    @Nested
+    @DisplayName("Nearest shelter")
+    class NearestShelterTests {
+
+        @Test
+        @DisplayName("should route to the nearest registered shelter")
+        void shouldRouteToNearestShelter() {
+            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of());
+            when(shelterRepository.loadAll()).thenReturn(List.of(
+                    new Shelter("far", "Far shelter", new Coordinate(52.2, 21.2)),
+                    new Shelter("near", "Near shelter", new Coordinate(52.1, 21.1))));
+
+            ShelterRouteResponse response = service.findRouteToNearestShelter("52.0,21.0");
+
+            assertThat(response.shelter().id()).isEqualTo("near");
+            assertThat(response.shelter().coordinates()).containsExactly(21.1, 52.1);
+            assertThat(response.route().geometry().coordinates()).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("should load registered shelters once across requests")
+        void shouldLoadSheltersOnce() {
+            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of());
+            when(shelterRepository.loadAll()).thenReturn(List.of(
+                    new Shelter("near", null, new Coordinate(52.1, 21.1))));
+
+            service.findRouteToNearestShelter("52.0,21.0");
+            service.findRouteToNearestShelter("52.2,21.2");
+
+            verify(shelterRepository, times(1)).loadAll();
+        }
+    }
+
+    @Nested
+    @DisplayName("Reachability")
+    class ReachabilityTests {
+
+        @Test
+        @DisplayName("should return reachable roads as a GeoJSON multi line string")
+        void shouldReturnReachableRoads() {
+            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of());
+
+            ReachabilityResponse response = service.calculateReachability("52.0,21.0", 20_000);
+
+            assertThat(response.type()).isEqualTo("Feature");
+            assertThat(response.geometry().type()).isEqualTo("MultiLineString");
+            assertThat(response.geometry().coordinates()).isNotEmpty();
+            assertThat(response.geometry().coordinates().getFirst().getFirst()).containsExactly(21.0, 52.0);
+            assertThat(response.properties().maxDistanceMeters()).isEqualTo(20_000);
+            assertThat(response.properties().reachedNodes()).isPositive();
+        }
+
+        @Test
+        @DisplayName("should reject distance budgets outside the allowed range before loading data")
+        void shouldRejectInvalidBudget() {
+            assertThatThrownBy(() -> service.calculateReachability("52.0,21.0", 0))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Maximum distance");
+            assertThatThrownBy(() -> service.calculateReachability("52.0,21.0", 50_000))
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            verify(roadNetworkRepository, times(0)).load();
+        }
+    }
+
     @Nested
     @DisplayName("Coordinate parsing")
     class CoordinateParsingTests {
@@ -187,6 +477,64 @@ class RouteApplicationServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Route caching")
+    class RouteCachingTests {
+
+        @Test
+        @DisplayName("should serve repeated requests snapping to the same nodes from the cache")
+        void shouldReuseRouteForSameSnappedNodes() {
+            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of());
+
+            Route first = service.calculateRoute(new Coordinate(52.0, 21.0), new Coordinate(52.2, 21.2));
+            Route second = service.calculateRoute(new Coordinate(52.0001, 21.0001), new Coordinate(52.2, 21.2));
+            Route other = service.calculateRoute(new Coordinate(52.0, 21.0), new Coordinate(52.1, 21.1));
+
+            assertThat(second.getSegments()).isSameAs(first.getSegments());
+            assertThat(second.getMetadata().settledNodes()).isZero();
+            assertThat(other.getMetadata().settledNodes()).isPositive();
+        }
+
+        @Test
+        @DisplayName("should stamp a cached route with the time it is served")
+        void shouldRestampCachedRoutes() {
+            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of());
+            Coordinate start = new Coordinate(52.0, 21.0);
+            Coordinate end = new Coordinate(52.2, 21.2);
+
+            Route searched = service.calculateRoute(start, end);
+            Instant beforeHit = Instant.now();
+            Route cached = service.calculateRoute(start, end);
+
+            assertThat(cached.getMetadata().timestamp()).isAfterOrEqualTo(beforeHit);
+            assertThat(cached.getMetadata().distanceMeters()).isEqualTo(searched.getMetadata().distanceMeters());
+            assertThat(cached.getMetadata().safetyScore()).isEqualTo(searched.getMetadata().safetyScore());
+            assertThat(cached.getMetadata().algorithm()).isEqualTo(SearchAlgorithm.DIJKSTRA);
+        }
+
+        @Test
+        @DisplayName("should recalculate cached routes when flood zones change")
+        void shouldRecalculateAfterFloodZonesChange() {
+            FloodZone zone = createTestFloodZone();
+            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of());
+            Coordinate start = new Coordinate(52.0, 21.0);
+            Coordinate end = new Coordinate(52.2, 21.2);
+
+            Route dry = service.calculateRoute(start, end);
+            when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of(zone));
+            when(hazardDetectionPort.detectHazardousSegments(anyList(), anyList())).thenReturn(Set.of("seg1"));
+            Route flooded = service.calculateRoute(start, end);
+
+            assertThat(flooded.getMetadata().settledNodes()).isPositive();
+            assertThat(flooded.getMetadata().hazardousSegmentsAvoided()).isEqualTo(1);
+            assertThat(dry.getMetadata().hazardousSegmentsAvoided()).isZero();
+            assertThat(service.calculateRoute(start, end).getSegments()).isSameAs(flooded.getSegments());
+        }
+    }
+
     @Nested
     @DisplayName("Direct use case interface")
     class DirectUseCaseInterfaceTests {
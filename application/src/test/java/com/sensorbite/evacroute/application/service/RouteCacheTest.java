@@ -0,0 +1,169 @@
+package com.sensorbite.evacroute.application.service;
+
+import com.sensorbite.evacroute.domain.model.Route;
+import com.sensorbite.evacroute.domain.model.RouteMetadata;
+import com.sensorbite.evacroute.domain.model.SearchAlgorithm;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RouteCache")
+class RouteCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    @DisplayName("should count hits and misses")
+    void shouldCountHitsAndMisses() {
+        RouteCache cache = new RouteCache(10, Duration.ofMinutes(1), clock::get);
+        RouteCache.Key key = new RouteCache.Key(1L, 0, 5, null);
+        Route route = emptyRoute();
+
+        assertThat(cache.get(key)).isNull();
+        cache.put(key, route);
+        assertThat(cache.get(key)).isSameAs(route);
+        assertThat(cache.get(new RouteCache.Key(1L, 0, 5, SearchAlgorithm.ASTAR))).isNull();
+
+        assertThat(cache.hitCount()).isEqualTo(1);
+        assertThat(cache.missCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should expire routes after the TTL")
+    void shouldExpireRoutes() {
+        RouteCache cache = new RouteCache(10, Duration.ofSeconds(30), clock::get);
+        RouteCache.Key key = new RouteCache.Key(1L, 0, 5, null);
+        cache.put(key, emptyRoute());
+
+        clock.addAndGet(Duration.ofSeconds(29).toNanos());
+        assertThat(cache.get(key)).isNotNull();
+        clock.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(cache.get(key)).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should evict the least recently used route when full")
+    void shouldEvictLeastRecentlyUsed() {
+        RouteCache cache = new RouteCache(2, Duration.ofMinutes(1), clock::get);
+        RouteCache.Key first = new RouteCache.Key(1L, 0, 1, null);
+        RouteCache.Key second = new RouteCache.Key(1L, 0, 2, null);
+        RouteCache.Key third = new RouteCache.Key(1L, 0, 3, null);
+        cache.put(first, emptyRoute());
+        cache.put(second, emptyRoute());
+
+        cache.get(first);
+        cache.put(third, emptyRoute());
+
+        assertThat(cache.get(first)).isNotNull();
+        assertThat(cache.get(second)).isNull();
+        assertThat(cache.get(third)).isNotNull();
+        assertThat(cache.evictionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should drop routes of older hazard versions and refuse to store them again")
+    void shouldDropOlderVersions() {
+        RouteCache cache = new RouteCache(10, Duration.ofMinutes(1), clock::get);
+        RouteCache.Key stale = new RouteCache.Key(1L, 0, 5, null);
+        RouteCache.Key fresh = new RouteCache.Key(2L, 0, 5, null);
+        cache.put(stale, emptyRoute());
+
+        cache.put(fresh, emptyRoute());
+        cache.put(stale, emptyRoute());
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.get(stale)).isNull();
+        assertThat(cache.get(fresh)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("should store nothing when disabled")
+    void shouldStoreNothingWhenDisabled() {
+        RouteCache cache = new RouteCache(0, Duration.ofMinutes(1), clock::get);
+        RouteCache.Key key = new RouteCache.Key(1L, 0, 5, null);
+
+        cache.put(key, emptyRoute());
+
+        assertThat(cache.get(key)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    @DisplayName("should run one calculation for concurrent misses on the same key")
+    void shouldCoalesceConcurrentMisses() throws Exception {
+        RouteCache cache = new RouteCache(10, Duration.ofMinutes(1), clock::get);
+        RouteCache.Key key = new RouteCache.Key(1L, 0, 5, null);
+        AtomicInteger calculations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Route>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> cache.getOrCalculate(key, () -> {
+                    calculations.incrementAndGet();
+                    awaitQuietly(release);
+                    return emptyRoute();
+                })));
+            }
+            while (cache.coalescedCount() < callers - 1) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            Route first = results.getFirst().get(5, TimeUnit.SECONDS);
+            for (Future<Route> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(calculations).hasValue(1);
+        assertThat(cache.get(key)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("should not cache failed calculations")
+    void shouldNotCacheFailures() {
+        RouteCache cache = new RouteCache(10, Duration.ofMinutes(1), clock::get);
+        RouteCache.Key key = new RouteCache.Key(1L, 0, 5, null);
+
+        assertThatThrownBy(() -> cache.getOrCalculate(key, () -> {
+            throw new IllegalStateException("search failed");
+        })).isInstanceOf(IllegalStateException.class);
+
+        Route route = emptyRoute();
+        assertThat(cache.getOrCalculate(key, () -> route)).isSameAs(route);
+        assertThat(cache.getOrCalculate(key, () -> emptyRoute())).isSameAs(route);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Route emptyRoute() {
+        RouteMetadata metadata = new RouteMetadata(0.0, 0, 0, 1.0, Instant.now(), false,
+                SearchAlgorithm.DIJKSTRA, 0);
+        return new Route(List.of(), metadata);
+    }
+}
@@ -0,0 +1,179 @@
+package com.sensorbite.evacroute.compiler;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.LandmarkDistances;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import com.sensorbite.evacroute.domain.model.RoadSegment;
+import com.sensorbite.evacroute.domain.service.GraphBuilder;
+import com.sensorbite.evacroute.domain.service.search.LandmarkPreprocessor;
+import com.sensorbite.evacroute.io.GeoJsonRoadSegmentReader;
+import com.sensorbite.evacroute.io.RoadNetworkSnapshotFile;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Command-line tool that compiles a road network GeoJSON file into a
+ * {@link RoadNetworkSnapshotFile} ahead of deployment.
+ *
+ * <p>Parsing, graph building and search preprocessing dominate the cost of
+ * loading a large network. Running them here, once per data release, lets
+ * service instances map a finished snapshot at startup instead of doing the
+ * work themselves. The tool does not start Spring; it uses the same reader,
+ * {@link GraphBuilder} and snapshot format as the service, so a compiled
+ * snapshot is exactly what the service would have written.</p>
+ *
+ * <p>Every stage is logged with its wall-clock time, its peak heap use and
+ * the heap in use once it finished.</p>
+ *
+ * <pre>
+ * java -jar evac-route-compiler-exec.jar roads.geojson roads.snapshot --landmarks 8
+ * </pre>
+ */
+@Slf4j
+public final class GraphCompiler {
+
+    static final String USAGE =
+            "Usage: GraphCompiler <road-network.geojson> <output.snapshot> [--landmarks <count>]";
+
+    private static final String LANDMARKS_OPTION = "--landmarks";
+    private static final long BYTES_PER_MEGABYTE = 1024 * 1024;
+
+    private final GeoJsonRoadSegmentReader segmentReader = new GeoJsonRoadSegmentReader();
+    private final GraphBuilder graphBuilder = new GraphBuilder();
+    private final RoadNetworkSnapshotFile snapshotFile = new RoadNetworkSnapshotFile();
+
+    public static void main(String[] args) {
+        Options options;
+        try {
+            options = Options.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+
+        try {
+            new GraphCompiler().compile(options);
+        } catch (IOException | RuntimeException e) {
+            log.error("[COMPILE] Failed to compile {}", options.input(), e);
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Command-line options.
+     *
+     * @param input road network GeoJSON file
+     * @param output snapshot file to write
+     * @param landmarkCount number of ALT landmarks to precompute, 0 for none
+     */
+    public record Options(Path input, Path output, int landmarkCount) {
+
+        public Options {
+            if (landmarkCount < 0) {
+                throw new IllegalArgumentException("Landmark count cannot be negative");
+            }
+        }
+
+        /**
+         * @throws IllegalArgumentException if the arguments are incomplete or invalid
+         */
+        public static Options parse(String[] args) {
+            List<String> positional = new ArrayList<>();
+            int landmarkCount = 0;
+            for (int i = 0; i < args.length; i++) {
+                if (!LANDMARKS_OPTION.equals(args[i])) {
+                    positional.add(args[i]);
+                } else if (i + 1 == args.length) {
+                    throw new IllegalArgumentException(LANDMARKS_OPTION + " requires a count");
+                } else {
+                    try {
+                        landmarkCount = Integer.parseInt(args[++i]);
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Invalid landmark count: " + args[i]);
+                    }
+                }
+            }
+            if (positional.size() != 2) {
+                throw new IllegalArgumentException("Expected an input and an output file");
+            }
+            return new Options(Path.of(positional.get(0)), Path.of(positional.get(1)), landmarkCount);
+        }
+    }
+
+    /**
+     * Time and memory use of one compilation stage.
+     *
+     * @param name stage name
+     * @param millis wall-clock duration
+     * @param peakHeapBytes peak use of each heap memory pool while the stage ran, summed
+     * @param heapBytes heap in use once the stage finished, including garbage
+     */
+    public record StageReport(String name, long millis, long peakHeapBytes, long heapBytes) {
+    }
+
+    /**
+     * Parse, build, preprocess and write a road network snapshot.
+     *
+     * @param options input, output and preprocessing options
+     * @return reports of the stages that ran, in order
+     * @throws IOException if the input cannot be read or the snapshot cannot be written
+     */
+    public List<StageReport> compile(Options options) throws IOException {
+        log.info("[COMPILE] Compiling {} into {}", options.input(), options.output());
+        List<StageReport> reports = new ArrayList<>();
+        RoadNetworkSnapshotFile.Source source = RoadNetworkSnapshotFile.Source.of(options.input());
+
+        List<RoadSegment> segments = runStage(reports, "parse", () -> segmentReader.readAll(options.input()));
+        if (segments.isEmpty()) {
+            throw new IOException("No valid road segments found in: " + options.input());
+        }
+        CompactGraph graph = runStage(reports, "graph", () -> graphBuilder.buildCompactGraph(segments));
+        RoadNetwork indexed = runStage(reports, "index", () -> new RoadNetwork(segments, graph));
+        LandmarkDistances landmarks = options.landmarkCount() == 0
+                ? null
+                : runStage(reports, "landmarks", () -> LandmarkPreprocessor.compute(graph, options.landmarkCount()));
+        RoadNetwork network = landmarks == null ? indexed : indexed.withLandmarks(landmarks);
+        runStage(reports, "write", () -> {
+            snapshotFile.writeCompiled(network, source, options.output());
+            return null;
+        });
+
+        log.info("[COMPILE] Compiled {} segments, {} nodes, {} edges{} in {} ms",
+                segments.size(), graph.nodeCount(), graph.edgeCount(),
+                landmarks == null ? "" : ", " + landmarks.landmarkCount() + " landmarks",
+                reports.stream().mapToLong(StageReport::millis).sum());
+        return reports;
+    }
+
+    private static <T> T runStage(List<StageReport> reports, String name, Stage<T> stage) throws IOException {
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long startTime = System.currentTimeMillis();
+
+        T result = stage.run();
+
+        long millis = System.currentTimeMillis() - startTime;
+        long peakHeapBytes = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        long heapBytes = heapPools.stream().mapToLong(pool -> pool.getUsage().getUsed()).sum();
+        reports.add(new StageReport(name, millis, peakHeapBytes, heapBytes));
+        log.info("[COMPILE] {}: {} ms, peak heap {} MB, heap after {} MB", name, millis,
+                peakHeapBytes / BYTES_PER_MEGABYTE, heapBytes / BYTES_PER_MEGABYTE);
+        return result;
+    }
+
+    @FunctionalInterface
+    private interface Stage<T> {
+        T run() throws IOException;
+    }
+}
@@ -0,0 +1,93 @@
+package com.sensorbite.evacroute.compiler;
+
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import com.sensorbite.evacroute.io.RoadNetworkSnapshotFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("GraphCompiler")
+class GraphCompilerTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should compile GeoJSON into a snapshot the service can load, reporting every stage")
+    void shouldCompileSnapshot() throws IOException {
+        Path input = directory.resolve("roads.geojson");
+        Files.writeString(input, """
+                {"type": "FeatureCollection", "features": [
+                  {"type": "Feature", "id": "a", "properties": {},
+                   "geometry": {"type": "LineString", "coordinates": [[21.0, 52.0], [21.001, 52.0]]}},
+                  {"type": "Feature", "id": "b", "properties": {"oneway": "yes"},
+                   "geometry": {"type": "LineString", "coordinates": [[21.001, 52.0], [21.001, 52.001]]}},
+                  {"type": "Feature", "id": "c", "properties": {},
+                   "geometry": {"type": "LineString", "coordinates": [[21.001, 52.001], [21.0, 52.0]]}}
+                ]}
+                """);
+        Path output = directory.resolve("roads.snapshot");
+
+        List<GraphCompiler.StageReport> reports = new GraphCompiler()
+                .compile(new GraphCompiler.Options(input, output, 2));
+
+        assertThat(reports).extracting(GraphCompiler.StageReport::name)
+                .containsExactly("parse", "graph", "index", "landmarks", "write");
+        assertThat(reports).allSatisfy(report -> {
+            assertThat(report.millis()).isNotNegative();
+            assertThat(report.peakHeapBytes()).isPositive();
+        });
+
+        RoadNetworkSnapshotFile snapshotFile = new RoadNetworkSnapshotFile();
+        RoadNetwork network = snapshotFile.read(output, RoadNetworkSnapshotFile.Source.of(input)).orElseThrow();
+        assertThat(snapshotFile.isCompiled(output)).isTrue();
+        assertThat(network.getSegmentCount()).isEqualTo(3);
+        assertThat(network.segmentAt(1).isOneway()).isTrue();
+        assertThat(network.getLandmarks().landmarkCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("should skip landmarks unless asked for them")
+    void shouldSkipLandmarksByDefault() throws IOException {
+        Path input = directory.resolve("roads.geojson");
+        Files.writeString(input, """
+                {"type": "FeatureCollection", "features": [
+                  {"type": "Feature", "geometry": {"type": "LineString", "coordinates": [[21.0, 52.0], [21.1, 52.1]]}}
+                ]}
+                """);
+        Path output = directory.resolve("roads.snapshot");
+
+        List<GraphCompiler.StageReport> reports = new GraphCompiler()
+                .compile(GraphCompiler.Options.parse(new String[]{input.toString(), output.toString()}));
+
+        assertThat(reports).extracting(GraphCompiler.StageReport::name).doesNotContain("landmarks");
+        assertThat(new RoadNetworkSnapshotFile().read(output, null).orElseThrow().getLandmarks()).isNull();
+    }
+
+    @Test
+    @DisplayName("should parse options and reject incomplete or invalid ones")
+    void shouldParseOptions() {
+        GraphCompiler.Options options = GraphCompiler.Options.parse(
+                new String[]{"--landmarks", "8", "roads.geojson", "roads.snapshot"});
+
+        assertThat(options.input()).isEqualTo(Path.of("roads.geojson"));
+        assertThat(options.output()).isEqualTo(Path.of("roads.snapshot"));
+        assertThat(options.landmarkCount()).isEqualTo(8);
+        assertThatThrownBy(() -> GraphCompiler.Options.parse(new String[]{"roads.geojson"}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> GraphCompiler.Options.parse(new String[]{"a", "b", "--landmarks"}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> GraphCompiler.Options.parse(new String[]{"a", "b", "--landmarks", "many"}))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> GraphCompiler.Options.parse(new String[]{"a", "b", "--landmarks", "-1"}))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
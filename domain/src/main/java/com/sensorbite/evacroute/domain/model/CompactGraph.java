@@ -0,0 +1,286 @@
+package com.sensorbite.evacroute.domain.model;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.ToIntFunction;
+
+/**
+ * Read-only road graph in compressed sparse row (CSR) layout.
+ *
+ * <p>Nodes are dense integers {@code 0..nodeCount-1}. The outgoing edges of
+ * node {@code n} occupy indices {@code firstEdge(n)} (inclusive) to
+ * {@code firstEdge(n + 1)} (exclusive) of the parallel edge arrays, so a
+ * search scans them sequentially without hashing or per-edge objects. Each
+ * edge records the index of its road segment in the owning {@link RoadNetwork},
+ * which is also the index used by {@link HazardOverlay}.</p>
+ *
+ * <p>A second CSR index lists the incoming edges of every node, referring to
+ * the same edge ids, so searches can run backwards from a target along exactly
+ * the edges a forward search would use; one-way segments, which have no
+ * backward edge, are honoured automatically.</p>
+ *
+ * <p>Instances are immutable and safe to share between threads.</p>
+ */
+public final class CompactGraph {
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int[] firstEdge;
+    private final int[] edgeSources;
+    private final int[] edgeTargets;
+    private final double[] edgeWeights;
+    private final int[] edgeSegments;
+    private final int[] firstInEdge;
+    private final int[] inEdges;
+
+    private CompactGraph(double[] latitudes, double[] longitudes, int[] firstEdge, int[] edgeSources,
+                         int[] edgeTargets, double[] edgeWeights, int[] edgeSegments) {
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.firstEdge = firstEdge;
+        this.edgeSources = edgeSources;
+        this.edgeTargets = edgeTargets;
+        this.edgeWeights = edgeWeights;
+        this.edgeSegments = edgeSegments;
+        this.firstInEdge = new int[latitudes.length + 1];
+        this.inEdges = new int[edgeTargets.length];
+        for (int target : edgeTargets) {
+            firstInEdge[target + 1]++;
+        }
+        for (int n = 0; n < latitudes.length; n++) {
+            firstInEdge[n + 1] += firstInEdge[n];
+        }
+        int[] cursor = Arrays.copyOf(firstInEdge, latitudes.length);
+        for (int e = 0; e < edgeTargets.length; e++) {
+            inEdges[cursor[edgeTargets[e]]++] = e;
+        }
+    }
+
+    /**
+     * Convert an adjacency-list graph, preserving its node and edge order.
+     *
+     * <p>Edges whose endpoints are not registered nodes of the graph are dropped.</p>
+     *
+     * @param graph source graph
+     * @param segmentIndexOf maps a segment ID to its index in the road network,
+     *                       or -1 if the segment is unknown
+     * @return equivalent compact graph
+     */
+    public static CompactGraph fromGraph(Graph graph, ToIntFunction<String> segmentIndexOf) {
+        Builder builder = new Builder(graph.getNodeCount(), graph.getEdgeCount());
+        Map<String, Integer> nodeIndex = new HashMap<>(graph.getNodeCount() * 2);
+        for (Graph.Node node : graph.getNodes()) {
+            nodeIndex.put(node.id(), builder.addNode(node.coordinate()));
+        }
+
+        for (Graph.Node node : graph.getNodes()) {
+            int from = nodeIndex.get(node.id());
+            for (Graph.Edge edge : graph.getEdges(node.id())) {
+                Integer to = nodeIndex.get(edge.toNodeId());
+                if (to != null) {
+                    builder.addEdge(from, to, edge.weight(), segmentIndexOf.applyAsInt(edge.segmentId()));
+                }
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Wrap CSR arrays produced by an earlier build, e.g. read back from a
+     * snapshot, without copying them. Edge sources are derived from
+     * {@code firstEdge}.
+     *
+     * @param latitudes node latitudes
+     * @param longitudes node longitudes
+     * @param firstEdge first outgoing edge of every node, followed by the edge count
+     * @param edgeTargets head node of every edge
+     * @param edgeWeights length of every edge in meters
+     * @param edgeSegments road segment index of every edge
+     * @return compact graph over the arrays
+     * @throws IllegalArgumentException if the arrays do not form a valid CSR graph
+     */
+    public static CompactGraph fromCsr(double[] latitudes, double[] longitudes, int[] firstEdge,
+                                       int[] edgeTargets, double[] edgeWeights, int[] edgeSegments) {
+        int nodeCount = latitudes.length;
+        int edgeCount = edgeTargets.length;
+        if (longitudes.length != nodeCount || firstEdge.length != nodeCount + 1) {
+            throw new IllegalArgumentException("Node arrays have inconsistent lengths");
+        }
+        if (edgeWeights.length != edgeCount || edgeSegments.length != edgeCount) {
+            throw new IllegalArgumentException("Edge arrays have inconsistent lengths");
+        }
+        if (firstEdge[0] != 0 || firstEdge[nodeCount] != edgeCount) {
+            throw new IllegalArgumentException("Edge offsets do not cover " + edgeCount + " edges");
+        }
+
+        for (int node = 0; node < nodeCount; node++) {
+            if (firstEdge[node + 1] < firstEdge[node]) {
+                throw new IllegalArgumentException("Edge offsets decrease at node " + node);
+            }
+        }
+        int[] edgeSources = new int[edgeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            Arrays.fill(edgeSources, firstEdge[node], firstEdge[node + 1], node);
+        }
+        for (int edge = 0; edge < edgeCount; edge++) {
+            if (edgeTargets[edge] < 0 || edgeTargets[edge] >= nodeCount) {
+                throw new IllegalArgumentException("Edge target out of range: " + edgeTargets[edge]);
+            }
+            if (!(edgeWeights[edge] >= 0)) {
+                throw new IllegalArgumentException("Edge weight cannot be negative");
+            }
+        }
+        return new CompactGraph(latitudes, longitudes, firstEdge, edgeSources, edgeTargets, edgeWeights,
+                edgeSegments);
+    }
+
+    public int nodeCount() {
+        return latitudes.length;
+    }
+
+    public int edgeCount() {
+        return edgeTargets.length;
+    }
+
+    /** First outgoing edge of {@code node}; the range ends at {@code firstEdge(node + 1)}. */
+    public int firstEdge(int node) {
+        return firstEdge[node];
+    }
+
+    /** First incoming-edge slot of {@code node}; the range ends at {@code firstInEdge(node + 1)}. */
+    public int firstInEdge(int node) {
+        return firstInEdge[node];
+    }
+
+    /** Edge id stored in incoming-edge slot {@code slot}. */
+    public int inEdge(int slot) {
+        return inEdges[slot];
+    }
+
+    public int edgeSource(int edge) {
+        return edgeSources[edge];
+    }
+
+    public int edgeTarget(int edge) {
+        return edgeTargets[edge];
+    }
+
+    public double edgeWeight(int edge) {
+        return edgeWeights[edge];
+    }
+
+    public int edgeSegment(int edge) {
+        return edgeSegments[edge];
+    }
+
+    public double latitude(int node) {
+        return latitudes[node];
+    }
+
+    public double longitude(int node) {
+        return longitudes[node];
+    }
+
+    public Coordinate coordinate(int node) {
+        return new Coordinate(latitudes[node], longitudes[node]);
+    }
+
+    /**
+     * Incrementally collects nodes and edges and lays them out as CSR arrays.
+     *
+     * <p>Edges may be added in any order; {@link #build()} groups them by source
+     * node with a stable counting sort, so edges of one node keep their
+     * insertion order.</p>
+     */
+    public static final class Builder {
+        private double[] latitudes;
+        private double[] longitudes;
+        private int nodeCount;
+
+        private int[] edgeSources;
+        private int[] edgeTargets;
+        private double[] edgeWeights;
+        private int[] edgeSegments;
+        private int edgeCount;
+
+        public Builder() {
+            this(16, 16);
+        }
+
+        public Builder(int expectedNodes, int expectedEdges) {
+            int nodeCapacity = Math.max(expectedNodes, 1);
+            int edgeCapacity = Math.max(expectedEdges, 1);
+            this.latitudes = new double[nodeCapacity];
+            this.longitudes = new double[nodeCapacity];
+            this.edgeSources = new int[edgeCapacity];
+            this.edgeTargets = new int[edgeCapacity];
+            this.edgeWeights = new double[edgeCapacity];
+            this.edgeSegments = new int[edgeCapacity];
+        }
+
+        public int addNode(Coordinate coordinate) {
+            if (nodeCount == latitudes.length) {
+                int capacity = latitudes.length * 2;
+                latitudes = Arrays.copyOf(latitudes, capacity);
+                longitudes = Arrays.copyOf(longitudes, capacity);
+            }
+            latitudes[nodeCount] = coordinate.latitude();
+            longitudes[nodeCount] = coordinate.longitude();
+            return nodeCount++;
+        }
+
+        public void addEdge(int from, int to, double weight, int segmentIndex) {
+            if (from < 0 || from >= nodeCount || to < 0 || to >= nodeCount) {
+                throw new IllegalArgumentException("Edge endpoint out of range: " + from + " -> " + to);
+            }
+            if (weight < 0) {
+                throw new IllegalArgumentException("Edge weight cannot be negative");
+            }
+            if (edgeCount == edgeTargets.length) {
+                int capacity = edgeTargets.length * 2;
+                edgeSources = Arrays.copyOf(edgeSources, capacity);
+                edgeTargets = Arrays.copyOf(edgeTargets, capacity);
+                edgeWeights = Arrays.copyOf(edgeWeights, capacity);
+                edgeSegments = Arrays.copyOf(edgeSegments, capacity);
+            }
+            edgeSources[edgeCount] = from;
+            edgeTargets[edgeCount] = to;
+            edgeWeights[edgeCount] = weight;
+            edgeSegments[edgeCount] = segmentIndex;
+            edgeCount++;
+        }
+
+        public int nodeCount() {
+            return nodeCount;
+        }
+
+        public CompactGraph build() {
+            int[] first = new int[nodeCount + 1];
+            for (int e = 0; e < edgeCount; e++) {
+                first[edgeSources[e] + 1]++;
+            }
+            for (int n = 0; n < nodeCount; n++) {
+                first[n + 1] += first[n];
+            }
+
+            int[] cursor = Arrays.copyOf(first, nodeCount);
+            int[] sources = new int[edgeCount];
+            int[] targets = new int[edgeCount];
+            double[] weights = new double[edgeCount];
+            int[] segments = new int[edgeCount];
+            for (int e = 0; e < edgeCount; e++) {
+                int slot = cursor[edgeSources[e]]++;
+                sources[slot] = edgeSources[e];
+                targets[slot] = edgeTargets[e];
+                weights[slot] = edgeWeights[e];
+                segments[slot] = edgeSegments[e];
+            }
+
+            return new CompactGraph(
+                    Arrays.copyOf(latitudes, nodeCount),
+                    Arrays.copyOf(longitudes, nodeCount),
+                    first, sources, targets, weights, segments);
+        }
+    }
+}
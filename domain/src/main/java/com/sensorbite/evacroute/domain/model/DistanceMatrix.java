@@ -0,0 +1,76 @@
+package com.sensorbite.evacroute.domain.model;
+
+/**
+ * Lengths of the best evacuation routes from every source to every target.
+ *
+ * <p>Cells are stored row-major: row {@code i} holds the routes from source
+ * {@code i}. A pair without any route, including pairs where a point is too
+ * far from the road network, is unreachable.</p>
+ */
+public final class DistanceMatrix {
+
+    private final int sourceCount;
+    private final int targetCount;
+    private final double[] distancesMeters;
+    private final boolean[] crossesHazards;
+    private final long computationTimeMs;
+
+    /**
+     * @param sourceCount number of rows
+     * @param targetCount number of columns
+     * @param distancesMeters route lengths in row-major order; positive infinity for unreachable pairs
+     * @param crossesHazards whether the best route of each pair has to cross a hazardous segment
+     * @param computationTimeMs time spent computing the matrix
+     */
+    public DistanceMatrix(int sourceCount, int targetCount, double[] distancesMeters,
+                          boolean[] crossesHazards, long computationTimeMs) {
+        if (sourceCount < 0 || targetCount < 0) {
+            throw new IllegalArgumentException("Matrix dimensions cannot be negative");
+        }
+        if (distancesMeters.length != sourceCount * targetCount
+                || crossesHazards.length != sourceCount * targetCount) {
+            throw new IllegalArgumentException("Matrix cells do not match its dimensions");
+        }
+        if (computationTimeMs < 0) {
+            throw new IllegalArgumentException("Computation time cannot be negative");
+        }
+        this.sourceCount = sourceCount;
+        this.targetCount = targetCount;
+        this.distancesMeters = distancesMeters.clone();
+        this.crossesHazards = crossesHazards.clone();
+        this.computationTimeMs = computationTimeMs;
+    }
+
+    public int sourceCount() {
+        return sourceCount;
+    }
+
+    public int targetCount() {
+        return targetCount;
+    }
+
+    public boolean isReachable(int source, int target) {
+        return distanceMeters(source, target) != Double.POSITIVE_INFINITY;
+    }
+
+    /** Length of the best route, or positive infinity if the pair is unreachable. */
+    public double distanceMeters(int source, int target) {
+        return distancesMeters[cell(source, target)];
+    }
+
+    public boolean crossesHazards(int source, int target) {
+        return crossesHazards[cell(source, target)];
+    }
+
+    public long computationTimeMs() {
+        return computationTimeMs;
+    }
+
+    private int cell(int source, int target) {
+        if (source < 0 || source >= sourceCount || target < 0 || target >= targetCount) {
+            throw new IndexOutOfBoundsException("No cell " + source + ", " + target
+                    + " in a " + sourceCount + "x" + targetCount + " matrix");
+        }
+        return source * targetCount + target;
+    }
+}
@@ -1,7 +1,9 @@
 package com.sensorbite.evacroute.domain.model;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -11,8 +13,8 @@ public class Graph {
     private final Map<String, List<Edge>> adjacencyList;
 
     public Graph() {
-        this.nodes = new HashMap<>();
-        this.adjacencyList = new HashMap<>();
+        this.nodes = new LinkedHashMap<>();
+        this.adjacencyList = new LinkedHashMap<>();
     }
 
     public void addNode(Node node) {
@@ -36,6 +38,13 @@ public class Graph {
         return Map.copyOf(nodes);
     }
 
+    /**
+     * Returns all nodes in insertion order as a read-only view.
+     */
+    public Collection<Node> getNodes() {
+        return Collections.unmodifiableCollection(nodes.values());
+    }
+
     public int getNodeCount() {
         return nodes.size();
     }
@@ -57,6 +66,12 @@ public class Graph {
         }
     }
 
+    /**
+     * Directed graph edge backed by a road segment.
+     *
+     * @param hazardous hazard flag of the segment when the graph was built; route
+     *                  search reads hazard state from the network's {@link HazardOverlay}
+     */
     public record Edge(
         String fromNodeId,
         String toNodeId,
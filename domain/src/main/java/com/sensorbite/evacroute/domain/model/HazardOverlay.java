@@ -0,0 +1,90 @@
+package com.sensorbite.evacroute.domain.model;
+
+import java.util.BitSet;
+
+/**
+ * Immutable, versioned set of hazardous road segments.
+ *
+ * <p>Hazard state is kept apart from the road network so one base network and
+ * graph can serve many concurrent requests while flood updates only swap this
+ * overlay. Segments are addressed by their index in {@link RoadNetwork}, which
+ * keeps the overlay at one bit per segment.</p>
+ */
+public final class HazardOverlay {
+
+    private final BitSet hazardous;
+    private final int segmentCount;
+    private final long version;
+
+    private HazardOverlay(BitSet hazardous, int segmentCount, long version) {
+        this.hazardous = hazardous;
+        this.segmentCount = segmentCount;
+        this.version = version;
+    }
+
+    /**
+     * Create an overlay marking the given segment indices as hazardous.
+     *
+     * @param segmentCount number of segments in the network the overlay applies to
+     * @param hazardous indices of hazardous segments (copied)
+     * @param version version of the flood data the overlay was derived from
+     * @return new overlay
+     */
+    public static HazardOverlay of(int segmentCount, BitSet hazardous, long version) {
+        if (segmentCount < 0) {
+            throw new IllegalArgumentException("Segment count cannot be negative");
+        }
+        if (hazardous.length() > segmentCount) {
+            throw new IllegalArgumentException(
+                "Hazardous segment index " + (hazardous.length() - 1) + " exceeds segment count " + segmentCount);
+        }
+        return new HazardOverlay((BitSet) hazardous.clone(), segmentCount, version);
+    }
+
+    /**
+     * Create an overlay with no hazardous segments.
+     *
+     * @param segmentCount number of segments in the network the overlay applies to
+     * @return empty overlay with version 0
+     */
+    public static HazardOverlay none(int segmentCount) {
+        return of(segmentCount, new BitSet(), 0L);
+    }
+
+    /**
+     * Create a new overlay from this one with the state of some segments replaced.
+     *
+     * @param reevaluated indices of the segments whose state is replaced
+     * @param hazardous indices of hazardous segments; only those in {@code reevaluated} are read
+     * @param version version of the flood data the new overlay was derived from
+     * @return patched overlay; segments outside {@code reevaluated} keep their state
+     */
+    public HazardOverlay patch(BitSet reevaluated, BitSet hazardous, long version) {
+        if (reevaluated.length() > segmentCount) {
+            throw new IllegalArgumentException(
+                "Reevaluated segment index " + (reevaluated.length() - 1) + " exceeds segment count " + segmentCount);
+        }
+        BitSet patched = (BitSet) this.hazardous.clone();
+        patched.andNot(reevaluated);
+        BitSet replaced = (BitSet) hazardous.clone();
+        replaced.and(reevaluated);
+        patched.or(replaced);
+        return new HazardOverlay(patched, segmentCount, version);
+    }
+
+    public boolean isHazardous(int segmentIndex) {
+        return hazardous.get(segmentIndex);
+    }
+
+    public int hazardousCount() {
+        return hazardous.cardinality();
+    }
+
+    public int segmentCount() {
+        return segmentCount;
+    }
+
+    public long version() {
+        return version;
+    }
+}
@@ -0,0 +1,116 @@
+package com.sensorbite.evacroute.domain.model;
+
+/**
+ * Shortest path distances between every node and a few landmark nodes, used as
+ * A* lower bounds (ALT). They are computed by the search layer's landmark
+ * preprocessing, or read back from a compiled road network snapshot.
+ *
+ * <p>By the triangle inequality, {@code d(v, t) >= d(L, t) - d(L, v)} and
+ * {@code d(v, t) >= d(v, L) - d(t, L)} for any landmark {@code L}.</p>
+ *
+ * <p>Distances are computed from raw edge weights without hazard penalties.
+ * Penalties only increase edge costs, so the bounds stay valid for every hazard
+ * overlay and a flood update never requires recomputation. They are stored as
+ * floats in node-major order, so the bound for one node reads a single short
+ * run of memory; rounding is covered by subtracting a small slack.</p>
+ *
+ * <p>Instances are immutable and safe to share between threads.</p>
+ */
+public final class LandmarkDistances {
+
+    private final CompactGraph graph;
+    private final int[] landmarks;
+    private final float[] fromLandmark;
+    private final float[] toLandmark;
+    private final double slack;
+
+    private LandmarkDistances(CompactGraph graph, int[] landmarks, float[] fromLandmark, float[] toLandmark) {
+        this.graph = graph;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+        float max = 0.0f;
+        for (int i = 0; i < fromLandmark.length; i++) {
+            max = Math.max(max, finiteOrZero(fromLandmark[i]));
+            max = Math.max(max, finiteOrZero(toLandmark[i]));
+        }
+        this.slack = Math.ulp(max);
+    }
+
+    private static float finiteOrZero(float value) {
+        return Float.isInfinite(value) ? 0.0f : value;
+    }
+
+    /**
+     * Wrap landmark distances computed for a graph.
+     *
+     * @param graph graph the distances were computed for
+     * @param landmarks landmark nodes
+     * @param fromLandmark distance from every landmark to every node, node-major
+     * @param toLandmark distance from every node to every landmark, node-major
+     * @return landmark distances for {@code graph}
+     * @throws IllegalArgumentException if the arrays do not match the graph
+     */
+    public static LandmarkDistances of(CompactGraph graph, int[] landmarks, float[] fromLandmark,
+                                       float[] toLandmark) {
+        long expectedLength = (long) graph.nodeCount() * landmarks.length;
+        if (fromLandmark.length != expectedLength || toLandmark.length != expectedLength) {
+            throw new IllegalArgumentException("Landmark distances do not cover " + landmarks.length
+                    + " landmarks of " + graph.nodeCount() + " nodes");
+        }
+        for (int landmark : landmarks) {
+            if (landmark < 0 || landmark >= graph.nodeCount()) {
+                throw new IllegalArgumentException("Landmark out of range: " + landmark);
+            }
+        }
+        return new LandmarkDistances(graph, landmarks, fromLandmark, toLandmark);
+    }
+
+    /** Whether these distances were computed for exactly the given graph. */
+    public boolean isComputedFor(CompactGraph graph) {
+        return this.graph == graph;
+    }
+
+    public int landmarkCount() {
+        return landmarks.length;
+    }
+
+    public int landmark(int index) {
+        return landmarks[index];
+    }
+
+    /** Distance from landmark number {@code index} to {@code node}. */
+    public float fromLandmark(int node, int index) {
+        return fromLandmark[node * landmarks.length + index];
+    }
+
+    /** Distance from {@code node} to landmark number {@code index}. */
+    public float toLandmark(int node, int index) {
+        return toLandmark[node * landmarks.length + index];
+    }
+
+    /**
+     * Lower bound on the cost of any path from {@code node} to {@code target}
+     * under any hazard overlay.
+     *
+     * @return lower bound, or positive infinity if {@code target} is unreachable from {@code node}
+     */
+    public double lowerBound(int node, int target) {
+        int count = landmarks.length;
+        int nodeRow = node * count;
+        int targetRow = target * count;
+        double bound = 0.0;
+        for (int i = 0; i < count; i++) {
+            // Unreachable landmarks give infinite or NaN differences; NaN never wins the comparison.
+            double viaFrom = (double) fromLandmark[targetRow + i] - fromLandmark[nodeRow + i];
+            if (viaFrom > bound) {
+                bound = viaFrom;
+            }
+            double viaTo = (double) toLandmark[nodeRow + i] - toLandmark[targetRow + i];
+            if (viaTo > bound) {
+                bound = viaTo;
+            }
+        }
+        return Math.max(0.0, bound - slack);
+    }
+}
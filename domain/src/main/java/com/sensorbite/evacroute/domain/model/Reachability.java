@@ -0,0 +1,30 @@
+package com.sensorbite.evacroute.domain.model;
+
+import java.util.List;
+
+/**
+ * Road network that can be reached from a point within a distance budget
+ * without entering a hazardous segment.
+ *
+ * @param lines reachable road geometry; a segment only partly within the
+ *              budget contributes the part that can be reached from each end
+ * @param maxDistanceMeters distance budget along the roads
+ * @param reachedNodes number of road nodes within the budget
+ * @param computationTimeMs time spent answering the query
+ */
+public record Reachability(
+    List<List<Coordinate>> lines,
+    double maxDistanceMeters,
+    int reachedNodes,
+    long computationTimeMs
+) {
+    public Reachability {
+        if (maxDistanceMeters < 0) {
+            throw new IllegalArgumentException("Maximum distance cannot be negative");
+        }
+        if (computationTimeMs < 0) {
+            throw new IllegalArgumentException("Computation time cannot be negative");
+        }
+        lines = List.copyOf(lines);
+    }
+}
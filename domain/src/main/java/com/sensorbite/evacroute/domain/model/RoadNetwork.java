@@ -2,53 +2,335 @@ package com.sensorbite.evacroute.domain.model;
 
 import com.sensorbite.evacroute.domain.port.out.HazardDetectionPort;
 
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Function;
-import java.util.stream.Collectors;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class RoadNetwork {
-    private final Map<String, RoadSegment> segments;
+    private final List<RoadSegment> segments;
+    private final Map<String, Integer> segmentIndex;
     private final Graph graph;
+    private final CompactGraph compactGraph;
+    private final SpatialNodeIndex nodeIndex;
+    private final HazardOverlay hazards;
+    private final LandmarkDistances landmarks;
+    private final AtomicReference<SegmentEnvelopeIndex> segmentEnvelopes;
 
     public RoadNetwork(List<RoadSegment> segments, Graph graph) {
+        this(segments, graph, null);
+    }
+
+    /**
+     * Create a network from segments and their compact graph only, skipping the
+     * adjacency-list graph; {@link #getGraph()} then returns {@code null}.
+     *
+     * @param segments road segments; their list position is the segment index
+     * @param compactGraph CSR graph whose edge segment indices refer to {@code segments}
+     */
+    public RoadNetwork(List<RoadSegment> segments, CompactGraph compactGraph) {
+        this(segments, null, requireCompactGraph(compactGraph));
+    }
+
+    /**
+     * Create a network from segments, their compact graph and a spatial index
+     * already built over it, e.g. restored from a snapshot.
+     *
+     * @param segments road segments; their list position is the segment index
+     * @param compactGraph CSR graph whose edge segment indices refer to {@code segments}
+     * @param nodeIndex spatial index over the nodes of {@code compactGraph}
+     */
+    public RoadNetwork(List<RoadSegment> segments, CompactGraph compactGraph, SpatialNodeIndex nodeIndex) {
+        this(segments, null, requireCompactGraph(compactGraph), nodeIndex);
+    }
+
+    /**
+     * Create a network from segments and both graph representations.
+     *
+     * @param segments road segments; their list position is the segment index
+     * @param graph adjacency-list graph, or {@code null} if {@code compactGraph} is given
+     * @param compactGraph CSR graph whose edge segment indices refer to {@code segments},
+     *                     or {@code null} to derive it from {@code graph}
+     */
+    public RoadNetwork(List<RoadSegment> segments, Graph graph, CompactGraph compactGraph) {
+        this(segments, graph, compactGraph, null);
+    }
+
+    private RoadNetwork(List<RoadSegment> segments, Graph graph, CompactGraph compactGraph,
+                        SpatialNodeIndex nodeIndex) {
         if (segments == null || segments.isEmpty()) {
             throw new IllegalArgumentException("Road network must have at least one segment");
         }
-        this.segments = segments.stream()
-                .collect(Collectors.toMap(RoadSegment::getId, Function.identity()));
+        Map<String, Integer> index = HashMap.newHashMap(segments.size());
+        for (int i = 0; i < segments.size(); i++) {
+            if (index.putIfAbsent(segments.get(i).getId(), i) != null) {
+                throw new IllegalStateException("Duplicate segment ID: " + segments.get(i).getId());
+            }
+        }
+        this.segments = List.copyOf(segments);
+        this.segmentIndex = Collections.unmodifiableMap(index);
         this.graph = graph;
+        this.compactGraph = compactGraph != null ? compactGraph : CompactGraph.fromGraph(graph, this::indexOf);
+        this.nodeIndex = nodeIndex != null ? nodeIndex : SpatialNodeIndex.build(this.compactGraph);
+        if (this.nodeIndex.size() != this.compactGraph.nodeCount()) {
+            throw new IllegalArgumentException("Spatial index covers " + this.nodeIndex.size()
+                + " nodes, graph has " + this.compactGraph.nodeCount());
+        }
+        this.hazards = HazardOverlay.of(segments.size(), initialHazards(this.segments), 0L);
+        this.landmarks = null;
+        this.segmentEnvelopes = new AtomicReference<>();
+    }
+
+    private RoadNetwork(RoadNetwork base, HazardOverlay hazards, LandmarkDistances landmarks) {
+        this.segments = base.segments;
+        this.segmentIndex = base.segmentIndex;
+        this.graph = base.graph;
+        this.compactGraph = base.compactGraph;
+        this.nodeIndex = base.nodeIndex;
+        this.hazards = hazards;
+        this.landmarks = landmarks;
+        this.segmentEnvelopes = base.segmentEnvelopes;
+    }
+
+    private static CompactGraph requireCompactGraph(CompactGraph compactGraph) {
+        if (compactGraph == null) {
+            throw new IllegalArgumentException("Compact graph cannot be null");
+        }
+        return compactGraph;
     }
 
-    public void applyFloodZones(List<FloodZone> zones, HazardDetectionPort hazardDetector) {
-        Set<String> hazardousIds = hazardDetector.detectHazardousSegments(segments.values(), zones);
+    private static BitSet initialHazards(List<RoadSegment> segments) {
+        BitSet hazardous = new BitSet(segments.size());
+        for (int i = 0; i < segments.size(); i++) {
+            if (segments.get(i).isHazardous()) {
+                hazardous.set(i);
+            }
+        }
+        return hazardous;
+    }
+
+    /**
+     * Classify segments against flood zones and return the result as an overlay
+     * for this network.
+     *
+     * @param zones active flood zones
+     * @param hazardDetector port used to classify segments against the zones
+     * @param version version to stamp on the overlay
+     * @return overlay marking intersecting segments as hazardous
+     * @see #updateHazards
+     */
+    public HazardOverlay detectHazards(List<FloodZone> zones, HazardDetectionPort hazardDetector, long version) {
+        envelopeIndex(); // built with the full pass so incremental updates find it ready
+        Set<String> hazardousIds = hazardDetector.detectHazardousSegments(segments, zones);
+        BitSet hazardous = new BitSet(segments.size());
         hazardousIds.forEach(id -> {
-            RoadSegment segment = segments.get(id);
+            Integer index = segmentIndex.get(id);
+            if (index != null) {
+                hazardous.set(index);
+            }
+        });
+        return HazardOverlay.of(segments.size(), hazardous, version);
+    }
+
+    /**
+     * Update an overlay after the active flood zones changed, reclassifying only
+     * the segments that a changed zone can touch.
+     *
+     * <p>Zones are compared by value, so an added, removed or modified zone is
+     * treated as changed. Segments whose bounding box intersects the bounding box
+     * of a changed zone, old or new version, are classified again against all
+     * active zones; every other segment keeps its state from {@code previous}.
+     * The cost therefore follows the area of the change rather than the size of
+     * the network.</p>
+     *
+     * @param previous overlay derived for this network from {@code previousZones}
+     * @param previousZones flood zones {@code previous} was derived from
+     * @param zones active flood zones
+     * @param hazardDetector port used to classify segments against the zones
+     * @param version version to stamp on the overlay
+     * @return overlay equal to the one {@link #detectHazards} would return for {@code zones}
+     */
+    public HazardOverlay updateHazards(HazardOverlay previous, List<FloodZone> previousZones, List<FloodZone> zones,
+                                       HazardDetectionPort hazardDetector, long version) {
+        if (previous.segmentCount() != segments.size()) {
+            throw new IllegalArgumentException(
+                "Hazard overlay covers " + previous.segmentCount() + " segments, network has " + segments.size());
+        }
+        Set<FloodZone> before = new HashSet<>(previousZones);
+        Set<FloodZone> after = new HashSet<>(zones);
+        SegmentEnvelopeIndex index = envelopeIndex();
+        BitSet affected = new BitSet(segments.size());
+        previousZones.stream().filter(zone -> !after.contains(zone)).forEach(zone -> index.collect(zone, affected));
+        zones.stream().filter(zone -> !before.contains(zone)).forEach(zone -> index.collect(zone, affected));
+        if (affected.isEmpty()) {
+            return previous.patch(affected, new BitSet(), version);
+        }
+
+        List<RoadSegment> candidates = affected.stream().mapToObj(segments::get).toList();
+        Set<String> hazardousIds = hazardDetector.detectHazardousSegments(candidates, zones);
+        BitSet hazardous = new BitSet(segments.size());
+        hazardousIds.forEach(id -> {
+            Integer segment = segmentIndex.get(id);
             if (segment != null) {
-                segments.put(id, segment.withHazardous(true));
+                hazardous.set(segment);
             }
         });
+        return previous.patch(affected, hazardous, version);
+    }
+
+    private SegmentEnvelopeIndex envelopeIndex() {
+        SegmentEnvelopeIndex index = segmentEnvelopes.get();
+        if (index == null) {
+            index = SegmentEnvelopeIndex.build(segments);
+            if (!segmentEnvelopes.compareAndSet(null, index)) {
+                index = segmentEnvelopes.get();
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns a view of this network that routes against the given hazard overlay.
+     *
+     * <p>Segments and graph are shared with the receiver, so this is a constant-time
+     * operation and the receiver remains usable by concurrent callers.</p>
+     *
+     * @param overlay hazard overlay derived for this network
+     * @return network view using the overlay
+     */
+    public RoadNetwork withHazards(HazardOverlay overlay) {
+        if (overlay.segmentCount() != segments.size()) {
+            throw new IllegalArgumentException(
+                "Hazard overlay covers " + overlay.segmentCount() + " segments, network has " + segments.size());
+        }
+        return new RoadNetwork(this, overlay, landmarks);
+    }
+
+    /**
+     * Returns a view of this network carrying landmark distances computed ahead
+     * of time, e.g. restored from a compiled snapshot, so ALT searches on it use
+     * them instead of computing their own.
+     *
+     * <p>Segments, graph and hazard overlay are shared with the receiver.</p>
+     *
+     * @param landmarks landmark distances computed for this network's compact graph
+     * @return network view carrying the landmarks
+     */
+    public RoadNetwork withLandmarks(LandmarkDistances landmarks) {
+        if (landmarks == null) {
+            throw new IllegalArgumentException("Landmark distances cannot be null");
+        }
+        if (!landmarks.isComputedFor(compactGraph)) {
+            throw new IllegalArgumentException("Landmark distances were computed for another graph");
+        }
+        return new RoadNetwork(this, hazards, landmarks);
     }
 
+    /** Adjacency-list graph, or {@code null} for networks built from a compact graph only. */
     public Graph getGraph() {
         return graph;
     }
 
+    public CompactGraph getCompactGraph() {
+        return compactGraph;
+    }
+
+    public SpatialNodeIndex getNodeIndex() {
+        return nodeIndex;
+    }
+
+    /** Landmark distances computed ahead of time, or {@code null} if none came with the network. */
+    public LandmarkDistances getLandmarks() {
+        return landmarks;
+    }
+
+    public HazardOverlay getHazards() {
+        return hazards;
+    }
+
+    /**
+     * Returns the base segments in index order.
+     *
+     * <p>Hazard flags on these segments reflect construction time only; use
+     * {@link #isHazardous(String)} or {@link #resolveSegment(String)} for the
+     * state of the current overlay.</p>
+     */
     public Collection<RoadSegment> getSegments() {
-        return segments.values();
+        return segments;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public RoadSegment segmentAt(int index) {
+        return segments.get(index);
     }
 
     public Optional<RoadSegment> findSegment(String id) {
-        return Optional.ofNullable(segments.get(id));
+        return Optional.ofNullable(segmentIndex.get(id)).map(segments::get);
+    }
+
+    public int indexOf(String segmentId) {
+        Integer index = segmentIndex.get(segmentId);
+        return index == null ? -1 : index;
+    }
+
+    public boolean isHazardous(String segmentId) {
+        Integer index = segmentIndex.get(segmentId);
+        return index != null && hazards.isHazardous(index);
+    }
+
+    /**
+     * Look up a segment with its hazard flag set from the current overlay.
+     *
+     * @param id segment identifier
+     * @return segment as seen through this network's overlay
+     */
+    public Optional<RoadSegment> resolveSegment(String id) {
+        Integer index = segmentIndex.get(id);
+        if (index == null) {
+            return Optional.empty();
+        }
+        return Optional.of(segments.get(index).withHazardous(hazards.isHazardous(index)));
+    }
+
+    /**
+     * Find the compact graph node closest to a coordinate.
+     *
+     * @param coord query coordinate
+     * @return node index, or -1 if the graph has no nodes
+     */
+    public int findNearestNodeIndex(Coordinate coord) {
+        return nodeIndex.nearest(coord);
+    }
+
+    /**
+     * Find the compact graph node closest to a coordinate within a snap radius.
+     *
+     * @param coord query coordinate
+     * @param maxDistanceMeters maximum distance between the coordinate and the node
+     * @return node index, or -1 if no node lies within the radius
+     */
+    public int findNearestNodeIndex(Coordinate coord, double maxDistanceMeters) {
+        return nodeIndex.nearest(coord, maxDistanceMeters);
     }
 
-    public Optional<Graph.Node> findNearestNode(Coordinate coord) {
-        return graph.getAllNodes().values().stream()
-                .min(Comparator.comparingDouble(node ->
-                    node.coordinate().distanceTo(coord)));
+    /**
+     * Find up to {@code k} compact graph nodes closest to a coordinate within a snap radius.
+     *
+     * @param coord query coordinate
+     * @param k maximum number of nodes to return
+     * @param maxDistanceMeters maximum distance between the coordinate and a node
+     * @return node indices ordered by increasing distance
+     */
+    public int[] findNearestNodeIndices(Coordinate coord, int k, double maxDistanceMeters) {
+        return nodeIndex.nearest(coord, k, maxDistanceMeters);
     }
 }
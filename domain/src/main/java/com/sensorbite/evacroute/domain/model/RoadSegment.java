@@ -1,5 +1,6 @@
 package com.sensorbite.evacroute.domain.model;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.IntStream;
 
@@ -30,17 +31,97 @@ public class RoadSegment {
         this.hazardous = hazardous;
     }
 
+    private RoadSegment(String id, List<Coordinate> coordinates, double lengthMeters, boolean oneway,
+                        boolean hazardous) {
+        this.id = id;
+        this.coordinates = coordinates;
+        this.lengthMeters = lengthMeters;
+        this.oneway = oneway;
+        this.hazardous = hazardous;
+    }
+
+    /**
+     * Create a segment whose length was measured earlier, e.g. restored from a
+     * snapshot, keeping {@code coordinates} as given instead of copying them.
+     *
+     * @param coordinates unmodifiable polyline of at least two points, e.g. a view of stored geometry
+     * @param lengthMeters length of the polyline as measured by a segment built from it
+     */
+    public static RoadSegment measured(String id, List<Coordinate> coordinates, double lengthMeters,
+                                       boolean oneway, boolean hazardous) {
+        if (coordinates == null || coordinates.size() < MIN_SEGMENT_COORDINATES) {
+            throw new IllegalArgumentException("Segment must have at least " + MIN_SEGMENT_COORDINATES + " points");
+        }
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Segment ID cannot be null or blank");
+        }
+        if (!(lengthMeters >= 0.0) || Double.isInfinite(lengthMeters)) {
+            throw new IllegalArgumentException("Segment length must be finite and non-negative: " + lengthMeters);
+        }
+        return new RoadSegment(id, coordinates, lengthMeters, oneway, hazardous);
+    }
+
     private double calculateLength() {
         return IntStream.range(0, coordinates.size() - 1)
                 .mapToDouble(i -> coordinates.get(i).distanceTo(coordinates.get(i + 1)))
                 .sum();
     }
 
+    /**
+     * Part of the segment's polyline between two distances from its first coordinate.
+     *
+     * <p>Cut points are interpolated linearly between the neighbouring
+     * coordinates; distances are clamped to the segment.</p>
+     *
+     * @param fromMeters distance along the segment where the part starts
+     * @param toMeters distance along the segment where the part ends
+     * @return coordinates of the part, at least two
+     */
+    public List<Coordinate> slice(double fromMeters, double toMeters) {
+        if (fromMeters > toMeters) {
+            throw new IllegalArgumentException("Slice start cannot be after its end");
+        }
+        double to = Math.max(0.0, Math.min(lengthMeters, toMeters));
+        double from = Math.min(to, Math.max(0.0, fromMeters));
+        List<Coordinate> part = new ArrayList<>();
+        double walked = 0.0;
+        for (int i = 0; i < coordinates.size() - 1; i++) {
+            Coordinate a = coordinates.get(i);
+            Coordinate b = coordinates.get(i + 1);
+            double step = a.distanceTo(b);
+            if (part.isEmpty() && from <= walked + step) {
+                part.add(interpolate(a, b, step, from - walked));
+            }
+            if (!part.isEmpty()) {
+                if (to <= walked + step) {
+                    part.add(interpolate(a, b, step, to - walked));
+                    return part;
+                }
+                part.add(b);
+            }
+            walked += step;
+        }
+        while (part.size() < MIN_SEGMENT_COORDINATES) {
+            part.add(coordinates.getLast());
+        }
+        return part;
+    }
+
+    private static Coordinate interpolate(Coordinate a, Coordinate b, double step, double offset) {
+        if (step <= 0.0) {
+            return a;
+        }
+        double fraction = Math.min(1.0, Math.max(0.0, offset / step));
+        return new Coordinate(
+                a.latitude() + (b.latitude() - a.latitude()) * fraction,
+                a.longitude() + (b.longitude() - a.longitude()) * fraction);
+    }
+
     public RoadSegment withHazardous(boolean hazardous) {
         if (this.hazardous == hazardous) {
             return this;
         }
-        return new RoadSegment(id, coordinates, oneway, hazardous);
+        return new RoadSegment(id, coordinates, lengthMeters, oneway, hazardous);
     }
 
     public String getId() {
@@ -0,0 +1,23 @@
+package com.sensorbite.evacroute.domain.model;
+
+/**
+ * Length of the best evacuation route between two points, without its geometry.
+ *
+ * @param distanceMeters length of the route
+ * @param crossesHazards whether even the best route has to cross a hazardous segment
+ * @param computationTimeMs time spent answering the query
+ */
+public record RouteDistance(
+    double distanceMeters,
+    boolean crossesHazards,
+    long computationTimeMs
+) {
+    public RouteDistance {
+        if (distanceMeters < 0) {
+            throw new IllegalArgumentException("Distance cannot be negative");
+        }
+        if (computationTimeMs < 0) {
+            throw new IllegalArgumentException("Computation time cannot be negative");
+        }
+    }
+}
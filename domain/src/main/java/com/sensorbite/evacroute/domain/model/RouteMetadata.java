@@ -8,7 +8,9 @@ public record RouteMetadata(
     int hazardousSegmentsAvoided,
     double safetyScore,
     Instant timestamp,
-    boolean allPathsHazardous
+    boolean allPathsHazardous,
+    SearchAlgorithm algorithm,
+    int settledNodes
 ) {
     public RouteMetadata {
         if (safetyScore < 0.0 || safetyScore > 1.0) {
@@ -20,5 +22,26 @@ public record RouteMetadata(
         if (computationTimeMs < 0) {
             throw new IllegalArgumentException("Computation time cannot be negative");
         }
+        if (settledNodes < 0) {
+            throw new IllegalArgumentException("Settled node count cannot be negative");
+        }
+    }
+
+    public RouteMetadata(double distanceMeters, long computationTimeMs, int hazardousSegmentsAvoided,
+                         double safetyScore, Instant timestamp, boolean allPathsHazardous) {
+        this(distanceMeters, computationTimeMs, hazardousSegmentsAvoided, safetyScore, timestamp,
+                allPathsHazardous, SearchAlgorithm.DIJKSTRA, 0);
+    }
+
+    /**
+     * Metadata of the same route served again without a search, e.g. from a cache.
+     *
+     * @param servedAt when the route is served
+     * @param serveTimeMs time taken to serve it
+     * @return this metadata with the new timestamp and time and no settled nodes
+     */
+    public RouteMetadata servedAgain(Instant servedAt, long serveTimeMs) {
+        return new RouteMetadata(distanceMeters, serveTimeMs, hazardousSegmentsAvoided, safetyScore, servedAt,
+                allPathsHazardous, algorithm, 0);
     }
 }
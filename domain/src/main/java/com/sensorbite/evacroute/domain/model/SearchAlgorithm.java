@@ -0,0 +1,50 @@
+package com.sensorbite.evacroute.domain.model;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.stream.Collectors;
+
+/**
+ * Shortest path algorithm used to compute a route.
+ */
+public enum SearchAlgorithm {
+
+    /** Uniform-cost search expanding in all directions from the start node. */
+    DIJKSTRA,
+
+    /** Goal-directed search guided by the straight-line distance to the end node. */
+    ASTAR,
+
+    /** A* guided by precomputed landmark distances as well as the straight-line distance. */
+    ALT,
+
+    /** Simultaneous searches from both end nodes that stop once their frontiers meet. */
+    BIDIRECTIONAL,
+
+    /** Query on a contraction hierarchy preprocessed for the current hazard overlay. */
+    CH,
+
+    /** Query on a topology-only contraction hierarchy re-weighted for each hazard overlay. */
+    CCH,
+
+    /** Lookup in hub labels derived from the customized contraction hierarchy. */
+    HL;
+
+    /**
+     * Parse an algorithm name case-insensitively.
+     *
+     * @param name algorithm name, e.g. {@code "astar"}
+     * @return matching algorithm
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static SearchAlgorithm fromName(String name) {
+        String normalized = name == null ? "" : name.trim().toUpperCase(Locale.ROOT).replace("-", "").replace("*", "STAR");
+        for (SearchAlgorithm algorithm : values()) {
+            if (algorithm.name().equals(normalized)) {
+                return algorithm;
+            }
+        }
+        throw new IllegalArgumentException("Unknown search algorithm '" + name + "'. Supported: "
+                + Arrays.stream(values()).map(a -> a.name().toLowerCase(Locale.ROOT)).collect(Collectors.joining(", ")));
+    }
+}
@@ -0,0 +1,237 @@
+package com.sensorbite.evacroute.domain.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Static packed R-tree over the bounding boxes of road segments, used to find
+ * the segments a changed flood zone can touch without scanning the network.
+ *
+ * <p>Segments are ordered along a Z-order curve through the centres of their
+ * boxes and packed {@value #NODE_CAPACITY} to a leaf; every upper level packs
+ * the level below the same way. Boxes are stored level by level in flat
+ * arrays, so the tree holds no per-node objects and a query allocates nothing
+ * but its traversal stack.</p>
+ *
+ * <p>Instances are immutable and safe to share between threads.</p>
+ */
+final class SegmentEnvelopeIndex {
+
+    static final int NODE_CAPACITY = 16;
+
+    /** Networks with fewer segments have their boxes computed on the calling thread. */
+    private static final int PARALLEL_BUILD_THRESHOLD = 65_536;
+    private static final int CURVE_BITS = 15;
+    private static final int CURVE_CELLS = (1 << CURVE_BITS) - 1;
+
+    /** Segment index of every leaf entry, in tree order. */
+    private final int[] segments;
+    /** First box of every level, leaves first, followed by the total box count. */
+    private final int[] levelStart;
+    private final double[] minLat;
+    private final double[] minLon;
+    private final double[] maxLat;
+    private final double[] maxLon;
+
+    private SegmentEnvelopeIndex(int[] segments, int[] levelStart,
+                                 double[] minLat, double[] minLon, double[] maxLat, double[] maxLon) {
+        this.segments = segments;
+        this.levelStart = levelStart;
+        this.minLat = minLat;
+        this.minLon = minLon;
+        this.maxLat = maxLat;
+        this.maxLon = maxLon;
+    }
+
+    /**
+     * Build an index over segments; their list position is the index reported by queries.
+     *
+     * @param segments road segments
+     * @return envelope index
+     */
+    static SegmentEnvelopeIndex build(List<RoadSegment> segments) {
+        int count = segments.size();
+        double[] envelopes = new double[count * 4];
+        IntStream range = IntStream.range(0, count);
+        if (count >= PARALLEL_BUILD_THRESHOLD) {
+            range = range.parallel();
+        }
+        range.forEach(i -> envelope(segments.get(i), envelopes, i * 4));
+
+        int[] order = curveOrder(envelopes, count);
+        int[] levelStart = levelStarts(count);
+        int boxCount = levelStart[levelStart.length - 1];
+        double[] minLat = new double[boxCount];
+        double[] minLon = new double[boxCount];
+        double[] maxLat = new double[boxCount];
+        double[] maxLon = new double[boxCount];
+        for (int slot = 0; slot < count; slot++) {
+            int offset = order[slot] * 4;
+            minLat[slot] = envelopes[offset];
+            minLon[slot] = envelopes[offset + 1];
+            maxLat[slot] = envelopes[offset + 2];
+            maxLon[slot] = envelopes[offset + 3];
+        }
+        for (int level = 1; level < levelStart.length - 1; level++) {
+            int childStart = levelStart[level - 1];
+            int childEnd = levelStart[level];
+            for (int box = levelStart[level]; box < levelStart[level + 1]; box++) {
+                int first = childStart + (box - levelStart[level]) * NODE_CAPACITY;
+                int last = Math.min(first + NODE_CAPACITY, childEnd);
+                minLat[box] = Double.POSITIVE_INFINITY;
+                minLon[box] = Double.POSITIVE_INFINITY;
+                maxLat[box] = Double.NEGATIVE_INFINITY;
+                maxLon[box] = Double.NEGATIVE_INFINITY;
+                for (int child = first; child < last; child++) {
+                    minLat[box] = Math.min(minLat[box], minLat[child]);
+                    minLon[box] = Math.min(minLon[box], minLon[child]);
+                    maxLat[box] = Math.max(maxLat[box], maxLat[child]);
+                    maxLon[box] = Math.max(maxLon[box], maxLon[child]);
+                }
+            }
+        }
+        return new SegmentEnvelopeIndex(order, levelStart, minLat, minLon, maxLat, maxLon);
+    }
+
+    private static void envelope(RoadSegment segment, double[] envelopes, int offset) {
+        double south = Double.POSITIVE_INFINITY;
+        double west = Double.POSITIVE_INFINITY;
+        double north = Double.NEGATIVE_INFINITY;
+        double east = Double.NEGATIVE_INFINITY;
+        for (Coordinate coordinate : segment.getCoordinates()) {
+            south = Math.min(south, coordinate.latitude());
+            west = Math.min(west, coordinate.longitude());
+            north = Math.max(north, coordinate.latitude());
+            east = Math.max(east, coordinate.longitude());
+        }
+        envelopes[offset] = south;
+        envelopes[offset + 1] = west;
+        envelopes[offset + 2] = north;
+        envelopes[offset + 3] = east;
+    }
+
+    /** Segment indices sorted by the Z-order code of their box centres, ties by index. */
+    private static int[] curveOrder(double[] envelopes, int count) {
+        double south = Double.POSITIVE_INFINITY;
+        double west = Double.POSITIVE_INFINITY;
+        double north = Double.NEGATIVE_INFINITY;
+        double east = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) {
+            south = Math.min(south, envelopes[i * 4]);
+            west = Math.min(west, envelopes[i * 4 + 1]);
+            north = Math.max(north, envelopes[i * 4 + 2]);
+            east = Math.max(east, envelopes[i * 4 + 3]);
+        }
+        double latScale = north > south ? CURVE_CELLS / (north - south) : 0.0;
+        double lonScale = east > west ? CURVE_CELLS / (east - west) : 0.0;
+
+        long[] keys = new long[count];
+        for (int i = 0; i < count; i++) {
+            double lat = (envelopes[i * 4] + envelopes[i * 4 + 2]) / 2;
+            double lon = (envelopes[i * 4 + 1] + envelopes[i * 4 + 3]) / 2;
+            long code = interleave((int) ((lat - south) * latScale)) << 1
+                    | interleave((int) ((lon - west) * lonScale));
+            keys[i] = code << Integer.SIZE | i;
+        }
+        Arrays.parallelSort(keys);
+        int[] order = new int[count];
+        for (int slot = 0; slot < count; slot++) {
+            order[slot] = (int) keys[slot];
+        }
+        return order;
+    }
+
+    /** Spread the low {@value #CURVE_BITS} bits of {@code value} to the even bit positions. */
+    private static long interleave(int value) {
+        long bits = value & CURVE_CELLS;
+        bits = (bits | bits << 8) & 0x00FF00FFL;
+        bits = (bits | bits << 4) & 0x0F0F0F0FL;
+        bits = (bits | bits << 2) & 0x33333333L;
+        bits = (bits | bits << 1) & 0x55555555L;
+        return bits;
+    }
+
+    private static int[] levelStarts(int count) {
+        int levels = 1;
+        for (int size = count; size > 1; size = (size + NODE_CAPACITY - 1) / NODE_CAPACITY) {
+            levels++;
+        }
+        int[] starts = new int[levels + 1];
+        int size = count;
+        for (int level = 0; level < levels; level++) {
+            starts[level + 1] = starts[level] + size;
+            size = (size + NODE_CAPACITY - 1) / NODE_CAPACITY;
+        }
+        return starts;
+    }
+
+    int size() {
+        return segments.length;
+    }
+
+    /**
+     * Mark every segment whose bounding box intersects a query box, boundaries included.
+     *
+     * @param south minimum latitude of the query box
+     * @param west minimum longitude of the query box
+     * @param north maximum latitude of the query box
+     * @param east maximum longitude of the query box
+     * @param result receives the indices of matching segments
+     */
+    void collect(double south, double west, double north, double east, BitSet result) {
+        if (segments.length == 0) {
+            return;
+        }
+        int[] stack = new int[(levelStart.length - 1) * NODE_CAPACITY];
+        int depth = 0;
+        stack[depth++] = levelStart[levelStart.length - 2];
+        while (depth > 0) {
+            int box = stack[--depth];
+            if (minLat[box] > north || maxLat[box] < south || minLon[box] > east || maxLon[box] < west) {
+                continue;
+            }
+            if (box < levelStart[1]) {
+                result.set(segments[box]);
+                continue;
+            }
+            int level = levelOf(box);
+            int first = levelStart[level - 1] + (box - levelStart[level]) * NODE_CAPACITY;
+            int last = Math.min(first + NODE_CAPACITY, levelStart[level]);
+            for (int child = first; child < last; child++) {
+                stack[depth++] = child;
+            }
+        }
+    }
+
+    /**
+     * Mark every segment whose bounding box intersects the bounding box of a flood zone.
+     *
+     * @param zone flood zone
+     * @param result receives the indices of matching segments
+     */
+    void collect(FloodZone zone, BitSet result) {
+        double south = Double.POSITIVE_INFINITY;
+        double west = Double.POSITIVE_INFINITY;
+        double north = Double.NEGATIVE_INFINITY;
+        double east = Double.NEGATIVE_INFINITY;
+        for (List<Coordinate> ring : zone.polygonRings()) {
+            for (Coordinate coordinate : ring) {
+                south = Math.min(south, coordinate.latitude());
+                west = Math.min(west, coordinate.longitude());
+                north = Math.max(north, coordinate.latitude());
+                east = Math.max(east, coordinate.longitude());
+            }
+        }
+        collect(south, west, north, east, result);
+    }
+
+    private int levelOf(int box) {
+        int level = 1;
+        while (box >= levelStart[level + 1]) {
+            level++;
+        }
+        return level;
+    }
+}
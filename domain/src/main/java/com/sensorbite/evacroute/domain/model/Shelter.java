@@ -0,0 +1,23 @@
+package com.sensorbite.evacroute.domain.model;
+
+/**
+ * Registered evacuation shelter that routes can end at.
+ *
+ * @param id unique shelter identifier
+ * @param name human-readable name, or {@code null} if unnamed
+ * @param location entrance of the shelter
+ */
+public record Shelter(
+    String id,
+    String name,
+    Coordinate location
+) {
+    public Shelter {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Shelter ID cannot be null or blank");
+        }
+        if (location == null) {
+            throw new IllegalArgumentException("Shelter location cannot be null");
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.sensorbite.evacroute.domain.model;
+
+/**
+ * Route from a start point to the nearest reachable shelter.
+ *
+ * @param shelter shelter the route ends at
+ * @param route route to the road node nearest the shelter
+ */
+public record ShelterRoute(
+    Shelter shelter,
+    Route route
+) {
+    public ShelterRoute {
+        if (shelter == null) {
+            throw new IllegalArgumentException("Shelter cannot be null");
+        }
+        if (route == null) {
+            throw new IllegalArgumentException("Route cannot be null");
+        }
+    }
+}
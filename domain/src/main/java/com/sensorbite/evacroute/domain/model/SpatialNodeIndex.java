@@ -0,0 +1,308 @@
+package com.sensorbite.evacroute.domain.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * Static k-d tree over the nodes of a {@link CompactGraph} for snapping
+ * coordinates to the road network.
+ *
+ * <p>Nodes are indexed by their earth-centred cartesian position on a sphere,
+ * so straight-line (chord) distance in the tree grows monotonically with
+ * great-circle distance and nearest-neighbour pruning stays exact across the
+ * antimeridian and near the poles. The tree is implicit: node ids are stored
+ * in tree order in one array and the median of every range is its root, so a
+ * query allocates only its result.</p>
+ *
+ * <p>Ties are broken towards the lower node index. Instances are immutable and
+ * safe to share between threads.</p>
+ */
+public final class SpatialNodeIndex {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+    private static final int[] NONE = new int[0];
+
+    /** Restored indices with fewer nodes are projected on the calling thread. */
+    private static final int PARALLEL_RESTORE_THRESHOLD = 65_536;
+
+    private final int[] nodes;
+    private final double[] points;
+    private final byte[] axes;
+
+    private SpatialNodeIndex(int[] nodes, double[] points, byte[] axes) {
+        this.nodes = nodes;
+        this.points = points;
+        this.axes = axes;
+    }
+
+    /**
+     * Build an index over all nodes of a graph.
+     *
+     * @param graph graph whose nodes are indexed
+     * @return spatial index
+     */
+    public static SpatialNodeIndex build(CompactGraph graph) {
+        int count = graph.nodeCount();
+        int[] nodes = new int[count];
+        double[] points = new double[count * 3];
+        for (int node = 0; node < count; node++) {
+            nodes[node] = node;
+            toCartesian(graph.latitude(node), graph.longitude(node), points, node * 3);
+        }
+        byte[] axes = new byte[count];
+        buildRange(nodes, points, axes, 0, count);
+        return new SpatialNodeIndex(nodes, points, axes);
+    }
+
+    /**
+     * Restore an index from the tree layout of an earlier build, e.g. read back
+     * from a snapshot, without repeating the build.
+     *
+     * @param graph graph whose nodes are indexed
+     * @param nodes node ids in tree order, as reported by {@link #nodeAt(int)}
+     * @param axes split axis of every tree slot, as reported by {@link #axisAt(int)}
+     * @return spatial index over the given layout
+     * @throws IllegalArgumentException if the layout does not hold every node of the graph exactly once
+     */
+    public static SpatialNodeIndex fromTree(CompactGraph graph, int[] nodes, byte[] axes) {
+        int count = graph.nodeCount();
+        if (nodes.length != count || axes.length != count) {
+            throw new IllegalArgumentException(
+                    "Tree layout covers " + nodes.length + " slots, graph has " + count + " nodes");
+        }
+        BitSet seen = new BitSet(count);
+        for (int slot = 0; slot < count; slot++) {
+            int node = nodes[slot];
+            if (node < 0 || node >= count || seen.get(node)) {
+                throw new IllegalArgumentException("Tree layout holds node " + node + " out of range or twice");
+            }
+            if (axes[slot] < 0 || axes[slot] > 2) {
+                throw new IllegalArgumentException("Invalid split axis " + axes[slot] + " in tree slot " + slot);
+            }
+            seen.set(node);
+        }
+
+        double[] points = new double[count * 3];
+        IntStream slots = IntStream.range(0, count);
+        if (count >= PARALLEL_RESTORE_THRESHOLD) {
+            slots = slots.parallel();
+        }
+        slots.forEach(slot -> toCartesian(graph.latitude(nodes[slot]), graph.longitude(nodes[slot]), points, slot * 3));
+        return new SpatialNodeIndex(nodes, points, axes);
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    /** Node id stored in tree slot {@code slot}. */
+    public int nodeAt(int slot) {
+        return nodes[slot];
+    }
+
+    /** Split axis of tree slot {@code slot}; meaningful only for slots with children. */
+    public int axisAt(int slot) {
+        return axes[slot];
+    }
+
+    /**
+     * Find the node closest to a coordinate.
+     *
+     * @param coordinate query coordinate
+     * @return node index, or -1 if the index is empty
+     */
+    public int nearest(Coordinate coordinate) {
+        return nearest(coordinate, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Find the node closest to a coordinate within a snap radius.
+     *
+     * @param coordinate query coordinate
+     * @param maxDistanceMeters maximum great-circle distance to the node
+     * @return node index, or -1 if no node lies within the radius
+     */
+    public int nearest(Coordinate coordinate, double maxDistanceMeters) {
+        int[] found = nearest(coordinate, 1, maxDistanceMeters);
+        return found.length == 0 ? -1 : found[0];
+    }
+
+    /**
+     * Find up to {@code k} nodes closest to a coordinate within a snap radius.
+     *
+     * @param coordinate query coordinate
+     * @param k maximum number of nodes to return
+     * @param maxDistanceMeters maximum great-circle distance to a node
+     * @return node indices ordered by increasing distance
+     */
+    public int[] nearest(Coordinate coordinate, int k, double maxDistanceMeters) {
+        if (k < 1) {
+            throw new IllegalArgumentException("k must be positive");
+        }
+        if (maxDistanceMeters < 0) {
+            throw new IllegalArgumentException("Maximum snap distance cannot be negative");
+        }
+        if (nodes.length == 0) {
+            return NONE;
+        }
+        Query query = new Query(coordinate, Math.min(k, nodes.length), chordSquared(maxDistanceMeters));
+        search(query, 0, nodes.length);
+        return Arrays.copyOf(query.found, query.size);
+    }
+
+    private void search(Query query, int lo, int hi) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        int offset = mid * 3;
+        double dx = query.point[0] - points[offset];
+        double dy = query.point[1] - points[offset + 1];
+        double dz = query.point[2] - points[offset + 2];
+        query.offer(nodes[mid], dx * dx + dy * dy + dz * dz);
+
+        int axis = axes[mid];
+        double diff = query.point[axis] - points[offset + axis];
+        if (diff < 0) {
+            search(query, lo, mid);
+            if (diff * diff <= query.bound()) {
+                search(query, mid + 1, hi);
+            }
+        } else {
+            search(query, mid + 1, hi);
+            if (diff * diff <= query.bound()) {
+                search(query, lo, mid);
+            }
+        }
+    }
+
+    private static void buildRange(int[] nodes, double[] points, byte[] axes, int lo, int hi) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int axis = widestAxis(points, lo, hi);
+        int mid = (lo + hi) >>> 1;
+        select(nodes, points, lo, hi - 1, mid, axis);
+        axes[mid] = (byte) axis;
+        buildRange(nodes, points, axes, lo, mid);
+        buildRange(nodes, points, axes, mid + 1, hi);
+    }
+
+    private static int widestAxis(double[] points, int lo, int hi) {
+        int widest = 0;
+        double widestSpread = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = lo; i < hi; i++) {
+                double value = points[i * 3 + axis];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > widestSpread) {
+                widestSpread = max - min;
+                widest = axis;
+            }
+        }
+        return widest;
+    }
+
+    /** Quickselect: place the k-th smallest entry of {@code [left, right]} on {@code axis} at {@code k}. */
+    private static void select(int[] nodes, double[] points, int left, int right, int k, int axis) {
+        while (left < right) {
+            double pivot = points[((left + right) >>> 1) * 3 + axis];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (points[i * 3 + axis] < pivot) {
+                    i++;
+                }
+                while (points[j * 3 + axis] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(nodes, points, i++, j--);
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private static void swap(int[] nodes, double[] points, int a, int b) {
+        int node = nodes[a];
+        nodes[a] = nodes[b];
+        nodes[b] = node;
+        for (int axis = 0; axis < 3; axis++) {
+            double value = points[a * 3 + axis];
+            points[a * 3 + axis] = points[b * 3 + axis];
+            points[b * 3 + axis] = value;
+        }
+    }
+
+    private static void toCartesian(double latitude, double longitude, double[] target, int offset) {
+        double lat = Math.toRadians(latitude);
+        double lon = Math.toRadians(longitude);
+        double cosLat = Math.cos(lat);
+        target[offset] = EARTH_RADIUS_METERS * cosLat * Math.cos(lon);
+        target[offset + 1] = EARTH_RADIUS_METERS * cosLat * Math.sin(lon);
+        target[offset + 2] = EARTH_RADIUS_METERS * Math.sin(lat);
+    }
+
+    /** Squared chord length subtending a great-circle distance. */
+    private static double chordSquared(double greatCircleMeters) {
+        if (greatCircleMeters >= Math.PI * EARTH_RADIUS_METERS) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double chord = 2 * EARTH_RADIUS_METERS * Math.sin(greatCircleMeters / (2 * EARTH_RADIUS_METERS));
+        return chord * chord;
+    }
+
+    /** Bounded candidate list kept sorted by (distance, node). */
+    private static final class Query {
+        private final double[] point = new double[3];
+        private final int[] found;
+        private final double[] distances;
+        private final double radiusSquared;
+        private int size;
+
+        Query(Coordinate coordinate, int k, double radiusSquared) {
+            toCartesian(coordinate.latitude(), coordinate.longitude(), point, 0);
+            this.found = new int[k];
+            this.distances = new double[k];
+            this.radiusSquared = radiusSquared;
+        }
+
+        double bound() {
+            return size == found.length ? distances[size - 1] : radiusSquared;
+        }
+
+        void offer(int node, double distanceSquared) {
+            if (distanceSquared > radiusSquared) {
+                return;
+            }
+            if (size == found.length && !precedes(node, distanceSquared, size - 1)) {
+                return;
+            }
+            int position = size == found.length ? size - 1 : size++;
+            while (position > 0 && precedes(node, distanceSquared, position - 1)) {
+                found[position] = found[position - 1];
+                distances[position] = distances[position - 1];
+                position--;
+            }
+            found[position] = node;
+            distances[position] = distanceSquared;
+        }
+
+        private boolean precedes(int node, double distanceSquared, int position) {
+            return distanceSquared < distances[position]
+                    || (distanceSquared == distances[position] && node < found[position]);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.sensorbite.evacroute.domain.port.in;
+
+import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.DistanceMatrix;
+import com.sensorbite.evacroute.domain.model.RouteDistance;
+
+import java.util.List;
+
+public interface CalculateDistanceUseCase {
+    RouteDistance calculateDistance(Coordinate start, Coordinate end);
+
+    DistanceMatrix calculateDistanceMatrix(List<Coordinate> sources, List<Coordinate> targets);
+}
@@ -2,7 +2,15 @@ package com.sensorbite.evacroute.domain.port.in;
 
 import com.sensorbite.evacroute.domain.model.Coordinate;
 import com.sensorbite.evacroute.domain.model.Route;
+import com.sensorbite.evacroute.domain.model.SearchAlgorithm;
 
 public interface CalculateRouteUseCase {
     Route calculateRoute(Coordinate start, Coordinate end);
+
+    /**
+     * Calculate a route with a specific search algorithm.
+     *
+     * @param algorithm search algorithm, or {@code null} for the configured default
+     */
+    Route calculateRoute(Coordinate start, Coordinate end, SearchAlgorithm algorithm);
 }
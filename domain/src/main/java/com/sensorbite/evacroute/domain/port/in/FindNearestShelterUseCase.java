@@ -0,0 +1,8 @@
+package com.sensorbite.evacroute.domain.port.in;
+
+import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.ShelterRoute;
+
+public interface FindNearestShelterUseCase {
+    ShelterRoute findRouteToNearestShelter(Coordinate start);
+}
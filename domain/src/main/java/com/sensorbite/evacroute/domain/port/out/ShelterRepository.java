@@ -0,0 +1,9 @@
+package com.sensorbite.evacroute.domain.port.out;
+
+import com.sensorbite.evacroute.domain.model.Shelter;
+
+import java.util.List;
+
+public interface ShelterRepository {
+    List<Shelter> loadAll();
+}
@@ -1,12 +1,15 @@
 package com.sensorbite.evacroute.domain.service;
 
+import com.sensorbite.evacroute.domain.model.CompactGraph;
 import com.sensorbite.evacroute.domain.model.Coordinate;
 import com.sensorbite.evacroute.domain.model.Graph;
 import com.sensorbite.evacroute.domain.model.RoadSegment;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 public class GraphBuilder {
 
@@ -20,24 +23,35 @@ public class GraphBuilder {
      * while avoiding false node merges. Increasing this value reduces node count
      * but may incorrectly merge distinct road endpoints.</p>
      */
-    private static final double COORDINATE_TOLERANCE_METERS = 1.0;
+    public static final double COORDINATE_TOLERANCE_METERS = 1.0;
+
+    /**
+     * Earth's mean radius in meters, matching the radius used by
+     * {@link Coordinate#distanceTo(Coordinate)}.
+     */
+    private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+
+    /** Networks with fewer segments have their endpoints projected on the calling thread. */
+    private static final int PARALLEL_SEGMENT_THRESHOLD = 4096;
 
     public Graph buildGraph(List<RoadSegment> segments) {
         Graph graph = new Graph();
-        Map<String, Graph.Node> nodeCache = new HashMap<>();
+        NodeGrid nodeGrid = new NodeGrid();
+        List<Graph.Node> nodes = new ArrayList<>();
 
         segments.forEach(segment -> {
             List<Coordinate> coords = segment.getCoordinates();
             Coordinate start = coords.getFirst();
             Coordinate end = coords.getLast();
 
-            Graph.Node startNode = getOrCreateNode(start, nodeCache, graph);
-            Graph.Node endNode = getOrCreateNode(end, nodeCache, graph);
+            Graph.Node startNode = getOrCreateNode(start, nodeGrid, nodes, graph);
+            Graph.Node endNode = getOrCreateNode(end, nodeGrid, nodes, graph);
 
+            double weight = edgeWeight(segment, startNode.coordinate(), endNode.coordinate());
             Graph.Edge forwardEdge = new Graph.Edge(
                 startNode.id(),
                 endNode.id(),
-                segment.getLengthMeters(),
+                weight,
                 segment.isHazardous(),
                 segment.getId()
             );
@@ -47,7 +61,7 @@ public class GraphBuilder {
                 Graph.Edge backwardEdge = new Graph.Edge(
                     endNode.id(),
                     startNode.id(),
-                    segment.getLengthMeters(),
+                    weight,
                     segment.isHazardous(),
                     segment.getId()
                 );
@@ -58,28 +72,221 @@ public class GraphBuilder {
         return graph;
     }
 
-    private Graph.Node getOrCreateNode(Coordinate coord, Map<String, Graph.Node> nodeCache, Graph graph) {
-        String key = findNearbyNodeKey(coord, nodeCache);
-        if (key != null) {
-            return nodeCache.get(key);
+    /**
+     * Weight of an edge between two merged graph nodes: the length of the
+     * segment geometry, but never less than the great-circle distance between
+     * the nodes.
+     *
+     * <p>Merged nodes may sit up to {@link #COORDINATE_TOLERANCE_METERS} away
+     * from the segment end points they stand for, so the geometry alone can be
+     * shorter than the straight line between the nodes. Raising such weights to
+     * that line keeps the great-circle distance between nodes a lower bound on
+     * every path between them, which A* relies on.</p>
+     */
+    public static double edgeWeight(RoadSegment segment, Coordinate startNode, Coordinate endNode) {
+        return Math.max(segment.getLengthMeters(), startNode.distanceTo(endNode));
+    }
+
+    /**
+     * Build the compact CSR representation directly from segments.
+     *
+     * <p>Node merging and node/edge order are identical to {@link #buildGraph(List)},
+     * so node {@code i} here corresponds to the {@code i}-th node of that graph.
+     * Edge segment indices are positions in {@code segments}.</p>
+     *
+     * <p>Segment endpoints of large networks are projected onto the node grid
+     * in parallel. Nodes are then merged and numbered in one pass in segment
+     * order, so the result does not depend on the number of threads.</p>
+     *
+     * @param segments road segments in network index order
+     * @return compact graph
+     */
+    public CompactGraph buildCompactGraph(List<RoadSegment> segments) {
+        long[] endpointPositions = new long[segments.size() * 2];
+        IntStream indices = IntStream.range(0, segments.size());
+        if (segments.size() >= PARALLEL_SEGMENT_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        indices.forEach(i -> {
+            List<Coordinate> coords = segments.get(i).getCoordinates();
+            endpointPositions[2 * i] = NodeGrid.positionOf(coords.getFirst());
+            endpointPositions[2 * i + 1] = NodeGrid.positionOf(coords.getLast());
+        });
+
+        CompactGraphAssembler assembler = new CompactGraphAssembler(segments.size());
+        for (int i = 0; i < segments.size(); i++) {
+            assembler.addSegment(segments.get(i), endpointPositions[2 * i], endpointPositions[2 * i + 1]);
+        }
+        return assembler.build();
+    }
+
+    private Graph.Node getOrCreateNode(Coordinate coord, NodeGrid nodeGrid, List<Graph.Node> nodes, Graph graph) {
+        long position = NodeGrid.positionOf(coord);
+        int existing = nodeGrid.findNearby(coord, position);
+        if (existing >= 0) {
+            return nodes.get(existing);
         }
 
         String nodeId = generateNodeId(coord);
         Graph.Node node = new Graph.Node(nodeId, coord);
         graph.addNode(node);
-        nodeCache.put(nodeId, node);
+        nodes.add(node);
+        nodeGrid.add(coord, position);
         return node;
     }
 
-    private String findNearbyNodeKey(Coordinate coord, Map<String, Graph.Node> nodeCache) {
-        return nodeCache.entrySet().stream()
-                .filter(entry -> entry.getValue().coordinate().distanceTo(coord) < COORDINATE_TOLERANCE_METERS)
-                .map(Map.Entry::getKey)
-                .findFirst()
-                .orElse(null);
-    }
-
     private String generateNodeId(Coordinate coord) {
         return String.format("node_%.6f_%.6f", coord.latitude(), coord.longitude());
     }
+
+    /**
+     * Builds a compact graph segment by segment from endpoint grid positions
+     * computed ahead of time; segment indices follow the order of addition.
+     */
+    private static final class CompactGraphAssembler {
+        private final CompactGraph.Builder builder;
+        private final NodeGrid nodeGrid = new NodeGrid();
+        private final List<Coordinate> nodeCoordinates = new ArrayList<>();
+        private int segmentCount;
+
+        private CompactGraphAssembler(int expectedSegments) {
+            this.builder = new CompactGraph.Builder(expectedSegments, expectedSegments * 2);
+        }
+
+        void addSegment(RoadSegment segment, long startPosition, long endPosition) {
+            List<Coordinate> coords = segment.getCoordinates();
+            int startNode = getOrCreateNode(coords.getFirst(), startPosition);
+            int endNode = getOrCreateNode(coords.getLast(), endPosition);
+
+            int segmentIndex = segmentCount++;
+            double weight = edgeWeight(segment, nodeCoordinates.get(startNode), nodeCoordinates.get(endNode));
+            builder.addEdge(startNode, endNode, weight, segmentIndex);
+            if (!segment.isOneway()) {
+                builder.addEdge(endNode, startNode, weight, segmentIndex);
+            }
+        }
+
+        CompactGraph build() {
+            return builder.build();
+        }
+
+        private int getOrCreateNode(Coordinate coord, long position) {
+            int existing = nodeGrid.findNearby(coord, position);
+            if (existing >= 0) {
+                return existing;
+            }
+
+            nodeGrid.add(coord, position);
+            nodeCoordinates.add(coord);
+            return builder.addNode(coord);
+        }
+    }
+
+    /**
+     * Spatial hash of graph nodes used for endpoint deduplication.
+     *
+     * <p>Coordinates are projected onto an earth-centred cartesian frame and
+     * bucketed into cubes with an edge of twice {@link #COORDINATE_TOLERANCE_METERS}.
+     * The straight-line (chord) distance never exceeds the great-circle distance,
+     * so along each axis every node within tolerance lies in the query cell or
+     * in its neighbour on the side nearer to the query point: eight cells in
+     * all. This holds at the poles and across the antimeridian, unlike
+     * a plain latitude/longitude grid.</p>
+     *
+     * <p>Candidates are confirmed with the same haversine test as before and the
+     * earliest created match wins, which keeps merging independent of bucket
+     * iteration order. Nodes are identified by creation order.</p>
+     *
+     * <p>A coordinate's grid position is computed separately by
+     * {@link #positionOf(Coordinate)}, which is thread-safe and can run ahead of
+     * the lookups.</p>
+     */
+    private static final class NodeGrid {
+        private static final double CELL_SIZE_METERS = 2 * COORDINATE_TOLERANCE_METERS;
+        private static final int AXIS_BITS = 20;
+        private static final long AXIS_MASK = (1L << AXIS_BITS) - 1;
+        private static final int FLAG_BITS = 3;
+
+        private final Map<Long, List<IndexedNode>> cells = new HashMap<>();
+        private int nextIndex;
+
+        int findNearby(Coordinate coord, long position) {
+            long baseX = axisOf(position, 2);
+            long baseY = axisOf(position, 1);
+            long baseZ = axisOf(position, 0);
+
+            IndexedNode best = null;
+            for (long dx = 0; dx <= 1; dx++) {
+                for (long dy = 0; dy <= 1; dy++) {
+                    for (long dz = 0; dz <= 1; dz++) {
+                        List<IndexedNode> bucket = cells.get(cellKey(baseX + dx, baseY + dy, baseZ + dz));
+                        if (bucket == null) {
+                            continue;
+                        }
+                        for (IndexedNode candidate : bucket) {
+                            if ((best == null || candidate.index() < best.index())
+                                    && candidate.coordinate().distanceTo(coord) < COORDINATE_TOLERANCE_METERS) {
+                                best = candidate;
+                            }
+                        }
+                    }
+                }
+            }
+            return best == null ? -1 : best.index();
+        }
+
+        int add(Coordinate coord, long position) {
+            long key = cellKey(
+                    axisOf(position, 2) + (position >>> 2 & 1),
+                    axisOf(position, 1) + (position >>> 1 & 1),
+                    axisOf(position, 0) + (position & 1));
+            int index = nextIndex++;
+            cells.computeIfAbsent(key, k -> new ArrayList<>(1)).add(new IndexedNode(index, coord));
+            return index;
+        }
+
+        /**
+         * Grid position of a coordinate: for each axis, the lower of the two
+         * cells its tolerance can reach, and a flag telling whether the
+         * coordinate itself lies in the upper one.
+         */
+        static long positionOf(Coordinate coord) {
+            long bases = 0;
+            long flags = 0;
+            for (double meters : toCartesian(coord)) {
+                double cells = meters / CELL_SIZE_METERS;
+                long cell = (long) Math.floor(cells);
+                boolean lowerHalf = cells - cell < 0.5;
+                bases = (bases << AXIS_BITS) | ((lowerHalf ? cell - 1 : cell) & AXIS_MASK);
+                flags = (flags << 1) | (lowerHalf ? 1 : 0);
+            }
+            return (bases << FLAG_BITS) | flags;
+        }
+
+        private static long axisOf(long position, int axis) {
+            return position >>> (FLAG_BITS + axis * AXIS_BITS) & AXIS_MASK;
+        }
+
+        private static double[] toCartesian(Coordinate coord) {
+            double lat = Math.toRadians(coord.latitude());
+            double lon = Math.toRadians(coord.longitude());
+            double cosLat = Math.cos(lat);
+            return new double[] {
+                EARTH_RADIUS_METERS * cosLat * Math.cos(lon),
+                EARTH_RADIUS_METERS * cosLat * Math.sin(lon),
+                EARTH_RADIUS_METERS * Math.sin(lat)
+            };
+        }
+
+        /**
+         * Pack three cell indices into one key, keeping the low 20 bits of each.
+         * Cells roughly 2,000 km apart can alias to the same key; that only adds
+         * candidates which the exact distance check rejects.
+         */
+        private static long cellKey(long x, long y, long z) {
+            return ((x & AXIS_MASK) << (2 * AXIS_BITS)) | ((y & AXIS_MASK) << AXIS_BITS) | (z & AXIS_MASK);
+        }
+    }
+
+    private record IndexedNode(int index, Coordinate coordinate) {}
 }
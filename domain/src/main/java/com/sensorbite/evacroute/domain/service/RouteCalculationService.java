@@ -1,153 +1,450 @@
 package com.sensorbite.evacroute.domain.service;
 
 import com.sensorbite.evacroute.domain.exception.RouteNotFoundException;
+import com.sensorbite.evacroute.domain.model.CompactGraph;
 import com.sensorbite.evacroute.domain.model.Coordinate;
-import com.sensorbite.evacroute.domain.model.Graph;
+import com.sensorbite.evacroute.domain.model.DistanceMatrix;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.Reachability;
 import com.sensorbite.evacroute.domain.model.RoadNetwork;
 import com.sensorbite.evacroute.domain.model.RoadSegment;
 import com.sensorbite.evacroute.domain.model.Route;
+import com.sensorbite.evacroute.domain.model.RouteDistance;
 import com.sensorbite.evacroute.domain.model.RouteMetadata;
+import com.sensorbite.evacroute.domain.model.SearchAlgorithm;
+import com.sensorbite.evacroute.domain.model.Shelter;
+import com.sensorbite.evacroute.domain.model.ShelterRoute;
+import com.sensorbite.evacroute.domain.service.search.AStarSearch;
+import com.sensorbite.evacroute.domain.service.search.BidirectionalDijkstraSearch;
+import com.sensorbite.evacroute.domain.service.search.ContractionHierarchySearch;
+import com.sensorbite.evacroute.domain.service.search.CustomizableContractionHierarchySearch;
+import com.sensorbite.evacroute.domain.service.search.DijkstraSearch;
+import com.sensorbite.evacroute.domain.service.search.DistanceTable;
+import com.sensorbite.evacroute.domain.service.search.HubLabelSearch;
+import com.sensorbite.evacroute.domain.service.search.LandmarkAStarSearch;
+import com.sensorbite.evacroute.domain.service.search.PathDistance;
+import com.sensorbite.evacroute.domain.service.search.PathResult;
+import com.sensorbite.evacroute.domain.service.search.PathSearch;
+import com.sensorbite.evacroute.domain.service.search.ReachableNodes;
+import com.sensorbite.evacroute.domain.service.search.ShelterTreeSearch;
 
 import java.time.Instant;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.PriorityQueue;
-import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class RouteCalculationService {
 
-    /**
-     * Weight multiplier applied to hazardous road segments.
-     *
-     * <p>A factor of 10,000 makes hazardous segments effectively "last resort"
-     * routes. For a typical 100m segment (weight=100), the hazardous weight
-     * becomes 1,000,000, forcing Dijkstra to prefer any non-hazardous alternative
-     * unless no other path exists.</p>
-     *
-     * <p>Rationale: 10,000x penalty means a 10km detour is preferred over 1m
-     * of hazardous road, which aligns with evacuation safety priorities.</p>
-     */
-    private static final double HAZARD_PENALTY_FACTOR = 10_000.0;
-
     /**
      * Default safety score for an empty route (start == end).
      * Value of 1.0 indicates maximum safety (no road segments traversed).
      */
     private static final double EMPTY_ROUTE_SAFETY_SCORE = 1.0;
 
-    public Route calculateRoute(RoadNetwork network, Coordinate start, Coordinate end) {
-        long startTime = System.currentTimeMillis();
+    private final Map<SearchAlgorithm, PathSearch> searches = new EnumMap<>(SearchAlgorithm.class);
+    private final DijkstraSearch reachabilitySearch = new DijkstraSearch();
+    private final DijkstraSearch distanceSearch = new DijkstraSearch();
+    /** Hub label search, or {@code null} when hub labelling is disabled. */
+    private final HubLabelSearch hubLabelSearch;
+    private final ShelterTreeSearch shelterTreeSearch;
+    private final AtomicReference<SnappedShelters> snappedShelters = new AtomicReference<>();
+    private final SearchAlgorithm defaultAlgorithm;
+    private final double maxSnapDistanceMeters;
+
+    public RouteCalculationService() {
+        this(SearchAlgorithm.DIJKSTRA, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @param defaultAlgorithm algorithm used when a request does not choose one
+     * @param maxSnapDistanceMeters maximum distance between a requested coordinate
+     *                              and the road node it snaps to
+     */
+    public RouteCalculationService(SearchAlgorithm defaultAlgorithm, double maxSnapDistanceMeters) {
+        this(defaultAlgorithm, maxSnapDistanceMeters, Runnable::run);
+    }
+
+    /**
+     * @param defaultAlgorithm algorithm used when a request does not choose one
+     * @param maxSnapDistanceMeters maximum distance between a requested coordinate
+     *                              and the road node it snaps to
+     * @param preprocessingExecutor executor running search preprocessing such as
+     *                              contraction hierarchy builds and landmark distances
+     */
+    public RouteCalculationService(SearchAlgorithm defaultAlgorithm, double maxSnapDistanceMeters,
+                                   Executor preprocessingExecutor) {
+        this(defaultAlgorithm, maxSnapDistanceMeters, preprocessingExecutor, false);
+    }
+
+    /**
+     * @param defaultAlgorithm algorithm used when a request does not choose one
+     * @param maxSnapDistanceMeters maximum distance between a requested coordinate
+     *                              and the road node it snaps to
+     * @param preprocessingExecutor executor running search preprocessing such as
+     *                              contraction hierarchy builds and landmark distances
+     * @param hubLabelsEnabled whether to compute hub labels, which enables the
+     *                         {@link SearchAlgorithm#HL} mode and answers distance
+     *                         queries from labels; labelling costs a customization
+     *                         and a labelling run per hazard overlay
+     * @throws IllegalArgumentException if hub labels are disabled but the default algorithm needs them
+     */
+    public RouteCalculationService(SearchAlgorithm defaultAlgorithm, double maxSnapDistanceMeters,
+                                   Executor preprocessingExecutor, boolean hubLabelsEnabled) {
+        if (maxSnapDistanceMeters < 0) {
+            throw new IllegalArgumentException("Maximum snap distance cannot be negative");
+        }
+        if (defaultAlgorithm == SearchAlgorithm.HL && !hubLabelsEnabled) {
+            throw new IllegalArgumentException("Search algorithm 'hl' requires hub labels to be enabled");
+        }
+        this.defaultAlgorithm = defaultAlgorithm;
+        this.maxSnapDistanceMeters = maxSnapDistanceMeters;
+        searches.put(SearchAlgorithm.DIJKSTRA, new DijkstraSearch());
+        searches.put(SearchAlgorithm.ASTAR, new AStarSearch());
+        searches.put(SearchAlgorithm.ALT,
+                new LandmarkAStarSearch(preprocessingExecutor, LandmarkAStarSearch.DEFAULT_LANDMARK_COUNT));
+        searches.put(SearchAlgorithm.BIDIRECTIONAL, new BidirectionalDijkstraSearch());
+        searches.put(SearchAlgorithm.CH, new ContractionHierarchySearch(preprocessingExecutor));
+        CustomizableContractionHierarchySearch hierarchySearch =
+                new CustomizableContractionHierarchySearch(preprocessingExecutor);
+        searches.put(SearchAlgorithm.CCH, hierarchySearch);
+        this.hubLabelSearch = hubLabelsEnabled ? new HubLabelSearch(hierarchySearch, preprocessingExecutor) : null;
+        if (hubLabelSearch != null) {
+            searches.put(SearchAlgorithm.HL, hubLabelSearch);
+        }
+        this.shelterTreeSearch = new ShelterTreeSearch(preprocessingExecutor);
+    }
+
+    /** Algorithm used when a request does not choose one. */
+    public SearchAlgorithm getDefaultAlgorithm() {
+        return defaultAlgorithm;
+    }
 
-        Graph.Node startNode = network.findNearestNode(start)
-                .orElseThrow(() -> new RouteNotFoundException("No road network near start coordinate"));
-        Graph.Node endNode = network.findNearestNode(end)
-                .orElseThrow(() -> new RouteNotFoundException("No road network near end coordinate"));
+    public Route calculateRoute(RoadNetwork network, Coordinate start, Coordinate end) {
+        return calculateRoute(network, start, end, defaultAlgorithm);
+    }
 
-        if (startNode.id().equals(endNode.id())) {
-            return createEmptyRoute(startTime);
+    /**
+     * Calculate a route with an explicitly chosen search algorithm.
+     *
+     * @param network road network with the hazard overlay to route against
+     * @param start start coordinate
+     * @param end end coordinate
+     * @param algorithm search algorithm, or {@code null} for the default
+     * @return route between the nodes nearest to the coordinates
+     */
+    public Route calculateRoute(RoadNetwork network, Coordinate start, Coordinate end, SearchAlgorithm algorithm) {
+        int startNode = snapToNode(network, start);
+        if (startNode < 0) {
+            throw new RouteNotFoundException("No road network near start coordinate");
+        }
+        int endNode = snapToNode(network, end);
+        if (endNode < 0) {
+            throw new RouteNotFoundException("No road network near end coordinate");
         }
+        return calculateRoute(network, startNode, endNode, algorithm);
+    }
 
-        DijkstraResult result = runDijkstra(network.getGraph(), startNode.id(), endNode.id());
-        List<String> path = result.path();
+    /**
+     * Calculate a route between two road nodes that were already snapped with
+     * {@link #snapToNode(RoadNetwork, Coordinate)}.
+     *
+     * @param network road network with the hazard overlay to route against
+     * @param startNode compact graph start node
+     * @param endNode compact graph end node
+     * @param algorithm search algorithm, or {@code null} for the default
+     * @return route between the nodes
+     */
+    public Route calculateRoute(RoadNetwork network, int startNode, int endNode, SearchAlgorithm algorithm) {
+        SearchAlgorithm effectiveAlgorithm = algorithm != null ? algorithm : defaultAlgorithm;
+        long startTime = System.currentTimeMillis();
+
+        if (startNode == endNode) {
+            return createEmptyRoute(startTime, effectiveAlgorithm);
+        }
 
-        if (path.isEmpty()) {
+        PathSearch search = searches.get(effectiveAlgorithm);
+        if (search == null) {
+            throw new IllegalArgumentException("Search algorithm '"
+                    + effectiveAlgorithm.name().toLowerCase(Locale.ROOT) + "' is not enabled");
+        }
+        PathResult result = search.findPath(network, startNode, endNode);
+        if (!result.found()) {
             throw new RouteNotFoundException("No route available between specified points");
         }
 
-        List<RoadSegment> routeSegments = reconstructSegments(path, network.getGraph(), network);
-        RouteMetadata metadata = createMetadata(
-                routeSegments,
-                startTime,
-                result.hasHazardousEdges()
-        );
+        List<RoadSegment> routeSegments = reconstructSegments(result.edgePath(), network);
+        RouteMetadata metadata = createMetadata(routeSegments, startTime, effectiveAlgorithm, result.settledNodes());
 
         return new Route(routeSegments, metadata);
     }
 
-    private DijkstraResult runDijkstra(Graph graph, String startNodeId, String endNodeId) {
-        Map<String, Double> distances = new HashMap<>();
-        Map<String, String> predecessors = new HashMap<>();
-        Set<String> visited = new HashSet<>();
-        PriorityQueue<NodeDistance> priorityQueue = new PriorityQueue<>(Comparator.comparingDouble(NodeDistance::distance));
+    /**
+     * Road node a coordinate snaps to.
+     *
+     * @param network road network to snap to
+     * @param coordinate requested coordinate
+     * @return nearest compact graph node, or -1 if none is within the maximum snap distance
+     */
+    public int snapToNode(RoadNetwork network, Coordinate coordinate) {
+        return network.findNearestNodeIndex(coordinate, maxSnapDistanceMeters);
+    }
 
-        distances.put(startNodeId, 0.0);
-        priorityQueue.offer(new NodeDistance(startNodeId, 0.0));
+    /**
+     * Calculate the route to whichever shelter is cheapest to reach.
+     *
+     * <p>Shelters are snapped to their nearest road nodes once per road graph
+     * and shelter set. Routes are read from a shortest-path tree towards all
+     * shelter nodes, which is rebuilt in the background when the graph, the
+     * hazard overlay or the shelters change; until then a multi-target
+     * Dijkstra search stops at the first shelter node it settles. Hazard
+     * penalties apply as for point-to-point routes, so a safe shelter further
+     * away wins over a closer one behind a flooded road. Shelters too far from
+     * the road network are ignored.</p>
+     *
+     * @param network road network with the hazard overlay to route against
+     * @param start start coordinate
+     * @param shelters candidate shelters
+     * @return nearest reachable shelter and the route to it
+     */
+    public ShelterRoute calculateRouteToNearestShelter(RoadNetwork network, Coordinate start,
+                                                       List<Shelter> shelters) {
+        long startTime = System.currentTimeMillis();
 
-        boolean hasHazardousEdges = false;
+        int startNode = network.findNearestNodeIndex(start, maxSnapDistanceMeters);
+        if (startNode < 0) {
+            throw new RouteNotFoundException("No road network near start coordinate");
+        }
+        SnappedShelters snapped = snapShelters(network, shelters);
+        if (snapped.nodes().isEmpty()) {
+            throw new RouteNotFoundException("No shelters near the road network");
+        }
 
-        while (!priorityQueue.isEmpty()) {
-            NodeDistance current = priorityQueue.poll();
+        if (snapped.nodes().get(startNode)) {
+            Route emptyRoute = createEmptyRoute(startTime, SearchAlgorithm.DIJKSTRA);
+            return new ShelterRoute(snapped.byNode().get(startNode), emptyRoute);
+        }
+        PathResult result = shelterTreeSearch.findPathToNearest(network, startNode, snapped.nodes());
+        if (!result.found()) {
+            throw new RouteNotFoundException("No shelter reachable from start coordinate");
+        }
+        int[] edgePath = result.edgePath();
+        int shelterNode = network.getCompactGraph().edgeTarget(edgePath[edgePath.length - 1]);
 
-            if (current.nodeId().equals(endNodeId)) {
-                break;
-            }
+        List<RoadSegment> routeSegments = reconstructSegments(edgePath, network);
+        RouteMetadata metadata = createMetadata(routeSegments, startTime, SearchAlgorithm.DIJKSTRA,
+                result.settledNodes());
+        return new ShelterRoute(snapped.byNode().get(shelterNode), new Route(routeSegments, metadata));
+    }
 
-            if (visited.contains(current.nodeId())) {
-                continue;
+    private SnappedShelters snapShelters(RoadNetwork network, List<Shelter> shelters) {
+        CompactGraph graph = network.getCompactGraph();
+        SnappedShelters snapped = snappedShelters.get();
+        if (snapped != null && snapped.graph() == graph && snapped.shelters() == shelters) {
+            return snapped;
+        }
+        Map<Integer, Shelter> byNode = new HashMap<>();
+        BitSet nodes = new BitSet(graph.nodeCount());
+        for (Shelter shelter : shelters) {
+            int node = network.findNearestNodeIndex(shelter.location(), maxSnapDistanceMeters);
+            if (node >= 0) {
+                byNode.putIfAbsent(node, shelter);
+                nodes.set(node);
             }
-            visited.add(current.nodeId());
+        }
+        snapped = new SnappedShelters(graph, shelters, nodes, byNode);
+        snappedShelters.set(snapped);
+        return snapped;
+    }
 
-            for (Graph.Edge edge : graph.getEdges(current.nodeId())) {
-                double weight = edge.weight();
-                if (edge.hazardous()) {
-                    weight *= HAZARD_PENALTY_FACTOR;
-                    hasHazardousEdges = true;
-                }
+    /**
+     * Calculate the length of the best route without building its geometry.
+     *
+     * <p>With hub labels enabled, a lookup costs microseconds once the labels
+     * for the current hazard overlay are built; otherwise a Dijkstra search
+     * answers it.</p>
+     *
+     * @param network road network with the hazard overlay to route against
+     * @param start start coordinate
+     * @param end end coordinate
+     * @return distance between the nodes nearest to the coordinates
+     */
+    public RouteDistance calculateDistance(RoadNetwork network, Coordinate start, Coordinate end) {
+        long startTime = System.currentTimeMillis();
+
+        int startNode = network.findNearestNodeIndex(start, maxSnapDistanceMeters);
+        if (startNode < 0) {
+            throw new RouteNotFoundException("No road network near start coordinate");
+        }
+        int endNode = network.findNearestNodeIndex(end, maxSnapDistanceMeters);
+        if (endNode < 0) {
+            throw new RouteNotFoundException("No road network near end coordinate");
+        }
 
-                double newDistance = current.distance() + weight;
-                double currentDistance = distances.getOrDefault(edge.toNodeId(), Double.MAX_VALUE);
+        PathDistance distance;
+        if (startNode == endNode) {
+            distance = new PathDistance(0.0, 0.0);
+        } else if (hubLabelSearch != null) {
+            distance = hubLabelSearch.distance(network, startNode, endNode);
+        } else {
+            distance = distanceSearch.distances(network, new int[]{startNode}, new int[]{endNode}).get(0, 0);
+        }
+        if (!distance.found()) {
+            throw new RouteNotFoundException("No route available between specified points");
+        }
+        return new RouteDistance(distance.lengthMeters(), distance.crossesHazards(),
+                System.currentTimeMillis() - startTime);
+    }
 
-                if (newDistance < currentDistance) {
-                    distances.put(edge.toNodeId(), newDistance);
-                    predecessors.put(edge.toNodeId(), current.nodeId());
-                    priorityQueue.offer(new NodeDistance(edge.toNodeId(), newDistance));
+    /**
+     * Calculate route lengths from every start to every end coordinate.
+     *
+     * <p>All pairs are answered by one many-to-many query: one Dijkstra search
+     * per source or target, or, once hub labels are enabled and built, a scan
+     * of each source's label against buckets built from the targets' labels.
+     * Coordinates too far from the road network make their row or column
+     * unreachable instead of failing the whole matrix.</p>
+     *
+     * @param network road network with the hazard overlay to route against
+     * @param sources start coordinates, one per row
+     * @param targets end coordinates, one per column
+     * @return matrix of route lengths
+     */
+    public DistanceMatrix calculateDistanceMatrix(RoadNetwork network, List<Coordinate> sources,
+                                                  List<Coordinate> targets) {
+        long startTime = System.currentTimeMillis();
+
+        int[] sourceNodes = snapAll(network, sources);
+        int[] targetNodes = snapAll(network, targets);
+        int[] snappedSources = Arrays.stream(sourceNodes).filter(node -> node >= 0).toArray();
+        int[] snappedTargets = Arrays.stream(targetNodes).filter(node -> node >= 0).toArray();
+        DistanceTable table = hubLabelSearch != null
+                ? hubLabelSearch.distances(network, snappedSources, snappedTargets)
+                : distanceSearch.distances(network, snappedSources, snappedTargets);
+
+        double[] distances = new double[sources.size() * targets.size()];
+        boolean[] crossesHazards = new boolean[distances.length];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        for (int row = 0, tableRow = 0; row < sourceNodes.length; row++) {
+            if (sourceNodes[row] < 0) {
+                continue;
+            }
+            for (int column = 0, tableColumn = 0; column < targetNodes.length; column++) {
+                if (targetNodes[column] < 0) {
+                    continue;
+                }
+                PathDistance distance = table.get(tableRow, tableColumn++);
+                if (distance.found()) {
+                    distances[row * targets.size() + column] = distance.lengthMeters();
+                    crossesHazards[row * targets.size() + column] = distance.crossesHazards();
                 }
             }
+            tableRow++;
         }
-
-        List<String> path = reconstructPath(predecessors, startNodeId, endNodeId);
-        return new DijkstraResult(path, hasHazardousEdges);
+        return new DistanceMatrix(sources.size(), targets.size(), distances, crossesHazards,
+                System.currentTimeMillis() - startTime);
     }
 
-    private List<String> reconstructPath(Map<String, String> predecessors, String startNodeId, String endNodeId) {
-        if (!predecessors.containsKey(endNodeId)) {
-            return List.of();
+    /**
+     * Calculate the roads reachable from a point within a distance budget
+     * without entering a hazardous segment.
+     *
+     * <p>A bounded Dijkstra search over road lengths, skipping hazardous
+     * segments, settles every node within the budget. Each segment leaving a
+     * reached node is then covered as far as the remaining budget allows from
+     * that end; segments covered from both ends are returned whole, others as
+     * the reachable parts of their geometry.</p>
+     *
+     * @param network road network with the hazard overlay to avoid
+     * @param start start coordinate
+     * @param maxDistanceMeters distance budget along the roads
+     * @return reachable road geometry
+     */
+    public Reachability calculateReachability(RoadNetwork network, Coordinate start, double maxDistanceMeters) {
+        if (!(maxDistanceMeters >= 0)) {
+            throw new IllegalArgumentException("Maximum distance cannot be negative");
         }
+        long startTime = System.currentTimeMillis();
 
-        List<String> path = new ArrayList<>();
-        String current = endNodeId;
-        while (!current.equals(startNodeId)) {
-            path.add(current);
-            current = predecessors.get(current);
+        int startNode = network.findNearestNodeIndex(start, maxSnapDistanceMeters);
+        if (startNode < 0) {
+            throw new RouteNotFoundException("No road network near start coordinate");
+        }
+        ReachableNodes reached = reachabilitySearch.reachableWithin(network, startNode, maxDistanceMeters);
+
+        CompactGraph graph = network.getCompactGraph();
+        HazardOverlay hazards = network.getHazards();
+        Map<Integer, double[]> coverage = new LinkedHashMap<>();
+        for (int i = 0; i < reached.count(); i++) {
+            int node = reached.nodes()[i];
+            double remaining = maxDistanceMeters - reached.lengthsMeters()[i];
+            int edgeEnd = graph.firstEdge(node + 1);
+            for (int edge = graph.firstEdge(node); edge < edgeEnd; edge++) {
+                int segment = graph.edgeSegment(edge);
+                if (segment < 0 || hazards.isHazardous(segment)) {
+                    continue;
+                }
+                int end = leavesFirstCoordinate(graph, edge, network.segmentAt(segment)) ? 0 : 1;
+                double[] covered = coverage.computeIfAbsent(segment, key -> new double[2]);
+                covered[end] = Math.max(covered[end], Math.min(graph.edgeWeight(edge), remaining));
+            }
         }
-        path.add(startNodeId);
 
-        return path.reversed();
+        List<List<Coordinate>> lines = new ArrayList<>(coverage.size());
+        coverage.forEach((segmentIndex, covered) -> {
+            RoadSegment segment = network.segmentAt(segmentIndex);
+            double length = segment.getLengthMeters();
+            if (covered[0] + covered[1] >= length) {
+                lines.add(segment.getCoordinates());
+                return;
+            }
+            if (covered[0] > 0) {
+                lines.add(segment.slice(0.0, covered[0]));
+            }
+            if (covered[1] > 0) {
+                lines.add(segment.slice(length - covered[1], length));
+            }
+        });
+        return new Reachability(lines, maxDistanceMeters, reached.count(), System.currentTimeMillis() - startTime);
     }
 
-    private List<RoadSegment> reconstructSegments(List<String> path, Graph graph, RoadNetwork network) {
-        return java.util.stream.IntStream.range(0, path.size() - 1)
-                .mapToObj(i -> {
-                    String fromNodeId = path.get(i);
-                    String toNodeId = path.get(i + 1);
+    /** Whether an edge runs in the direction of its segment's geometry. */
+    private static boolean leavesFirstCoordinate(CompactGraph graph, int edge, RoadSegment segment) {
+        Coordinate first = segment.getCoordinates().getFirst();
+        return graph.coordinate(graph.edgeSource(edge)).distanceTo(first)
+                <= graph.coordinate(graph.edgeTarget(edge)).distanceTo(first);
+    }
 
-                    Graph.Edge edge = graph.getEdges(fromNodeId).stream()
-                            .filter(e -> e.toNodeId().equals(toNodeId))
-                            .findFirst()
-                            .orElseThrow(() -> new IllegalStateException("Edge not found in path"));
+    private int[] snapAll(RoadNetwork network, List<Coordinate> coordinates) {
+        int[] nodes = new int[coordinates.size()];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = network.findNearestNodeIndex(coordinates.get(i), maxSnapDistanceMeters);
+        }
+        return nodes;
+    }
 
-                    return network.findSegment(edge.segmentId());
-                })
-                .filter(java.util.Optional::isPresent)
-                .map(java.util.Optional::get)
-                .toList();
+    private List<RoadSegment> reconstructSegments(int[] edgePath, RoadNetwork network) {
+        CompactGraph graph = network.getCompactGraph();
+        HazardOverlay hazards = network.getHazards();
+        List<RoadSegment> segments = new ArrayList<>(edgePath.length);
+        for (int edge : edgePath) {
+            int segment = graph.edgeSegment(edge);
+            if (segment >= 0) {
+                segments.add(network.segmentAt(segment).withHazardous(hazards.isHazardous(segment)));
+            }
+        }
+        return segments;
     }
 
-    private RouteMetadata createMetadata(List<RoadSegment> segments, long startTime, boolean hasHazardousEdges) {
+    private RouteMetadata createMetadata(List<RoadSegment> segments, long startTime,
+                                         SearchAlgorithm algorithm, int settledNodes) {
         double totalDistance = segments.stream()
                 .mapToDouble(RoadSegment::getLengthMeters)
                 .sum();
@@ -167,22 +464,28 @@ public class RouteCalculationService {
                 (int) hazardousCount,
                 safetyScore,
                 Instant.now(),
-                allHazardous
+                allHazardous,
+                algorithm,
+                settledNodes
         );
     }
 
-    private Route createEmptyRoute(long startTime) {
+    private Route createEmptyRoute(long startTime, SearchAlgorithm algorithm) {
         RouteMetadata metadata = new RouteMetadata(
                 0.0,
                 System.currentTimeMillis() - startTime,
                 0,
                 EMPTY_ROUTE_SAFETY_SCORE,
                 Instant.now(),
-                false
+                false,
+                algorithm,
+                0
         );
         return new Route(List.of(), metadata);
     }
 
-    private record NodeDistance(String nodeId, double distance) {}
-    private record DijkstraResult(List<String> path, boolean hasHazardousEdges) {}
+    /** Shelters snapped to road nodes; valid for one graph and one shelter list instance. */
+    private record SnappedShelters(CompactGraph graph, List<Shelter> shelters, BitSet nodes,
+                                   Map<Integer, Shelter> byNode) {
+    }
 }
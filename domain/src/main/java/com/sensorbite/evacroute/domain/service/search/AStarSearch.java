@@ -0,0 +1,103 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import com.sensorbite.evacroute.domain.service.GraphBuilder;
+
+/**
+ * A* search on the compact graph, guided by the great-circle distance to the target.
+ *
+ * <p>Edge weights are never shorter than the great-circle distance between
+ * the graph nodes they join, merged junction positions included (see
+ * {@link GraphBuilder#edgeWeight}), and hazard penalties only make edges more
+ * expensive. By the triangle inequality the remaining distance "as the crow
+ * flies" between nodes is therefore a consistent lower bound on the remaining
+ * cost, and routes cost exactly as much as those found by Dijkstra.</p>
+ */
+public class AStarSearch implements PathSearch {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_000.0;
+
+    /** Absorbs rounding differences between this distance formula and the one behind edge weights. */
+    private static final double HEURISTIC_SLACK_METERS = 0.001;
+
+    private final ThreadLocal<SearchWorkspace> workspaces = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    @Override
+    public PathResult findPath(RoadNetwork network, int source, int target) {
+        CompactGraph graph = network.getCompactGraph();
+        HazardOverlay hazards = network.getHazards();
+        SearchWorkspace workspace = workspaces.get();
+        workspace.reset(graph.nodeCount());
+        IndexedMinHeap heap = workspace.heap();
+
+        Heuristic heuristic = heuristicFor(network, target);
+
+        workspace.update(source, 0.0, -1);
+        workspace.setPotential(source, heuristic.estimate(source));
+        heap.insertOrDecrease(source, workspace.potential(source));
+        int settled = 0;
+
+        while (!heap.isEmpty()) {
+            int node = heap.poll();
+            workspace.settle(node);
+            settled++;
+            if (node == target) {
+                break;
+            }
+
+            double distance = workspace.distance(node);
+            int edgeEnd = graph.firstEdge(node + 1);
+            for (int edge = graph.firstEdge(node); edge < edgeEnd; edge++) {
+                int next = graph.edgeTarget(edge);
+                double candidate = distance + EdgeCosts.cost(graph, hazards, edge);
+                boolean firstVisit = !workspace.isReached(next);
+                if (firstVisit || candidate < workspace.distance(next)) {
+                    workspace.update(next, candidate, edge);
+                    if (firstVisit) {
+                        workspace.setPotential(next, heuristic.estimate(next));
+                    }
+                    heap.insertOrDecrease(next, candidate + workspace.potential(next));
+                }
+            }
+        }
+
+        if (!workspace.isSettled(target)) {
+            return PathResult.notFound(settled);
+        }
+        return new PathResult(workspace.edgePath(graph, source, target), workspace.distance(target), settled);
+    }
+
+    /**
+     * Create the heuristic for one query.
+     *
+     * @param network network being searched
+     * @param target target node of the query
+     * @return lower bound on the remaining cost from any node to {@code target}
+     */
+    protected Heuristic heuristicFor(RoadNetwork network, int target) {
+        CompactGraph graph = network.getCompactGraph();
+        double targetLatitude = Math.toRadians(graph.latitude(target));
+        double targetLongitude = Math.toRadians(graph.longitude(target));
+        double cosTargetLatitude = Math.cos(targetLatitude);
+        return node -> greatCircleBound(graph, node, targetLatitude, targetLongitude, cosTargetLatitude);
+    }
+
+    private static double greatCircleBound(CompactGraph graph, int node, double targetLatitude,
+                                           double targetLongitude, double cosTargetLatitude) {
+        double latitude = Math.toRadians(graph.latitude(node));
+        double sinHalfLatitude = Math.sin((targetLatitude - latitude) / 2);
+        double sinHalfLongitude = Math.sin((targetLongitude - Math.toRadians(graph.longitude(node))) / 2);
+        double a = sinHalfLatitude * sinHalfLatitude
+                + Math.cos(latitude) * cosTargetLatitude * sinHalfLongitude * sinHalfLongitude;
+        double distance = 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1.0, Math.sqrt(a)));
+        return Math.max(0.0, distance - HEURISTIC_SLACK_METERS);
+    }
+
+    /** Lower bound on the remaining cost from a node to the target of the current query. */
+    @FunctionalInterface
+    protected interface Heuristic {
+        double estimate(int node);
+    }
+}
@@ -0,0 +1,112 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+
+/**
+ * Bidirectional Dijkstra: a forward search from the source over outgoing edges
+ * and a backward search from the target over incoming edges, each advancing
+ * whichever frontier is closer.
+ *
+ * <p>Whenever a node is reached by both searches, the path through it is a
+ * candidate and the cheapest one is kept. The search stops once the two queue
+ * minima together are no smaller than the best candidate, because any path
+ * not yet seen would have to cost at least that much. For long routes the two
+ * searches settle roughly half the nodes a single search would.</p>
+ */
+public class BidirectionalDijkstraSearch implements PathSearch {
+
+    private final ThreadLocal<SearchWorkspace> forwardWorkspaces = ThreadLocal.withInitial(SearchWorkspace::new);
+    private final ThreadLocal<SearchWorkspace> backwardWorkspaces = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    @Override
+    public PathResult findPath(RoadNetwork network, int source, int target) {
+        CompactGraph graph = network.getCompactGraph();
+        HazardOverlay hazards = network.getHazards();
+        SearchWorkspace forward = forwardWorkspaces.get();
+        SearchWorkspace backward = backwardWorkspaces.get();
+        forward.reset(graph.nodeCount());
+        backward.reset(graph.nodeCount());
+        IndexedMinHeap forwardHeap = forward.heap();
+        IndexedMinHeap backwardHeap = backward.heap();
+
+        forward.update(source, 0.0, -1);
+        forwardHeap.insertOrDecrease(source, 0.0);
+        backward.update(target, 0.0, -1);
+        backwardHeap.insertOrDecrease(target, 0.0);
+
+        double best = source == target ? 0.0 : Double.POSITIVE_INFINITY;
+        int meeting = source == target ? source : -1;
+        int settled = 0;
+
+        while (true) {
+            double forwardMin = forwardHeap.isEmpty() ? Double.POSITIVE_INFINITY : forwardHeap.peekKey();
+            double backwardMin = backwardHeap.isEmpty() ? Double.POSITIVE_INFINITY : backwardHeap.peekKey();
+            if (forwardMin + backwardMin >= best) {
+                break;
+            }
+            settled++;
+
+            if (forwardMin <= backwardMin) {
+                int node = forwardHeap.poll();
+                forward.settle(node);
+                double distance = forward.distance(node);
+                int edgeEnd = graph.firstEdge(node + 1);
+                for (int edge = graph.firstEdge(node); edge < edgeEnd; edge++) {
+                    int next = graph.edgeTarget(edge);
+                    double candidate = distance + EdgeCosts.cost(graph, hazards, edge);
+                    if (candidate < forward.distance(next)) {
+                        forward.update(next, candidate, edge);
+                        forwardHeap.insertOrDecrease(next, candidate);
+                        double through = candidate + backward.distance(next);
+                        if (through < best) {
+                            best = through;
+                            meeting = next;
+                        }
+                    }
+                }
+            } else {
+                int node = backwardHeap.poll();
+                backward.settle(node);
+                double distance = backward.distance(node);
+                int slotEnd = graph.firstInEdge(node + 1);
+                for (int slot = graph.firstInEdge(node); slot < slotEnd; slot++) {
+                    int edge = graph.inEdge(slot);
+                    int previous = graph.edgeSource(edge);
+                    double candidate = distance + EdgeCosts.cost(graph, hazards, edge);
+                    if (candidate < backward.distance(previous)) {
+                        backward.update(previous, candidate, edge);
+                        backwardHeap.insertOrDecrease(previous, candidate);
+                        double through = forward.distance(previous) + candidate;
+                        if (through < best) {
+                            best = through;
+                            meeting = previous;
+                        }
+                    }
+                }
+            }
+        }
+
+        if (meeting < 0) {
+            return PathResult.notFound(settled);
+        }
+        return new PathResult(joinPaths(graph, forward, backward, source, meeting, target), best, settled);
+    }
+
+    private static int[] joinPaths(CompactGraph graph, SearchWorkspace forward, SearchWorkspace backward,
+                                   int source, int meeting, int target) {
+        int[] head = forward.edgePath(graph, source, meeting);
+        int tailLength = 0;
+        for (int node = meeting; node != target; node = graph.edgeTarget(backward.predecessorEdge(node))) {
+            tailLength++;
+        }
+        int[] path = new int[head.length + tailLength];
+        System.arraycopy(head, 0, path, 0, head.length);
+        int index = head.length;
+        for (int node = meeting; node != target; node = graph.edgeTarget(path[index++])) {
+            path[index] = backward.predecessorEdge(node);
+        }
+        return path;
+    }
+}
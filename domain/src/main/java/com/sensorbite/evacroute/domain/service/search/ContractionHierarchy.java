@@ -0,0 +1,176 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+
+import java.util.Arrays;
+
+/**
+ * Contraction hierarchy over a compact graph for one hazard overlay.
+ *
+ * <p>Every node has a rank (its contraction order). Arcs are either original
+ * compact graph edges or shortcuts standing for two consecutive arcs through a
+ * lower-ranked node. Arcs leading to a higher-ranked node are listed under
+ * their tail for the forward (upward) search; arcs coming from a higher-ranked
+ * node are listed under their head for the backward search. Arc weights are
+ * search costs, so hazard penalties are baked in and the hierarchy is only
+ * valid for the overlay it was built with.</p>
+ *
+ * <p>Instances are immutable and safe to share between threads.</p>
+ */
+public final class ContractionHierarchy {
+
+    private final CompactGraph graph;
+    private final HazardOverlay hazards;
+    private final int[] ranks;
+    private final int[] arcTails;
+    private final int[] arcHeads;
+    private final double[] arcWeights;
+    private final int[] arcEdges;
+    private final int[] arcFirstChildren;
+    private final int[] arcSecondChildren;
+    private final int[] firstUpArc;
+    private final int[] upArcs;
+    private final int[] firstDownArc;
+    private final int[] downArcs;
+
+    ContractionHierarchy(CompactGraph graph, HazardOverlay hazards, int[] ranks, int arcCount, int[] arcTails,
+                         int[] arcHeads, double[] arcWeights, int[] arcEdges, int[] arcFirstChildren,
+                         int[] arcSecondChildren) {
+        this.graph = graph;
+        this.hazards = hazards;
+        this.ranks = ranks;
+        this.arcTails = Arrays.copyOf(arcTails, arcCount);
+        this.arcHeads = Arrays.copyOf(arcHeads, arcCount);
+        this.arcWeights = Arrays.copyOf(arcWeights, arcCount);
+        this.arcEdges = Arrays.copyOf(arcEdges, arcCount);
+        this.arcFirstChildren = Arrays.copyOf(arcFirstChildren, arcCount);
+        this.arcSecondChildren = Arrays.copyOf(arcSecondChildren, arcCount);
+
+        int nodeCount = ranks.length;
+        this.firstUpArc = new int[nodeCount + 1];
+        this.firstDownArc = new int[nodeCount + 1];
+        for (int arc = 0; arc < arcCount; arc++) {
+            if (ranks[this.arcTails[arc]] < ranks[this.arcHeads[arc]]) {
+                firstUpArc[this.arcTails[arc] + 1]++;
+            } else {
+                firstDownArc[this.arcHeads[arc] + 1]++;
+            }
+        }
+        for (int node = 0; node < nodeCount; node++) {
+            firstUpArc[node + 1] += firstUpArc[node];
+            firstDownArc[node + 1] += firstDownArc[node];
+        }
+        this.upArcs = new int[firstUpArc[nodeCount]];
+        this.downArcs = new int[firstDownArc[nodeCount]];
+        int[] upCursor = Arrays.copyOf(firstUpArc, nodeCount);
+        int[] downCursor = Arrays.copyOf(firstDownArc, nodeCount);
+        for (int arc = 0; arc < arcCount; arc++) {
+            if (ranks[this.arcTails[arc]] < ranks[this.arcHeads[arc]]) {
+                upArcs[upCursor[this.arcTails[arc]]++] = arc;
+            } else {
+                downArcs[downCursor[this.arcHeads[arc]]++] = arc;
+            }
+        }
+    }
+
+    /**
+     * Contract a graph under the search costs of a hazard overlay.
+     *
+     * @param graph graph to contract
+     * @param hazards overlay whose penalties are baked into the arc weights
+     * @return contraction hierarchy
+     */
+    public static ContractionHierarchy build(CompactGraph graph, HazardOverlay hazards) {
+        return new ContractionHierarchyBuilder(graph, hazards).build();
+    }
+
+    /** Whether this hierarchy was built for exactly the given graph and overlay. */
+    public boolean isBuiltFor(CompactGraph graph, HazardOverlay hazards) {
+        return this.graph == graph && this.hazards == hazards;
+    }
+
+    public int nodeCount() {
+        return ranks.length;
+    }
+
+    public int arcCount() {
+        return arcTails.length;
+    }
+
+    /** Number of arcs that are shortcuts rather than original edges. */
+    public int shortcutCount() {
+        int shortcuts = 0;
+        for (int edge : arcEdges) {
+            if (edge < 0) {
+                shortcuts++;
+            }
+        }
+        return shortcuts;
+    }
+
+    public int rank(int node) {
+        return ranks[node];
+    }
+
+    public int firstUpArc(int node) {
+        return firstUpArc[node];
+    }
+
+    public int upArc(int slot) {
+        return upArcs[slot];
+    }
+
+    public int firstDownArc(int node) {
+        return firstDownArc[node];
+    }
+
+    public int downArc(int slot) {
+        return downArcs[slot];
+    }
+
+    public int arcTail(int arc) {
+        return arcTails[arc];
+    }
+
+    public int arcHead(int arc) {
+        return arcHeads[arc];
+    }
+
+    public double arcWeight(int arc) {
+        return arcWeights[arc];
+    }
+
+    /**
+     * Expand arcs into the compact graph edges they stand for.
+     *
+     * @param arcs arcs of a path in travel order
+     * @param count number of arcs to expand
+     * @return compact graph edges in travel order
+     */
+    public int[] unpack(int[] arcs, int count) {
+        int length = 0;
+        int[] stack = new int[16];
+        int[] edges = new int[Math.max(count, 16)];
+        for (int i = 0; i < count; i++) {
+            int top = 0;
+            stack[top++] = arcs[i];
+            while (top > 0) {
+                int arc = stack[--top];
+                if (arcEdges[arc] >= 0) {
+                    if (length == edges.length) {
+                        edges = Arrays.copyOf(edges, length * 2);
+                    }
+                    edges[length++] = arcEdges[arc];
+                } else {
+                    if (top + 2 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[top++] = arcSecondChildren[arc];
+                    stack[top++] = arcFirstChildren[arc];
+                }
+            }
+        }
+        return Arrays.copyOf(edges, length);
+    }
+}
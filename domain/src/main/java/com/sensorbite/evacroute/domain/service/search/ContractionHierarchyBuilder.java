@@ -0,0 +1,315 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+
+import java.util.Arrays;
+
+/**
+ * Contraction hierarchy preprocessing.
+ *
+ * <p>Nodes are contracted in order of a lazily updated priority: the node's
+ * level in the hierarchy built so far, plus the ratio of arcs contracting it
+ * would add to arcs it would remove, plus the same ratio counted in original
+ * edges. The level term spreads contraction evenly over the network; the
+ * ratios favour nodes whose removal keeps the graph sparse. Contracting a
+ * node adds a shortcut between an incoming and an outgoing neighbour only if
+ * a local witness search finds no path between them that avoids the node and
+ * costs no more. The witness search gives up
+ * after {@link #WITNESS_SETTLE_LIMIT} settled nodes, or far fewer when it only
+ * estimates a priority; a missed witness only costs a superfluous shortcut,
+ * never a wrong route.</p>
+ */
+final class ContractionHierarchyBuilder {
+
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+    private static final int SIMULATION_SETTLE_LIMIT = 50;
+
+    private final CompactGraph graph;
+    private final HazardOverlay hazards;
+    private final int nodeCount;
+
+    private int[] arcTails;
+    private int[] arcHeads;
+    private double[] arcWeights;
+    private int[] arcEdges;
+    private int[] arcFirstChildren;
+    private int[] arcSecondChildren;
+    private int[] arcHops;
+    private int arcCount;
+
+    private final int[][] outArcs;
+    private final int[] outCounts;
+    private final int[][] inArcs;
+    private final int[] inCounts;
+
+    private final boolean[] contracted;
+    private final int[] levels;
+    private final SearchWorkspace witness;
+
+    private final int[] neighbourStamps;
+    private final int[] neighbourArcs;
+    private int neighbourGeneration;
+    private int[] incoming = new int[8];
+    private int[] outgoing = new int[8];
+
+    ContractionHierarchyBuilder(CompactGraph graph, HazardOverlay hazards) {
+        this.graph = graph;
+        this.hazards = hazards;
+        this.nodeCount = graph.nodeCount();
+        int capacity = Math.max(graph.edgeCount() * 2, 16);
+        this.arcTails = new int[capacity];
+        this.arcHeads = new int[capacity];
+        this.arcWeights = new double[capacity];
+        this.arcEdges = new int[capacity];
+        this.arcFirstChildren = new int[capacity];
+        this.arcSecondChildren = new int[capacity];
+        this.arcHops = new int[capacity];
+        this.outArcs = new int[nodeCount][];
+        this.outCounts = new int[nodeCount];
+        this.inArcs = new int[nodeCount][];
+        this.inCounts = new int[nodeCount];
+        this.contracted = new boolean[nodeCount];
+        this.levels = new int[nodeCount];
+        this.witness = new SearchWorkspace(nodeCount);
+        this.neighbourStamps = new int[nodeCount];
+        this.neighbourArcs = new int[nodeCount];
+    }
+
+    ContractionHierarchy build() {
+        for (int edge = 0; edge < graph.edgeCount(); edge++) {
+            int tail = graph.edgeSource(edge);
+            int head = graph.edgeTarget(edge);
+            if (tail != head) {
+                addArc(tail, head, EdgeCosts.cost(graph, hazards, edge), edge, -1, -1);
+            }
+        }
+
+        IndexedMinHeap queue = new IndexedMinHeap(nodeCount);
+        for (int node = 0; node < nodeCount; node++) {
+            queue.insertOrDecrease(node, priority(node));
+        }
+
+        int[] ranks = new int[nodeCount];
+        int nextRank = 0;
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            double priority = priority(node);
+            if (!queue.isEmpty() && priority > queue.peekKey()) {
+                queue.insertOrDecrease(node, priority);
+                continue;
+            }
+
+            contract(node, true);
+            contracted[node] = true;
+            ranks[node] = nextRank++;
+            detach(node);
+
+            int[] in = Arrays.copyOf(incoming, collectNeighbours(node, inArcs, inCounts, true));
+            int[] out = Arrays.copyOf(outgoing, collectNeighbours(node, outArcs, outCounts, false));
+            for (int arc : in) {
+                touchNeighbour(queue, arcTails[arc], levels[node] + 1);
+            }
+            for (int arc : out) {
+                touchNeighbour(queue, arcHeads[arc], levels[node] + 1);
+            }
+        }
+
+        return new ContractionHierarchy(graph, hazards, ranks, arcCount, arcTails, arcHeads, arcWeights,
+                arcEdges, arcFirstChildren, arcSecondChildren);
+    }
+
+    private void touchNeighbour(IndexedMinHeap queue, int neighbour, int level) {
+        levels[neighbour] = Math.max(levels[neighbour], level);
+        queue.update(neighbour, priority(neighbour));
+    }
+
+    private double priority(int node) {
+        int incomingCount = collectNeighbours(node, inArcs, inCounts, true);
+        int outgoingCount = collectNeighbours(node, outArcs, outCounts, false);
+        int removedHops = 0;
+        for (int i = 0; i < incomingCount; i++) {
+            removedHops += arcHops[incoming[i]];
+        }
+        for (int i = 0; i < outgoingCount; i++) {
+            removedHops += arcHops[outgoing[i]];
+        }
+        long added = contract(node, false);
+        int addedArcs = (int) (added >>> 32);
+        int addedHops = (int) added;
+        return levels[node]
+                + (double) addedArcs / Math.max(1, incomingCount + outgoingCount)
+                + (double) addedHops / Math.max(1, removedHops);
+    }
+
+    /**
+     * Find the shortcuts needed to contract {@code node} and add them if {@code apply} is set.
+     *
+     * @return number of shortcuts in the upper 32 bits, original edges they stand for in the lower 32 bits
+     */
+    private long contract(int node, boolean apply) {
+        int incomingCount = collectNeighbours(node, inArcs, inCounts, true);
+        int outgoingCount = collectNeighbours(node, outArcs, outCounts, false);
+        if (incomingCount == 0 || outgoingCount == 0) {
+            return 0;
+        }
+        int[] in = Arrays.copyOf(incoming, incomingCount);
+        int[] out = Arrays.copyOf(outgoing, outgoingCount);
+
+        double maxOut = 0.0;
+        for (int arc : out) {
+            maxOut = Math.max(maxOut, arcWeights[arc]);
+        }
+
+        int shortcuts = 0;
+        int hops = 0;
+        for (int inArc : in) {
+            int source = arcTails[inArc];
+            double viaWeight = arcWeights[inArc];
+            witnessSearch(source, node, viaWeight + maxOut, apply ? WITNESS_SETTLE_LIMIT : SIMULATION_SETTLE_LIMIT);
+            for (int outArc : out) {
+                int target = arcHeads[outArc];
+                if (target == source) {
+                    continue;
+                }
+                double shortcutWeight = viaWeight + arcWeights[outArc];
+                if (witness.distance(target) > shortcutWeight) {
+                    shortcuts++;
+                    hops += arcHops[inArc] + arcHops[outArc];
+                    if (apply) {
+                        addArc(source, target, shortcutWeight, -1, inArc, outArc);
+                    }
+                }
+            }
+        }
+        return ((long) shortcuts << 32) | hops;
+    }
+
+    /** Drop the arcs of a contracted node from its neighbours' adjacency lists. */
+    private void detach(int node) {
+        for (int i = 0; i < inCounts[node]; i++) {
+            removeArcsTo(outArcs, outCounts, arcTails[inArcs[node][i]], true);
+        }
+        for (int i = 0; i < outCounts[node]; i++) {
+            removeArcsTo(inArcs, inCounts, arcHeads[outArcs[node][i]], false);
+        }
+    }
+
+    private void removeArcsTo(int[][] adjacency, int[] counts, int node, boolean byHead) {
+        int[] arcs = adjacency[node];
+        int kept = 0;
+        for (int i = 0; i < counts[node]; i++) {
+            int neighbour = byHead ? arcHeads[arcs[i]] : arcTails[arcs[i]];
+            if (!contracted[neighbour]) {
+                arcs[kept++] = arcs[i];
+            }
+        }
+        counts[node] = kept;
+    }
+
+    private void witnessSearch(int source, int excluded, double maxDistance, int settleLimit) {
+        witness.reset(nodeCount);
+        IndexedMinHeap heap = witness.heap();
+        witness.update(source, 0.0, -1);
+        heap.insertOrDecrease(source, 0.0);
+        int settled = 0;
+        while (!heap.isEmpty() && settled < settleLimit) {
+            if (heap.peekKey() > maxDistance) {
+                break;
+            }
+            int node = heap.poll();
+            settled++;
+            double distance = witness.distance(node);
+            int[] arcs = outArcs[node];
+            for (int i = 0; i < outCounts[node]; i++) {
+                int arc = arcs[i];
+                int next = arcHeads[arc];
+                if (next == excluded || contracted[next]) {
+                    continue;
+                }
+                double candidate = distance + arcWeights[arc];
+                if (candidate < witness.distance(next)) {
+                    witness.update(next, candidate, arc);
+                    heap.insertOrDecrease(next, candidate);
+                }
+            }
+        }
+    }
+
+    /**
+     * Collect the cheapest arc to or from every uncontracted neighbour of
+     * {@code node} into {@link #incoming} or {@link #outgoing}.
+     *
+     * @return number of neighbours collected
+     */
+    private int collectNeighbours(int node, int[][] adjacency, int[] counts, boolean incomingSide) {
+        if (neighbourGeneration == Integer.MAX_VALUE) {
+            Arrays.fill(neighbourStamps, 0);
+            neighbourGeneration = 0;
+        }
+        neighbourGeneration++;
+        int[] collected = incomingSide ? incoming : outgoing;
+        int count = 0;
+        int[] arcs = adjacency[node];
+        for (int i = 0; i < counts[node]; i++) {
+            int arc = arcs[i];
+            int neighbour = incomingSide ? arcTails[arc] : arcHeads[arc];
+            if (contracted[neighbour]) {
+                continue;
+            }
+            if (neighbourStamps[neighbour] == neighbourGeneration) {
+                int slot = neighbourArcs[neighbour];
+                if (arcWeights[arc] < arcWeights[collected[slot]]) {
+                    collected[slot] = arc;
+                }
+                continue;
+            }
+            neighbourStamps[neighbour] = neighbourGeneration;
+            neighbourArcs[neighbour] = count;
+            if (count == collected.length) {
+                collected = Arrays.copyOf(collected, count * 2);
+            }
+            collected[count++] = arc;
+        }
+        if (incomingSide) {
+            incoming = collected;
+        } else {
+            outgoing = collected;
+        }
+        return count;
+    }
+
+    private void addArc(int tail, int head, double weight, int edge, int firstChild, int secondChild) {
+        if (arcCount == arcTails.length) {
+            int capacity = arcCount * 2;
+            arcTails = Arrays.copyOf(arcTails, capacity);
+            arcHeads = Arrays.copyOf(arcHeads, capacity);
+            arcWeights = Arrays.copyOf(arcWeights, capacity);
+            arcEdges = Arrays.copyOf(arcEdges, capacity);
+            arcFirstChildren = Arrays.copyOf(arcFirstChildren, capacity);
+            arcSecondChildren = Arrays.copyOf(arcSecondChildren, capacity);
+            arcHops = Arrays.copyOf(arcHops, capacity);
+        }
+        int arc = arcCount++;
+        arcTails[arc] = tail;
+        arcHeads[arc] = head;
+        arcWeights[arc] = weight;
+        arcEdges[arc] = edge;
+        arcFirstChildren[arc] = firstChild;
+        arcSecondChildren[arc] = secondChild;
+        arcHops[arc] = edge >= 0 ? 1 : arcHops[firstChild] + arcHops[secondChild];
+        append(outArcs, outCounts, tail, arc);
+        append(inArcs, inCounts, head, arc);
+    }
+
+    private static void append(int[][] adjacency, int[] counts, int node, int arc) {
+        int[] arcs = adjacency[node];
+        if (arcs == null) {
+            arcs = new int[4];
+        } else if (counts[node] == arcs.length) {
+            arcs = Arrays.copyOf(arcs, arcs.length * 2);
+        }
+        arcs[counts[node]++] = arc;
+        adjacency[node] = arcs;
+    }
+}
@@ -0,0 +1,230 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Point-to-point queries on a {@link ContractionHierarchy}.
+ *
+ * <p>A forward search from the source follows only upward arcs and a backward
+ * search from the target follows only downward arcs in reverse; the shortest
+ * path is the cheapest node settled by both. Each direction stops once its
+ * queue minimum reaches the best path found, and nodes that are provably
+ * reached more cheaply from a higher-ranked neighbour are not expanded
+ * (stall-on-demand).</p>
+ *
+ * <p>A hierarchy bakes in the hazard penalties of one overlay. When a query
+ * arrives for a network or overlay the current hierarchy was not built for,
+ * a rebuild is handed to the preprocessing executor and the query is answered
+ * by bidirectional Dijkstra in the meantime, so flood updates never make
+ * routes ignore new hazards. A queued build whose overlay has been superseded
+ * by the time it starts is dropped, so frequent updates cost one build for the
+ * latest overlay rather than one per version.</p>
+ */
+public class ContractionHierarchySearch implements PathSearch {
+
+    private final Executor preprocessingExecutor;
+    private final PathSearch fallback = new BidirectionalDijkstraSearch();
+    private final AtomicReference<ContractionHierarchy> current = new AtomicReference<>();
+    private final AtomicReference<HazardOverlay> building = new AtomicReference<>();
+
+    private final ThreadLocal<SearchWorkspace> forwardWorkspaces = ThreadLocal.withInitial(SearchWorkspace::new);
+    private final ThreadLocal<SearchWorkspace> backwardWorkspaces = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    /**
+     * Create a search that builds hierarchies on the calling thread.
+     */
+    public ContractionHierarchySearch() {
+        this(Runnable::run);
+    }
+
+    /**
+     * @param preprocessingExecutor executor that runs hierarchy builds
+     */
+    public ContractionHierarchySearch(Executor preprocessingExecutor) {
+        this.preprocessingExecutor = preprocessingExecutor;
+    }
+
+    @Override
+    public PathResult findPath(RoadNetwork network, int source, int target) {
+        ContractionHierarchy hierarchy = hierarchyFor(network);
+        if (hierarchy == null) {
+            return fallback.findPath(network, source, target);
+        }
+        return query(hierarchy, source, target);
+    }
+
+    /**
+     * Returns the hierarchy for the network's graph and overlay, scheduling a
+     * build if there is none yet.
+     *
+     * @return matching hierarchy, or {@code null} while it is being built
+     */
+    public ContractionHierarchy hierarchyFor(RoadNetwork network) {
+        CompactGraph graph = network.getCompactGraph();
+        HazardOverlay hazards = network.getHazards();
+        ContractionHierarchy hierarchy = current.get();
+        if (hierarchy != null && hierarchy.isBuiltFor(graph, hazards)) {
+            return hierarchy;
+        }
+
+        HazardOverlay pending = building.get();
+        if (pending != hazards && building.compareAndSet(pending, hazards)) {
+            preprocessingExecutor.execute(() -> {
+                if (building.get() != hazards) {
+                    return; // superseded by a newer overlay while queued
+                }
+                try {
+                    ContractionHierarchy built = ContractionHierarchy.build(graph, hazards);
+                    if (building.get() == hazards) {
+                        current.set(built);
+                    }
+                } catch (RuntimeException e) {
+                    building.compareAndSet(hazards, null);
+                    throw e;
+                }
+            });
+        }
+
+        hierarchy = current.get();
+        return hierarchy != null && hierarchy.isBuiltFor(graph, hazards) ? hierarchy : null;
+    }
+
+    private PathResult query(ContractionHierarchy hierarchy, int source, int target) {
+        SearchWorkspace forward = forwardWorkspaces.get();
+        SearchWorkspace backward = backwardWorkspaces.get();
+        forward.reset(hierarchy.nodeCount());
+        backward.reset(hierarchy.nodeCount());
+        IndexedMinHeap forwardHeap = forward.heap();
+        IndexedMinHeap backwardHeap = backward.heap();
+
+        forward.update(source, 0.0, -1);
+        forwardHeap.insertOrDecrease(source, 0.0);
+        backward.update(target, 0.0, -1);
+        backwardHeap.insertOrDecrease(target, 0.0);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        int settled = 0;
+
+        while (true) {
+            boolean forwardActive = !forwardHeap.isEmpty() && forwardHeap.peekKey() < best;
+            boolean backwardActive = !backwardHeap.isEmpty() && backwardHeap.peekKey() < best;
+            if (!forwardActive && !backwardActive) {
+                break;
+            }
+            settled++;
+
+            boolean forwardStep = forwardActive
+                    && (!backwardActive || forwardHeap.peekKey() <= backwardHeap.peekKey());
+            SearchWorkspace own = forwardStep ? forward : backward;
+            SearchWorkspace other = forwardStep ? backward : forward;
+            int node = own.heap().poll();
+            own.settle(node);
+            double distance = own.distance(node);
+
+            double through = distance + other.distance(node);
+            if (through < best) {
+                best = through;
+                meeting = node;
+            }
+
+            if (forwardStep) {
+                if (!isStalledForward(hierarchy, forward, node, distance)) {
+                    relaxUpward(hierarchy, forward, node, distance);
+                }
+            } else if (!isStalledBackward(hierarchy, backward, node, distance)) {
+                relaxDownward(hierarchy, backward, node, distance);
+            }
+        }
+
+        if (meeting < 0) {
+            return PathResult.notFound(settled);
+        }
+        return new PathResult(unpack(hierarchy, forward, backward, meeting), best, settled);
+    }
+
+    private static void relaxUpward(ContractionHierarchy hierarchy, SearchWorkspace workspace, int node,
+                                    double distance) {
+        int slotEnd = hierarchy.firstUpArc(node + 1);
+        for (int slot = hierarchy.firstUpArc(node); slot < slotEnd; slot++) {
+            int arc = hierarchy.upArc(slot);
+            int next = hierarchy.arcHead(arc);
+            double candidate = distance + hierarchy.arcWeight(arc);
+            if (candidate < workspace.distance(next)) {
+                workspace.update(next, candidate, arc);
+                workspace.heap().insertOrDecrease(next, candidate);
+            }
+        }
+    }
+
+    private static void relaxDownward(ContractionHierarchy hierarchy, SearchWorkspace workspace, int node,
+                                      double distance) {
+        int slotEnd = hierarchy.firstDownArc(node + 1);
+        for (int slot = hierarchy.firstDownArc(node); slot < slotEnd; slot++) {
+            int arc = hierarchy.downArc(slot);
+            int previous = hierarchy.arcTail(arc);
+            double candidate = distance + hierarchy.arcWeight(arc);
+            if (candidate < workspace.distance(previous)) {
+                workspace.update(previous, candidate, arc);
+                workspace.heap().insertOrDecrease(previous, candidate);
+            }
+        }
+    }
+
+    /** A forward node is stalled if a higher-ranked node already reaches it more cheaply via a downward arc. */
+    private static boolean isStalledForward(ContractionHierarchy hierarchy, SearchWorkspace workspace, int node,
+                                            double distance) {
+        int slotEnd = hierarchy.firstDownArc(node + 1);
+        for (int slot = hierarchy.firstDownArc(node); slot < slotEnd; slot++) {
+            int arc = hierarchy.downArc(slot);
+            if (workspace.distance(hierarchy.arcTail(arc)) + hierarchy.arcWeight(arc) < distance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isStalledBackward(ContractionHierarchy hierarchy, SearchWorkspace workspace, int node,
+                                             double distance) {
+        int slotEnd = hierarchy.firstUpArc(node + 1);
+        for (int slot = hierarchy.firstUpArc(node); slot < slotEnd; slot++) {
+            int arc = hierarchy.upArc(slot);
+            if (workspace.distance(hierarchy.arcHead(arc)) + hierarchy.arcWeight(arc) < distance) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] unpack(ContractionHierarchy hierarchy, SearchWorkspace forward, SearchWorkspace backward,
+                                int meeting) {
+        int forwardLength = 0;
+        for (int arc = forward.predecessorEdge(meeting); arc >= 0;
+             arc = forward.predecessorEdge(hierarchy.arcTail(arc))) {
+            forwardLength++;
+        }
+        int backwardLength = 0;
+        for (int arc = backward.predecessorEdge(meeting); arc >= 0;
+             arc = backward.predecessorEdge(hierarchy.arcHead(arc))) {
+            backwardLength++;
+        }
+
+        int[] arcs = new int[forwardLength + backwardLength];
+        int index = forwardLength;
+        for (int arc = forward.predecessorEdge(meeting); arc >= 0;
+             arc = forward.predecessorEdge(hierarchy.arcTail(arc))) {
+            arcs[--index] = arc;
+        }
+        index = forwardLength;
+        for (int arc = backward.predecessorEdge(meeting); arc >= 0;
+             arc = backward.predecessorEdge(hierarchy.arcHead(arc))) {
+            arcs[index++] = arc;
+        }
+        return hierarchy.unpack(arcs, arcs.length);
+    }
+}
@@ -0,0 +1,273 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Metric-independent contraction hierarchy over a compact graph.
+ *
+ * <p>Nodes are ordered by {@link NestedDissectionOrdering} and contracted
+ * without witness searches: every pair of higher-ranked neighbours of a
+ * contracted node is joined by an arc. The result depends only on the road
+ * topology, so it is built once per graph, while arc weights for a hazard
+ * overlay are filled in afterwards by {@link #customize(HazardOverlay)}.</p>
+ *
+ * <p>All structure is kept in rank space: arc {@code a} joins rank
+ * {@code arcTail(a)} to the higher rank {@code arcHead(a)} and is listed under
+ * its tail, sorted by head. Arcs are undirected; a customized metric stores
+ * one weight per direction. The lowest-ranked upper neighbour of a node is its
+ * parent in the elimination tree, and the upward search space of any node is
+ * exactly its chain of ancestors.</p>
+ *
+ * <p>Instances are immutable and safe to share between threads.</p>
+ */
+public final class CustomizableContractionHierarchy {
+
+    /** Levels with fewer nodes are customized on the calling thread. */
+    private static final int PARALLEL_LEVEL_THRESHOLD = 256;
+
+    private final CompactGraph graph;
+    private final int[] ranks;
+    private final int[] nodesByRank;
+    private final int[] parents;
+    private final int[] firstUpArc;
+    private final int[] arcTails;
+    private final int[] arcHeads;
+    private final int[] firstDownArc;
+    private final int[] downArcs;
+    private final int[] firstLevelSlot;
+    private final int[] levelRanks;
+
+    private CustomizableContractionHierarchy(CompactGraph graph, int[] ranks, int[][] upper, int[] upperCounts) {
+        int nodeCount = graph.nodeCount();
+        this.graph = graph;
+        this.ranks = ranks;
+        this.nodesByRank = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            nodesByRank[ranks[node]] = node;
+        }
+
+        this.parents = new int[nodeCount];
+        this.firstUpArc = new int[nodeCount + 1];
+        for (int rank = 0; rank < nodeCount; rank++) {
+            firstUpArc[rank + 1] = firstUpArc[rank] + upperCounts[rank];
+            parents[rank] = upperCounts[rank] > 0 ? upper[rank][0] : -1;
+        }
+        int arcCount = firstUpArc[nodeCount];
+        this.arcTails = new int[arcCount];
+        this.arcHeads = new int[arcCount];
+        this.firstDownArc = new int[nodeCount + 1];
+        for (int rank = 0; rank < nodeCount; rank++) {
+            int first = firstUpArc[rank];
+            for (int i = 0; i < upperCounts[rank]; i++) {
+                arcTails[first + i] = rank;
+                arcHeads[first + i] = upper[rank][i];
+                firstDownArc[upper[rank][i] + 1]++;
+            }
+        }
+        for (int rank = 0; rank < nodeCount; rank++) {
+            firstDownArc[rank + 1] += firstDownArc[rank];
+        }
+        this.downArcs = new int[arcCount];
+        int[] cursor = Arrays.copyOf(firstDownArc, nodeCount);
+        for (int arc = 0; arc < arcCount; arc++) {
+            downArcs[cursor[arcHeads[arc]]++] = arc;
+        }
+
+        // A node's arcs can be customized once every lower neighbour is done, i.e. one level above the highest.
+        int[] levels = new int[nodeCount];
+        int levelCount = nodeCount == 0 ? 0 : 1;
+        for (int arc = 0; arc < arcCount; arc++) {
+            int level = levels[arcTails[arc]] + 1;
+            if (level > levels[arcHeads[arc]]) {
+                levels[arcHeads[arc]] = level;
+                levelCount = Math.max(levelCount, level + 1);
+            }
+        }
+        this.firstLevelSlot = new int[levelCount + 1];
+        for (int level : levels) {
+            firstLevelSlot[level + 1]++;
+        }
+        for (int level = 0; level < levelCount; level++) {
+            firstLevelSlot[level + 1] += firstLevelSlot[level];
+        }
+        this.levelRanks = new int[nodeCount];
+        int[] levelCursor = Arrays.copyOf(firstLevelSlot, levelCount);
+        for (int rank = 0; rank < nodeCount; rank++) {
+            levelRanks[levelCursor[levels[rank]]++] = rank;
+        }
+    }
+
+    /**
+     * Order and contract a graph.
+     *
+     * @param graph graph to contract
+     * @return metric-independent hierarchy
+     */
+    public static CustomizableContractionHierarchy build(CompactGraph graph) {
+        int nodeCount = graph.nodeCount();
+        int[] ranks = NestedDissectionOrdering.ranks(graph);
+        int[][] upper = new int[nodeCount][];
+        int[] counts = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            int rank = ranks[node];
+            upper[rank] = new int[4];
+            int edgeEnd = graph.firstEdge(node + 1);
+            for (int edge = graph.firstEdge(node); edge < edgeEnd; edge++) {
+                append(upper, counts, rank, ranks[graph.edgeTarget(edge)]);
+            }
+            int slotEnd = graph.firstInEdge(node + 1);
+            for (int slot = graph.firstInEdge(node); slot < slotEnd; slot++) {
+                append(upper, counts, rank, ranks[graph.edgeSource(graph.inEdge(slot))]);
+            }
+        }
+
+        // Contract bottom-up; the upper neighbours of a node form a clique, recorded under the lowest of them.
+        for (int rank = 0; rank < nodeCount; rank++) {
+            int[] neighbours = upper[rank];
+            Arrays.sort(neighbours, 0, counts[rank]);
+            int unique = 0;
+            for (int i = 0; i < counts[rank]; i++) {
+                int neighbour = neighbours[i];
+                if (neighbour > rank && (unique == 0 || neighbours[unique - 1] != neighbour)) {
+                    neighbours[unique++] = neighbour;
+                }
+            }
+            counts[rank] = unique;
+            for (int i = 1; i < unique; i++) {
+                append(upper, counts, neighbours[0], neighbours[i]);
+            }
+        }
+        return new CustomizableContractionHierarchy(graph, ranks, upper, counts);
+    }
+
+    private static void append(int[][] lists, int[] counts, int list, int value) {
+        if (counts[list] == lists[list].length) {
+            lists[list] = Arrays.copyOf(lists[list], counts[list] * 2);
+        }
+        lists[list][counts[list]++] = value;
+    }
+
+    /**
+     * Compute arc weights for the search costs of a hazard overlay.
+     *
+     * <p>Nodes are processed level by level, bottom-up; the nodes of one level
+     * share no arcs they write to, so large levels are customized in parallel.
+     * Each arc starts with the cheapest original edge between its endpoints and
+     * is then lowered through every triangle with a lower-ranked node.</p>
+     *
+     * @param hazards overlay whose penalties become part of the arc weights
+     * @return customized metric for this hierarchy
+     */
+    public CustomizedMetric customize(HazardOverlay hazards) {
+        CustomizedMetric metric = new CustomizedMetric(this, hazards, arcTails.length);
+        for (int level = 0; level + 1 < firstLevelSlot.length; level++) {
+            int from = firstLevelSlot[level];
+            int to = firstLevelSlot[level + 1];
+            if (to - from < PARALLEL_LEVEL_THRESHOLD) {
+                for (int slot = from; slot < to; slot++) {
+                    customizeNode(metric, hazards, levelRanks[slot]);
+                }
+            } else {
+                IntStream.range(from, to).parallel()
+                        .forEach(slot -> customizeNode(metric, hazards, levelRanks[slot]));
+            }
+        }
+        return metric;
+    }
+
+    /** Set the weights of the upward arcs of {@code rank}, reading only arcs of lower-ranked nodes. */
+    private void customizeNode(CustomizedMetric metric, HazardOverlay hazards, int rank) {
+        int node = nodesByRank[rank];
+        int edgeEnd = graph.firstEdge(node + 1);
+        for (int edge = graph.firstEdge(node); edge < edgeEnd; edge++) {
+            int head = ranks[graph.edgeTarget(edge)];
+            if (head > rank) {
+                metric.offer(CustomizedMetric.up(findArc(rank, head)),
+                        EdgeCosts.cost(graph, hazards, edge), graph.edgeWeight(edge), edge);
+            }
+        }
+        int slotEnd = graph.firstInEdge(node + 1);
+        for (int slot = graph.firstInEdge(node); slot < slotEnd; slot++) {
+            int edge = graph.inEdge(slot);
+            int tail = ranks[graph.edgeSource(edge)];
+            if (tail > rank) {
+                metric.offer(CustomizedMetric.down(findArc(rank, tail)),
+                        EdgeCosts.cost(graph, hazards, edge), graph.edgeWeight(edge), edge);
+            }
+        }
+
+        // Lower triangles: for a lower neighbour v, arcs v-rank and v-w combine into rank-w for every common w.
+        int ownEnd = firstUpArc[rank + 1];
+        int downEnd = firstDownArc[rank + 1];
+        for (int downSlot = firstDownArc[rank]; downSlot < downEnd; downSlot++) {
+            int lowerArc = downArcs[downSlot];
+            int lower = arcTails[lowerArc];
+            int lowerEnd = firstUpArc[lower + 1];
+            int own = firstUpArc[rank];
+            for (int side = lowerArc + 1; side < lowerEnd && own < ownEnd; side++) {
+                int head = arcHeads[side];
+                while (own < ownEnd && arcHeads[own] < head) {
+                    own++;
+                }
+                if (own < ownEnd && arcHeads[own] == head) {
+                    metric.offerShortcut(CustomizedMetric.up(own),
+                            CustomizedMetric.down(lowerArc), CustomizedMetric.up(side));
+                    metric.offerShortcut(CustomizedMetric.down(own),
+                            CustomizedMetric.down(side), CustomizedMetric.up(lowerArc));
+                }
+            }
+        }
+    }
+
+    private int findArc(int tail, int head) {
+        int arc = Arrays.binarySearch(arcHeads, firstUpArc[tail], firstUpArc[tail + 1], head);
+        if (arc < 0) {
+            throw new IllegalStateException("Missing hierarchy arc " + tail + " -> " + head);
+        }
+        return arc;
+    }
+
+    /** Whether this hierarchy was built for exactly the given graph. */
+    public boolean isBuiltFor(CompactGraph graph) {
+        return this.graph == graph;
+    }
+
+    public int nodeCount() {
+        return ranks.length;
+    }
+
+    public int arcCount() {
+        return arcTails.length;
+    }
+
+    /** Number of customization rounds; nodes within one round are independent. */
+    public int levelCount() {
+        return firstLevelSlot.length - 1;
+    }
+
+    public int rank(int node) {
+        return ranks[node];
+    }
+
+    /** Lowest-ranked upper neighbour of {@code rank}, or -1 for a root of the elimination tree. */
+    public int parent(int rank) {
+        return parents[rank];
+    }
+
+    /** First upward arc of {@code rank}; the range ends at {@code firstUpArc(rank + 1)}. */
+    public int firstUpArc(int rank) {
+        return firstUpArc[rank];
+    }
+
+    public int arcTail(int arc) {
+        return arcTails[arc];
+    }
+
+    public int arcHead(int arc) {
+        return arcHeads[arc];
+    }
+}
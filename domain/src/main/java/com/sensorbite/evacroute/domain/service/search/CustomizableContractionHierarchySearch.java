@@ -0,0 +1,189 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Point-to-point queries on a {@link CustomizableContractionHierarchy}.
+ *
+ * <p>The upward search space of a node is its chain of ancestors in the
+ * elimination tree, so a query needs no priority queue: it walks the source
+ * and target chains in rank order, relaxing upward arcs with the forward or
+ * backward weights, and takes the cheapest common ancestor as the meeting
+ * node.</p>
+ *
+ * <p>The hierarchy itself is built once per road graph. A hazard overlay only
+ * triggers a new customization, which runs on the preprocessing executor;
+ * until it completes, queries are answered by bidirectional Dijkstra so routes
+ * never ignore new hazards. A queued customization whose overlay has been
+ * superseded by the time it starts is skipped.</p>
+ */
+public class CustomizableContractionHierarchySearch implements PathSearch {
+
+    private final Executor preprocessingExecutor;
+    private final PathSearch fallback = new BidirectionalDijkstraSearch();
+    private final AtomicReference<CustomizableContractionHierarchy> hierarchy = new AtomicReference<>();
+    private final AtomicReference<CustomizedMetric> current = new AtomicReference<>();
+    private final AtomicReference<HazardOverlay> customizing = new AtomicReference<>();
+
+    private final ThreadLocal<SearchWorkspace> forwardWorkspaces = ThreadLocal.withInitial(SearchWorkspace::new);
+    private final ThreadLocal<SearchWorkspace> backwardWorkspaces = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    /**
+     * Create a search that builds and customizes hierarchies on the calling thread.
+     */
+    public CustomizableContractionHierarchySearch() {
+        this(Runnable::run);
+    }
+
+    /**
+     * @param preprocessingExecutor executor that runs hierarchy builds and customizations
+     */
+    public CustomizableContractionHierarchySearch(Executor preprocessingExecutor) {
+        this.preprocessingExecutor = preprocessingExecutor;
+    }
+
+    @Override
+    public PathResult findPath(RoadNetwork network, int source, int target) {
+        CustomizedMetric metric = metricFor(network);
+        if (metric == null) {
+            return fallback.findPath(network, source, target);
+        }
+        return query(metric, source, target);
+    }
+
+    /**
+     * Returns the metric for the network's graph and overlay, scheduling a
+     * customization (and, for a new graph, a hierarchy build) if there is none yet.
+     *
+     * @return matching metric, or {@code null} while it is being computed
+     */
+    public CustomizedMetric metricFor(RoadNetwork network) {
+        CompactGraph graph = network.getCompactGraph();
+        HazardOverlay hazards = network.getHazards();
+        CustomizedMetric metric = current.get();
+        if (metric != null && metric.isCustomizedFor(graph, hazards)) {
+            return metric;
+        }
+
+        HazardOverlay pending = customizing.get();
+        if (pending != hazards && customizing.compareAndSet(pending, hazards)) {
+            preprocessingExecutor.execute(() -> {
+                if (customizing.get() != hazards) {
+                    return; // superseded by a newer overlay while queued
+                }
+                try {
+                    CustomizedMetric customized = hierarchyFor(graph).customize(hazards);
+                    if (customizing.get() == hazards) {
+                        current.set(customized);
+                    }
+                } catch (RuntimeException e) {
+                    customizing.compareAndSet(hazards, null);
+                    throw e;
+                }
+            });
+        }
+
+        metric = current.get();
+        return metric != null && metric.isCustomizedFor(graph, hazards) ? metric : null;
+    }
+
+    private CustomizableContractionHierarchy hierarchyFor(CompactGraph graph) {
+        CustomizableContractionHierarchy built = hierarchy.get();
+        if (built == null || !built.isBuiltFor(graph)) {
+            built = CustomizableContractionHierarchy.build(graph);
+            hierarchy.set(built);
+        }
+        return built;
+    }
+
+    private PathResult query(CustomizedMetric metric, int source, int target) {
+        CustomizableContractionHierarchy ch = metric.hierarchy();
+        SearchWorkspace forward = forwardWorkspaces.get();
+        SearchWorkspace backward = backwardWorkspaces.get();
+        forward.reset(ch.nodeCount());
+        backward.reset(ch.nodeCount());
+
+        int up = ch.rank(source);
+        int down = ch.rank(target);
+        forward.update(up, 0.0, -1);
+        backward.update(down, 0.0, -1);
+
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        int settled = 0;
+        while (up >= 0 || down >= 0) {
+            settled++;
+            if (down < 0 || (up >= 0 && up < down)) {
+                relax(ch, metric, forward, up, best, true);
+                up = ch.parent(up);
+            } else if (up < 0 || down < up) {
+                relax(ch, metric, backward, down, best, false);
+                down = ch.parent(down);
+            } else {
+                double through = forward.distance(up) + backward.distance(up);
+                if (through < best) {
+                    best = through;
+                    meeting = up;
+                }
+                relax(ch, metric, forward, up, best, true);
+                relax(ch, metric, backward, up, best, false);
+                up = ch.parent(up);
+                down = up;
+            }
+        }
+
+        if (meeting < 0) {
+            return PathResult.notFound(settled);
+        }
+        return new PathResult(unpack(ch, metric, forward, backward, meeting), best, settled);
+    }
+
+    private static void relax(CustomizableContractionHierarchy ch, CustomizedMetric metric, SearchWorkspace workspace,
+                              int rank, double best, boolean forward) {
+        double distance = workspace.distance(rank);
+        if (distance >= best) {
+            return;
+        }
+        int arcEnd = ch.firstUpArc(rank + 1);
+        for (int arc = ch.firstUpArc(rank); arc < arcEnd; arc++) {
+            int directed = forward ? CustomizedMetric.up(arc) : CustomizedMetric.down(arc);
+            double candidate = distance + metric.weight(directed);
+            int head = ch.arcHead(arc);
+            if (candidate < workspace.distance(head)) {
+                workspace.update(head, candidate, directed);
+            }
+        }
+    }
+
+    private static int[] unpack(CustomizableContractionHierarchy ch, CustomizedMetric metric, SearchWorkspace forward,
+                                SearchWorkspace backward, int meeting) {
+        int forwardLength = 0;
+        for (int arc = forward.predecessorEdge(meeting); arc >= 0;
+             arc = forward.predecessorEdge(ch.arcTail(arc >> 1))) {
+            forwardLength++;
+        }
+        int backwardLength = 0;
+        for (int arc = backward.predecessorEdge(meeting); arc >= 0;
+             arc = backward.predecessorEdge(ch.arcTail(arc >> 1))) {
+            backwardLength++;
+        }
+
+        int[] arcs = new int[forwardLength + backwardLength];
+        int index = forwardLength;
+        for (int arc = forward.predecessorEdge(meeting); arc >= 0;
+             arc = forward.predecessorEdge(ch.arcTail(arc >> 1))) {
+            arcs[--index] = arc;
+        }
+        index = forwardLength;
+        for (int arc = backward.predecessorEdge(meeting); arc >= 0;
+             arc = backward.predecessorEdge(ch.arcTail(arc >> 1))) {
+            arcs[index++] = arc;
+        }
+        return metric.unpack(arcs, arcs.length);
+    }
+}
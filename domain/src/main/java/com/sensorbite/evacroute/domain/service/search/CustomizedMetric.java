@@ -0,0 +1,121 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+
+import java.util.Arrays;
+
+/**
+ * Arc weights of a {@link CustomizableContractionHierarchy} for one hazard overlay.
+ *
+ * <p>Every undirected hierarchy arc {@code a} has two directed arcs:
+ * {@link #up(int)} from its lower to its higher endpoint and
+ * {@link #down(int)} back. Each directed arc either stands for one compact
+ * graph edge or for two directed arcs through a lower-ranked node; directions
+ * without any connection (one-way streets) keep an infinite weight.</p>
+ *
+ * <p>Instances are filled in by {@link CustomizableContractionHierarchy#customize(HazardOverlay)}
+ * and are immutable and safe to share between threads once returned.</p>
+ */
+public final class CustomizedMetric {
+
+    private final CustomizableContractionHierarchy hierarchy;
+    private final HazardOverlay hazards;
+    private final double[] weights;
+    private final double[] lengths;
+    private final int[] edges;
+    private final int[] firstChildren;
+    private final int[] secondChildren;
+
+    CustomizedMetric(CustomizableContractionHierarchy hierarchy, HazardOverlay hazards, int arcCount) {
+        this.hierarchy = hierarchy;
+        this.hazards = hazards;
+        this.weights = new double[arcCount * 2];
+        this.lengths = new double[arcCount * 2];
+        this.edges = new int[arcCount * 2];
+        this.firstChildren = new int[arcCount * 2];
+        this.secondChildren = new int[arcCount * 2];
+        Arrays.fill(weights, Double.POSITIVE_INFINITY);
+        Arrays.fill(edges, -1);
+    }
+
+    /** Directed arc from the lower to the higher endpoint of {@code arc}. */
+    public static int up(int arc) {
+        return arc * 2;
+    }
+
+    /** Directed arc from the higher to the lower endpoint of {@code arc}. */
+    public static int down(int arc) {
+        return arc * 2 + 1;
+    }
+
+    void offer(int directedArc, double cost, double length, int edge) {
+        if (cost < weights[directedArc]) {
+            weights[directedArc] = cost;
+            lengths[directedArc] = length;
+            edges[directedArc] = edge;
+        }
+    }
+
+    void offerShortcut(int directedArc, int first, int second) {
+        double cost = weights[first] + weights[second];
+        if (cost < weights[directedArc]) {
+            weights[directedArc] = cost;
+            lengths[directedArc] = lengths[first] + lengths[second];
+            edges[directedArc] = -1;
+            firstChildren[directedArc] = first;
+            secondChildren[directedArc] = second;
+        }
+    }
+
+    public CustomizableContractionHierarchy hierarchy() {
+        return hierarchy;
+    }
+
+    /** Whether this metric was customized for exactly the given graph and overlay. */
+    public boolean isCustomizedFor(CompactGraph graph, HazardOverlay hazards) {
+        return hierarchy.isBuiltFor(graph) && this.hazards == hazards;
+    }
+
+    public double weight(int directedArc) {
+        return weights[directedArc];
+    }
+
+    /** Length in meters of the edges behind {@code directedArc}, without hazard penalties. */
+    public double length(int directedArc) {
+        return lengths[directedArc];
+    }
+
+    /**
+     * Expand directed arcs into the compact graph edges they stand for.
+     *
+     * @param directedArcs directed arcs of a path in travel order
+     * @param count number of arcs to expand
+     * @return compact graph edges in travel order
+     */
+    public int[] unpack(int[] directedArcs, int count) {
+        int length = 0;
+        int[] stack = new int[16];
+        int[] path = new int[Math.max(count, 16)];
+        for (int i = 0; i < count; i++) {
+            int top = 0;
+            stack[top++] = directedArcs[i];
+            while (top > 0) {
+                int arc = stack[--top];
+                if (edges[arc] >= 0) {
+                    if (length == path.length) {
+                        path = Arrays.copyOf(path, length * 2);
+                    }
+                    path[length++] = edges[arc];
+                } else {
+                    if (top + 2 > stack.length) {
+                        stack = Arrays.copyOf(stack, stack.length * 2);
+                    }
+                    stack[top++] = secondChildren[arc];
+                    stack[top++] = firstChildren[arc];
+                }
+            }
+        }
+        return Arrays.copyOf(path, length);
+    }
+}
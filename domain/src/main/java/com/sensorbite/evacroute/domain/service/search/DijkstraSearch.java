@@ -0,0 +1,242 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * Dijkstra's algorithm on the compact graph using an indexed heap with
+ * decrease-key and a per-thread {@link SearchWorkspace}.
+ *
+ * <p>After a thread's first query on a graph of a given size, the search itself
+ * allocates nothing; only the returned path array and result are new.</p>
+ */
+public class DijkstraSearch implements PathSearch {
+
+    /** Distance tables needing fewer searches are filled on the calling thread. */
+    private static final int PARALLEL_SEARCH_THRESHOLD = 8;
+
+    private final ThreadLocal<SearchWorkspace> workspaces = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    @Override
+    public PathResult findPath(RoadNetwork network, int source, int target) {
+        CompactGraph graph = network.getCompactGraph();
+        HazardOverlay hazards = network.getHazards();
+        SearchWorkspace workspace = workspaces.get();
+        workspace.reset(graph.nodeCount());
+        IndexedMinHeap heap = workspace.heap();
+
+        workspace.update(source, 0.0, -1);
+        heap.insertOrDecrease(source, 0.0);
+        int settled = 0;
+
+        while (!heap.isEmpty()) {
+            int node = heap.poll();
+            workspace.settle(node);
+            settled++;
+            if (node == target) {
+                break;
+            }
+
+            double distance = workspace.distance(node);
+            int edgeEnd = graph.firstEdge(node + 1);
+            for (int edge = graph.firstEdge(node); edge < edgeEnd; edge++) {
+                int next = graph.edgeTarget(edge);
+                double candidate = distance + EdgeCosts.cost(graph, hazards, edge);
+                if (candidate < workspace.distance(next)) {
+                    workspace.update(next, candidate, edge);
+                    heap.insertOrDecrease(next, candidate);
+                }
+            }
+        }
+
+        if (!workspace.isSettled(target)) {
+            return PathResult.notFound(settled);
+        }
+        return new PathResult(workspace.edgePath(graph, source, target), workspace.distance(target), settled);
+    }
+
+    /**
+     * Best path from {@code source} to whichever of the target nodes is cheapest
+     * to reach, found by a single search that stops at the first settled target.
+     *
+     * @param network network with the hazard overlay to route against
+     * @param source compact graph source node
+     * @param targets compact graph target nodes
+     * @return path to the nearest target, which is the head of its last edge
+     *         (or the source itself when the path is empty)
+     */
+    public PathResult findPathToNearest(RoadNetwork network, int source, BitSet targets) {
+        CompactGraph graph = network.getCompactGraph();
+        HazardOverlay hazards = network.getHazards();
+        SearchWorkspace workspace = workspaces.get();
+        workspace.reset(graph.nodeCount());
+        IndexedMinHeap heap = workspace.heap();
+
+        workspace.update(source, 0.0, -1);
+        heap.insertOrDecrease(source, 0.0);
+        int settled = 0;
+
+        while (!heap.isEmpty()) {
+            int node = heap.poll();
+            workspace.settle(node);
+            settled++;
+            if (targets.get(node)) {
+                return new PathResult(workspace.edgePath(graph, source, node), workspace.distance(node), settled);
+            }
+
+            double distance = workspace.distance(node);
+            int edgeEnd = graph.firstEdge(node + 1);
+            for (int edge = graph.firstEdge(node); edge < edgeEnd; edge++) {
+                relax(workspace, heap, graph.edgeTarget(edge), distance + EdgeCosts.cost(graph, hazards, edge), edge);
+            }
+        }
+        return PathResult.notFound(settled);
+    }
+
+    /**
+     * Every node within a road distance of {@code source} along paths that
+     * never use a hazardous segment.
+     *
+     * <p>Edges are weighted by length only and hazardous edges are skipped
+     * rather than penalised. The search stops at the first node beyond the
+     * bound, so its cost grows with the size of the reachable area, not of
+     * the graph.</p>
+     *
+     * @param network network with the hazard overlay to respect
+     * @param source compact graph source node
+     * @param maxLengthMeters distance bound along the roads
+     * @return reachable nodes with their distances, in ascending distance order
+     */
+    public ReachableNodes reachableWithin(RoadNetwork network, int source, double maxLengthMeters) {
+        CompactGraph graph = network.getCompactGraph();
+        HazardOverlay hazards = network.getHazards();
+        SearchWorkspace workspace = workspaces.get();
+        workspace.reset(graph.nodeCount());
+        IndexedMinHeap heap = workspace.heap();
+
+        int[] nodes = new int[16];
+        double[] lengths = new double[16];
+        int count = 0;
+        workspace.update(source, 0.0, -1);
+        heap.insertOrDecrease(source, 0.0);
+        while (!heap.isEmpty()) {
+            int node = heap.poll();
+            double length = workspace.distance(node);
+            if (length > maxLengthMeters) {
+                break;
+            }
+            workspace.settle(node);
+            if (count == nodes.length) {
+                nodes = Arrays.copyOf(nodes, count * 2);
+                lengths = Arrays.copyOf(lengths, count * 2);
+            }
+            nodes[count] = node;
+            lengths[count++] = length;
+
+            int edgeEnd = graph.firstEdge(node + 1);
+            for (int edge = graph.firstEdge(node); edge < edgeEnd; edge++) {
+                int segment = graph.edgeSegment(edge);
+                if (segment < 0 || !hazards.isHazardous(segment)) {
+                    relax(workspace, heap, graph.edgeTarget(edge), length + graph.edgeWeight(edge), edge);
+                }
+            }
+        }
+        return new ReachableNodes(Arrays.copyOf(nodes, count), Arrays.copyOf(lengths, count));
+    }
+
+    /**
+     * Costs and lengths of best paths from every source to every target, by one
+     * one-to-many search per source, or one backward many-to-one search per
+     * target when there are fewer targets than sources.
+     *
+     * <p>Each search stops as soon as all nodes on the other side are settled.
+     * Searches run in parallel, each thread reusing its own workspace.</p>
+     *
+     * @param network network with the hazard overlay to route against
+     * @param sources compact graph source nodes, one per row
+     * @param targets compact graph target nodes, one per column
+     * @return table of best paths, with unreachable pairs not found
+     */
+    public DistanceTable distances(RoadNetwork network, int[] sources, int[] targets) {
+        DistanceTable table = new DistanceTable(sources.length, targets.length);
+        boolean backward = targets.length < sources.length;
+        int[] origins = backward ? targets : sources;
+        int[] destinations = backward ? sources : targets;
+        BitSet destinationNodes = new BitSet(network.getCompactGraph().nodeCount());
+        for (int destination : destinations) {
+            destinationNodes.set(destination);
+        }
+        IntStream searches = IntStream.range(0, origins.length);
+        if (origins.length >= PARALLEL_SEARCH_THRESHOLD) {
+            searches = searches.parallel();
+        }
+        searches.forEach(i -> searchFrom(network, origins[i], backward, destinations, destinationNodes, table, i));
+        return table;
+    }
+
+    private void searchFrom(RoadNetwork network, int origin, boolean backward, int[] destinations,
+                            BitSet destinationNodes, DistanceTable table, int index) {
+        CompactGraph graph = network.getCompactGraph();
+        HazardOverlay hazards = network.getHazards();
+        SearchWorkspace workspace = workspaces.get();
+        workspace.reset(graph.nodeCount());
+        IndexedMinHeap heap = workspace.heap();
+        int remaining = destinationNodes.cardinality();
+
+        workspace.update(origin, 0.0, -1);
+        heap.insertOrDecrease(origin, 0.0);
+        while (!heap.isEmpty() && remaining > 0) {
+            int node = heap.poll();
+            workspace.settle(node);
+            if (destinationNodes.get(node)) {
+                remaining--;
+            }
+
+            double distance = workspace.distance(node);
+            if (backward) {
+                int slotEnd = graph.firstInEdge(node + 1);
+                for (int slot = graph.firstInEdge(node); slot < slotEnd; slot++) {
+                    int edge = graph.inEdge(slot);
+                    double candidate = distance + EdgeCosts.cost(graph, hazards, edge);
+                    relax(workspace, heap, graph.edgeSource(edge), candidate, edge);
+                }
+            } else {
+                int edgeEnd = graph.firstEdge(node + 1);
+                for (int edge = graph.firstEdge(node); edge < edgeEnd; edge++) {
+                    double candidate = distance + EdgeCosts.cost(graph, hazards, edge);
+                    relax(workspace, heap, graph.edgeTarget(edge), candidate, edge);
+                }
+            }
+        }
+
+        for (int i = 0; i < destinations.length; i++) {
+            int destination = destinations[i];
+            if (!workspace.isSettled(destination)) {
+                continue;
+            }
+            double length = 0.0;
+            for (int node = destination; node != origin; ) {
+                int edge = workspace.predecessorEdge(node);
+                length += graph.edgeWeight(edge);
+                node = backward ? graph.edgeTarget(edge) : graph.edgeSource(edge);
+            }
+            if (backward) {
+                table.offer(i, index, workspace.distance(destination), length);
+            } else {
+                table.offer(index, i, workspace.distance(destination), length);
+            }
+        }
+    }
+
+    private static void relax(SearchWorkspace workspace, IndexedMinHeap heap, int node, double candidate, int edge) {
+        if (candidate < workspace.distance(node)) {
+            workspace.update(node, candidate, edge);
+            heap.insertOrDecrease(node, candidate);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import java.util.Arrays;
+
+/**
+ * Costs and lengths of best paths between every source and every target of a
+ * many-to-many query, stored row-major in flat arrays.
+ *
+ * <p>Cells are filled independently, so a table may be written by several
+ * threads as long as each cell has a single writer.</p>
+ */
+public final class DistanceTable {
+
+    private final int sourceCount;
+    private final int targetCount;
+    private final double[] costs;
+    private final double[] lengths;
+
+    /**
+     * Create a table with every pair unreachable.
+     *
+     * @param sourceCount number of rows
+     * @param targetCount number of columns
+     */
+    DistanceTable(int sourceCount, int targetCount) {
+        this.sourceCount = sourceCount;
+        this.targetCount = targetCount;
+        this.costs = new double[sourceCount * targetCount];
+        this.lengths = new double[sourceCount * targetCount];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        Arrays.fill(lengths, Double.POSITIVE_INFINITY);
+    }
+
+    public int sourceCount() {
+        return sourceCount;
+    }
+
+    public int targetCount() {
+        return targetCount;
+    }
+
+    /** Best path cost and length from source {@code row} to target {@code column}. */
+    public PathDistance get(int row, int column) {
+        int cell = row * targetCount + column;
+        return new PathDistance(costs[cell], lengths[cell]);
+    }
+
+    /** Record a path for a pair if it is cheaper than the one recorded so far. */
+    void offer(int row, int column, double cost, double length) {
+        int cell = row * targetCount + column;
+        if (cost < costs[cell]) {
+            costs[cell] = cost;
+            lengths[cell] = length;
+        }
+    }
+}
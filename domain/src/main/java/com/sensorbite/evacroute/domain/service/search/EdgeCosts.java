@@ -0,0 +1,36 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+
+/**
+ * Search cost of compact graph edges under a hazard overlay.
+ */
+public final class EdgeCosts {
+
+    /**
+     * Weight multiplier applied to hazardous road segments.
+     *
+     * <p>A factor of 10,000 makes hazardous segments effectively "last resort"
+     * routes. For a typical 100m segment (weight=100), the hazardous weight
+     * becomes 1,000,000, forcing the search to prefer any non-hazardous alternative
+     * unless no other path exists.</p>
+     *
+     * <p>Rationale: 10,000x penalty means a 10km detour is preferred over 1m
+     * of hazardous road, which aligns with evacuation safety priorities.</p>
+     */
+    public static final double HAZARD_PENALTY_FACTOR = 10_000.0;
+
+    private EdgeCosts() {
+    }
+
+    /**
+     * Cost of traversing {@code edge}: its weight, multiplied by
+     * {@link #HAZARD_PENALTY_FACTOR} when its segment is hazardous.
+     */
+    public static double cost(CompactGraph graph, HazardOverlay hazards, int edge) {
+        double weight = graph.edgeWeight(edge);
+        int segment = graph.edgeSegment(edge);
+        return segment >= 0 && hazards.isHazardous(segment) ? weight * HAZARD_PENALTY_FACTOR : weight;
+    }
+}
@@ -0,0 +1,132 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Distance and path queries answered from {@link HubLabels}.
+ *
+ * <p>Labels are derived from the metric of a
+ * {@link CustomizableContractionHierarchySearch}, which may be shared with the
+ * CCH search mode so both use one customization per hazard overlay. Once the
+ * metric for an overlay is available, labelling is handed to the preprocessing
+ * executor; until it completes, queries are answered by the hierarchy search
+ * (or its own fallback), and distance tables by repeated one-to-many
+ * Dijkstra searches. A queued labelling whose overlay has been superseded by
+ * the time it starts is skipped.</p>
+ */
+public class HubLabelSearch implements PathSearch {
+
+    private final CustomizableContractionHierarchySearch hierarchySearch;
+    private final Executor preprocessingExecutor;
+    private final DijkstraSearch oneToManySearch = new DijkstraSearch();
+    private final AtomicReference<HubLabels> current = new AtomicReference<>();
+    private final AtomicReference<HazardOverlay> labelling = new AtomicReference<>();
+
+    /**
+     * Create a search that customizes and labels on the calling thread.
+     */
+    public HubLabelSearch() {
+        this(new CustomizableContractionHierarchySearch(), Runnable::run);
+    }
+
+    /**
+     * @param hierarchySearch search providing customized metrics and answering queries until labels are ready
+     * @param preprocessingExecutor executor that runs label computation
+     */
+    public HubLabelSearch(CustomizableContractionHierarchySearch hierarchySearch, Executor preprocessingExecutor) {
+        this.hierarchySearch = hierarchySearch;
+        this.preprocessingExecutor = preprocessingExecutor;
+    }
+
+    @Override
+    public PathResult findPath(RoadNetwork network, int source, int target) {
+        HubLabels labels = labelsFor(network);
+        if (labels == null) {
+            return hierarchySearch.findPath(network, source, target);
+        }
+        return labels.path(source, target);
+    }
+
+    /**
+     * Cost and length of the best path between two nodes, without unpacking it.
+     *
+     * @param network network with the hazard overlay to route against
+     * @param source compact graph source node
+     * @param target compact graph target node
+     * @return best path cost and length, or {@link PathDistance#notFound()}
+     */
+    public PathDistance distance(RoadNetwork network, int source, int target) {
+        HubLabels labels = labelsFor(network);
+        if (labels != null) {
+            return labels.distance(source, target);
+        }
+        PathResult path = hierarchySearch.findPath(network, source, target);
+        if (!path.found()) {
+            return PathDistance.notFound();
+        }
+        CompactGraph graph = network.getCompactGraph();
+        double length = 0.0;
+        for (int edge : path.edgePath()) {
+            length += graph.edgeWeight(edge);
+        }
+        return new PathDistance(path.cost(), length);
+    }
+
+    /**
+     * Costs and lengths of best paths from every source to every target.
+     *
+     * @param network network with the hazard overlay to route against
+     * @param sources compact graph source nodes, one per row
+     * @param targets compact graph target nodes, one per column
+     * @return table of best paths, with unreachable pairs not found
+     */
+    public DistanceTable distances(RoadNetwork network, int[] sources, int[] targets) {
+        HubLabels labels = labelsFor(network);
+        if (labels == null) {
+            return oneToManySearch.distances(network, sources, targets);
+        }
+        return labels.distances(sources, targets);
+    }
+
+    /**
+     * Returns the labels for the network's graph and overlay, scheduling their
+     * computation once the customized metric for the overlay is available.
+     *
+     * @return matching labels, or {@code null} while they are being computed
+     */
+    public HubLabels labelsFor(RoadNetwork network) {
+        CompactGraph graph = network.getCompactGraph();
+        HazardOverlay hazards = network.getHazards();
+        HubLabels labels = current.get();
+        if (labels != null && labels.isBuiltFor(graph, hazards)) {
+            return labels;
+        }
+
+        CustomizedMetric metric = hierarchySearch.metricFor(network);
+        HazardOverlay pending = labelling.get();
+        if (metric != null && pending != hazards && labelling.compareAndSet(pending, hazards)) {
+            preprocessingExecutor.execute(() -> {
+                if (labelling.get() != hazards) {
+                    return; // superseded by a newer overlay while queued
+                }
+                try {
+                    HubLabels built = HubLabels.build(metric);
+                    if (labelling.get() == hazards) {
+                        current.set(built);
+                    }
+                } catch (RuntimeException e) {
+                    labelling.compareAndSet(hazards, null);
+                    throw e;
+                }
+            });
+        }
+
+        labels = current.get();
+        return labels != null && labels.isBuiltFor(graph, hazards) ? labels : null;
+    }
+}
@@ -0,0 +1,419 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Hub labels derived from a customized contraction hierarchy.
+ *
+ * <p>Every node has a forward label listing hubs it can reach with their
+ * costs, and a backward label listing hubs that reach it. Hubs are the nodes of
+ * the node's upward search space in the hierarchy, so any two nodes share the
+ * top node of their best path, and the cost between them is the minimum of
+ * {@code forward(s, h) + backward(t, h)} over common hubs {@code h}: a merge of
+ * two short sorted arrays, without any graph search.</p>
+ *
+ * <p>Labels are computed top-down in rank order: a node's label is the union of
+ * its upper neighbours' labels extended by the connecting arc, minus entries
+ * for which the labels computed so far already prove a cheaper path. Nodes on
+ * the same top-down level are independent and are labelled in parallel. Every
+ * entry also records the first arc towards its hub, so a path can be unpacked
+ * on demand by following entries for the meeting hub from both ends.</p>
+ *
+ * <p>All labels live in flat primitive arrays in rank order. Instances are
+ * immutable and safe to share between threads.</p>
+ */
+public final class HubLabels {
+
+    /** Levels with fewer nodes are labelled on the calling thread. */
+    private static final int PARALLEL_LEVEL_THRESHOLD = 64;
+
+    /** Distance tables with fewer sources are filled on the calling thread. */
+    private static final int PARALLEL_ROW_THRESHOLD = 64;
+
+    private final CustomizedMetric metric;
+    private final Labels forward;
+    private final Labels backward;
+
+    private HubLabels(CustomizedMetric metric, Labels forward, Labels backward) {
+        this.metric = metric;
+        this.forward = forward;
+        this.backward = backward;
+    }
+
+    /**
+     * Compute labels for the costs of a customized metric.
+     *
+     * @param metric customized hierarchy whose node order and arc weights are used
+     * @return hub labels valid for the metric's graph and hazard overlay
+     */
+    public static HubLabels build(CustomizedMetric metric) {
+        CustomizableContractionHierarchy ch = metric.hierarchy();
+        int nodeCount = ch.nodeCount();
+
+        // Top-down level: one more than the highest level among a node's upper neighbours.
+        int[] levels = new int[nodeCount];
+        int levelCount = nodeCount == 0 ? 0 : 1;
+        for (int rank = nodeCount - 1; rank >= 0; rank--) {
+            int arcEnd = ch.firstUpArc(rank + 1);
+            for (int arc = ch.firstUpArc(rank); arc < arcEnd; arc++) {
+                levels[rank] = Math.max(levels[rank], levels[ch.arcHead(arc)] + 1);
+            }
+            levelCount = Math.max(levelCount, levels[rank] + 1);
+        }
+        int[] firstLevelSlot = new int[levelCount + 1];
+        for (int level : levels) {
+            firstLevelSlot[level + 1]++;
+        }
+        for (int level = 0; level < levelCount; level++) {
+            firstLevelSlot[level + 1] += firstLevelSlot[level];
+        }
+        int[] levelRanks = new int[nodeCount];
+        int[] cursor = Arrays.copyOf(firstLevelSlot, levelCount);
+        for (int rank = 0; rank < nodeCount; rank++) {
+            levelRanks[cursor[levels[rank]]++] = rank;
+        }
+
+        LabelBuilder forward = new LabelBuilder(nodeCount);
+        LabelBuilder backward = new LabelBuilder(nodeCount);
+        ThreadLocal<Scratch> scratches = ThreadLocal.withInitial(() -> new Scratch(nodeCount));
+        for (int level = 0; level < levelCount; level++) {
+            int from = firstLevelSlot[level];
+            int to = firstLevelSlot[level + 1];
+            IntStream slots = IntStream.range(from, to);
+            if (to - from >= PARALLEL_LEVEL_THRESHOLD) {
+                slots = slots.parallel();
+            }
+            slots.forEach(slot -> {
+                Scratch scratch = scratches.get();
+                scratch.label(metric, levelRanks[slot], true, forward, backward);
+                scratch.label(metric, levelRanks[slot], false, backward, forward);
+            });
+        }
+        return new HubLabels(metric, forward.flatten(), backward.flatten());
+    }
+
+    /** Whether these labels were computed for exactly the given graph and overlay. */
+    public boolean isBuiltFor(CompactGraph graph, HazardOverlay hazards) {
+        return metric.isCustomizedFor(graph, hazards);
+    }
+
+    /** Total number of label entries in both directions. */
+    public long entryCount() {
+        return (long) forward.hubs.length + backward.hubs.length;
+    }
+
+    /**
+     * Cost and length of the best path between two nodes.
+     *
+     * @param source compact graph source node
+     * @param target compact graph target node
+     * @return best path cost and length, or {@link PathDistance#notFound()}
+     */
+    public PathDistance distance(int source, int target) {
+        CustomizableContractionHierarchy ch = metric.hierarchy();
+        int i = meetingEntry(ch.rank(source), ch.rank(target));
+        if (i < 0) {
+            return PathDistance.notFound();
+        }
+        int j = backward.find(ch.rank(target), forward.hubs[i]);
+        return new PathDistance(forward.costs[i] + backward.costs[j], forward.lengths[i] + backward.lengths[j]);
+    }
+
+    /**
+     * Best path between two nodes, unpacked to compact graph edges.
+     *
+     * @param source compact graph source node
+     * @param target compact graph target node
+     * @return path, with the number of label entries scanned as settled nodes
+     */
+    public PathResult path(int source, int target) {
+        CustomizableContractionHierarchy ch = metric.hierarchy();
+        int sourceRank = ch.rank(source);
+        int targetRank = ch.rank(target);
+        int scanned = forward.size(sourceRank) + backward.size(targetRank);
+        int i = meetingEntry(sourceRank, targetRank);
+        if (i < 0) {
+            return PathResult.notFound(scanned);
+        }
+        int hub = forward.hubs[i];
+        double cost = forward.costs[i] + backward.costs[backward.find(targetRank, hub)];
+
+        int[] arcs = new int[8];
+        int count = 0;
+        for (int rank = sourceRank; rank != hub; ) {
+            int arc = forward.arcs[forward.find(rank, hub)];
+            arcs = append(arcs, count++, arc);
+            rank = ch.arcHead(arc >> 1);
+        }
+        int forwardCount = count;
+        for (int rank = targetRank; rank != hub; ) {
+            int arc = backward.arcs[backward.find(rank, hub)];
+            arcs = append(arcs, count++, arc);
+            rank = ch.arcHead(arc >> 1);
+        }
+        // Backward arcs were collected from the target upwards; travel order is the reverse.
+        for (int lo = forwardCount, hi = count - 1; lo < hi; lo++, hi--) {
+            int swap = arcs[lo];
+            arcs[lo] = arcs[hi];
+            arcs[hi] = swap;
+        }
+        return new PathResult(metric.unpack(arcs, count), cost, scanned);
+    }
+
+    /**
+     * Costs and lengths of best paths from every source to every target.
+     *
+     * <p>The backward labels of all targets are first grouped into one bucket
+     * per hub. Each source then scans its forward label once and relaxes the
+     * bucket of every hub it lists, so the work per source is independent of
+     * the number of targets that share no hubs with it. Sources are processed
+     * in parallel when there are many of them.</p>
+     *
+     * @param sources compact graph source nodes, one per row
+     * @param targets compact graph target nodes, one per column
+     * @return table of best paths, with unreachable pairs not found
+     */
+    public DistanceTable distances(int[] sources, int[] targets) {
+        CustomizableContractionHierarchy ch = metric.hierarchy();
+        int nodeCount = ch.nodeCount();
+        int[] firstBucketEntry = new int[nodeCount + 1];
+        for (int target : targets) {
+            int rank = ch.rank(target);
+            for (int j = backward.first[rank]; j < backward.first[rank + 1]; j++) {
+                firstBucketEntry[backward.hubs[j] + 1]++;
+            }
+        }
+        for (int hub = 0; hub < nodeCount; hub++) {
+            firstBucketEntry[hub + 1] += firstBucketEntry[hub];
+        }
+        int entryCount = firstBucketEntry[nodeCount];
+        int[] bucketColumns = new int[entryCount];
+        double[] bucketCosts = new double[entryCount];
+        double[] bucketLengths = new double[entryCount];
+        int[] cursor = Arrays.copyOf(firstBucketEntry, nodeCount);
+        for (int column = 0; column < targets.length; column++) {
+            int rank = ch.rank(targets[column]);
+            for (int j = backward.first[rank]; j < backward.first[rank + 1]; j++) {
+                int slot = cursor[backward.hubs[j]]++;
+                bucketColumns[slot] = column;
+                bucketCosts[slot] = backward.costs[j];
+                bucketLengths[slot] = backward.lengths[j];
+            }
+        }
+
+        DistanceTable table = new DistanceTable(sources.length, targets.length);
+        IntStream rows = IntStream.range(0, sources.length);
+        if (sources.length >= PARALLEL_ROW_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        rows.forEach(row -> {
+            int rank = ch.rank(sources[row]);
+            for (int i = forward.first[rank]; i < forward.first[rank + 1]; i++) {
+                int hub = forward.hubs[i];
+                for (int slot = firstBucketEntry[hub]; slot < firstBucketEntry[hub + 1]; slot++) {
+                    table.offer(row, bucketColumns[slot],
+                            forward.costs[i] + bucketCosts[slot], forward.lengths[i] + bucketLengths[slot]);
+                }
+            }
+        });
+        return table;
+    }
+
+    private static int[] append(int[] values, int index, int value) {
+        int[] target = index == values.length ? Arrays.copyOf(values, index * 2) : values;
+        target[index] = value;
+        return target;
+    }
+
+    /** Forward entry of the cheapest common hub, or -1 if the labels share none. */
+    private int meetingEntry(int sourceRank, int targetRank) {
+        int i = forward.first[sourceRank];
+        int iEnd = forward.first[sourceRank + 1];
+        int j = backward.first[targetRank];
+        int jEnd = backward.first[targetRank + 1];
+        double best = Double.POSITIVE_INFINITY;
+        int bestEntry = -1;
+        while (i < iEnd && j < jEnd) {
+            int forwardHub = forward.hubs[i];
+            int backwardHub = backward.hubs[j];
+            if (forwardHub < backwardHub) {
+                i++;
+            } else if (forwardHub > backwardHub) {
+                j++;
+            } else {
+                double cost = forward.costs[i] + backward.costs[j];
+                if (cost < best) {
+                    best = cost;
+                    bestEntry = i;
+                }
+                i++;
+                j++;
+            }
+        }
+        return bestEntry;
+    }
+
+    /** Labels of one direction in CSR layout, entries of a node sorted by hub rank. */
+    private static final class Labels {
+        private final int[] first;
+        private final int[] hubs;
+        private final double[] costs;
+        private final double[] lengths;
+        private final int[] arcs;
+
+        private Labels(int[] first, int[] hubs, double[] costs, double[] lengths, int[] arcs) {
+            this.first = first;
+            this.hubs = hubs;
+            this.costs = costs;
+            this.lengths = lengths;
+            this.arcs = arcs;
+        }
+
+        private int size(int rank) {
+            return first[rank + 1] - first[rank];
+        }
+
+        private int find(int rank, int hub) {
+            return Arrays.binarySearch(hubs, first[rank], first[rank + 1], hub);
+        }
+    }
+
+    /** Per-node label arrays while labels are being computed. */
+    private static final class LabelBuilder {
+        private final int[][] hubs;
+        private final double[][] costs;
+        private final double[][] lengths;
+        private final int[][] arcs;
+
+        private LabelBuilder(int nodeCount) {
+            this.hubs = new int[nodeCount][];
+            this.costs = new double[nodeCount][];
+            this.lengths = new double[nodeCount][];
+            this.arcs = new int[nodeCount][];
+        }
+
+        private Labels flatten() {
+            int nodeCount = hubs.length;
+            int[] first = new int[nodeCount + 1];
+            for (int rank = 0; rank < nodeCount; rank++) {
+                first[rank + 1] = first[rank] + hubs[rank].length;
+            }
+            int size = first[nodeCount];
+            int[] flatHubs = new int[size];
+            double[] flatCosts = new double[size];
+            double[] flatLengths = new double[size];
+            int[] flatArcs = new int[size];
+            for (int rank = 0; rank < nodeCount; rank++) {
+                System.arraycopy(hubs[rank], 0, flatHubs, first[rank], hubs[rank].length);
+                System.arraycopy(costs[rank], 0, flatCosts, first[rank], costs[rank].length);
+                System.arraycopy(lengths[rank], 0, flatLengths, first[rank], lengths[rank].length);
+                System.arraycopy(arcs[rank], 0, flatArcs, first[rank], arcs[rank].length);
+            }
+            return new Labels(first, flatHubs, flatCosts, flatLengths, flatArcs);
+        }
+    }
+
+    /** Per-thread candidate label, indexed by hub rank and invalidated by generation. */
+    private static final class Scratch {
+        private final double[] costs;
+        private final double[] lengths;
+        private final int[] arcs;
+        private final int[] stamps;
+        private int[] touched = new int[64];
+        private int touchedCount;
+        private int generation;
+
+        private Scratch(int nodeCount) {
+            this.costs = new double[nodeCount];
+            this.lengths = new double[nodeCount];
+            this.arcs = new int[nodeCount];
+            this.stamps = new int[nodeCount];
+        }
+
+        /**
+         * Compute the label of {@code rank} in one direction from the labels of its
+         * upper neighbours, pruning entries the opposite labels prove suboptimal.
+         */
+        private void label(CustomizedMetric metric, int rank, boolean forward, LabelBuilder own,
+                           LabelBuilder opposite) {
+            CustomizableContractionHierarchy ch = metric.hierarchy();
+            if (generation == Integer.MAX_VALUE) {
+                Arrays.fill(stamps, 0);
+                generation = 0;
+            }
+            generation++;
+            touchedCount = 0;
+            offer(rank, 0.0, 0.0, -1);
+
+            int arcEnd = ch.firstUpArc(rank + 1);
+            for (int arc = ch.firstUpArc(rank); arc < arcEnd; arc++) {
+                int directed = forward ? CustomizedMetric.up(arc) : CustomizedMetric.down(arc);
+                double weight = metric.weight(directed);
+                if (weight == Double.POSITIVE_INFINITY) {
+                    continue;
+                }
+                double length = metric.length(directed);
+                int upper = ch.arcHead(arc);
+                int[] hubs = own.hubs[upper];
+                for (int i = 0; i < hubs.length; i++) {
+                    offer(hubs[i], weight + own.costs[upper][i], length + own.lengths[upper][i], directed);
+                }
+            }
+            Arrays.sort(touched, 0, touchedCount);
+
+            int kept = 0;
+            for (int i = 0; i < touchedCount; i++) {
+                int hub = touched[i];
+                if (hub == rank || !isDominated(hub, opposite)) {
+                    touched[kept++] = hub;
+                }
+            }
+            int[] hubs = Arrays.copyOf(touched, kept);
+            double[] labelCosts = new double[kept];
+            double[] labelLengths = new double[kept];
+            int[] labelArcs = new int[kept];
+            for (int i = 0; i < kept; i++) {
+                labelCosts[i] = costs[hubs[i]];
+                labelLengths[i] = lengths[hubs[i]];
+                labelArcs[i] = arcs[hubs[i]];
+            }
+            own.hubs[rank] = hubs;
+            own.costs[rank] = labelCosts;
+            own.lengths[rank] = labelLengths;
+            own.arcs[rank] = labelArcs;
+        }
+
+        private void offer(int hub, double cost, double length, int arc) {
+            if (stamps[hub] != generation) {
+                stamps[hub] = generation;
+                if (touchedCount == touched.length) {
+                    touched = Arrays.copyOf(touched, touchedCount * 2);
+                }
+                touched[touchedCount++] = hub;
+            } else if (cost >= costs[hub]) {
+                return;
+            }
+            costs[hub] = cost;
+            lengths[hub] = length;
+            arcs[hub] = arc;
+        }
+
+        /** Whether some other candidate hub already gives a cheaper path to or from {@code hub}. */
+        private boolean isDominated(int hub, LabelBuilder opposite) {
+            int[] hubs = opposite.hubs[hub];
+            double[] oppositeCosts = opposite.costs[hub];
+            double cost = costs[hub];
+            for (int i = 0; i < hubs.length; i++) {
+                int via = hubs[i];
+                if (via != hub && stamps[via] == generation && costs[via] + oppositeCosts[i] < cost) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import java.util.Arrays;
+
+/**
+ * Indexed 4-ary min-heap of graph nodes keyed by tentative distance.
+ *
+ * <p>Each node is present at most once; {@link #insertOrDecrease(int, double)}
+ * moves an existing entry instead of adding a duplicate, so the heap never holds
+ * stale entries and needs no visited set. All storage is primitive arrays that
+ * are reused across searches.</p>
+ *
+ * <p>Not thread-safe; each search thread owns its heap through a
+ * {@link SearchWorkspace}.</p>
+ */
+public final class IndexedMinHeap {
+
+    private static final int ARITY = 4;
+    private static final int ABSENT = -1;
+
+    private int[] nodes;
+    private double[] keys;
+    private int[] positions;
+    private int size;
+
+    public IndexedMinHeap(int capacity) {
+        int initial = Math.max(capacity, 1);
+        this.nodes = new int[initial];
+        this.keys = new double[initial];
+        this.positions = new int[initial];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    /**
+     * Make room for node ids {@code 0..capacity-1}. Existing entries are kept.
+     */
+    public void ensureCapacity(int capacity) {
+        if (capacity <= positions.length) {
+            return;
+        }
+        int oldLength = positions.length;
+        positions = Arrays.copyOf(positions, capacity);
+        Arrays.fill(positions, oldLength, capacity, ABSENT);
+        nodes = Arrays.copyOf(nodes, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int node) {
+        return positions[node] != ABSENT;
+    }
+
+    /** Key of the minimum entry; undefined when empty. */
+    public double peekKey() {
+        return keys[0];
+    }
+
+    /**
+     * Insert {@code node} with {@code key}, or lower its key if it is already
+     * queued with a larger one.
+     */
+    public void insertOrDecrease(int node, double key) {
+        int position = positions[node];
+        if (position == ABSENT) {
+            position = size++;
+            nodes[position] = node;
+            keys[position] = key;
+            positions[node] = position;
+        } else if (key < keys[position]) {
+            keys[position] = key;
+        } else {
+            return;
+        }
+        siftUp(position);
+    }
+
+    /**
+     * Insert {@code node} with {@code key}, or move it to {@code key} whether
+     * that is smaller or larger than its current key.
+     */
+    public void update(int node, double key) {
+        int position = positions[node];
+        if (position == ABSENT || key < keys[position]) {
+            insertOrDecrease(node, key);
+        } else if (key > keys[position]) {
+            keys[position] = key;
+            siftDown(position);
+        }
+    }
+
+    /** Remove and return the node with the smallest key. */
+    public int poll() {
+        int top = nodes[0];
+        positions[top] = ABSENT;
+        size--;
+        if (size > 0) {
+            nodes[0] = nodes[size];
+            keys[0] = keys[size];
+            positions[nodes[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /** Remove all entries; cost is proportional to the entries still queued. */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[nodes[i]] = ABSENT;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int node = nodes[position];
+        double key = keys[position];
+        while (position > 0) {
+            int parent = (position - 1) / ARITY;
+            if (keys[parent] <= key) {
+                break;
+            }
+            move(parent, position);
+            position = parent;
+        }
+        place(node, key, position);
+    }
+
+    private void siftDown(int position) {
+        int node = nodes[position];
+        double key = keys[position];
+        while (true) {
+            int firstChild = position * ARITY + 1;
+            if (firstChild >= size) {
+                break;
+            }
+            int lastChild = Math.min(firstChild + ARITY, size);
+            int smallest = firstChild;
+            for (int child = firstChild + 1; child < lastChild; child++) {
+                if (keys[child] < keys[smallest]) {
+                    smallest = child;
+                }
+            }
+            if (keys[smallest] >= key) {
+                break;
+            }
+            move(smallest, position);
+            position = smallest;
+        }
+        place(node, key, position);
+    }
+
+    private void move(int from, int to) {
+        nodes[to] = nodes[from];
+        keys[to] = keys[from];
+        positions[nodes[to]] = to;
+    }
+
+    private void place(int node, double key, int position) {
+        nodes[position] = node;
+        keys[position] = key;
+        positions[node] = position;
+    }
+}
@@ -0,0 +1,91 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.LandmarkDistances;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A* search whose heuristic also uses {@link LandmarkDistances} (ALT).
+ *
+ * <p>The heuristic is the larger of the great-circle bound and the landmark
+ * bound, so it is never weaker than plain A*. Landmark distances carried by
+ * the network, e.g. compiled into its snapshot, are used as they are;
+ * otherwise they are computed once per road graph on the preprocessing
+ * executor, and until they are ready queries use the great-circle bound alone.
+ * Hazard overlays never invalidate them.</p>
+ */
+public class LandmarkAStarSearch extends AStarSearch {
+
+    /** Number of landmarks; each costs two floats per node. */
+    public static final int DEFAULT_LANDMARK_COUNT = 8;
+
+    private final Executor preprocessingExecutor;
+    private final int landmarkCount;
+    private final AtomicReference<LandmarkDistances> current = new AtomicReference<>();
+    private final AtomicReference<CompactGraph> computing = new AtomicReference<>();
+
+    /**
+     * Create a search that computes landmark distances on the calling thread.
+     */
+    public LandmarkAStarSearch() {
+        this(Runnable::run, DEFAULT_LANDMARK_COUNT);
+    }
+
+    /**
+     * @param preprocessingExecutor executor that runs landmark precomputation
+     * @param landmarkCount maximum number of landmarks
+     */
+    public LandmarkAStarSearch(Executor preprocessingExecutor, int landmarkCount) {
+        if (landmarkCount <= 0) {
+            throw new IllegalArgumentException("Landmark count must be positive");
+        }
+        this.preprocessingExecutor = preprocessingExecutor;
+        this.landmarkCount = landmarkCount;
+    }
+
+    @Override
+    protected Heuristic heuristicFor(RoadNetwork network, int target) {
+        Heuristic greatCircle = super.heuristicFor(network, target);
+        LandmarkDistances landmarks = network.getLandmarks() != null
+                ? network.getLandmarks()
+                : landmarksFor(network.getCompactGraph());
+        if (landmarks == null) {
+            return greatCircle;
+        }
+        return node -> Math.max(greatCircle.estimate(node), landmarks.lowerBound(node, target));
+    }
+
+    /**
+     * Returns the landmark distances for a graph, scheduling their computation
+     * if there are none yet.
+     *
+     * @return matching distances, or {@code null} while they are being computed
+     */
+    public LandmarkDistances landmarksFor(CompactGraph graph) {
+        LandmarkDistances landmarks = current.get();
+        if (landmarks != null && landmarks.isComputedFor(graph)) {
+            return landmarks;
+        }
+
+        CompactGraph pending = computing.get();
+        if (pending != graph && computing.compareAndSet(pending, graph)) {
+            preprocessingExecutor.execute(() -> {
+                try {
+                    LandmarkDistances computed = LandmarkPreprocessor.compute(graph, landmarkCount);
+                    if (computing.get() == graph) {
+                        current.set(computed);
+                    }
+                } catch (RuntimeException e) {
+                    computing.compareAndSet(graph, null);
+                    throw e;
+                }
+            });
+        }
+
+        landmarks = current.get();
+        return landmarks != null && landmarks.isComputedFor(graph) ? landmarks : null;
+    }
+}
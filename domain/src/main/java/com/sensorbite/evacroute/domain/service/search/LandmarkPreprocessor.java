@@ -0,0 +1,101 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.LandmarkDistances;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * Landmark selection and distance computation for A* with landmarks (ALT).
+ *
+ * <p>Landmarks are picked on the periphery of the network, one per angular
+ * sector around its centre, because bounds are tightest for targets lying
+ * "behind" the node as seen from a landmark.</p>
+ */
+public final class LandmarkPreprocessor {
+
+    private LandmarkPreprocessor() {
+    }
+
+    /**
+     * Select landmarks and compute their distances to and from every node.
+     *
+     * <p>The forward and backward one-to-all searches of all landmarks are
+     * independent and run in parallel.</p>
+     *
+     * @param graph graph to preprocess
+     * @param landmarkCount maximum number of landmarks
+     * @return landmark distances for {@code graph}
+     */
+    public static LandmarkDistances compute(CompactGraph graph, int landmarkCount) {
+        if (landmarkCount <= 0) {
+            throw new IllegalArgumentException("Landmark count must be positive");
+        }
+        int[] landmarks = selectPeripheral(graph, landmarkCount);
+        int count = landmarks.length;
+        int nodeCount = graph.nodeCount();
+        float[] fromLandmark = new float[nodeCount * count];
+        float[] toLandmark = new float[nodeCount * count];
+        IntStream.range(0, count * 2).parallel().forEach(task -> {
+            int landmark = task >> 1;
+            boolean backward = (task & 1) == 1;
+            oneToAll(graph, landmarks[landmark], backward, backward ? toLandmark : fromLandmark, landmark, count);
+        });
+        return LandmarkDistances.of(graph, landmarks, fromLandmark, toLandmark);
+    }
+
+    /** Farthest node from the centre of the network in each of {@code sectors} equal angular sectors. */
+    private static int[] selectPeripheral(CompactGraph graph, int sectors) {
+        int nodeCount = graph.nodeCount();
+        double centreLatitude = 0.0;
+        double centreLongitude = 0.0;
+        for (int node = 0; node < nodeCount; node++) {
+            centreLatitude += graph.latitude(node) / nodeCount;
+            centreLongitude += graph.longitude(node) / nodeCount;
+        }
+        double longitudeScale = Math.cos(Math.toRadians(centreLatitude));
+
+        int[] farthest = new int[sectors];
+        double[] farthestDistance = new double[sectors];
+        Arrays.fill(farthest, -1);
+        for (int node = 0; node < nodeCount; node++) {
+            double dy = graph.latitude(node) - centreLatitude;
+            double dx = (graph.longitude(node) - centreLongitude) * longitudeScale;
+            int sector = (int) ((Math.atan2(dy, dx) + Math.PI) / (2 * Math.PI) * sectors);
+            sector = Math.min(sector, sectors - 1);
+            double distance = dx * dx + dy * dy;
+            if (farthest[sector] < 0 || distance > farthestDistance[sector]) {
+                farthest[sector] = node;
+                farthestDistance[sector] = distance;
+            }
+        }
+        return Arrays.stream(farthest).filter(node -> node >= 0).toArray();
+    }
+
+    private static void oneToAll(CompactGraph graph, int landmark, boolean backward, float[] distances,
+                                 int column, int stride) {
+        SearchWorkspace workspace = new SearchWorkspace(graph.nodeCount());
+        workspace.reset(graph.nodeCount());
+        IndexedMinHeap heap = workspace.heap();
+        workspace.update(landmark, 0.0, -1);
+        heap.insertOrDecrease(landmark, 0.0);
+        while (!heap.isEmpty()) {
+            int node = heap.poll();
+            double distance = workspace.distance(node);
+            int end = backward ? graph.firstInEdge(node + 1) : graph.firstEdge(node + 1);
+            for (int i = backward ? graph.firstInEdge(node) : graph.firstEdge(node); i < end; i++) {
+                int edge = backward ? graph.inEdge(i) : i;
+                int next = backward ? graph.edgeSource(edge) : graph.edgeTarget(edge);
+                double candidate = distance + graph.edgeWeight(edge);
+                if (candidate < workspace.distance(next)) {
+                    workspace.update(next, candidate, edge);
+                    heap.insertOrDecrease(next, candidate);
+                }
+            }
+        }
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            distances[node * stride + column] = (float) workspace.distance(node);
+        }
+    }
+}
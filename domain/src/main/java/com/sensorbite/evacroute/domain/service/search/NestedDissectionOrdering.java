@@ -0,0 +1,156 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+
+/**
+ * Metric-independent node order for a customizable contraction hierarchy.
+ *
+ * <p>Road networks are nearly planar, so a straight cut through the node
+ * coordinates crosses few roads. The nodes are split at the median of their
+ * wider extent; nodes of the first half with a neighbour in the second half
+ * form the separator. Both halves are ordered recursively and the separator is
+ * ranked above them, so no shortcut created while contracting one half can
+ * reach into the other. The order depends on the topology only, never on edge
+ * weights or hazards.</p>
+ */
+final class NestedDissectionOrdering {
+
+    private final CompactGraph graph;
+    private final double[] x;
+    private final double[] y;
+    private final int[] nodes;
+    private final int[] parts;
+    private final int[] ranks;
+    private int nextPart;
+    private int nextRank;
+
+    private NestedDissectionOrdering(CompactGraph graph) {
+        int nodeCount = graph.nodeCount();
+        this.graph = graph;
+        this.x = new double[nodeCount];
+        this.y = new double[nodeCount];
+        this.nodes = new int[nodeCount];
+        this.parts = new int[nodeCount];
+        this.ranks = new int[nodeCount];
+        for (int node = 0; node < nodeCount; node++) {
+            x[node] = graph.longitude(node) * Math.cos(Math.toRadians(graph.latitude(node)));
+            y[node] = graph.latitude(node);
+            nodes[node] = node;
+        }
+    }
+
+    /**
+     * Order the nodes of a graph by recursive coordinate bisection.
+     *
+     * @param graph graph to order
+     * @return rank of every node; separators receive the highest ranks
+     */
+    static int[] ranks(CompactGraph graph) {
+        NestedDissectionOrdering ordering = new NestedDissectionOrdering(graph);
+        ordering.dissect(0, graph.nodeCount());
+        return ordering.ranks;
+    }
+
+    /** Rank {@code nodes[from..to)} in post-order: first half, second half, separator. */
+    private void dissect(int from, int to) {
+        int size = to - from;
+        if (size <= 2) {
+            for (int i = from; i < to; i++) {
+                ranks[nodes[i]] = nextRank++;
+            }
+            return;
+        }
+
+        double[] keys = wideAxis(from, to);
+        int middle = from + size / 2;
+        select(keys, from, to - 1, middle);
+
+        int firstPart = ++nextPart;
+        int secondPart = ++nextPart;
+        for (int i = from; i < to; i++) {
+            parts[nodes[i]] = i < middle ? firstPart : secondPart;
+        }
+
+        // Move first-half nodes touching the second half behind it: [first | second | separator].
+        int kept = from;
+        int separatorCount = 0;
+        int[] separator = new int[middle - from];
+        for (int i = from; i < middle; i++) {
+            int node = nodes[i];
+            if (touches(node, secondPart)) {
+                separator[separatorCount++] = node;
+            } else {
+                nodes[kept++] = node;
+            }
+        }
+        System.arraycopy(nodes, middle, nodes, kept, to - middle);
+        int separatorStart = kept + (to - middle);
+        System.arraycopy(separator, 0, nodes, separatorStart, separatorCount);
+
+        dissect(from, kept);
+        dissect(kept, separatorStart);
+        for (int i = separatorStart; i < to; i++) {
+            ranks[nodes[i]] = nextRank++;
+        }
+    }
+
+    private double[] wideAxis(int from, int to) {
+        double minX = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY;
+        double minY = Double.POSITIVE_INFINITY;
+        double maxY = Double.NEGATIVE_INFINITY;
+        for (int i = from; i < to; i++) {
+            int node = nodes[i];
+            minX = Math.min(minX, x[node]);
+            maxX = Math.max(maxX, x[node]);
+            minY = Math.min(minY, y[node]);
+            maxY = Math.max(maxY, y[node]);
+        }
+        return maxX - minX >= maxY - minY ? x : y;
+    }
+
+    private boolean touches(int node, int part) {
+        int edgeEnd = graph.firstEdge(node + 1);
+        for (int edge = graph.firstEdge(node); edge < edgeEnd; edge++) {
+            if (parts[graph.edgeTarget(edge)] == part) {
+                return true;
+            }
+        }
+        int slotEnd = graph.firstInEdge(node + 1);
+        for (int slot = graph.firstInEdge(node); slot < slotEnd; slot++) {
+            if (parts[graph.edgeSource(graph.inEdge(slot))] == part) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** Partially sort {@code nodes[left..right]} by key so that position {@code k} holds its final element. */
+    private void select(double[] keys, int left, int right, int k) {
+        while (left < right) {
+            double pivot = keys[nodes[(left + right) >>> 1]];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (keys[nodes[i]] < pivot) {
+                    i++;
+                }
+                while (keys[nodes[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int swap = nodes[i];
+                    nodes[i++] = nodes[j];
+                    nodes[j--] = swap;
+                }
+            }
+            if (k <= j) {
+                right = j;
+            } else if (k >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+}
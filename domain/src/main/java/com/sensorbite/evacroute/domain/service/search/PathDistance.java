@@ -0,0 +1,24 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+/**
+ * Cost and length of the best path between two nodes, without the path itself.
+ *
+ * @param cost total search cost of the path, including hazard penalties;
+ *             positive infinity when no path exists
+ * @param lengthMeters length of the path without hazard penalties
+ */
+public record PathDistance(double cost, double lengthMeters) {
+
+    public static PathDistance notFound() {
+        return new PathDistance(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY);
+    }
+
+    public boolean found() {
+        return cost != Double.POSITIVE_INFINITY;
+    }
+
+    /** Whether hazard penalties make up part of the cost, i.e. the path crosses a hazardous segment. */
+    public boolean crossesHazards() {
+        return found() && cost - lengthMeters > 1e-9 * Math.max(1.0, lengthMeters);
+    }
+}
@@ -0,0 +1,20 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+/**
+ * Outcome of a point-to-point search on a compact graph.
+ *
+ * @param edgePath compact graph edges from source to target in travel order
+ * @param cost total search cost of the path, including hazard penalties;
+ *             positive infinity when no path exists
+ * @param settledNodes number of nodes the search settled
+ */
+public record PathResult(int[] edgePath, double cost, int settledNodes) {
+
+    public static PathResult notFound(int settledNodes) {
+        return new PathResult(new int[0], Double.POSITIVE_INFINITY, settledNodes);
+    }
+
+    public boolean found() {
+        return cost != Double.POSITIVE_INFINITY;
+    }
+}
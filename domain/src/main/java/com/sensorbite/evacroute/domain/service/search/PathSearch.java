@@ -0,0 +1,22 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+
+/**
+ * Point-to-point shortest path search over a network's compact graph, with
+ * edge costs taken from the network's hazard overlay.
+ *
+ * <p>Implementations must be safe for concurrent use.</p>
+ */
+public interface PathSearch {
+
+    /**
+     * Find the cheapest path between two compact graph nodes.
+     *
+     * @param network network whose compact graph and hazard overlay are searched
+     * @param source source node index
+     * @param target target node index
+     * @return path result; {@link PathResult#found()} is false when the target is unreachable
+     */
+    PathResult findPath(RoadNetwork network, int source, int target);
+}
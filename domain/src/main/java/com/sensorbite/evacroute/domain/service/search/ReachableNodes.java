@@ -0,0 +1,14 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+/**
+ * Nodes settled by a bounded one-to-all search, in the order they were settled.
+ *
+ * @param nodes compact graph nodes within the bound
+ * @param lengthsMeters length of the shortest allowed path to each node, in meters
+ */
+public record ReachableNodes(int[] nodes, double[] lengthsMeters) {
+
+    public int count() {
+        return nodes.length;
+    }
+}
@@ -0,0 +1,142 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+
+import java.util.Arrays;
+
+/**
+ * Reusable per-search state: tentative distances, predecessor edges, settled
+ * flags, heuristic potentials and the priority queue.
+ *
+ * <p>Arrays are allocated once and grown only when a larger graph is searched.
+ * Instead of clearing them between queries, every entry carries the generation
+ * in which it was last written; {@link #reset(int)} bumps the generation, which
+ * invalidates all entries in constant time. A node whose stamp is stale reads
+ * as unreached.</p>
+ *
+ * <p>Not thread-safe. Search engines keep one workspace per thread.</p>
+ */
+public final class SearchWorkspace {
+
+    private static final int SETTLED = 1;
+
+    private double[] distances;
+    private int[] predecessorEdges;
+    private double[] potentials;
+    private int[] stamps;
+    private byte[] flags;
+    private int generation;
+    private final IndexedMinHeap heap;
+
+    public SearchWorkspace() {
+        this(0);
+    }
+
+    public SearchWorkspace(int capacity) {
+        this.distances = new double[capacity];
+        this.predecessorEdges = new int[capacity];
+        this.potentials = new double[capacity];
+        this.stamps = new int[capacity];
+        this.flags = new byte[capacity];
+        this.heap = new IndexedMinHeap(capacity);
+    }
+
+    /**
+     * Prepare the workspace for a new search over a graph with {@code nodeCount} nodes.
+     *
+     * @param nodeCount number of nodes in the graph about to be searched
+     */
+    public void reset(int nodeCount) {
+        if (nodeCount > stamps.length) {
+            int capacity = Math.max(nodeCount, stamps.length + (stamps.length >> 1));
+            distances = new double[capacity];
+            predecessorEdges = new int[capacity];
+            potentials = new double[capacity];
+            stamps = new int[capacity];
+            flags = new byte[capacity];
+            generation = 0;
+            heap.ensureCapacity(capacity);
+        }
+        heap.clear();
+        if (generation == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            generation = 0;
+        }
+        generation++;
+    }
+
+    public IndexedMinHeap heap() {
+        return heap;
+    }
+
+    public boolean isReached(int node) {
+        return stamps[node] == generation;
+    }
+
+    /** Tentative distance of {@code node}, or positive infinity if not reached in this search. */
+    public double distance(int node) {
+        return stamps[node] == generation ? distances[node] : Double.POSITIVE_INFINITY;
+    }
+
+    /** Edge through which {@code node} was reached, or -1 for the source and unreached nodes. */
+    public int predecessorEdge(int node) {
+        return stamps[node] == generation ? predecessorEdges[node] : -1;
+    }
+
+    /**
+     * Record a (shorter) tentative distance for {@code node}.
+     *
+     * @param node node reached
+     * @param distance new tentative distance
+     * @param predecessorEdge edge used to reach the node, or -1 for a source
+     */
+    public void update(int node, double distance, int predecessorEdge) {
+        if (stamps[node] != generation) {
+            stamps[node] = generation;
+            flags[node] = 0;
+        }
+        distances[node] = distance;
+        predecessorEdges[node] = predecessorEdge;
+    }
+
+    /** Heuristic value recorded for a reached node. */
+    public double potential(int node) {
+        return potentials[node];
+    }
+
+    /** Record the heuristic value of a node reached in this search. */
+    public void setPotential(int node, double potential) {
+        potentials[node] = potential;
+    }
+
+    public boolean isSettled(int node) {
+        return stamps[node] == generation && (flags[node] & SETTLED) != 0;
+    }
+
+    /** Mark a reached node as settled; its distance is final. */
+    public void settle(int node) {
+        flags[node] |= SETTLED;
+    }
+
+    /**
+     * Walk predecessor edges back from {@code target} to {@code source}.
+     *
+     * @return edges of the path in travel order; empty if {@code target} was not reached
+     */
+    public int[] edgePath(CompactGraph graph, int source, int target) {
+        if (!isReached(target) || target == source) {
+            return new int[0];
+        }
+        int length = 0;
+        for (int node = target; node != source; node = graph.edgeSource(predecessorEdges[node])) {
+            length++;
+        }
+        int[] path = new int[length];
+        int node = target;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = predecessorEdges[node];
+            node = graph.edgeSource(path[i]);
+        }
+        return path;
+    }
+}
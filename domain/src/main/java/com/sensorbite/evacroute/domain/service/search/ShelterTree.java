@@ -0,0 +1,109 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Shortest-path tree towards a set of shelter nodes.
+ *
+ * <p>Built by one Dijkstra search over incoming edges, started from all
+ * shelter nodes at once. Every node stores its cost to the nearest shelter and
+ * the first edge of the best path there, so the route from any node is a walk
+ * along next edges without any search.</p>
+ *
+ * <p>The tree depends on the graph, the hazard overlay and the shelter set;
+ * instances are immutable and safe to share between threads.</p>
+ */
+public final class ShelterTree {
+
+    private final CompactGraph graph;
+    private final HazardOverlay hazards;
+    private final BitSet shelterNodes;
+    private final double[] costs;
+    private final int[] nextEdges;
+
+    private ShelterTree(CompactGraph graph, HazardOverlay hazards, BitSet shelterNodes,
+                        double[] costs, int[] nextEdges) {
+        this.graph = graph;
+        this.hazards = hazards;
+        this.shelterNodes = shelterNodes;
+        this.costs = costs;
+        this.nextEdges = nextEdges;
+    }
+
+    /**
+     * Compute the tree for the network's graph and hazard overlay.
+     *
+     * @param network network with the hazard overlay to route against
+     * @param shelterNodes compact graph nodes of the shelters
+     * @return tree of best paths from every node to its nearest shelter
+     */
+    public static ShelterTree build(RoadNetwork network, BitSet shelterNodes) {
+        CompactGraph graph = network.getCompactGraph();
+        HazardOverlay hazards = network.getHazards();
+        int nodeCount = graph.nodeCount();
+        double[] costs = new double[nodeCount];
+        int[] nextEdges = new int[nodeCount];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        Arrays.fill(nextEdges, -1);
+
+        IndexedMinHeap heap = new IndexedMinHeap(nodeCount);
+        for (int node = shelterNodes.nextSetBit(0); node >= 0; node = shelterNodes.nextSetBit(node + 1)) {
+            costs[node] = 0.0;
+            heap.insertOrDecrease(node, 0.0);
+        }
+        while (!heap.isEmpty()) {
+            int node = heap.poll();
+            double cost = costs[node];
+            int slotEnd = graph.firstInEdge(node + 1);
+            for (int slot = graph.firstInEdge(node); slot < slotEnd; slot++) {
+                int edge = graph.inEdge(slot);
+                int previous = graph.edgeSource(edge);
+                double candidate = cost + EdgeCosts.cost(graph, hazards, edge);
+                if (candidate < costs[previous]) {
+                    costs[previous] = candidate;
+                    nextEdges[previous] = edge;
+                    heap.insertOrDecrease(previous, candidate);
+                }
+            }
+        }
+        return new ShelterTree(graph, hazards, (BitSet) shelterNodes.clone(), costs, nextEdges);
+    }
+
+    /** Whether this tree was built for exactly the given graph, overlay and shelter nodes. */
+    public boolean isBuiltFor(CompactGraph graph, HazardOverlay hazards, BitSet shelterNodes) {
+        return this.graph == graph && this.hazards == hazards && this.shelterNodes.equals(shelterNodes);
+    }
+
+    /** Cost from {@code node} to its nearest shelter, or positive infinity if none is reachable. */
+    public double cost(int node) {
+        return costs[node];
+    }
+
+    /**
+     * Best path from a node to its nearest shelter, by following next edges.
+     *
+     * @param source compact graph source node
+     * @return path ending at the nearest shelter node, with no settled nodes
+     */
+    public PathResult path(int source) {
+        if (costs[source] == Double.POSITIVE_INFINITY) {
+            return PathResult.notFound(0);
+        }
+        int length = 0;
+        for (int node = source; nextEdges[node] >= 0; node = graph.edgeTarget(nextEdges[node])) {
+            length++;
+        }
+        int[] path = new int[length];
+        int node = source;
+        for (int i = 0; i < length; i++) {
+            path[i] = nextEdges[node];
+            node = graph.edgeTarget(path[i]);
+        }
+        return new PathResult(path, costs[source], 0);
+    }
+}
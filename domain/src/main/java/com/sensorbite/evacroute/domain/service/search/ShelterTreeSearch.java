@@ -0,0 +1,98 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+
+import java.util.BitSet;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Nearest-shelter queries answered from a precomputed {@link ShelterTree}.
+ *
+ * <p>A tree is rebuilt on the preprocessing executor whenever a query sees a
+ * different graph, hazard overlay or shelter set than the current tree was
+ * built for. Until the new tree is published, queries run a multi-target
+ * Dijkstra search, so routes never ignore new hazards. A queued build whose
+ * inputs have been superseded by the time it starts is skipped.</p>
+ */
+public class ShelterTreeSearch {
+
+    private final Executor preprocessingExecutor;
+    private final DijkstraSearch fallback = new DijkstraSearch();
+    private final AtomicReference<ShelterTree> current = new AtomicReference<>();
+    private final AtomicReference<TreeKey> building = new AtomicReference<>();
+
+    /**
+     * Create a search that builds trees on the calling thread.
+     */
+    public ShelterTreeSearch() {
+        this(Runnable::run);
+    }
+
+    /**
+     * @param preprocessingExecutor executor that runs tree builds
+     */
+    public ShelterTreeSearch(Executor preprocessingExecutor) {
+        this.preprocessingExecutor = preprocessingExecutor;
+    }
+
+    /**
+     * Best path from {@code source} to whichever shelter node is cheapest to reach.
+     *
+     * @param network network with the hazard overlay to route against
+     * @param source compact graph source node
+     * @param shelterNodes compact graph nodes of the shelters
+     * @return path to the nearest shelter node, which is the head of its last edge
+     *         (or the source itself when the path is empty)
+     */
+    public PathResult findPathToNearest(RoadNetwork network, int source, BitSet shelterNodes) {
+        ShelterTree tree = treeFor(network, shelterNodes);
+        if (tree == null) {
+            return fallback.findPathToNearest(network, source, shelterNodes);
+        }
+        return tree.path(source);
+    }
+
+    /**
+     * Returns the tree for the network's graph, overlay and shelter nodes,
+     * scheduling a build if there is none yet.
+     *
+     * @return matching tree, or {@code null} while it is being built
+     */
+    public ShelterTree treeFor(RoadNetwork network, BitSet shelterNodes) {
+        CompactGraph graph = network.getCompactGraph();
+        HazardOverlay hazards = network.getHazards();
+        ShelterTree tree = current.get();
+        if (tree != null && tree.isBuiltFor(graph, hazards, shelterNodes)) {
+            return tree;
+        }
+
+        TreeKey key = new TreeKey(graph, hazards, (BitSet) shelterNodes.clone());
+        TreeKey pending = building.get();
+        if (!key.equals(pending) && building.compareAndSet(pending, key)) {
+            preprocessingExecutor.execute(() -> {
+                if (building.get() != key) {
+                    return; // superseded by newer inputs while queued
+                }
+                try {
+                    ShelterTree built = ShelterTree.build(network, key.shelterNodes());
+                    if (building.get() == key) {
+                        current.set(built);
+                    }
+                } catch (RuntimeException e) {
+                    building.compareAndSet(key, null);
+                    throw e;
+                }
+            });
+        }
+
+        tree = current.get();
+        return tree != null && tree.isBuiltFor(graph, hazards, shelterNodes) ? tree : null;
+    }
+
+    /** Inputs a tree is built for; the graph and overlay compare by identity. */
+    private record TreeKey(CompactGraph graph, HazardOverlay hazards, BitSet shelterNodes) {
+    }
+}
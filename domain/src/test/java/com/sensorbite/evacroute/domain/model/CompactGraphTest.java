@@ -0,0 +1,178 @@
+package com.sensorbite.evacroute.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("CompactGraph")
+class CompactGraphTest {
+
+    @Nested
+    @DisplayName("Builder")
+    class BuilderTests {
+
+        @Test
+        @DisplayName("should group edges by source node in insertion order")
+        void shouldGroupEdgesBySourceNode() {
+            CompactGraph.Builder builder = new CompactGraph.Builder();
+            int a = builder.addNode(new Coordinate(52.0, 21.0));
+            int b = builder.addNode(new Coordinate(52.1, 21.1));
+            int c = builder.addNode(new Coordinate(52.2, 21.2));
+            builder.addEdge(b, c, 20.0, 1);
+            builder.addEdge(a, b, 10.0, 0);
+            builder.addEdge(b, a, 10.0, 0);
+            builder.addEdge(a, c, 30.0, 2);
+
+            CompactGraph graph = builder.build();
+
+            assertThat(graph.nodeCount()).isEqualTo(3);
+            assertThat(graph.edgeCount()).isEqualTo(4);
+            assertThat(graph.firstEdge(a)).isZero();
+            assertThat(graph.firstEdge(b)).isEqualTo(2);
+            assertThat(graph.firstEdge(c)).isEqualTo(4);
+            assertThat(graph.firstEdge(c + 1)).isEqualTo(4);
+
+            assertThat(graph.edgeTarget(0)).isEqualTo(b);
+            assertThat(graph.edgeSegment(0)).isZero();
+            assertThat(graph.edgeTarget(1)).isEqualTo(c);
+            assertThat(graph.edgeWeight(1)).isEqualTo(30.0);
+            assertThat(graph.edgeSource(2)).isEqualTo(b);
+            assertThat(graph.edgeTarget(2)).isEqualTo(c);
+            assertThat(graph.edgeTarget(3)).isEqualTo(a);
+        }
+
+        @Test
+        @DisplayName("should grow beyond initial capacity")
+        void shouldGrowBeyondInitialCapacity() {
+            CompactGraph.Builder builder = new CompactGraph.Builder(1, 1);
+            for (int i = 0; i < 100; i++) {
+                builder.addNode(new Coordinate(52.0 + i * 0.001, 21.0));
+            }
+            for (int i = 0; i < 99; i++) {
+                builder.addEdge(i, i + 1, 1.0, i);
+            }
+
+            CompactGraph graph = builder.build();
+
+            assertThat(graph.nodeCount()).isEqualTo(100);
+            assertThat(graph.edgeCount()).isEqualTo(99);
+            assertThat(graph.coordinate(99)).isEqualTo(new Coordinate(52.099, 21.0));
+        }
+
+        @Test
+        @DisplayName("should reject edge to unknown node")
+        void shouldRejectEdgeToUnknownNode() {
+            CompactGraph.Builder builder = new CompactGraph.Builder();
+            builder.addNode(new Coordinate(52.0, 21.0));
+
+            assertThatThrownBy(() -> builder.addEdge(0, 1, 1.0, 0))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("out of range");
+        }
+
+        @Test
+        @DisplayName("should reject negative weight")
+        void shouldRejectNegativeWeight() {
+            CompactGraph.Builder builder = new CompactGraph.Builder();
+            builder.addNode(new Coordinate(52.0, 21.0));
+
+            assertThatThrownBy(() -> builder.addEdge(0, 0, -1.0, 0))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("negative");
+        }
+    }
+
+    @Nested
+    @DisplayName("Conversion from Graph")
+    class FromGraphTests {
+
+        @Test
+        @DisplayName("should preserve node order, edges and segment indices")
+        void shouldPreserveNodeOrderAndEdges() {
+            Graph graph = new Graph();
+            graph.addNode(new Graph.Node("n1", new Coordinate(52.0, 21.0)));
+            graph.addNode(new Graph.Node("n2", new Coordinate(52.1, 21.1)));
+            graph.addEdge(new Graph.Edge("n1", "n2", 100.0, false, "seg1"));
+            graph.addEdge(new Graph.Edge("n2", "n1", 100.0, false, "seg1"));
+            Map<String, Integer> segmentIndex = Map.of("seg1", 4);
+
+            CompactGraph compact = CompactGraph.fromGraph(graph, segmentIndex::get);
+
+            assertThat(compact.nodeCount()).isEqualTo(2);
+            assertThat(compact.coordinate(0)).isEqualTo(new Coordinate(52.0, 21.0));
+            assertThat(compact.edgeCount()).isEqualTo(2);
+            assertThat(compact.edgeTarget(compact.firstEdge(0))).isEqualTo(1);
+            assertThat(compact.edgeSegment(0)).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("should drop edges pointing at unregistered nodes")
+        void shouldDropEdgesToUnregisteredNodes() {
+            Graph graph = new Graph();
+            graph.addNode(new Graph.Node("n1", new Coordinate(52.0, 21.0)));
+            graph.addEdge(new Graph.Edge("n1", "missing", 100.0, false, "seg1"));
+
+            CompactGraph compact = CompactGraph.fromGraph(graph, id -> 0);
+
+            assertThat(compact.edgeCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Construction from CSR arrays")
+    class FromCsrTests {
+
+        @Test
+        @DisplayName("should rebuild a graph from its own arrays")
+        void shouldRebuildGraphFromArrays() {
+            CompactGraph.Builder builder = new CompactGraph.Builder();
+            int a = builder.addNode(new Coordinate(52.0, 21.0));
+            int b = builder.addNode(new Coordinate(52.1, 21.1));
+            int c = builder.addNode(new Coordinate(52.2, 21.2));
+            builder.addEdge(b, c, 20.0, 1);
+            builder.addEdge(a, b, 10.0, 0);
+            builder.addEdge(c, a, 30.0, 2);
+            CompactGraph original = builder.build();
+
+            CompactGraph rebuilt = CompactGraph.fromCsr(
+                    new double[] {52.0, 52.1, 52.2}, new double[] {21.0, 21.1, 21.2},
+                    new int[] {0, 1, 2, 3}, new int[] {b, c, a}, new double[] {10.0, 20.0, 30.0},
+                    new int[] {0, 1, 2});
+
+            assertThat(rebuilt.nodeCount()).isEqualTo(original.nodeCount());
+            assertThat(rebuilt.edgeCount()).isEqualTo(original.edgeCount());
+            for (int edge = 0; edge < original.edgeCount(); edge++) {
+                assertThat(rebuilt.edgeSource(edge)).isEqualTo(original.edgeSource(edge));
+                assertThat(rebuilt.edgeTarget(edge)).isEqualTo(original.edgeTarget(edge));
+                assertThat(rebuilt.edgeWeight(edge)).isEqualTo(original.edgeWeight(edge));
+                assertThat(rebuilt.edgeSegment(edge)).isEqualTo(original.edgeSegment(edge));
+            }
+            assertThat(rebuilt.firstInEdge(a + 1) - rebuilt.firstInEdge(a)).isEqualTo(1);
+            assertThat(rebuilt.inEdge(rebuilt.firstInEdge(a))).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("should reject offsets that do not cover the edges")
+        void shouldRejectInconsistentOffsets() {
+            assertThatThrownBy(() -> CompactGraph.fromCsr(
+                    new double[] {52.0, 52.1}, new double[] {21.0, 21.1},
+                    new int[] {0, 2, 1}, new int[] {1}, new double[] {10.0}, new int[] {0}))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("should reject edges to unknown nodes")
+        void shouldRejectEdgesToUnknownNodes() {
+            assertThatThrownBy(() -> CompactGraph.fromCsr(
+                    new double[] {52.0, 52.1}, new double[] {21.0, 21.1},
+                    new int[] {0, 1, 1}, new int[] {2}, new double[] {10.0}, new int[] {0}))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("out of range");
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.sensorbite.evacroute.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("HazardOverlay")
+class HazardOverlayTest {
+
+    @Test
+    @DisplayName("should report hazardous segment indices")
+    void shouldReportHazardousSegmentIndices() {
+        BitSet bits = new BitSet();
+        bits.set(1);
+        bits.set(3);
+
+        HazardOverlay overlay = HazardOverlay.of(5, bits, 7L);
+
+        assertThat(overlay.isHazardous(1)).isTrue();
+        assertThat(overlay.isHazardous(2)).isFalse();
+        assertThat(overlay.hazardousCount()).isEqualTo(2);
+        assertThat(overlay.segmentCount()).isEqualTo(5);
+        assertThat(overlay.version()).isEqualTo(7L);
+    }
+
+    @Test
+    @DisplayName("should not be affected by later changes to source bitset")
+    void shouldCopySourceBitset() {
+        BitSet bits = new BitSet();
+        bits.set(0);
+
+        HazardOverlay overlay = HazardOverlay.of(2, bits, 1L);
+        bits.set(1);
+
+        assertThat(overlay.isHazardous(1)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should create empty overlay")
+    void shouldCreateEmptyOverlay() {
+        HazardOverlay overlay = HazardOverlay.none(3);
+
+        assertThat(overlay.hazardousCount()).isZero();
+        assertThat(overlay.version()).isZero();
+    }
+
+    @Test
+    @DisplayName("should replace only reevaluated segments when patched")
+    void shouldPatchReevaluatedSegments() {
+        BitSet bits = new BitSet();
+        bits.set(0);
+        bits.set(1);
+        HazardOverlay overlay = HazardOverlay.of(5, bits, 1L);
+        BitSet reevaluated = new BitSet();
+        reevaluated.set(1);
+        reevaluated.set(2);
+        BitSet hazardous = new BitSet();
+        hazardous.set(2);
+        hazardous.set(3);
+
+        HazardOverlay patched = overlay.patch(reevaluated, hazardous, 2L);
+
+        assertThat(patched.isHazardous(0)).isTrue();
+        assertThat(patched.isHazardous(1)).isFalse();
+        assertThat(patched.isHazardous(2)).isTrue();
+        assertThat(patched.isHazardous(3)).isFalse();
+        assertThat(patched.version()).isEqualTo(2L);
+        assertThat(overlay.isHazardous(1)).isTrue();
+    }
+
+    @Test
+    @DisplayName("should reject indices beyond segment count")
+    void shouldRejectIndicesBeyondSegmentCount() {
+        BitSet bits = new BitSet();
+        bits.set(4);
+
+        assertThatThrownBy(() -> HazardOverlay.of(3, bits, 1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("exceeds segment count");
+    }
+}
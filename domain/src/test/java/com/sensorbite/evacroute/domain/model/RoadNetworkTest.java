@@ -0,0 +1,167 @@
+package com.sensorbite.evacroute.domain.model;
+
+import com.sensorbite.evacroute.domain.port.out.HazardDetectionPort;
+import com.sensorbite.evacroute.domain.service.GraphBuilder;
+import com.sensorbite.evacroute.domain.service.search.LandmarkPreprocessor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RoadNetwork")
+class RoadNetworkTest {
+
+    private final AtomicInteger classifiedSegments = new AtomicInteger();
+
+    /** Marks a segment hazardous when one of its points lies within the bounding box of a zone. */
+    private final HazardDetectionPort detector = (segments, zones) -> {
+        classifiedSegments.addAndGet(segments.size());
+        return segments.stream()
+                .filter(segment -> zones.stream().anyMatch(zone -> touches(segment, zone)))
+                .map(RoadSegment::getId)
+                .collect(Collectors.toSet());
+    };
+
+    @Test
+    @DisplayName("should match full hazard detection while zones are added, changed and removed")
+    void shouldMatchFullDetectionAfterZoneChanges() {
+        Random random = new Random(17);
+        RoadNetwork network = gridNetwork(40);
+        List<FloodZone> zones = new ArrayList<>();
+        HazardOverlay overlay = network.detectHazards(zones, detector, 1L);
+
+        for (int step = 0; step < 60; step++) {
+            List<FloodZone> previousZones = List.copyOf(zones);
+            int choice = random.nextInt(3);
+            if (zones.isEmpty() || choice == 0) {
+                zones.add(randomZone(random, "zone" + step));
+            } else if (choice == 1) {
+                int changed = random.nextInt(zones.size());
+                zones.set(changed, randomZone(random, zones.get(changed).id()));
+            } else {
+                zones.remove(random.nextInt(zones.size()));
+            }
+
+            overlay = network.updateHazards(overlay, previousZones, List.copyOf(zones), detector, step + 2L);
+            HazardOverlay expected = network.detectHazards(List.copyOf(zones), detector, step + 2L);
+
+            for (int segment = 0; segment < network.getSegmentCount(); segment++) {
+                assertThat(overlay.isHazardous(segment)).as("segment %d after step %d", segment, step)
+                        .isEqualTo(expected.isHazardous(segment));
+            }
+            assertThat(overlay.version()).isEqualTo(step + 2L);
+        }
+    }
+
+    @Test
+    @DisplayName("should only reclassify segments near a changed zone")
+    void shouldOnlyReclassifySegmentsNearChangedZone() {
+        RoadNetwork network = gridNetwork(40);
+        FloodZone unchanged = zone("unchanged", 52.0, 21.0, 52.01, 21.01);
+        HazardOverlay overlay = network.detectHazards(List.of(unchanged), detector, 1L);
+        classifiedSegments.set(0);
+
+        HazardOverlay updated = network.updateHazards(overlay, List.of(unchanged),
+                List.of(unchanged, zone("added", 52.2, 21.2, 52.205, 21.205)), detector, 2L);
+
+        assertThat(classifiedSegments.get()).isPositive().isLessThan(network.getSegmentCount() / 50);
+        assertThat(updated.hazardousCount()).isGreaterThan(overlay.hazardousCount());
+    }
+
+    @Test
+    @DisplayName("should keep the previous state without classifying when zones are only reordered")
+    void shouldSkipClassificationWhenZonesAreReordered() {
+        RoadNetwork network = gridNetwork(10);
+        FloodZone first = zone("first", 52.0, 21.0, 52.02, 21.02);
+        FloodZone second = zone("second", 52.05, 21.05, 52.07, 21.07);
+        HazardOverlay overlay = network.detectHazards(List.of(first, second), detector, 1L);
+        classifiedSegments.set(0);
+
+        HazardOverlay updated = network.updateHazards(overlay, List.of(first, second), List.of(second, first),
+                detector, 2L);
+
+        assertThat(classifiedSegments.get()).isZero();
+        assertThat(updated.hazardousCount()).isEqualTo(overlay.hazardousCount());
+        assertThat(updated.version()).isEqualTo(2L);
+    }
+
+    @Test
+    @DisplayName("should reject an overlay derived for another network")
+    void shouldRejectForeignOverlay() {
+        RoadNetwork network = gridNetwork(10);
+
+        assertThatThrownBy(() -> network.updateHazards(HazardOverlay.none(3), List.of(), List.of(), detector, 1L))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("segments");
+    }
+
+    @Test
+    @DisplayName("should keep landmark distances on hazard views and reject those of another graph")
+    void shouldCarryLandmarks() {
+        RoadNetwork network = gridNetwork(5);
+        LandmarkDistances landmarks = LandmarkPreprocessor.compute(network.getCompactGraph(), 2);
+
+        RoadNetwork withLandmarks = network.withLandmarks(landmarks);
+        RoadNetwork flooded = withLandmarks.withHazards(HazardOverlay.none(network.getSegmentCount()));
+
+        assertThat(network.getLandmarks()).isNull();
+        assertThat(flooded.getLandmarks()).isSameAs(landmarks);
+        assertThat(flooded.getCompactGraph()).isSameAs(network.getCompactGraph());
+        assertThatThrownBy(() -> gridNetwork(5).withLandmarks(landmarks))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("another graph");
+    }
+
+    /** Grid of {@code size} x {@code size} nodes 0.01 degrees apart, joined by horizontal and vertical segments. */
+    private static RoadNetwork gridNetwork(int size) {
+        List<RoadSegment> segments = new ArrayList<>();
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                Coordinate node = gridNode(row, column);
+                if (column + 1 < size) {
+                    segments.add(new RoadSegment("h" + row + "_" + column,
+                            List.of(node, gridNode(row, column + 1)), false));
+                }
+                if (row + 1 < size) {
+                    segments.add(new RoadSegment("v" + row + "_" + column,
+                            List.of(node, gridNode(row + 1, column)), false));
+                }
+            }
+        }
+        return new RoadNetwork(segments, new GraphBuilder().buildCompactGraph(segments));
+    }
+
+    private static Coordinate gridNode(int row, int column) {
+        return new Coordinate(52.0 + row * 0.01, 21.0 + column * 0.01);
+    }
+
+    private static FloodZone randomZone(Random random, String id) {
+        double south = 52.0 + random.nextDouble() * 0.4;
+        double west = 21.0 + random.nextDouble() * 0.4;
+        return zone(id, south, west, south + random.nextDouble() * 0.05, west + random.nextDouble() * 0.05);
+    }
+
+    private static FloodZone zone(String id, double south, double west, double north, double east) {
+        return new FloodZone(id, List.of(List.of(
+                new Coordinate(south, west), new Coordinate(north, west), new Coordinate(north, east),
+                new Coordinate(south, east), new Coordinate(south, west))), null, null);
+    }
+
+    private static boolean touches(RoadSegment segment, FloodZone zone) {
+        List<Coordinate> ring = zone.polygonRings().get(0);
+        double south = ring.get(0).latitude();
+        double west = ring.get(0).longitude();
+        double north = ring.get(2).latitude();
+        double east = ring.get(2).longitude();
+        return segment.getCoordinates().stream().anyMatch(point ->
+                point.latitude() >= south && point.latitude() <= north
+                        && point.longitude() >= west && point.longitude() <= east);
+    }
+}
@@ -6,6 +6,7 @@ import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
 
 class RoadSegmentTest {
 
@@ -59,4 +60,43 @@ class RoadSegmentTest {
         RoadSegment segment = new RoadSegment("seg1", coords, true);
         assertThat(segment.isOneway()).isTrue();
     }
+
+    @Test
+    void shouldKeepMeasuredLengthAndCoordinates() {
+        List<Coordinate> coords = List.of(
+                new Coordinate(52.0, 21.0),
+                new Coordinate(52.1, 21.1)
+        );
+
+        RoadSegment segment = RoadSegment.measured("seg1", coords, 123.5, true, false);
+        RoadSegment hazardousSegment = segment.withHazardous(true);
+
+        assertThat(segment.getCoordinates()).isSameAs(coords);
+        assertThat(segment.getLengthMeters()).isEqualTo(123.5);
+        assertThat(hazardousSegment.getCoordinates()).isSameAs(coords);
+        assertThat(hazardousSegment.getLengthMeters()).isEqualTo(123.5);
+        assertThat(hazardousSegment.isOneway()).isTrue();
+        assertThatThrownBy(() -> RoadSegment.measured("seg1", coords, Double.NaN, false, false))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void shouldSliceAlongPolyline() {
+        Coordinate start = new Coordinate(52.0, 21.0);
+        Coordinate bend = new Coordinate(52.0, 21.01);
+        Coordinate end = new Coordinate(52.01, 21.01);
+        RoadSegment segment = new RoadSegment("seg1", List.of(start, bend, end), false);
+        double firstLeg = start.distanceTo(bend);
+
+        List<Coordinate> head = segment.slice(0.0, firstLeg / 2);
+        List<Coordinate> tail = segment.slice(firstLeg / 2, segment.getLengthMeters());
+
+        assertThat(head).hasSize(2);
+        assertThat(head.getFirst()).isEqualTo(start);
+        assertThat(head.getLast().longitude()).isCloseTo(21.005, within(1e-9));
+        assertThat(tail).hasSize(3);
+        assertThat(tail.get(1)).isEqualTo(bend);
+        assertThat(tail.getLast()).isEqualTo(end);
+        assertThat(segment.slice(0.0, segment.getLengthMeters() * 2)).containsExactly(start, bend, end);
+    }
 }
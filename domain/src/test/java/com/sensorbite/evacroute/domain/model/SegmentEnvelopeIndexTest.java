@@ -0,0 +1,96 @@
+package com.sensorbite.evacroute.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("SegmentEnvelopeIndex")
+class SegmentEnvelopeIndexTest {
+
+    @Test
+    @DisplayName("should match brute-force box intersection for random queries")
+    void shouldMatchBruteForceIntersection() {
+        Random random = new Random(3);
+        List<RoadSegment> segments = randomSegments(random, 5_000);
+        SegmentEnvelopeIndex index = SegmentEnvelopeIndex.build(segments);
+
+        for (int query = 0; query < 300; query++) {
+            double south = 52.0 + random.nextDouble() * 0.5;
+            double west = 21.0 + random.nextDouble() * 0.5;
+            double north = south + random.nextDouble() * 0.05;
+            double east = west + random.nextDouble() * 0.05;
+            BitSet actual = new BitSet();
+
+            index.collect(south, west, north, east, actual);
+
+            BitSet expected = new BitSet();
+            for (int i = 0; i < segments.size(); i++) {
+                if (intersects(segments.get(i), south, west, north, east)) {
+                    expected.set(i);
+                }
+            }
+            assertThat(actual).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("should find segments touching the bounding box of a flood zone")
+    void shouldCollectSegmentsNearFloodZone() {
+        List<RoadSegment> segments = List.of(
+                new RoadSegment("inside", List.of(new Coordinate(52.01, 21.01), new Coordinate(52.02, 21.02)), false),
+                new RoadSegment("edge", List.of(new Coordinate(52.05, 21.05), new Coordinate(52.06, 21.06)), false),
+                new RoadSegment("away", List.of(new Coordinate(53.0, 22.0), new Coordinate(53.1, 22.1)), false));
+        FloodZone zone = new FloodZone("zone", List.of(List.of(
+                new Coordinate(52.0, 21.0), new Coordinate(52.05, 21.0),
+                new Coordinate(52.05, 21.05), new Coordinate(52.0, 21.0))), null, null);
+        BitSet result = new BitSet();
+
+        SegmentEnvelopeIndex.build(segments).collect(zone, result);
+
+        assertThat(result.stream().toArray()).containsExactly(0, 1);
+    }
+
+    @Test
+    @DisplayName("should index a single segment")
+    void shouldIndexSingleSegment() {
+        SegmentEnvelopeIndex index = SegmentEnvelopeIndex.build(List.of(
+                new RoadSegment("only", List.of(new Coordinate(52.0, 21.0), new Coordinate(52.0, 21.0)), false)));
+        BitSet hit = new BitSet();
+        BitSet miss = new BitSet();
+
+        index.collect(51.9, 20.9, 52.0, 21.0, hit);
+        index.collect(52.1, 21.1, 52.2, 21.2, miss);
+
+        assertThat(index.size()).isEqualTo(1);
+        assertThat(hit.cardinality()).isEqualTo(1);
+        assertThat(miss.isEmpty()).isTrue();
+    }
+
+    private static List<RoadSegment> randomSegments(Random random, int count) {
+        List<RoadSegment> segments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            double lat = 52.0 + random.nextDouble() * 0.5;
+            double lon = 21.0 + random.nextDouble() * 0.5;
+            segments.add(new RoadSegment("s" + i, List.of(
+                    new Coordinate(lat, lon),
+                    new Coordinate(lat + random.nextDouble() * 0.01, lon - random.nextDouble() * 0.01),
+                    new Coordinate(lat - random.nextDouble() * 0.01, lon + random.nextDouble() * 0.01)), false));
+        }
+        return segments;
+    }
+
+    private static boolean intersects(RoadSegment segment, double south, double west, double north, double east) {
+        List<Coordinate> coordinates = segment.getCoordinates();
+        double minLat = coordinates.stream().mapToDouble(Coordinate::latitude).min().orElseThrow();
+        double maxLat = coordinates.stream().mapToDouble(Coordinate::latitude).max().orElseThrow();
+        double minLon = coordinates.stream().mapToDouble(Coordinate::longitude).min().orElseThrow();
+        double maxLon = coordinates.stream().mapToDouble(Coordinate::longitude).max().orElseThrow();
+        return minLat <= north && maxLat >= south && minLon <= east && maxLon >= west;
+    }
+}
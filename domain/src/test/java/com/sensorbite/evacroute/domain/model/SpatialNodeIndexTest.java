@@ -0,0 +1,153 @@
+package com.sensorbite.evacroute.domain.model;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("SpatialNodeIndex")
+class SpatialNodeIndexTest {
+
+    @Test
+    @DisplayName("should return -1 and no neighbours for empty graph")
+    void shouldHandleEmptyGraph() {
+        SpatialNodeIndex index = SpatialNodeIndex.build(new CompactGraph.Builder().build());
+
+        assertThat(index.nearest(new Coordinate(52.0, 21.0))).isEqualTo(-1);
+        assertThat(index.nearest(new Coordinate(52.0, 21.0), 3, 1_000.0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should match brute-force nearest node for random queries")
+    void shouldMatchBruteForceNearest() {
+        Random random = new Random(11);
+        CompactGraph graph = randomGraph(random, 2_000, 52.0, 21.0, 0.5);
+        SpatialNodeIndex index = SpatialNodeIndex.build(graph);
+
+        for (int i = 0; i < 500; i++) {
+            Coordinate query = new Coordinate(51.7 + random.nextDouble() * 1.1, 20.7 + random.nextDouble() * 1.1);
+            int expected = bruteForce(graph, query)[0];
+
+            int actual = index.nearest(query);
+
+            assertThat(graph.coordinate(actual).distanceTo(query))
+                    .isCloseTo(graph.coordinate(expected).distanceTo(query), within(1e-6));
+        }
+    }
+
+    @Test
+    @DisplayName("should return k nearest nodes in distance order")
+    void shouldReturnKNearestInOrder() {
+        Random random = new Random(5);
+        CompactGraph graph = randomGraph(random, 500, 52.0, 21.0, 0.1);
+        SpatialNodeIndex index = SpatialNodeIndex.build(graph);
+        Coordinate query = new Coordinate(52.01, 21.02);
+
+        int[] nearest = index.nearest(query, 5, Double.POSITIVE_INFINITY);
+
+        assertThat(nearest).containsExactly(Arrays.copyOf(bruteForce(graph, query), 5));
+    }
+
+    @Test
+    @DisplayName("should exclude nodes beyond the snap radius")
+    void shouldExcludeNodesBeyondRadius() {
+        CompactGraph.Builder builder = new CompactGraph.Builder();
+        builder.addNode(new Coordinate(52.0, 21.0));
+        builder.addNode(new Coordinate(52.001, 21.0));
+        builder.addNode(new Coordinate(52.01, 21.0));
+        SpatialNodeIndex index = SpatialNodeIndex.build(builder.build());
+        Coordinate query = new Coordinate(52.0, 21.0);
+
+        assertThat(index.nearest(query, 10, 200.0)).containsExactly(0, 1);
+        assertThat(index.nearest(new Coordinate(53.0, 21.0), 50_000.0)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("should find neighbours across the antimeridian")
+    void shouldFindNeighboursAcrossAntimeridian() {
+        CompactGraph.Builder builder = new CompactGraph.Builder();
+        builder.addNode(new Coordinate(10.0, 170.0));
+        builder.addNode(new Coordinate(10.0, -179.999));
+        SpatialNodeIndex index = SpatialNodeIndex.build(builder.build());
+
+        assertThat(index.nearest(new Coordinate(10.0, 179.999), 500.0)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should prefer lower node index on equal distance")
+    void shouldPreferLowerIndexOnTie() {
+        CompactGraph.Builder builder = new CompactGraph.Builder();
+        for (int i = 0; i < 20; i++) {
+            builder.addNode(new Coordinate(52.0, 21.0));
+        }
+        SpatialNodeIndex index = SpatialNodeIndex.build(builder.build());
+
+        assertThat(index.nearest(new Coordinate(52.0, 21.0))).isZero();
+        assertThat(index.nearest(new Coordinate(52.0, 21.0), 3, 1.0)).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    @DisplayName("should reject invalid query parameters")
+    void shouldRejectInvalidParameters() {
+        SpatialNodeIndex index = SpatialNodeIndex.build(new CompactGraph.Builder().build());
+
+        assertThatThrownBy(() -> index.nearest(new Coordinate(0, 0), 0, 1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> index.nearest(new Coordinate(0, 0), -1.0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("should answer queries identically when restored from its tree layout")
+    void shouldRestoreFromTreeLayout() {
+        Random random = new Random(17);
+        CompactGraph graph = randomGraph(random, 1_000, 52.0, 21.0, 0.2);
+        SpatialNodeIndex built = SpatialNodeIndex.build(graph);
+        int[] nodes = new int[built.size()];
+        byte[] axes = new byte[built.size()];
+        for (int slot = 0; slot < built.size(); slot++) {
+            nodes[slot] = built.nodeAt(slot);
+            axes[slot] = (byte) built.axisAt(slot);
+        }
+
+        SpatialNodeIndex restored = SpatialNodeIndex.fromTree(graph, nodes, axes);
+
+        for (int i = 0; i < 200; i++) {
+            Coordinate query = new Coordinate(51.9 + random.nextDouble() * 0.4, 20.9 + random.nextDouble() * 0.4);
+            assertThat(restored.nearest(query, 3, 5_000.0)).containsExactly(built.nearest(query, 3, 5_000.0));
+        }
+    }
+
+    @Test
+    @DisplayName("should reject a tree layout that does not hold every node once")
+    void shouldRejectInvalidTreeLayout() {
+        CompactGraph graph = randomGraph(new Random(3), 3, 52.0, 21.0, 0.1);
+
+        assertThatThrownBy(() -> SpatialNodeIndex.fromTree(graph, new int[] {0, 1, 1}, new byte[3]))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> SpatialNodeIndex.fromTree(graph, new int[] {0, 1}, new byte[2]))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private CompactGraph randomGraph(Random random, int nodes, double lat, double lon, double spread) {
+        CompactGraph.Builder builder = new CompactGraph.Builder();
+        for (int i = 0; i < nodes; i++) {
+            builder.addNode(new Coordinate(lat + random.nextDouble() * spread, lon + random.nextDouble() * spread));
+        }
+        return builder.build();
+    }
+
+    private int[] bruteForce(CompactGraph graph, Coordinate query) {
+        return IntStream.range(0, graph.nodeCount()).boxed()
+                .sorted(Comparator.comparingDouble(node -> graph.coordinate(node).distanceTo(query)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+}
@@ -8,6 +8,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -131,6 +132,124 @@ class GraphBuilderEdgeCasesTest {
         }
     }
 
+    @Nested
+    @DisplayName("Spatial node merging")
+    class SpatialMergingTests {
+
+        @Test
+        @DisplayName("should merge endpoints within tolerance in every direction")
+        void shouldMergeEndpointsWithinToleranceInEveryDirection() {
+            double offset = 0.000004;
+            List<RoadSegment> segments = new ArrayList<>();
+            double[][] directions = {{1, 0}, {-1, 0}, {0, 1}, {0, -1}, {1, 1}, {-1, -1}};
+            for (int i = 0; i < directions.length; i++) {
+                double baseLat = 52.0 + i * 0.01;
+                segments.add(new RoadSegment("a" + i, List.of(
+                        new Coordinate(baseLat, 21.0),
+                        new Coordinate(baseLat + 0.005, 21.0)
+                ), false));
+                segments.add(new RoadSegment("b" + i, List.of(
+                        new Coordinate(baseLat + directions[i][0] * offset, 21.0 + directions[i][1] * offset),
+                        new Coordinate(baseLat, 21.005)
+                ), false));
+            }
+
+            Graph graph = builder.buildGraph(segments);
+
+            assertThat(graph.getNodeCount()).isEqualTo(directions.length * 3);
+        }
+
+        @Test
+        @DisplayName("should merge endpoints across the antimeridian")
+        void shouldMergeEndpointsAcrossAntimeridian() {
+            List<RoadSegment> segments = List.of(
+                    new RoadSegment("west", List.of(
+                            new Coordinate(10.0, 179.99),
+                            new Coordinate(10.0, 179.999999)
+                    ), false),
+                    new RoadSegment("east", List.of(
+                            new Coordinate(10.0, -179.999999),
+                            new Coordinate(10.0, -179.99)
+                    ), false)
+            );
+
+            Graph graph = builder.buildGraph(segments);
+
+            assertThat(graph.getNodeCount()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should merge endpoints near the pole regardless of longitude")
+        void shouldMergeEndpointsNearPole() {
+            List<RoadSegment> segments = List.of(
+                    new RoadSegment("seg1", List.of(
+                            new Coordinate(89.9, 0.0),
+                            new Coordinate(89.999999, 0.0)
+                    ), false),
+                    new RoadSegment("seg2", List.of(
+                            new Coordinate(89.999999, 90.0),
+                            new Coordinate(89.9, 90.0)
+                    ), false)
+            );
+
+            Graph graph = builder.buildGraph(segments);
+
+            assertThat(graph.getNodeCount()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("should keep first created node when several are within tolerance")
+        void shouldKeepFirstCreatedNodeWhenSeveralWithinTolerance() {
+            List<RoadSegment> segments = List.of(
+                    new RoadSegment("seg1", List.of(
+                            new Coordinate(52.0, 21.0),
+                            new Coordinate(52.1, 21.1)
+                    ), false),
+                    new RoadSegment("seg2", List.of(
+                            new Coordinate(52.0000135, 21.0),
+                            new Coordinate(52.2, 21.2)
+                    ), false),
+                    new RoadSegment("seg3", List.of(
+                            new Coordinate(52.0000068, 21.0),
+                            new Coordinate(52.3, 21.3)
+                    ), false)
+            );
+
+            Graph graph = builder.buildGraph(segments);
+
+            assertThat(graph.getNodeCount()).isEqualTo(5);
+            assertThat(graph.getEdges("node_52.000000_21.000000"))
+                    .extracting(Graph.Edge::segmentId)
+                    .containsExactly("seg1", "seg3");
+        }
+
+        @Test
+        @DisplayName("should build large lattice with one node per intersection")
+        void shouldBuildLargeLattice() {
+            int size = 150;
+            double spacing = 0.001;
+            List<RoadSegment> segments = new ArrayList<>();
+            for (int row = 0; row < size; row++) {
+                for (int col = 0; col < size; col++) {
+                    Coordinate here = new Coordinate(52.0 + row * spacing, 21.0 + col * spacing);
+                    if (col + 1 < size) {
+                        segments.add(new RoadSegment("h" + row + "_" + col, List.of(
+                                here, new Coordinate(52.0 + row * spacing, 21.0 + (col + 1) * spacing)), false));
+                    }
+                    if (row + 1 < size) {
+                        segments.add(new RoadSegment("v" + row + "_" + col, List.of(
+                                here, new Coordinate(52.0 + (row + 1) * spacing, 21.0 + col * spacing)), false));
+                    }
+                }
+            }
+
+            Graph graph = builder.buildGraph(segments);
+
+            assertThat(graph.getNodeCount()).isEqualTo(size * size);
+            assertThat(graph.getEdgeCount()).isEqualTo(segments.size() * 2);
+        }
+    }
+
     @Nested
     @DisplayName("Multi-point segments")
     class MultiPointSegmentTests {
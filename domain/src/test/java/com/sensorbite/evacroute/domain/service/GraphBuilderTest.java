@@ -1,11 +1,16 @@
 package com.sensorbite.evacroute.domain.service;
 
+import com.sensorbite.evacroute.domain.model.CompactGraph;
 import com.sensorbite.evacroute.domain.model.Coordinate;
 import com.sensorbite.evacroute.domain.model.Graph;
 import com.sensorbite.evacroute.domain.model.RoadSegment;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -65,4 +70,80 @@ class GraphBuilderTest {
         assertThat(graph.getNodeCount()).isEqualTo(3);
         assertThat(graph.getEdgeCount()).isEqualTo(4);
     }
+
+    @Test
+    void shouldBuildCompactGraphMatchingAdjacencyGraph() {
+        GraphBuilder builder = new GraphBuilder();
+
+        List<RoadSegment> segments = List.of(
+                new RoadSegment("seg1", List.of(
+                        new Coordinate(52.0, 21.0),
+                        new Coordinate(52.1, 21.1)
+                ), false),
+                new RoadSegment("seg2", List.of(
+                        new Coordinate(52.1, 21.1),
+                        new Coordinate(52.2, 21.2)
+                ), true),
+                new RoadSegment("seg3", List.of(
+                        new Coordinate(52.2, 21.2),
+                        new Coordinate(52.0, 21.0)
+                ), false)
+        );
+        List<String> segmentIds = segments.stream().map(RoadSegment::getId).toList();
+
+        CompactGraph direct = builder.buildCompactGraph(segments);
+        CompactGraph converted = CompactGraph.fromGraph(builder.buildGraph(segments), segmentIds::indexOf);
+
+        assertThat(direct.nodeCount()).isEqualTo(3);
+        assertThat(direct.edgeCount()).isEqualTo(5);
+        for (int node = 0; node < direct.nodeCount(); node++) {
+            assertThat(direct.coordinate(node)).isEqualTo(converted.coordinate(node));
+            assertThat(direct.firstEdge(node)).isEqualTo(converted.firstEdge(node));
+        }
+        for (int edge = 0; edge < direct.edgeCount(); edge++) {
+            assertThat(direct.edgeTarget(edge)).isEqualTo(converted.edgeTarget(edge));
+            assertThat(direct.edgeWeight(edge)).isEqualTo(converted.edgeWeight(edge));
+            assertThat(direct.edgeSegment(edge)).isEqualTo(converted.edgeSegment(edge));
+        }
+    }
+
+    @Test
+    void shouldMergeNodesOfLargeNetworksInSegmentOrder() {
+        GraphBuilder builder = new GraphBuilder();
+        Random random = new Random(42);
+        List<RoadSegment> segments = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            // Endpoints on a 100 x 100 lattice, jittered by well under the merge tolerance
+            Coordinate start = jitteredLatticePoint(random);
+            Coordinate end = jitteredLatticePoint(random);
+            if (start.distanceTo(end) > GraphBuilder.COORDINATE_TOLERANCE_METERS) {
+                segments.add(new RoadSegment("seg" + i, List.of(start, end), random.nextInt(3) == 0));
+            }
+        }
+
+        Map<String, Integer> segmentIndex = new HashMap<>();
+        for (int i = 0; i < segments.size(); i++) {
+            segmentIndex.put(segments.get(i).getId(), i);
+        }
+        CompactGraph sequential = CompactGraph.fromGraph(builder.buildGraph(segments), segmentIndex::get);
+        CompactGraph parallel = builder.buildCompactGraph(segments);
+
+        assertThat(parallel.nodeCount()).isEqualTo(sequential.nodeCount()).isLessThanOrEqualTo(10_000);
+        for (int node = 0; node < sequential.nodeCount(); node++) {
+            assertThat(parallel.latitude(node)).isEqualTo(sequential.latitude(node));
+            assertThat(parallel.longitude(node)).isEqualTo(sequential.longitude(node));
+        }
+        assertThat(parallel.edgeCount()).isEqualTo(sequential.edgeCount());
+        for (int edge = 0; edge < sequential.edgeCount(); edge++) {
+            assertThat(parallel.edgeSource(edge)).isEqualTo(sequential.edgeSource(edge));
+            assertThat(parallel.edgeTarget(edge)).isEqualTo(sequential.edgeTarget(edge));
+            assertThat(parallel.edgeSegment(edge)).isEqualTo(sequential.edgeSegment(edge));
+        }
+    }
+
+    private static Coordinate jitteredLatticePoint(Random random) {
+        double latitude = 52.0 + random.nextInt(100) * 0.001 + (random.nextDouble() - 0.5) * 2e-6;
+        double longitude = 21.0 + random.nextInt(100) * 0.001 + (random.nextDouble() - 0.5) * 2e-6;
+        return new Coordinate(latitude, longitude);
+    }
 }
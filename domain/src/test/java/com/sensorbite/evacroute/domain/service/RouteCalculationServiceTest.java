@@ -2,10 +2,17 @@ package com.sensorbite.evacroute.domain.service;
 
 import com.sensorbite.evacroute.domain.exception.RouteNotFoundException;
 import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.DistanceMatrix;
 import com.sensorbite.evacroute.domain.model.Graph;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.Reachability;
 import com.sensorbite.evacroute.domain.model.RoadNetwork;
 import com.sensorbite.evacroute.domain.model.RoadSegment;
 import com.sensorbite.evacroute.domain.model.Route;
+import com.sensorbite.evacroute.domain.model.RouteDistance;
+import com.sensorbite.evacroute.domain.model.SearchAlgorithm;
+import com.sensorbite.evacroute.domain.model.Shelter;
+import com.sensorbite.evacroute.domain.model.ShelterRoute;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -13,6 +20,7 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.BitSet;
 import java.util.List;
 import java.util.stream.Stream;
 
@@ -75,6 +83,21 @@ class RouteCalculationServiceTest {
             assertThat(route).isNotNull();
         }
 
+        @Test
+        @DisplayName("should reject coordinates beyond the snap radius")
+        void shouldRejectCoordinatesBeyondSnapRadius() {
+            RouteCalculationService limited = new RouteCalculationService(SearchAlgorithm.DIJKSTRA, 1_000.0);
+            RoadNetwork network = createSimpleNetwork();
+
+            assertThatThrownBy(() -> limited.calculateRoute(
+                    network, new Coordinate(80.0, 80.0), new Coordinate(52.0, 21.0)))
+                    .isInstanceOf(RouteNotFoundException.class)
+                    .hasMessageContaining("start coordinate");
+            assertThat(limited.calculateRoute(
+                    network, new Coordinate(52.0005, 21.0), new Coordinate(52.2, 21.2)).getSegments())
+                    .hasSize(2);
+        }
+
         @Test
         @DisplayName("should calculate route to nearest node for far endpoint")
         void shouldCalculateRouteToNearestNodeForFarEndpoint() {
@@ -153,6 +176,245 @@ class RouteCalculationServiceTest {
             assertThat(route.getMetadata().safetyScore()).isCloseTo(expectedSafetyScore, within(0.01));
             assertThat(route.getMetadata().hazardousSegmentsAvoided()).isEqualTo((int) hazardousCount);
         }
+
+        @Test
+        @DisplayName("should route against hazard overlay without changing shared network")
+        void shouldRouteAgainstHazardOverlay() {
+            RoadNetwork base = createNetworkWithHazard();
+            BitSet detourFlooded = new BitSet();
+            detourFlooded.set(base.indexOf("seg3"));
+            RoadNetwork flooded = base.withHazards(HazardOverlay.of(base.getSegmentCount(), detourFlooded, 1L));
+            Coordinate start = new Coordinate(52.0, 21.0);
+            Coordinate end = new Coordinate(52.2, 21.2);
+
+            Route floodedRoute = service.calculateRoute(flooded, start, end);
+            Route baseRoute = service.calculateRoute(base, start, end);
+
+            assertThat(floodedRoute.getSegments()).extracting(RoadSegment::getId).containsExactly("seg1", "seg5");
+            assertThat(floodedRoute.getSegments()).noneMatch(RoadSegment::isHazardous);
+            assertThat(baseRoute.getSegments()).extracting(RoadSegment::getId).containsExactly("seg2", "seg3", "seg4");
+            assertThat(base.getHazards().version()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Nearest shelter")
+    class NearestShelterTests {
+
+        @Test
+        @DisplayName("should route to the closest of several shelters")
+        void shouldRouteToClosestShelter() {
+            RoadNetwork network = createSimpleNetwork();
+            List<Shelter> shelters = List.of(
+                    new Shelter("far", null, new Coordinate(52.2, 21.2)),
+                    new Shelter("near", null, new Coordinate(52.1, 21.1)));
+
+            ShelterRoute result = service.calculateRouteToNearestShelter(network, new Coordinate(52.0, 21.0), shelters);
+
+            assertThat(result.shelter().id()).isEqualTo("near");
+            assertThat(result.route().getSegments()).extracting(RoadSegment::getId).containsExactly("seg1");
+        }
+
+        @Test
+        @DisplayName("should prefer a safe shelter over a closer one behind a hazard")
+        void shouldPreferSafeShelter() {
+            RoadNetwork network = createNetworkWithHazard();
+            List<Shelter> shelters = List.of(
+                    new Shelter("behind-flood", null, new Coordinate(52.1, 21.1)),
+                    new Shelter("safe", null, new Coordinate(52.15, 21.15)));
+
+            ShelterRoute result = service.calculateRouteToNearestShelter(network, new Coordinate(52.0, 21.0), shelters);
+
+            assertThat(result.shelter().id()).isEqualTo("safe");
+            assertThat(result.route().getSegments()).noneMatch(RoadSegment::isHazardous);
+        }
+
+        @Test
+        @DisplayName("should return empty route when starting at a shelter")
+        void shouldReturnEmptyRouteAtShelter() {
+            RoadNetwork network = createSimpleNetwork();
+            List<Shelter> shelters = List.of(new Shelter("here", null, new Coordinate(52.0, 21.0)));
+
+            ShelterRoute result = service.calculateRouteToNearestShelter(network, new Coordinate(52.0, 21.0), shelters);
+
+            assertThat(result.shelter().id()).isEqualTo("here");
+            assertThat(result.route().getSegments()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should throw exception when no shelter is reachable")
+        void shouldThrowWhenNoShelterReachable() {
+            RoadNetwork network = createDisconnectedNetwork();
+            List<Shelter> shelters = List.of(new Shelter("island", null, new Coordinate(53.1, 22.1)));
+
+            assertThatThrownBy(() -> service.calculateRouteToNearestShelter(
+                    network, new Coordinate(52.0, 21.0), shelters))
+                    .isInstanceOf(RouteNotFoundException.class);
+            assertThatThrownBy(() -> service.calculateRouteToNearestShelter(
+                    network, new Coordinate(52.0, 21.0), List.of()))
+                    .isInstanceOf(RouteNotFoundException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Distance queries")
+    class DistanceTests {
+
+        @Test
+        @DisplayName("should match the length of the calculated route")
+        void shouldMatchRouteLength() {
+            RoadNetwork network = createNetworkWithHazard();
+            Coordinate start = new Coordinate(52.0, 21.0);
+            Coordinate end = new Coordinate(52.2, 21.2);
+
+            RouteDistance distance = service.calculateDistance(network, start, end);
+            Route route = service.calculateRoute(network, start, end);
+
+            assertThat(distance.distanceMeters()).isCloseTo(route.getMetadata().distanceMeters(), within(1e-6));
+            assertThat(distance.crossesHazards()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should report hazards when no safe route exists")
+        void shouldReportHazardsWhenNoSafeRouteExists() {
+            RoadNetwork network = createNetworkWithOnlyHazardousPath();
+
+            RouteDistance distance = service.calculateDistance(network,
+                    new Coordinate(52.0, 21.0), new Coordinate(52.1, 21.1));
+
+            assertThat(distance.crossesHazards()).isTrue();
+            assertThat(distance.distanceMeters()).isCloseTo(
+                    network.segmentAt(0).getLengthMeters(), within(1e-6));
+        }
+
+        @Test
+        @DisplayName("should answer from hub labels when they are enabled")
+        void shouldAnswerFromHubLabelsWhenEnabled() {
+            RouteCalculationService labelled = new RouteCalculationService(
+                    SearchAlgorithm.HL, Double.POSITIVE_INFINITY, Runnable::run, true);
+            RoadNetwork network = createNetworkWithHazard();
+            Coordinate start = new Coordinate(52.0, 21.0);
+            Coordinate end = new Coordinate(52.2, 21.2);
+
+            RouteDistance distance = labelled.calculateDistance(network, start, end);
+
+            assertThat(distance.distanceMeters())
+                    .isCloseTo(service.calculateDistance(network, start, end).distanceMeters(), within(1e-6));
+            assertThat(labelled.calculateRoute(network, start, end).getMetadata().algorithm())
+                    .isEqualTo(SearchAlgorithm.HL);
+        }
+
+        @Test
+        @DisplayName("should reject hub label search while hub labels are disabled")
+        void shouldRejectHubLabelSearchWhenDisabled() {
+            RoadNetwork network = createNetworkWithHazard();
+
+            assertThatThrownBy(() -> service.calculateRoute(network,
+                    new Coordinate(52.0, 21.0), new Coordinate(52.2, 21.2), SearchAlgorithm.HL))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("not enabled");
+            assertThatThrownBy(() -> new RouteCalculationService(
+                    SearchAlgorithm.HL, Double.POSITIVE_INFINITY, Runnable::run, false))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("should throw exception when no route exists between nodes")
+        void shouldThrowExceptionWhenNoRouteExists() {
+            RoadNetwork network = createDisconnectedNetwork();
+
+            assertThatThrownBy(() -> service.calculateDistance(network,
+                    new Coordinate(52.0, 21.0), new Coordinate(53.1, 22.1)))
+                    .isInstanceOf(RouteNotFoundException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Distance matrices")
+    class DistanceMatrixTests {
+
+        @Test
+        @DisplayName("should match single distance queries for every pair")
+        void shouldMatchSingleDistanceQueries() {
+            RoadNetwork network = createNetworkWithHazard();
+            List<Coordinate> points = List.of(
+                    new Coordinate(52.0, 21.0), new Coordinate(52.1, 21.1), new Coordinate(52.2, 21.2));
+
+            DistanceMatrix matrix = service.calculateDistanceMatrix(network, points, points);
+
+            assertThat(matrix.sourceCount()).isEqualTo(3);
+            assertThat(matrix.targetCount()).isEqualTo(3);
+            for (int source = 0; source < points.size(); source++) {
+                for (int target = 0; target < points.size(); target++) {
+                    assertThat(matrix.distanceMeters(source, target)).isCloseTo(
+                            service.calculateDistance(network, points.get(source), points.get(target))
+                                    .distanceMeters(), within(1e-6));
+                }
+            }
+            assertThat(matrix.distanceMeters(1, 1)).isZero();
+        }
+
+        @Test
+        @DisplayName("should mark disconnected and unsnappable pairs unreachable")
+        void shouldMarkUnreachablePairs() {
+            RouteCalculationService limited = new RouteCalculationService(SearchAlgorithm.DIJKSTRA, 1_000.0);
+            RoadNetwork network = createDisconnectedNetwork();
+
+            DistanceMatrix matrix = limited.calculateDistanceMatrix(network,
+                    List.of(new Coordinate(52.0, 21.0), new Coordinate(80.0, 80.0)),
+                    List.of(new Coordinate(52.1, 21.1), new Coordinate(53.1, 22.1)));
+
+            assertThat(matrix.isReachable(0, 0)).isTrue();
+            assertThat(matrix.isReachable(0, 1)).isFalse();
+            assertThat(matrix.isReachable(1, 0)).isFalse();
+            assertThat(matrix.isReachable(1, 1)).isFalse();
+        }
+    }
+
+    @Nested
+    @DisplayName("Reachability")
+    class ReachabilityTests {
+
+        @Test
+        @DisplayName("should clip the segment where the distance budget runs out")
+        void shouldClipPartiallyReachableSegment() {
+            RoadNetwork network = createSimpleNetwork();
+            RoadSegment first = network.segmentAt(0);
+            double budget = first.getLengthMeters() + network.segmentAt(1).getLengthMeters() / 2;
+
+            Reachability result = service.calculateReachability(network, new Coordinate(52.0, 21.0), budget);
+
+            assertThat(result.reachedNodes()).isEqualTo(2);
+            assertThat(result.lines()).hasSize(2);
+            assertThat(result.lines().get(0)).isEqualTo(first.getCoordinates());
+            Coordinate cut = result.lines().get(1).getLast();
+            assertThat(cut.latitude()).isCloseTo(52.15, within(1e-3));
+            assertThat(cut.longitude()).isCloseTo(21.15, within(1e-3));
+        }
+
+        @Test
+        @DisplayName("should never enter hazardous segments")
+        void shouldExcludeHazardousSegments() {
+            RoadNetwork network = createNetworkWithHazard();
+
+            Reachability result = service.calculateReachability(network, new Coordinate(52.0, 21.0), 1_000_000);
+
+            assertThat(result.reachedNodes()).isEqualTo(5);
+            assertThat(result.lines()).hasSize(4)
+                    .doesNotContain(network.segmentAt(0).getCoordinates());
+        }
+
+        @Test
+        @DisplayName("should return only the start node for a zero budget")
+        void shouldReachNothingWithZeroBudget() {
+            Reachability result = service.calculateReachability(createSimpleNetwork(), new Coordinate(52.0, 21.0), 0);
+
+            assertThat(result.reachedNodes()).isEqualTo(1);
+            assertThat(result.lines()).isEmpty();
+            assertThatThrownBy(() -> service.calculateReachability(
+                    createSimpleNetwork(), new Coordinate(52.0, 21.0), -1))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
     }
 
     @Nested
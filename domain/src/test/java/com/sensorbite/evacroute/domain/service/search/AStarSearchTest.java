@@ -0,0 +1,133 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import com.sensorbite.evacroute.domain.model.RoadSegment;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static com.sensorbite.evacroute.domain.service.search.SearchTestNetworks.gridNetwork;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("AStarSearch")
+class AStarSearchTest {
+
+    private final AStarSearch aStar = new AStarSearch();
+    private final DijkstraSearch dijkstra = new DijkstraSearch();
+
+    @Test
+    @DisplayName("should find routes as short as Dijkstra while settling no more nodes")
+    void shouldMatchDijkstraCost() {
+        Random random = new Random(21);
+        RoadNetwork network = gridNetwork(20, 20, bentSegments(random));
+        int nodes = network.getCompactGraph().nodeCount();
+        long aStarSettled = 0;
+        long dijkstraSettled = 0;
+
+        for (int i = 0; i < 50; i++) {
+            int source = random.nextInt(nodes);
+            int target = random.nextInt(nodes);
+
+            PathResult expected = dijkstra.findPath(network, source, target);
+            PathResult actual = aStar.findPath(network, source, target);
+
+            assertThat(actual.found()).isEqualTo(expected.found());
+            if (expected.found()) {
+                assertThat(actual.cost()).isCloseTo(expected.cost(), within(1e-6));
+            }
+            aStarSettled += actual.settledNodes();
+            dijkstraSettled += expected.settledNodes();
+        }
+
+        assertThat(aStarSettled).isLessThan(dijkstraSettled / 2);
+    }
+
+    @Test
+    @DisplayName("should stay optimal when hazard penalties inflate edges")
+    void shouldStayOptimalWithHazards() {
+        Random random = new Random(8);
+        RoadNetwork base = gridNetwork(15, 15, bentSegments(random));
+        BitSet hazardous = new BitSet();
+        for (int segment = 0; segment < base.getSegmentCount(); segment++) {
+            if (random.nextInt(4) == 0) {
+                hazardous.set(segment);
+            }
+        }
+        RoadNetwork network = base.withHazards(HazardOverlay.of(base.getSegmentCount(), hazardous, 1L));
+        int nodes = network.getCompactGraph().nodeCount();
+
+        for (int i = 0; i < 30; i++) {
+            int source = random.nextInt(nodes);
+            int target = random.nextInt(nodes);
+
+            PathResult expected = dijkstra.findPath(network, source, target);
+            PathResult actual = aStar.findPath(network, source, target);
+
+            assertThat(actual.cost()).isCloseTo(expected.cost(), within(1e-6));
+        }
+    }
+
+    @Test
+    @DisplayName("should match Dijkstra when segment end points only nearly meet at junctions")
+    void shouldMatchDijkstraWithNearDuplicateJunctions() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            RoadNetwork network = gridNetwork(12, 12, jitteredSegments(random));
+            int nodes = network.getCompactGraph().nodeCount();
+            assertThat(nodes).isEqualTo(12 * 12);
+
+            for (int i = 0; i < 40; i++) {
+                int source = random.nextInt(nodes);
+                int target = random.nextInt(nodes);
+
+                PathResult expected = dijkstra.findPath(network, source, target);
+                PathResult actual = aStar.findPath(network, source, target);
+
+                assertThat(actual.cost()).isCloseTo(expected.cost(), within(1e-6));
+            }
+        }
+    }
+
+    /**
+     * Straight segments on a grid shrunk to about 5 m cells, with each end point
+     * pulled up to 0.45 m towards the other end, so the segments are shorter than
+     * the distance between the junctions they are merged into.
+     */
+    private static SearchTestNetworks.SegmentFactory jitteredSegments(Random random) {
+        return (id, from, to) -> {
+            Coordinate start = shrink(from);
+            Coordinate end = shrink(to);
+            double length = start.distanceTo(end);
+            return new RoadSegment(id, List.of(
+                    towards(start, end, random.nextDouble() * 0.45 / length),
+                    towards(end, start, random.nextDouble() * 0.45 / length)), false);
+        };
+    }
+
+    private static Coordinate shrink(Coordinate coordinate) {
+        return new Coordinate(52.0 + (coordinate.latitude() - 52.0) * 0.05,
+                21.0 + (coordinate.longitude() - 21.0) * 0.05);
+    }
+
+    private static Coordinate towards(Coordinate from, Coordinate to, double fraction) {
+        return new Coordinate(from.latitude() + (to.latitude() - from.latitude()) * fraction,
+                from.longitude() + (to.longitude() - from.longitude()) * fraction);
+    }
+
+    /** Two-way segments; horizontal ones bend through a random point, so they are longer than the straight line. */
+    private static SearchTestNetworks.SegmentFactory bentSegments(Random random) {
+        return (id, from, to) -> {
+            if (from.latitude() != to.latitude()) {
+                return new RoadSegment(id, List.of(from, to), false);
+            }
+            Coordinate bend = new Coordinate(from.latitude() + random.nextDouble() * 0.0003, from.longitude() + 0.0007);
+            return new RoadSegment(id, List.of(from, bend, to), false);
+        };
+    }
+}
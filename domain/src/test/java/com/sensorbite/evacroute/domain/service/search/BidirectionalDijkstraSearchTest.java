@@ -0,0 +1,91 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import com.sensorbite.evacroute.domain.model.RoadSegment;
+import com.sensorbite.evacroute.domain.service.GraphBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.sensorbite.evacroute.domain.service.search.SearchTestNetworks.gridNetwork;
+import static com.sensorbite.evacroute.domain.service.search.SearchTestNetworks.withRandomHazards;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("BidirectionalDijkstraSearch")
+class BidirectionalDijkstraSearchTest {
+
+    private final BidirectionalDijkstraSearch bidirectional = new BidirectionalDijkstraSearch();
+    private final DijkstraSearch dijkstra = new DijkstraSearch();
+
+    @Test
+    @DisplayName("should match Dijkstra on networks with one-way streets and hazards")
+    void shouldMatchDijkstra() {
+        Random random = new Random(17);
+        RoadNetwork network = withRandomHazards(gridNetwork(18, 18, onewaySegments(random)), random);
+        CompactGraph graph = network.getCompactGraph();
+
+        for (int i = 0; i < 60; i++) {
+            int source = random.nextInt(graph.nodeCount());
+            int target = random.nextInt(graph.nodeCount());
+
+            PathResult expected = dijkstra.findPath(network, source, target);
+            PathResult actual = bidirectional.findPath(network, source, target);
+
+            assertThat(actual.found()).isEqualTo(expected.found());
+            if (!expected.found()) {
+                continue;
+            }
+            assertThat(actual.cost()).isCloseTo(expected.cost(), within(1e-6));
+            assertConnected(graph, actual.edgePath(), source, target);
+        }
+    }
+
+    @Test
+    @DisplayName("should settle fewer nodes than Dijkstra on long routes")
+    void shouldSettleFewerNodesOnLongRoutes() {
+        RoadNetwork network = gridNetwork(30, 30, onewaySegments(new Random(2)));
+        int target = network.getCompactGraph().nodeCount() - 1;
+
+        PathResult expected = dijkstra.findPath(network, 0, target);
+        PathResult actual = bidirectional.findPath(network, 0, target);
+
+        assertThat(actual.cost()).isCloseTo(expected.cost(), within(1e-6));
+        assertThat(actual.settledNodes()).isLessThan(expected.settledNodes());
+    }
+
+    @Test
+    @DisplayName("should not travel against a one-way segment")
+    void shouldHonourOneWaySegments() {
+        List<RoadSegment> segments = List.of(
+                new RoadSegment("oneway", List.of(new Coordinate(52.0, 21.0), new Coordinate(52.001, 21.0)), true),
+                new RoadSegment("detour1", List.of(new Coordinate(52.001, 21.0), new Coordinate(52.001, 21.01)), false),
+                new RoadSegment("detour2", List.of(new Coordinate(52.001, 21.01), new Coordinate(52.0, 21.0)), false)
+        );
+        RoadNetwork network = new RoadNetwork(segments, new GraphBuilder().buildGraph(segments));
+
+        PathResult forward = bidirectional.findPath(network, 0, 1);
+        PathResult backward = bidirectional.findPath(network, 1, 0);
+
+        assertThat(forward.edgePath()).hasSize(1);
+        assertThat(backward.edgePath()).hasSize(2);
+    }
+
+    private void assertConnected(CompactGraph graph, int[] edgePath, int source, int target) {
+        int node = source;
+        for (int edge : edgePath) {
+            assertThat(graph.edgeSource(edge)).isEqualTo(node);
+            node = graph.edgeTarget(edge);
+        }
+        assertThat(node).isEqualTo(target);
+    }
+
+    /** Segments of which about one in four is one-way in its digitised direction. */
+    private static SearchTestNetworks.SegmentFactory onewaySegments(Random random) {
+        return (id, from, to) -> new RoadSegment(id, List.of(from, to), random.nextInt(4) == 0, false);
+    }
+}
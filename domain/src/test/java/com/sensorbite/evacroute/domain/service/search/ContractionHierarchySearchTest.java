@@ -0,0 +1,114 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.Random;
+
+import static com.sensorbite.evacroute.domain.service.search.SearchTestNetworks.gridNetwork;
+import static com.sensorbite.evacroute.domain.service.search.SearchTestNetworks.withRandomHazards;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("ContractionHierarchySearch")
+class ContractionHierarchySearchTest {
+
+    private final DijkstraSearch dijkstra = new DijkstraSearch();
+
+    @Nested
+    @DisplayName("Queries")
+    class QueryTests {
+
+        @Test
+        @DisplayName("should match Dijkstra on networks with one-way streets and hazards")
+        void shouldMatchDijkstra() {
+            Random random = new Random(99);
+            RoadNetwork network = withRandomHazards(gridNetwork(20, 20, random), random);
+            ContractionHierarchySearch search = new ContractionHierarchySearch();
+            CompactGraph graph = network.getCompactGraph();
+
+            for (int i = 0; i < 80; i++) {
+                int source = random.nextInt(graph.nodeCount());
+                int target = random.nextInt(graph.nodeCount());
+
+                PathResult expected = dijkstra.findPath(network, source, target);
+                PathResult actual = search.findPath(network, source, target);
+
+                assertThat(actual.found()).isEqualTo(expected.found());
+                if (!expected.found()) {
+                    continue;
+                }
+                assertThat(actual.cost()).isCloseTo(expected.cost(), within(1e-6));
+                assertUnpackedPath(network, actual, source, target);
+            }
+        }
+
+        @Test
+        @DisplayName("should add shortcuts and settle fewer nodes than Dijkstra")
+        void shouldSettleFewerNodes() {
+            RoadNetwork network = gridNetwork(30, 30, new Random(4));
+            ContractionHierarchySearch search = new ContractionHierarchySearch();
+            int target = network.getCompactGraph().nodeCount() - 1;
+
+            PathResult expected = dijkstra.findPath(network, 0, target);
+            PathResult actual = search.findPath(network, 0, target);
+
+            assertThat(search.hierarchyFor(network).shortcutCount()).isPositive();
+            assertThat(actual.cost()).isCloseTo(expected.cost(), within(1e-6));
+            assertThat(actual.settledNodes()).isLessThan(expected.settledNodes());
+        }
+    }
+
+    @Nested
+    @DisplayName("Hazard overlay changes")
+    class OverlayChangeTests {
+
+        @Test
+        @DisplayName("should answer with fallback search until the hierarchy for a new overlay is built")
+        void shouldFallBackWhileRebuilding() {
+            Queue<Runnable> pending = new ArrayDeque<>();
+            ContractionHierarchySearch search = new ContractionHierarchySearch(pending::add);
+            Random random = new Random(12);
+            RoadNetwork network = gridNetwork(12, 12, random);
+            int target = network.getCompactGraph().nodeCount() - 1;
+
+            PathResult beforeBuild = search.findPath(network, 0, target);
+            assertThat(search.hierarchyFor(network)).isNull();
+            assertThat(pending).hasSize(1);
+            pending.poll().run();
+            assertThat(search.hierarchyFor(network)).isNotNull();
+
+            RoadNetwork flooded = withRandomHazards(network, random);
+            PathResult duringRebuild = search.findPath(flooded, 0, target);
+            assertThat(search.hierarchyFor(flooded)).isNull();
+            pending.poll().run();
+            PathResult afterRebuild = search.findPath(flooded, 0, target);
+
+            assertThat(beforeBuild.cost()).isCloseTo(dijkstra.findPath(network, 0, target).cost(), within(1e-6));
+            double floodedCost = dijkstra.findPath(flooded, 0, target).cost();
+            assertThat(duringRebuild.cost()).isCloseTo(floodedCost, within(1e-6));
+            assertThat(afterRebuild.cost()).isCloseTo(floodedCost, within(1e-6));
+            assertThat(search.hierarchyFor(flooded)).isNotNull();
+        }
+    }
+
+    private void assertUnpackedPath(RoadNetwork network, PathResult result, int source, int target) {
+        CompactGraph graph = network.getCompactGraph();
+        int node = source;
+        double cost = 0.0;
+        for (int edge : result.edgePath()) {
+            assertThat(graph.edgeSource(edge)).isEqualTo(node);
+            cost += EdgeCosts.cost(graph, network.getHazards(), edge);
+            node = graph.edgeTarget(edge);
+        }
+        assertThat(node).isEqualTo(target);
+        assertThat(cost).isCloseTo(result.cost(), within(1e-6));
+        assertThat(Arrays.stream(result.edgePath()).map(graph::edgeSegment)).allMatch(segment -> segment >= 0);
+    }
+}
@@ -0,0 +1,145 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import com.sensorbite.evacroute.domain.model.RoadSegment;
+import com.sensorbite.evacroute.domain.service.GraphBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+
+import static com.sensorbite.evacroute.domain.service.search.SearchTestNetworks.gridNetwork;
+import static com.sensorbite.evacroute.domain.service.search.SearchTestNetworks.withRandomHazards;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("CustomizableContractionHierarchySearch")
+class CustomizableContractionHierarchySearchTest {
+
+    private final DijkstraSearch dijkstra = new DijkstraSearch();
+
+    @Nested
+    @DisplayName("Queries")
+    class QueryTests {
+
+        @Test
+        @DisplayName("should match Dijkstra on networks with one-way streets and hazards")
+        void shouldMatchDijkstra() {
+            Random random = new Random(31);
+            RoadNetwork network = withRandomHazards(gridNetwork(25, 25, random), random, 1L);
+            CustomizableContractionHierarchySearch search = new CustomizableContractionHierarchySearch();
+            CompactGraph graph = network.getCompactGraph();
+
+            for (int i = 0; i < 100; i++) {
+                int source = random.nextInt(graph.nodeCount());
+                int target = random.nextInt(graph.nodeCount());
+
+                PathResult expected = dijkstra.findPath(network, source, target);
+                PathResult actual = search.findPath(network, source, target);
+
+                assertThat(actual.found()).isEqualTo(expected.found());
+                if (!expected.found()) {
+                    continue;
+                }
+                assertThat(actual.cost()).isCloseTo(expected.cost(), within(1e-6));
+                assertUnpackedPath(network, actual, source, target);
+            }
+        }
+
+        @Test
+        @DisplayName("should report no path between disconnected parts")
+        void shouldReportDisconnectedParts() {
+            List<RoadSegment> segments = List.of(
+                    new RoadSegment("a", List.of(new Coordinate(52.0, 21.0), new Coordinate(52.001, 21.0)), false),
+                    new RoadSegment("b", List.of(new Coordinate(52.1, 21.1), new Coordinate(52.101, 21.1)), false));
+            RoadNetwork network = new RoadNetwork(segments, new GraphBuilder().buildGraph(segments));
+            CustomizableContractionHierarchySearch search = new CustomizableContractionHierarchySearch();
+            int source = network.findNearestNodeIndex(new Coordinate(52.0, 21.0));
+            int target = network.findNearestNodeIndex(new Coordinate(52.101, 21.1));
+
+            assertThat(search.findPath(network, source, target).found()).isFalse();
+        }
+
+        @Test
+        @DisplayName("should settle fewer nodes than Dijkstra")
+        void shouldSettleFewerNodes() {
+            RoadNetwork network = gridNetwork(30, 30, new Random(4));
+            CustomizableContractionHierarchySearch search = new CustomizableContractionHierarchySearch();
+            int target = network.getCompactGraph().nodeCount() - 1;
+
+            PathResult expected = dijkstra.findPath(network, 0, target);
+            PathResult actual = search.findPath(network, 0, target);
+
+            assertThat(actual.cost()).isCloseTo(expected.cost(), within(1e-6));
+            assertThat(actual.settledNodes()).isLessThan(expected.settledNodes());
+        }
+    }
+
+    @Nested
+    @DisplayName("Customization")
+    class CustomizationTests {
+
+        @Test
+        @DisplayName("should re-weight the existing hierarchy when the hazard overlay changes")
+        void shouldReuseHierarchyForNewOverlay() {
+            Random random = new Random(8);
+            RoadNetwork network = gridNetwork(15, 15, random);
+            CustomizableContractionHierarchySearch search = new CustomizableContractionHierarchySearch();
+            CustomizedMetric initial = search.metricFor(network);
+
+            RoadNetwork flooded = withRandomHazards(network, random, 2L);
+            CustomizedMetric customized = search.metricFor(flooded);
+            int target = network.getCompactGraph().nodeCount() - 1;
+
+            assertThat(customized).isNotSameAs(initial);
+            assertThat(customized.hierarchy()).isSameAs(initial.hierarchy());
+            assertThat(search.findPath(flooded, 0, target).cost())
+                    .isCloseTo(dijkstra.findPath(flooded, 0, target).cost(), within(1e-6));
+        }
+
+        @Test
+        @DisplayName("should answer with fallback search until customization for a new overlay completes")
+        void shouldFallBackWhileCustomizing() {
+            Queue<Runnable> pending = new ArrayDeque<>();
+            CustomizableContractionHierarchySearch search = new CustomizableContractionHierarchySearch(pending::add);
+            Random random = new Random(12);
+            RoadNetwork network = gridNetwork(12, 12, random);
+            int target = network.getCompactGraph().nodeCount() - 1;
+
+            search.findPath(network, 0, target);
+            assertThat(pending).hasSize(1);
+            pending.poll().run();
+            assertThat(search.metricFor(network)).isNotNull();
+
+            RoadNetwork flooded = withRandomHazards(network, random, 3L);
+            PathResult duringCustomization = search.findPath(flooded, 0, target);
+            assertThat(search.metricFor(flooded)).isNull();
+            pending.poll().run();
+            PathResult afterCustomization = search.findPath(flooded, 0, target);
+
+            double floodedCost = dijkstra.findPath(flooded, 0, target).cost();
+            assertThat(duringCustomization.cost()).isCloseTo(floodedCost, within(1e-6));
+            assertThat(afterCustomization.cost()).isCloseTo(floodedCost, within(1e-6));
+            assertThat(search.metricFor(flooded)).isNotNull();
+        }
+    }
+
+    private void assertUnpackedPath(RoadNetwork network, PathResult result, int source, int target) {
+        CompactGraph graph = network.getCompactGraph();
+        int node = source;
+        double cost = 0.0;
+        for (int edge : result.edgePath()) {
+            assertThat(graph.edgeSource(edge)).isEqualTo(node);
+            cost += EdgeCosts.cost(graph, network.getHazards(), edge);
+            node = graph.edgeTarget(edge);
+        }
+        assertThat(node).isEqualTo(target);
+        assertThat(cost).isCloseTo(result.cost(), within(1e-6));
+    }
+}
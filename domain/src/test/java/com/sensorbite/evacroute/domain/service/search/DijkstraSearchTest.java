@@ -0,0 +1,203 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import com.sensorbite.evacroute.domain.model.RoadSegment;
+import com.sensorbite.evacroute.domain.service.GraphBuilder;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("DijkstraSearch")
+class DijkstraSearchTest {
+
+    private final DijkstraSearch search = new DijkstraSearch();
+
+    @Test
+    @DisplayName("should return connected edge path with its cost")
+    void shouldReturnConnectedEdgePath() {
+        RoadNetwork network = gridNetwork(5, 5, new Random(1), 10);
+        CompactGraph graph = network.getCompactGraph();
+
+        PathResult result = search.findPath(network, 0, graph.nodeCount() - 1);
+
+        assertThat(result.found()).isTrue();
+        assertThat(result.settledNodes()).isPositive();
+        int node = 0;
+        double cost = 0.0;
+        for (int edge : result.edgePath()) {
+            assertThat(graph.edgeSource(edge)).isEqualTo(node);
+            cost += EdgeCosts.cost(graph, network.getHazards(), edge);
+            node = graph.edgeTarget(edge);
+        }
+        assertThat(node).isEqualTo(graph.nodeCount() - 1);
+        assertThat(result.cost()).isCloseTo(cost, within(1e-6));
+    }
+
+    @Test
+    @DisplayName("should report unreachable target without stale state leaking into next query")
+    void shouldReportUnreachableTarget() {
+        List<RoadSegment> segments = List.of(
+                new RoadSegment("a", List.of(new Coordinate(52.0, 21.0), new Coordinate(52.001, 21.0)), false),
+                new RoadSegment("b", List.of(new Coordinate(53.0, 21.0), new Coordinate(53.001, 21.0)), false)
+        );
+        RoadNetwork network = new RoadNetwork(segments, new GraphBuilder().buildGraph(segments));
+
+        assertThat(search.findPath(network, 0, 1).found()).isTrue();
+        PathResult unreachable = search.findPath(network, 0, 2);
+        assertThat(unreachable.found()).isFalse();
+        assertThat(unreachable.edgePath()).isEmpty();
+        assertThat(search.findPath(network, 2, 3).found()).isTrue();
+    }
+
+    @Test
+    @DisplayName("should match reference distances across repeated queries on graphs of different sizes")
+    void shouldMatchReferenceAcrossRepeatedQueries() {
+        Random random = new Random(7);
+        RoadNetwork small = gridNetwork(4, 6, random, 10);
+        RoadNetwork large = gridNetwork(12, 15, random, 10);
+
+        for (int round = 0; round < 40; round++) {
+            RoadNetwork network = round % 3 == 0 ? small : large;
+            int nodes = network.getCompactGraph().nodeCount();
+            int source = random.nextInt(nodes);
+            double[] expected = referenceDistances(network, source);
+            int target = random.nextInt(nodes);
+
+            PathResult result = search.findPath(network, source, target);
+
+            if (Double.isInfinite(expected[target])) {
+                assertThat(result.found()).isFalse();
+            } else {
+                assertThat(result.cost()).isCloseTo(expected[target], within(1e-6));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should avoid hazardous segments through the overlay penalty")
+    void shouldAvoidHazardousSegments() {
+        RoadNetwork network = gridNetwork(3, 3, new Random(3), 0);
+        CompactGraph graph = network.getCompactGraph();
+        PathResult base = search.findPath(network, 0, graph.nodeCount() - 1);
+
+        BitSet hazardous = new BitSet();
+        hazardous.set(graph.edgeSegment(base.edgePath()[0]));
+        RoadNetwork flooded = network.withHazards(HazardOverlay.of(network.getSegmentCount(), hazardous, 1L));
+        PathResult detour = search.findPath(flooded, 0, graph.nodeCount() - 1);
+
+        assertThat(detour.found()).isTrue();
+        assertThat(Arrays.stream(detour.edgePath()).map(graph::edgeSegment))
+                .doesNotContain(graph.edgeSegment(base.edgePath()[0]));
+    }
+
+    @Test
+    @DisplayName("should stop at the cheapest of several targets")
+    void shouldStopAtCheapestTarget() {
+        Random random = new Random(11);
+        RoadNetwork network = gridNetwork(10, 10, random, 15);
+        int nodes = network.getCompactGraph().nodeCount();
+
+        for (int round = 0; round < 20; round++) {
+            int source = random.nextInt(nodes);
+            BitSet targets = new BitSet();
+            random.ints(5, 0, nodes).forEach(targets::set);
+            double[] expected = referenceDistances(network, source);
+            double nearest = targets.stream().mapToDouble(target -> expected[target]).min().orElseThrow();
+
+            PathResult result = search.findPathToNearest(network, source, targets);
+
+            if (Double.isInfinite(nearest)) {
+                assertThat(result.found()).isFalse();
+                continue;
+            }
+            assertThat(result.cost()).isCloseTo(nearest, within(1e-6));
+            int[] path = result.edgePath();
+            int reached = path.length == 0 ? source : network.getCompactGraph().edgeTarget(path[path.length - 1]);
+            assertThat(targets.get(reached)).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("should reach exactly the nodes within the bound without crossing hazards")
+    void shouldReachNodesWithinBound() {
+        Random random = new Random(13);
+        RoadNetwork base = gridNetwork(10, 10, random, 10);
+        BitSet hazardous = new BitSet();
+        random.ints(15, 0, base.getSegmentCount()).forEach(hazardous::set);
+        RoadNetwork network = base.withHazards(HazardOverlay.of(base.getSegmentCount(), hazardous, 1L));
+        List<RoadSegment> safeSegments = new ArrayList<>();
+        for (int segment = 0; segment < base.getSegmentCount(); segment++) {
+            if (!hazardous.get(segment)) {
+                safeSegments.add(base.segmentAt(segment));
+            }
+        }
+        RoadNetwork safeOnly = new RoadNetwork(safeSegments, new GraphBuilder().buildGraph(safeSegments));
+        int source = 0;
+        int safeSource = safeOnly.findNearestNodeIndex(network.getCompactGraph().coordinate(source), 1.0);
+        double[] expected = referenceDistances(safeOnly, safeSource);
+        double bound = 600.0;
+
+        ReachableNodes reached = search.reachableWithin(network, source, bound);
+
+        long expectedCount = Arrays.stream(expected).filter(distance -> distance <= bound).count();
+        assertThat(reached.count()).isEqualTo((int) expectedCount);
+        for (int i = 0; i < reached.count(); i++) {
+            Coordinate location = network.getCompactGraph().coordinate(reached.nodes()[i]);
+            int safeNode = safeOnly.findNearestNodeIndex(location, 1.0);
+            assertThat(reached.lengthsMeters()[i]).isCloseTo(expected[safeNode], within(1e-6));
+            if (i > 0) {
+                assertThat(reached.lengthsMeters()[i]).isGreaterThanOrEqualTo(reached.lengthsMeters()[i - 1]);
+            }
+        }
+    }
+
+    private RoadNetwork gridNetwork(int rows, int cols, Random random, int dropPercent) {
+        List<RoadSegment> segments = new ArrayList<>();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                Coordinate here = new Coordinate(52.0 + r * 0.001, 21.0 + c * 0.001);
+                if (c + 1 < cols && random.nextInt(100) >= dropPercent) {
+                    segments.add(new RoadSegment("h" + r + "_" + c,
+                            List.of(here, new Coordinate(52.0 + r * 0.001, 21.0 + (c + 1) * 0.001)), false));
+                }
+                if (r + 1 < rows && random.nextInt(100) >= dropPercent) {
+                    segments.add(new RoadSegment("v" + r + "_" + c,
+                            List.of(here, new Coordinate(52.0 + (r + 1) * 0.001, 21.0 + c * 0.001)), false));
+                }
+            }
+        }
+        return new RoadNetwork(segments, new GraphBuilder().buildGraph(segments));
+    }
+
+    private double[] referenceDistances(RoadNetwork network, int source) {
+        CompactGraph graph = network.getCompactGraph();
+        double[] distances = new double[graph.nodeCount()];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[source] = 0.0;
+        for (int pass = 0; pass < graph.nodeCount(); pass++) {
+            boolean changed = false;
+            for (int edge = 0; edge < graph.edgeCount(); edge++) {
+                double candidate = distances[graph.edgeSource(edge)] + EdgeCosts.cost(graph, network.getHazards(), edge);
+                if (candidate < distances[graph.edgeTarget(edge)]) {
+                    distances[graph.edgeTarget(edge)] = candidate;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                break;
+            }
+        }
+        return distances;
+    }
+}
@@ -0,0 +1,183 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Random;
+
+import static com.sensorbite.evacroute.domain.service.search.SearchTestNetworks.gridNetwork;
+import static com.sensorbite.evacroute.domain.service.search.SearchTestNetworks.withRandomHazards;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("HubLabelSearch")
+class HubLabelSearchTest {
+
+    private final DijkstraSearch dijkstra = new DijkstraSearch();
+
+    @Nested
+    @DisplayName("Distance queries")
+    class DistanceTests {
+
+        @Test
+        @DisplayName("should match Dijkstra cost and path length on networks with one-way streets and hazards")
+        void shouldMatchDijkstra() {
+            Random random = new Random(23);
+            RoadNetwork network = withRandomHazards(gridNetwork(20, 20, random), random, 1L);
+            HubLabelSearch search = new HubLabelSearch();
+            CompactGraph graph = network.getCompactGraph();
+
+            for (int i = 0; i < 150; i++) {
+                int source = random.nextInt(graph.nodeCount());
+                int target = random.nextInt(graph.nodeCount());
+
+                PathResult expected = dijkstra.findPath(network, source, target);
+                PathDistance actual = search.distance(network, source, target);
+
+                assertThat(actual.found()).isEqualTo(expected.found());
+                if (!expected.found()) {
+                    continue;
+                }
+                double expectedLength = 0.0;
+                boolean expectedHazards = false;
+                for (int edge : expected.edgePath()) {
+                    expectedLength += graph.edgeWeight(edge);
+                    expectedHazards |= network.getHazards().isHazardous(graph.edgeSegment(edge));
+                }
+                assertThat(actual.cost()).isCloseTo(expected.cost(), within(1e-6));
+                assertThat(actual.lengthMeters()).isCloseTo(expectedLength, within(1e-6));
+                assertThat(actual.crossesHazards()).isEqualTo(expectedHazards);
+            }
+        }
+
+        @Test
+        @DisplayName("should unpack label paths to compact graph edges")
+        void shouldUnpackPaths() {
+            Random random = new Random(6);
+            RoadNetwork network = withRandomHazards(gridNetwork(15, 15, random), random, 1L);
+            HubLabelSearch search = new HubLabelSearch();
+            CompactGraph graph = network.getCompactGraph();
+
+            for (int i = 0; i < 50; i++) {
+                int source = random.nextInt(graph.nodeCount());
+                int target = random.nextInt(graph.nodeCount());
+                PathResult expected = dijkstra.findPath(network, source, target);
+                PathResult actual = search.findPath(network, source, target);
+                if (!expected.found()) {
+                    assertThat(actual.found()).isFalse();
+                    continue;
+                }
+
+                int node = source;
+                double cost = 0.0;
+                for (int edge : actual.edgePath()) {
+                    assertThat(graph.edgeSource(edge)).isEqualTo(node);
+                    cost += EdgeCosts.cost(graph, network.getHazards(), edge);
+                    node = graph.edgeTarget(edge);
+                }
+                assertThat(node).isEqualTo(target);
+                assertThat(cost).isCloseTo(expected.cost(), within(1e-6));
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Distance tables")
+    class DistanceTableTests {
+
+        @Test
+        @DisplayName("should match point-to-point Dijkstra for every pair")
+        void shouldMatchPointToPointDijkstra() {
+            Random random = new Random(31);
+            RoadNetwork network = withRandomHazards(gridNetwork(15, 15, random), random, 1L);
+            int nodeCount = network.getCompactGraph().nodeCount();
+            int[] sources = random.ints(40, 0, nodeCount).toArray();
+            int[] targets = random.ints(12, 0, nodeCount).toArray();
+            targets[0] = sources[0];
+
+            DistanceTable labelled = new HubLabelSearch().distances(network, sources, targets);
+            DistanceTable searched = dijkstra.distances(network, sources, targets);
+
+            for (int row = 0; row < sources.length; row++) {
+                for (int column = 0; column < targets.length; column++) {
+                    PathResult expected = dijkstra.findPath(network, sources[row], targets[column]);
+                    assertThat(labelled.get(row, column).found()).isEqualTo(expected.found());
+                    assertThat(searched.get(row, column).found()).isEqualTo(expected.found());
+                    if (expected.found()) {
+                        assertThat(labelled.get(row, column).cost()).isCloseTo(expected.cost(), within(1e-6));
+                        assertThat(searched.get(row, column).cost()).isCloseTo(expected.cost(), within(1e-6));
+                        assertThat(labelled.get(row, column).lengthMeters())
+                                .isCloseTo(searched.get(row, column).lengthMeters(), within(1e-6));
+                    }
+                }
+            }
+            assertThat(labelled.get(0, 0).cost()).isZero();
+        }
+
+        @Test
+        @DisplayName("should answer with one-to-many searches until labels are built")
+        void shouldFallBackWhileLabelling() {
+            Queue<Runnable> pending = new ArrayDeque<>();
+            HubLabelSearch search = new HubLabelSearch(new CustomizableContractionHierarchySearch(), pending::add);
+            RoadNetwork network = gridNetwork(8, 8, new Random(4));
+            int[] sources = {0, 5, 17};
+            int[] targets = {63, 40};
+
+            DistanceTable table = search.distances(network, sources, targets);
+
+            assertThat(search.labelsFor(network)).isNull();
+            for (int row = 0; row < sources.length; row++) {
+                for (int column = 0; column < targets.length; column++) {
+                    PathResult expected = dijkstra.findPath(network, sources[row], targets[column]);
+                    assertThat(table.get(row, column).found()).isEqualTo(expected.found());
+                    if (expected.found()) {
+                        assertThat(table.get(row, column).cost()).isCloseTo(expected.cost(), within(1e-6));
+                    }
+                }
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Hazard overlay changes")
+    class OverlayChangeTests {
+
+        @Test
+        @DisplayName("should label from the metric shared with the hierarchy search")
+        void shouldShareCustomizedMetric() {
+            CustomizableContractionHierarchySearch hierarchySearch = new CustomizableContractionHierarchySearch();
+            HubLabelSearch search = new HubLabelSearch(hierarchySearch, Runnable::run);
+            RoadNetwork network = gridNetwork(10, 10, new Random(2));
+
+            search.distance(network, 0, 99);
+
+            assertThat(search.labelsFor(network)).isNotNull();
+            assertThat(hierarchySearch.metricFor(network)).isNotNull();
+        }
+
+        @Test
+        @DisplayName("should answer from the hierarchy search until labels for a new overlay are built")
+        void shouldFallBackWhileLabelling() {
+            Queue<Runnable> pending = new ArrayDeque<>();
+            HubLabelSearch search = new HubLabelSearch(new CustomizableContractionHierarchySearch(), pending::add);
+            Random random = new Random(12);
+            RoadNetwork network = gridNetwork(12, 12, random);
+            RoadNetwork flooded = withRandomHazards(network, random, 2L);
+            int target = network.getCompactGraph().nodeCount() - 1;
+            double floodedCost = dijkstra.findPath(flooded, 0, target).cost();
+
+            assertThat(search.distance(flooded, 0, target).cost()).isCloseTo(floodedCost, within(1e-6));
+            assertThat(search.labelsFor(flooded)).isNull();
+            assertThat(pending).hasSize(1);
+            pending.poll().run();
+
+            assertThat(search.labelsFor(flooded)).isNotNull();
+            assertThat(search.distance(flooded, 0, target).cost()).isCloseTo(floodedCost, within(1e-6));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("IndexedMinHeap")
+class IndexedMinHeapTest {
+
+    @Test
+    @DisplayName("should poll nodes in key order")
+    void shouldPollNodesInKeyOrder() {
+        IndexedMinHeap heap = new IndexedMinHeap(10);
+        heap.insertOrDecrease(3, 30.0);
+        heap.insertOrDecrease(1, 10.0);
+        heap.insertOrDecrease(7, 70.0);
+        heap.insertOrDecrease(5, 50.0);
+        heap.insertOrDecrease(0, 0.5);
+
+        List<Integer> order = new ArrayList<>();
+        while (!heap.isEmpty()) {
+            order.add(heap.poll());
+        }
+
+        assertThat(order).containsExactly(0, 1, 3, 5, 7);
+    }
+
+    @Test
+    @DisplayName("should keep one entry per node and apply decrease-key")
+    void shouldApplyDecreaseKey() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.insertOrDecrease(0, 10.0);
+        heap.insertOrDecrease(1, 20.0);
+        heap.insertOrDecrease(2, 30.0);
+
+        heap.insertOrDecrease(2, 5.0);
+        heap.insertOrDecrease(0, 50.0);
+
+        assertThat(heap.size()).isEqualTo(3);
+        assertThat(heap.peekKey()).isEqualTo(5.0);
+        assertThat(heap.poll()).isEqualTo(2);
+        assertThat(heap.poll()).isEqualTo(0);
+        assertThat(heap.poll()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should forget queued nodes on clear")
+    void shouldForgetQueuedNodesOnClear() {
+        IndexedMinHeap heap = new IndexedMinHeap(4);
+        heap.insertOrDecrease(0, 1.0);
+        heap.insertOrDecrease(3, 2.0);
+
+        heap.clear();
+
+        assertThat(heap.isEmpty()).isTrue();
+        assertThat(heap.contains(0)).isFalse();
+        assertThat(heap.contains(3)).isFalse();
+        heap.insertOrDecrease(3, 9.0);
+        assertThat(heap.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("should match sorted order for random keys and decreases")
+    void shouldMatchSortedOrderForRandomKeys() {
+        Random random = new Random(42);
+        int nodes = 2_000;
+        IndexedMinHeap heap = new IndexedMinHeap(16);
+        heap.ensureCapacity(nodes);
+        double[] keys = new double[nodes];
+        for (int node = 0; node < nodes; node++) {
+            keys[node] = random.nextDouble() * 1_000;
+            heap.insertOrDecrease(node, keys[node]);
+        }
+        for (int i = 0; i < nodes; i++) {
+            int node = random.nextInt(nodes);
+            keys[node] = Math.min(keys[node], random.nextDouble() * 1_000);
+            heap.insertOrDecrease(node, keys[node]);
+        }
+
+        double previous = Double.NEGATIVE_INFINITY;
+        int polled = 0;
+        while (!heap.isEmpty()) {
+            double key = heap.peekKey();
+            int node = heap.poll();
+            assertThat(key).isEqualTo(keys[node]).isGreaterThanOrEqualTo(previous);
+            previous = key;
+            polled++;
+        }
+        assertThat(polled).isEqualTo(nodes);
+    }
+}
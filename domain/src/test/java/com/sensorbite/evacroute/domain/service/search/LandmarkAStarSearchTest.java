@@ -0,0 +1,184 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.LandmarkDistances;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import com.sensorbite.evacroute.domain.model.RoadSegment;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Queue;
+import java.util.Random;
+
+import static com.sensorbite.evacroute.domain.service.search.SearchTestNetworks.gridNetwork;
+import static com.sensorbite.evacroute.domain.service.search.SearchTestNetworks.withRandomHazards;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("LandmarkAStarSearch")
+class LandmarkAStarSearchTest {
+
+    private final DijkstraSearch dijkstra = new DijkstraSearch();
+
+    @Nested
+    @DisplayName("Landmark distances")
+    class LandmarkDistanceTests {
+
+        @Test
+        @DisplayName("should pick distinct landmarks on the periphery")
+        void shouldPickPeripheralLandmarks() {
+            RoadNetwork network = gridNetwork(20, 20, new Random(1));
+            CompactGraph graph = network.getCompactGraph();
+
+            LandmarkDistances landmarks = LandmarkPreprocessor.compute(graph, 4);
+
+            assertThat(landmarks.landmarkCount()).isEqualTo(4);
+            for (int i = 0; i < landmarks.landmarkCount(); i++) {
+                Coordinate landmark = graph.coordinate(landmarks.landmark(i));
+                boolean onBorder = landmark.latitude() < 52.0005 || landmark.latitude() > 52.0185
+                        || landmark.longitude() < 21.0005 || landmark.longitude() > 21.028;
+                assertThat(onBorder).isTrue();
+            }
+        }
+
+        @Test
+        @DisplayName("should never exceed the shortest path cost, with or without hazards")
+        void shouldBeLowerBound() {
+            Random random = new Random(5);
+            RoadNetwork network = gridNetwork(15, 15, random);
+            RoadNetwork flooded = withRandomHazards(network, random);
+            LandmarkDistances landmarks = LandmarkPreprocessor.compute(network.getCompactGraph(), 6);
+            int nodeCount = network.getCompactGraph().nodeCount();
+
+            for (int i = 0; i < 200; i++) {
+                int source = random.nextInt(nodeCount);
+                int target = random.nextInt(nodeCount);
+                double bound = landmarks.lowerBound(source, target);
+
+                assertThat(bound).isLessThanOrEqualTo(dijkstra.findPath(network, source, target).cost());
+                assertThat(bound).isLessThanOrEqualTo(dijkstra.findPath(flooded, source, target).cost());
+            }
+        }
+
+        @Test
+        @DisplayName("should rebuild identical bounds from stored distances and reject mismatched arrays")
+        void shouldRestoreFromArrays() {
+            CompactGraph graph = gridNetwork(10, 10, new Random(9)).getCompactGraph();
+            LandmarkDistances computed = LandmarkPreprocessor.compute(graph, 3);
+            int count = computed.landmarkCount();
+            int[] landmarks = new int[count];
+            float[] fromLandmark = new float[graph.nodeCount() * count];
+            float[] toLandmark = new float[graph.nodeCount() * count];
+            for (int i = 0; i < count; i++) {
+                landmarks[i] = computed.landmark(i);
+                for (int node = 0; node < graph.nodeCount(); node++) {
+                    fromLandmark[node * count + i] = computed.fromLandmark(node, i);
+                    toLandmark[node * count + i] = computed.toLandmark(node, i);
+                }
+            }
+
+            LandmarkDistances restored = LandmarkDistances.of(graph, landmarks, fromLandmark, toLandmark);
+
+            assertThat(restored.isComputedFor(graph)).isTrue();
+            for (int node = 0; node < graph.nodeCount(); node++) {
+                assertThat(restored.lowerBound(node, 0)).isEqualTo(computed.lowerBound(node, 0));
+            }
+            assertThatThrownBy(() -> LandmarkDistances.of(graph, landmarks, fromLandmark, new float[1]))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> LandmarkDistances.of(graph, new int[]{0, 1, graph.nodeCount()},
+                    fromLandmark, toLandmark)).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+
+    @Nested
+    @DisplayName("Queries")
+    class QueryTests {
+
+        @Test
+        @DisplayName("should match Dijkstra on networks with one-way streets and hazards")
+        void shouldMatchDijkstra() {
+            Random random = new Random(17);
+            RoadNetwork network = withRandomHazards(gridNetwork(20, 20, random), random);
+            LandmarkAStarSearch search = new LandmarkAStarSearch();
+            int nodeCount = network.getCompactGraph().nodeCount();
+
+            for (int i = 0; i < 80; i++) {
+                int source = random.nextInt(nodeCount);
+                int target = random.nextInt(nodeCount);
+
+                PathResult expected = dijkstra.findPath(network, source, target);
+                PathResult actual = search.findPath(network, source, target);
+
+                assertThat(actual.found()).isEqualTo(expected.found());
+                if (expected.found()) {
+                    assertThat(actual.cost()).isCloseTo(expected.cost(), within(1e-6));
+                }
+            }
+        }
+
+        @Test
+        @DisplayName("should settle fewer nodes than plain A* around a flooded area")
+        void shouldSettleFewerNodesThanAStar() {
+            Random random = new Random(2);
+            RoadNetwork network = gridNetwork(30, 30, random);
+            BitSet hazardous = new BitSet();
+            for (int segment = 0; segment < network.getSegmentCount(); segment++) {
+                RoadSegment road = network.segmentAt(segment);
+                Coordinate start = road.getCoordinates().get(0);
+                if (start.longitude() > 21.018 && start.longitude() < 21.024 && start.latitude() < 52.025) {
+                    hazardous.set(segment);
+                }
+            }
+            RoadNetwork flooded = network.withHazards(HazardOverlay.of(network.getSegmentCount(), hazardous, 1L));
+            int source = flooded.findNearestNodeIndex(new Coordinate(52.0, 21.0));
+            int target = flooded.findNearestNodeIndex(new Coordinate(52.0, 21.0435));
+
+            PathResult plain = new AStarSearch().findPath(flooded, source, target);
+            PathResult landmarks = new LandmarkAStarSearch().findPath(flooded, source, target);
+
+            assertThat(landmarks.cost()).isCloseTo(plain.cost(), within(1e-6));
+            assertThat(landmarks.settledNodes()).isLessThan(plain.settledNodes());
+        }
+
+        @Test
+        @DisplayName("should use the great-circle bound until landmark distances are computed")
+        void shouldFallBackWhileComputing() {
+            Queue<Runnable> pending = new ArrayDeque<>();
+            LandmarkAStarSearch search = new LandmarkAStarSearch(pending::add, 4);
+            RoadNetwork network = gridNetwork(12, 12, new Random(3));
+            int target = network.getCompactGraph().nodeCount() - 1;
+            double expected = dijkstra.findPath(network, 0, target).cost();
+
+            assertThat(search.findPath(network, 0, target).cost()).isCloseTo(expected, within(1e-6));
+            assertThat(search.landmarksFor(network.getCompactGraph())).isNull();
+            assertThat(pending).hasSize(1);
+            pending.poll().run();
+
+            assertThat(search.landmarksFor(network.getCompactGraph())).isNotNull();
+            assertThat(search.findPath(network, 0, target).cost()).isCloseTo(expected, within(1e-6));
+            assertThat(pending).isEmpty();
+        }
+
+        @Test
+        @DisplayName("should use landmark distances carried by the network without computing them")
+        void shouldUseLandmarksCarriedByNetwork() {
+            Queue<Runnable> pending = new ArrayDeque<>();
+            LandmarkAStarSearch search = new LandmarkAStarSearch(pending::add, 4);
+            RoadNetwork base = gridNetwork(12, 12, new Random(4));
+            LandmarkDistances landmarks = LandmarkPreprocessor.compute(base.getCompactGraph(), 4);
+            RoadNetwork network = withRandomHazards(base.withLandmarks(landmarks), new Random(5));
+            int target = network.getCompactGraph().nodeCount() - 1;
+
+            assertThat(network.getLandmarks()).isSameAs(landmarks);
+            assertThat(search.findPath(network, 0, target).cost())
+                    .isCloseTo(dijkstra.findPath(network, 0, target).cost(), within(1e-6));
+            assertThat(pending).isEmpty();
+        }
+    }
+}
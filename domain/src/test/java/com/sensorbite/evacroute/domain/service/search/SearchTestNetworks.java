@@ -0,0 +1,71 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.HazardOverlay;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import com.sensorbite.evacroute.domain.model.RoadSegment;
+import com.sensorbite.evacroute.domain.service.GraphBuilder;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+/** Random grid networks and hazard overlays shared by the search tests. */
+final class SearchTestNetworks {
+
+    private SearchTestNetworks() {
+    }
+
+    /** Creates the segment joining two neighbouring grid nodes. */
+    @FunctionalInterface
+    interface SegmentFactory {
+        RoadSegment create(String id, Coordinate from, Coordinate to);
+    }
+
+    /** Grid of two-way segments, about one in five flagged hazardous in the source data. */
+    static RoadNetwork gridNetwork(int rows, int cols, Random random) {
+        return gridNetwork(rows, cols,
+                (id, from, to) -> new RoadSegment(id, List.of(from, to), random.nextInt(5) == 0));
+    }
+
+    /**
+     * Grid of {@code rows} x {@code cols} nodes 0.001 degrees of latitude and 0.0015
+     * degrees of longitude apart, joined by horizontal ({@code h<row>_<col>}) and
+     * vertical ({@code v<row>_<col>}) segments.
+     */
+    static RoadNetwork gridNetwork(int rows, int cols, SegmentFactory factory) {
+        List<RoadSegment> segments = new ArrayList<>();
+        for (int r = 0; r < rows; r++) {
+            for (int c = 0; c < cols; c++) {
+                Coordinate here = node(r, c);
+                if (c + 1 < cols) {
+                    segments.add(factory.create("h" + r + "_" + c, here, node(r, c + 1)));
+                }
+                if (r + 1 < rows) {
+                    segments.add(factory.create("v" + r + "_" + c, here, node(r + 1, c)));
+                }
+            }
+        }
+        return new RoadNetwork(segments, new GraphBuilder().buildGraph(segments));
+    }
+
+    /** Hazard view of a network with about one segment in six hazardous, stamped version 1. */
+    static RoadNetwork withRandomHazards(RoadNetwork network, Random random) {
+        return withRandomHazards(network, random, 1L);
+    }
+
+    static RoadNetwork withRandomHazards(RoadNetwork network, Random random, long version) {
+        BitSet hazardous = new BitSet();
+        for (int segment = 0; segment < network.getSegmentCount(); segment++) {
+            if (random.nextInt(6) == 0) {
+                hazardous.set(segment);
+            }
+        }
+        return network.withHazards(HazardOverlay.of(network.getSegmentCount(), hazardous, version));
+    }
+
+    private static Coordinate node(int row, int col) {
+        return new Coordinate(52.0 + row * 0.001, 21.0 + col * 0.0015);
+    }
+}
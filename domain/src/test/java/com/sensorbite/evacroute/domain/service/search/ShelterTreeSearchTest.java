@@ -0,0 +1,105 @@
+package com.sensorbite.evacroute.domain.service.search;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.BitSet;
+import java.util.Queue;
+import java.util.Random;
+
+import static com.sensorbite.evacroute.domain.service.search.SearchTestNetworks.gridNetwork;
+import static com.sensorbite.evacroute.domain.service.search.SearchTestNetworks.withRandomHazards;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("ShelterTreeSearch")
+class ShelterTreeSearchTest {
+
+    private final DijkstraSearch dijkstra = new DijkstraSearch();
+
+    @Nested
+    @DisplayName("Tree queries")
+    class TreeQueryTests {
+
+        @Test
+        @DisplayName("should match multi-target Dijkstra from every node")
+        void shouldMatchMultiTargetDijkstra() {
+            Random random = new Random(19);
+            RoadNetwork network = withRandomHazards(gridNetwork(12, 12, random), random, 1L);
+            CompactGraph graph = network.getCompactGraph();
+            BitSet shelters = new BitSet();
+            random.ints(4, 0, graph.nodeCount()).forEach(shelters::set);
+            ShelterTreeSearch search = new ShelterTreeSearch();
+
+            for (int source = 0; source < graph.nodeCount(); source++) {
+                PathResult expected = dijkstra.findPathToNearest(network, source, shelters);
+                PathResult actual = search.findPathToNearest(network, source, shelters);
+
+                assertThat(actual.found()).isEqualTo(expected.found());
+                if (!expected.found()) {
+                    continue;
+                }
+                assertThat(actual.cost()).isCloseTo(expected.cost(), within(1e-6));
+                assertThat(actual.settledNodes()).isZero();
+                int node = source;
+                for (int edge : actual.edgePath()) {
+                    assertThat(graph.edgeSource(edge)).isEqualTo(node);
+                    node = graph.edgeTarget(edge);
+                }
+                assertThat(shelters.get(node)).isTrue();
+            }
+        }
+    }
+
+    @Nested
+    @DisplayName("Rebuilds")
+    class RebuildTests {
+
+        @Test
+        @DisplayName("should search until the tree for a new overlay is built")
+        void shouldFallBackWhileBuilding() {
+            Queue<Runnable> pending = new ArrayDeque<>();
+            ShelterTreeSearch search = new ShelterTreeSearch(pending::add);
+            Random random = new Random(5);
+            RoadNetwork network = gridNetwork(8, 8, random);
+            BitSet shelters = new BitSet();
+            shelters.set(63);
+
+            PathResult searched = search.findPathToNearest(network, 0, shelters);
+            assertThat(searched.settledNodes()).isPositive();
+            assertThat(pending).hasSize(1);
+            pending.poll().run();
+            assertThat(search.findPathToNearest(network, 0, shelters).settledNodes()).isZero();
+
+            RoadNetwork flooded = withRandomHazards(network, random, 2L);
+            double floodedCost = dijkstra.findPathToNearest(flooded, 0, shelters).cost();
+            assertThat(search.findPathToNearest(flooded, 0, shelters).cost()).isCloseTo(floodedCost, within(1e-6));
+            assertThat(search.treeFor(flooded, shelters)).isNull();
+            pending.poll().run();
+            assertThat(search.treeFor(flooded, shelters)).isNotNull();
+            assertThat(search.findPathToNearest(flooded, 0, shelters).cost()).isCloseTo(floodedCost, within(1e-6));
+        }
+
+        @Test
+        @DisplayName("should rebuild when the shelter set changes")
+        void shouldRebuildForNewShelters() {
+            ShelterTreeSearch search = new ShelterTreeSearch();
+            RoadNetwork network = gridNetwork(6, 6, new Random(8));
+            BitSet first = new BitSet();
+            first.set(35);
+            BitSet second = new BitSet();
+            second.set(5);
+
+            ShelterTree firstTree = search.treeFor(network, first);
+            ShelterTree secondTree = search.treeFor(network, second);
+
+            assertThat(secondTree).isNotSameAs(firstTree);
+            assertThat(secondTree.cost(5)).isZero();
+            assertThat(secondTree.isBuiltFor(network.getCompactGraph(), network.getHazards(), first)).isFalse();
+        }
+    }
+}
@@ -1,7 +1,12 @@
 package com.sensorbite.evacroute.infrastructure.adapter.in.rest;
 
+import com.sensorbite.evacroute.application.dto.DistanceMatrixRequest;
+import com.sensorbite.evacroute.application.dto.DistanceMatrixResponse;
+import com.sensorbite.evacroute.application.dto.DistanceResponse;
+import com.sensorbite.evacroute.application.dto.ReachabilityResponse;
 import com.sensorbite.evacroute.application.dto.RouteRequest;
 import com.sensorbite.evacroute.application.dto.RouteResponse;
+import com.sensorbite.evacroute.application.dto.ShelterRouteResponse;
 import com.sensorbite.evacroute.application.service.RouteApplicationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -16,6 +21,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
@@ -58,10 +65,127 @@ public class RouteController {
         @NotBlank(message = "End coordinate is required")
         @Pattern(regexp = "^\\s*-?\\d+(\\.\\d+)?\\s*,\\s*-?\\d+(\\.\\d+)?\\s*$",
                  message = "Invalid coordinate format. Expected: 'lat,lon' (e.g., '52.2400,21.0250')")
-        String end
+        String end,
+
+        @Parameter(description = "Search algorithm (dijkstra, astar, alt, bidirectional, ch, cch, " +
+                                 "hl if hub labels are enabled); defaults to the configured algorithm",
+                   example = "astar")
+        @RequestParam(required = false)
+        String algorithm
     ) {
-        log.info("GET /api/evac/route?start={}&end={}", start, end);
-        RouteRequest request = new RouteRequest(start, end);
+        log.info("GET /api/evac/route?start={}&end={}&algorithm={}", start, end, algorithm);
+        RouteRequest request = new RouteRequest(start, end, algorithm);
         return routeApplicationService.calculateRoute(request);
     }
+
+    @GetMapping("/nearest-shelter")
+    @Operation(
+        summary = "Calculate evacuation route to the nearest shelter",
+        description = "Calculates the safest route from a start point to whichever registered shelter " +
+                     "is cheapest to reach, in a single search. " +
+                     "Coordinates should be in lat,lon format (e.g., 52.2297,21.0122). " +
+                     "Returns the chosen shelter and a GeoJSON Feature with LineString geometry."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Route to the nearest shelter successfully calculated",
+        content = @Content(schema = @Schema(implementation = ShelterRouteResponse.class))
+    )
+    @ApiResponse(responseCode = "400", description = "Invalid coordinates")
+    @ApiResponse(responseCode = "404", description = "No shelter reachable")
+    public ShelterRouteResponse findRouteToNearestShelter(
+        @Parameter(description = "Start coordinate (latitude,longitude)", example = "52.2297,21.0122")
+        @RequestParam
+        @NotBlank(message = "Start coordinate is required")
+        @Pattern(regexp = "^\\s*-?\\d+(\\.\\d+)?\\s*,\\s*-?\\d+(\\.\\d+)?\\s*$",
+                 message = "Invalid coordinate format. Expected: 'lat,lon' (e.g., '52.2297,21.0122')")
+        String start
+    ) {
+        log.debug("GET /api/evac/nearest-shelter?start={}", start);
+        return routeApplicationService.findRouteToNearestShelter(start);
+    }
+
+    @GetMapping("/isochrone")
+    @Operation(
+        summary = "Calculate reachable roads",
+        description = "Returns the roads reachable from a start point within a distance along the roads " +
+                     "without entering a flood zone. Roads only partly within the distance are cut where it " +
+                     "runs out. Coordinates should be in lat,lon format (e.g., 52.2297,21.0122). " +
+                     "Returns GeoJSON Feature with MultiLineString geometry."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Reachable roads successfully calculated",
+        content = @Content(schema = @Schema(implementation = ReachabilityResponse.class))
+    )
+    @ApiResponse(responseCode = "400", description = "Invalid coordinates or distance")
+    @ApiResponse(responseCode = "404", description = "No road network near start coordinate")
+    public ReachabilityResponse calculateReachability(
+        @Parameter(description = "Start coordinate (latitude,longitude)", example = "52.2297,21.0122")
+        @RequestParam
+        @NotBlank(message = "Start coordinate is required")
+        @Pattern(regexp = "^\\s*-?\\d+(\\.\\d+)?\\s*,\\s*-?\\d+(\\.\\d+)?\\s*$",
+                 message = "Invalid coordinate format. Expected: 'lat,lon' (e.g., '52.2297,21.0122')")
+        String start,
+
+        @Parameter(description = "Distance budget along the roads in meters (at most 20000)", example = "1500")
+        @RequestParam
+        double maxDistanceMeters
+    ) {
+        log.debug("GET /api/evac/isochrone?start={}&maxDistanceMeters={}", start, maxDistanceMeters);
+        return routeApplicationService.calculateReachability(start, maxDistanceMeters);
+    }
+
+    @GetMapping("/distance")
+    @Operation(
+        summary = "Calculate evacuation distance",
+        description = "Returns the length of the safest route between two points without its geometry. " +
+                     "Answered from precomputed hub labels when they are enabled, " +
+                     "so it suits bulk lookups such as dashboards. " +
+                     "Coordinates should be in lat,lon format (e.g., 52.2297,21.0122)."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Distance successfully calculated",
+        content = @Content(schema = @Schema(implementation = DistanceResponse.class))
+    )
+    @ApiResponse(responseCode = "400", description = "Invalid coordinates")
+    @ApiResponse(responseCode = "404", description = "No route available")
+    public DistanceResponse calculateDistance(
+        @Parameter(description = "Start coordinate (latitude,longitude)", example = "52.2297,21.0122")
+        @RequestParam
+        @NotBlank(message = "Start coordinate is required")
+        @Pattern(regexp = "^\\s*-?\\d+(\\.\\d+)?\\s*,\\s*-?\\d+(\\.\\d+)?\\s*$",
+                 message = "Invalid coordinate format. Expected: 'lat,lon' (e.g., '52.2297,21.0122')")
+        String start,
+
+        @Parameter(description = "End coordinate (latitude,longitude)", example = "52.2400,21.0250")
+        @RequestParam
+        @NotBlank(message = "End coordinate is required")
+        @Pattern(regexp = "^\\s*-?\\d+(\\.\\d+)?\\s*,\\s*-?\\d+(\\.\\d+)?\\s*$",
+                 message = "Invalid coordinate format. Expected: 'lat,lon' (e.g., '52.2400,21.0250')")
+        String end
+    ) {
+        log.debug("GET /api/evac/distance?start={}&end={}", start, end);
+        return routeApplicationService.calculateDistance(new RouteRequest(start, end));
+    }
+
+    @PostMapping("/matrix")
+    @Operation(
+        summary = "Calculate evacuation distance matrix",
+        description = "Returns route lengths from every source to every target in one many-to-many query, " +
+                     "e.g. from residential blocks to shelters. Rows follow the sources and columns the targets; " +
+                     "unreachable pairs are null. Coordinates should be in lat,lon format (e.g., 52.2297,21.0122)."
+    )
+    @ApiResponse(
+        responseCode = "200",
+        description = "Distance matrix successfully calculated",
+        content = @Content(schema = @Schema(implementation = DistanceMatrixResponse.class))
+    )
+    @ApiResponse(responseCode = "400", description = "Invalid coordinates or matrix too large")
+    public DistanceMatrixResponse calculateDistanceMatrix(@Valid @RequestBody DistanceMatrixRequest request) {
+        log.debug("POST /api/evac/matrix with {} sources and {} targets",
+                request.sources().size(), request.targets().size());
+        return routeApplicationService.calculateDistanceMatrix(request);
+    }
 }
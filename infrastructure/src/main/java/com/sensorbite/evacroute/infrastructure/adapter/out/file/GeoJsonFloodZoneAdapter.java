@@ -3,6 +3,8 @@ package com.sensorbite.evacroute.infrastructure.adapter.out.file;
 import com.sensorbite.evacroute.domain.model.Coordinate;
 import com.sensorbite.evacroute.domain.model.FloodZone;
 import com.sensorbite.evacroute.domain.port.out.FloodZoneRepository;
+import com.sensorbite.evacroute.io.GeoJsonProperty;
+import com.sensorbite.evacroute.io.GeometryType;
 import lombok.extern.slf4j.Slf4j;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.geojson.feature.FeatureJSON;
@@ -1,29 +1,42 @@
 package com.sensorbite.evacroute.infrastructure.adapter.out.file;
 
-import com.sensorbite.evacroute.domain.model.Coordinate;
-import com.sensorbite.evacroute.domain.model.Graph;
+import com.sensorbite.evacroute.domain.model.CompactGraph;
 import com.sensorbite.evacroute.domain.model.RoadNetwork;
 import com.sensorbite.evacroute.domain.model.RoadSegment;
 import com.sensorbite.evacroute.domain.port.out.RoadNetworkRepository;
 import com.sensorbite.evacroute.domain.service.GraphBuilder;
+import com.sensorbite.evacroute.io.GeoJsonRoadSegmentReader;
+import com.sensorbite.evacroute.io.RoadNetworkSnapshotFile;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.geotools.api.feature.simple.SimpleFeature;
-import org.geotools.geojson.feature.FeatureJSON;
-import org.geotools.feature.FeatureCollection;
-import org.geotools.feature.FeatureIterator;
-import org.locationtech.jts.geom.Geometry;
-import org.locationtech.jts.geom.LineString;
-import org.locationtech.jts.geom.MultiLineString;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.file.Path;
 import java.util.List;
 import java.util.Optional;
 
+/**
+ * Loads the road network from a GeoJSON FeatureCollection of LineString and
+ * MultiLineString features.
+ *
+ * <p>Features are parsed in parallel straight from the memory-mapped file into
+ * road segments, and the compact graph is built from them without the
+ * adjacency-list graph, so large extracts load without holding the parsed
+ * document or a second copy of the network in memory. Segment order, and with
+ * it node and edge numbering, is the file order whatever the core count.</p>
+ *
+ * <p>When a snapshot path is configured, the parsed network is also written as
+ * a {@link RoadNetworkSnapshotFile}, and later loads read that snapshot instead
+ * of the GeoJSON file for as long as the GeoJSON file is unchanged. A snapshot
+ * compiled offline by {@code GraphCompiler} is used the same way, and may be
+ * deployed without its GeoJSON file; landmark distances compiled into it are
+ * returned with the network. A compiled snapshot is never overwritten: if the
+ * GeoJSON file no longer matches it, the network is parsed from GeoJSON on
+ * every start until the snapshot is compiled again.</p>
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -32,7 +45,12 @@ public class GeoJsonRoadNetworkAdapter implements RoadNetworkRepository {
     @Value("${routing.data.road-network-path}")
     private String roadNetworkPath;
 
+    @Value("${routing.data.road-network-snapshot-path:}")
+    private String roadNetworkSnapshotPath;
+
     private final GraphBuilder graphBuilder;
+    private final GeoJsonRoadSegmentReader segmentReader = new GeoJsonRoadSegmentReader();
+    private final RoadNetworkSnapshotFile snapshotFile = new RoadNetworkSnapshotFile();
 
     @Override
     public RoadNetwork load() {
@@ -41,78 +59,72 @@ public class GeoJsonRoadNetworkAdapter implements RoadNetworkRepository {
 
         try {
             File file = new File(roadNetworkPath);
-            if (!file.exists()) {
-                throw new IllegalStateException("Road network file not found: " + roadNetworkPath);
+            RoadNetworkSnapshotFile.Source source = file.exists()
+                    ? RoadNetworkSnapshotFile.Source.of(file.toPath())
+                    : null;
+
+            Optional<RoadNetwork> snapshot = readSnapshot(source);
+            if (snapshot.isPresent()) {
+                CompactGraph graph = snapshot.get().getCompactGraph();
+                log.info("[DATA_LOAD] Loaded {} segments, {} nodes, {} edges from snapshot {} in {} ms",
+                        snapshot.get().getSegmentCount(), graph.nodeCount(), graph.edgeCount(),
+                        roadNetworkSnapshotPath, System.currentTimeMillis() - startTime);
+                return snapshot.get();
             }
-
-            FeatureJSON featureJSON = new FeatureJSON();
-            FeatureCollection<?, ?> features = featureJSON.readFeatureCollection(file);
-
-            List<RoadSegment> segments = new ArrayList<>();
-            try (FeatureIterator<?> iterator = features.features()) {
-                while (iterator.hasNext()) {
-                    SimpleFeature feature = (SimpleFeature) iterator.next();
-                    segments.addAll(parseFeature(feature));
-                }
+            if (source == null) {
+                throw new IllegalStateException("Road network file not found: " + roadNetworkPath);
             }
 
+            List<RoadSegment> segments = segmentReader.readAll(file.toPath());
             if (segments.isEmpty()) {
                 throw new IllegalStateException("No valid road segments found in: " + roadNetworkPath);
             }
 
-            Graph graph = graphBuilder.buildGraph(segments);
+            CompactGraph graph = graphBuilder.buildCompactGraph(segments);
             RoadNetwork network = new RoadNetwork(segments, graph);
 
             long duration = System.currentTimeMillis() - startTime;
             log.info("[DATA_LOAD] Loaded {} segments, {} nodes, {} edges in {} ms",
-                    segments.size(), graph.getNodeCount(), graph.getEdgeCount(), duration);
+                    segments.size(), graph.nodeCount(), graph.edgeCount(), duration);
 
+            writeSnapshot(network, source);
             return network;
         } catch (IOException e) {
             throw new RuntimeException("Failed to load road network from: " + roadNetworkPath, e);
         }
     }
 
-    private List<RoadSegment> parseFeature(SimpleFeature feature) {
-        Geometry geom = (Geometry) feature.getDefaultGeometry();
-        if (geom == null) {
-            return List.of();
+    private Optional<RoadNetwork> readSnapshot(RoadNetworkSnapshotFile.Source source) {
+        if (roadNetworkSnapshotPath == null || roadNetworkSnapshotPath.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return snapshotFile.read(Path.of(roadNetworkSnapshotPath), source);
+        } catch (IOException e) {
+            log.warn("[DATA_LOAD] Ignoring unreadable road network snapshot {}: {}",
+                    roadNetworkSnapshotPath, e.getMessage());
+            return Optional.empty();
         }
-
-        String featureId = feature.getID();
-        boolean oneway = parseOneway(feature);
-
-        return switch (GeometryType.fromGeoJsonName(geom.getGeometryType())) {
-            case LINE_STRING -> List.of(parseLineString((LineString) geom, featureId, oneway));
-            case MULTI_LINE_STRING -> parseMultiLineString((MultiLineString) geom, featureId, oneway);
-            case null, default -> {
-                log.warn("Unsupported geometry type: {}", geom.getGeometryType());
-                yield List.of();
-            }
-        };
-    }
-
-    private RoadSegment parseLineString(LineString lineString, String id, boolean oneway) {
-        List<Coordinate> coordinates = java.util.Arrays.stream(lineString.getCoordinates())
-                .map(jtsCoord -> new Coordinate(jtsCoord.y, jtsCoord.x))
-                .toList();
-        return new RoadSegment(id, coordinates, oneway);
-    }
-
-    private List<RoadSegment> parseMultiLineString(MultiLineString multiLineString, String baseId, boolean oneway) {
-        return java.util.stream.IntStream.range(0, multiLineString.getNumGeometries())
-                .mapToObj(i -> {
-                    LineString lineString = (LineString) multiLineString.getGeometryN(i);
-                    String segmentId = baseId + "_" + i;
-                    return parseLineString(lineString, segmentId, oneway);
-                })
-                .toList();
     }
 
-    private boolean parseOneway(SimpleFeature feature) {
-        return Optional.ofNullable(feature.getAttribute(GeoJsonProperty.ONEWAY))
-                .map(Object::toString)
-                .map(GeoJsonProperty::parseBoolean)
-                .orElse(false);
+    private void writeSnapshot(RoadNetwork network, RoadNetworkSnapshotFile.Source source) {
+        if (roadNetworkSnapshotPath == null || roadNetworkSnapshotPath.isBlank()) {
+            return;
+        }
+        Path path = Path.of(roadNetworkSnapshotPath);
+        long startTime = System.currentTimeMillis();
+        try {
+            if (snapshotFile.isCompiled(path)) {
+                log.warn("[DATA_LOAD] Keeping compiled road network snapshot {}, built from another version of {};"
+                        + " compile it again to stop parsing GeoJSON on startup", path, roadNetworkPath);
+                return;
+            }
+            snapshotFile.write(network, source, path);
+            log.info("[DATA_LOAD] Wrote road network snapshot {} in {} ms",
+                    roadNetworkSnapshotPath, System.currentTimeMillis() - startTime);
+        } catch (IOException e) {
+            log.warn("[DATA_LOAD] Could not write road network snapshot {}: {}",
+                    roadNetworkSnapshotPath, e.getMessage());
+        }
     }
 }
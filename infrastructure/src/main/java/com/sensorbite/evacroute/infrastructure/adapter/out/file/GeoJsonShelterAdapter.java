@@ -0,0 +1,76 @@
+package com.sensorbite.evacroute.infrastructure.adapter.out.file;
+
+import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.Shelter;
+import com.sensorbite.evacroute.domain.port.out.ShelterRepository;
+import com.sensorbite.evacroute.io.GeoJsonProperty;
+import com.sensorbite.evacroute.io.GeometryType;
+import lombok.extern.slf4j.Slf4j;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.feature.FeatureCollection;
+import org.geotools.feature.FeatureIterator;
+import org.geotools.geojson.feature.FeatureJSON;
+import org.locationtech.jts.geom.Geometry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+@Slf4j
+@Component
+public class GeoJsonShelterAdapter implements ShelterRepository {
+
+    @Value("${routing.data.shelters-path}")
+    private String sheltersPath;
+
+    @Override
+    public List<Shelter> loadAll() {
+        log.info("[DATA_LOAD] Loading shelters from: {}", sheltersPath);
+        long startTime = System.currentTimeMillis();
+
+        try {
+            File file = new File(sheltersPath);
+            if (!file.exists()) {
+                log.warn("Shelters file not found: {}, assuming no shelters", sheltersPath);
+                return List.of();
+            }
+
+            FeatureJSON featureJSON = new FeatureJSON();
+            FeatureCollection<?, ?> features = featureJSON.readFeatureCollection(file);
+
+            List<Shelter> shelters = new ArrayList<>();
+            try (FeatureIterator<?> iterator = features.features()) {
+                while (iterator.hasNext()) {
+                    SimpleFeature feature = (SimpleFeature) iterator.next();
+                    parseFeature(feature).ifPresent(shelters::add);
+                }
+            }
+
+            long duration = System.currentTimeMillis() - startTime;
+            log.info("[DATA_LOAD] Loaded {} shelters in {} ms", shelters.size(), duration);
+
+            return shelters;
+        } catch (IOException e) {
+            log.error("Failed to load shelters from: {}", sheltersPath, e);
+            return List.of();
+        }
+    }
+
+    private Optional<Shelter> parseFeature(SimpleFeature feature) {
+        Geometry geom = (Geometry) feature.getDefaultGeometry();
+        if (geom == null || !GeometryType.POINT.matches(geom.getGeometryType())) {
+            return Optional.empty();
+        }
+
+        org.locationtech.jts.geom.Coordinate point = geom.getCoordinate();
+        String name = Optional.ofNullable(feature.getAttribute(GeoJsonProperty.SHELTER_NAME))
+                .map(Object::toString)
+                .orElse(null);
+
+        return Optional.of(new Shelter(feature.getID(), name, new Coordinate(point.y, point.x)));
+    }
+}
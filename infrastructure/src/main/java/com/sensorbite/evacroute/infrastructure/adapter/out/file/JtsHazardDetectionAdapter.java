@@ -5,22 +5,60 @@ import com.sensorbite.evacroute.domain.model.FloodZone;
 import com.sensorbite.evacroute.domain.model.RoadSegment;
 import com.sensorbite.evacroute.domain.port.out.HazardDetectionPort;
 import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Envelope;
 import org.locationtech.jts.geom.GeometryFactory;
 import org.locationtech.jts.geom.LineString;
 import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.prep.PreparedPolygon;
+import org.locationtech.jts.index.strtree.AbstractNode;
+import org.locationtech.jts.index.strtree.Boundable;
+import org.locationtech.jts.index.strtree.ItemBoundable;
 import org.locationtech.jts.index.strtree.STRtree;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+/**
+ * Marks road segments that intersect a flood zone polygon.
+ *
+ * <p>Flood zones are converted to JTS polygons once per distinct list of
+ * zones and kept, with an STRtree over their envelopes, until a call passes
+ * different zones. Polygons are held as {@link PreparedPolygon}s, which index
+ * their edges on first use, so testing a segment against a large, detailed
+ * outline does not rescan every edge of the outline.</p>
+ *
+ * <p>Segments are classified in parallel, in chunks. Workers share no monitor:
+ * {@link STRtree#query} runs its synchronized {@code build()} on every call, so
+ * the built tree is copied once into a read-only {@link ZoneIndex} that workers
+ * query without locking. {@link PreparedPolygon} builds its indexes lazily and
+ * serializes access to them through its own monitor, so workers do not share
+ * prepared polygons either: each chunk borrows a set of prepared polygons no
+ * other worker is using; sets are created on demand, prepare each zone on
+ * first use and are kept with the zones for later calls. The result does not
+ * depend on the number of cores.</p>
+ */
 @Slf4j
 @Component
 public class JtsHazardDetectionAdapter implements HazardDetectionPort {
 
+    /** Calls with fewer segments are classified on the calling thread. */
+    private static final int PARALLEL_SEGMENT_THRESHOLD = 4096;
+
+    /** Segments classified with one borrowed set of prepared polygons. */
+    private static final int SEGMENTS_PER_CHUNK = 1024;
+
     private final GeometryFactory geometryFactory = new GeometryFactory();
+    private final AtomicReference<PreparedZones> preparedZones = new AtomicReference<>();
 
     @Override
     public Set<String> detectHazardousSegments(Collection<RoadSegment> segments, List<FloodZone> zones) {
@@ -31,38 +69,66 @@ public class JtsHazardDetectionAdapter implements HazardDetectionPort {
 
         log.debug("Detecting hazardous segments: {} segments, {} flood zones", segments.size(), zones.size());
 
-        STRtree spatialIndex = buildSpatialIndex(zones);
-
-        Set<String> hazardousIds = segments.stream()
-                .filter(segment -> {
-                    LineString lineString = toJtsLineString(segment.getCoordinates());
+        PreparedZones prepared = prepareZones(zones);
+        List<RoadSegment> segmentList = segments instanceof List<RoadSegment> list ? list : List.copyOf(segments);
 
-                    @SuppressWarnings("unchecked")
-                    List<Integer> candidateIndices = spatialIndex.query(lineString.getEnvelopeInternal());
-
-                    return candidateIndices.stream()
-                            .anyMatch(zoneIndex -> {
-                                FloodZone zone = zones.get(zoneIndex);
-                                Polygon polygon = toJtsPolygon(zone.polygonRings());
-                                return polygon.intersects(lineString);
-                            });
-                })
-                .map(RoadSegment::getId)
-                .collect(java.util.stream.Collectors.toSet());
+        int chunkCount = (segmentList.size() + SEGMENTS_PER_CHUNK - 1) / SEGMENTS_PER_CHUNK;
+        IntStream chunks = IntStream.range(0, chunkCount);
+        if (segmentList.size() >= PARALLEL_SEGMENT_THRESHOLD) {
+            chunks = chunks.parallel();
+        }
+        Set<String> hazardousIds = chunks
+                .mapToObj(chunk -> hazardousIds(segmentList, chunk * SEGMENTS_PER_CHUNK,
+                        Math.min(segmentList.size(), (chunk + 1) * SEGMENTS_PER_CHUNK), prepared))
+                .flatMap(List::stream)
+                .collect(Collectors.toSet());
 
         log.debug("Detected {} hazardous segments", hazardousIds.size());
         return hazardousIds;
     }
 
-    private STRtree buildSpatialIndex(List<FloodZone> zones) {
+    /** Ids of the hazardous segments in {@code [from, to)}, tested with one borrowed set of prepared polygons. */
+    private List<String> hazardousIds(List<RoadSegment> segments, int from, int to, PreparedZones prepared) {
+        List<String> ids = new ArrayList<>();
+        PreparedPolygon[] own = prepared.borrow();
+        try {
+            for (int i = from; i < to; i++) {
+                RoadSegment segment = segments.get(i);
+                if (isHazardous(segment, prepared, own)) {
+                    ids.add(segment.getId());
+                }
+            }
+        } finally {
+            prepared.giveBack(own);
+        }
+        return ids;
+    }
+
+    private boolean isHazardous(RoadSegment segment, PreparedZones prepared, PreparedPolygon[] own) {
+        LineString lineString = toJtsLineString(segment.getCoordinates());
+        return prepared.zoneIndex().anyMatch(lineString.getEnvelopeInternal(),
+                zoneIndex -> prepared.prepare(own, zoneIndex).intersects(lineString));
+    }
+
+    /** Returns the prepared polygons for the zones, reusing the last ones if the zones are unchanged. */
+    private PreparedZones prepareZones(List<FloodZone> zones) {
+        PreparedZones cached = preparedZones.get();
+        if (cached != null && cached.zones().equals(zones)) {
+            return cached;
+        }
+
+        Polygon[] polygons = new Polygon[zones.size()];
         STRtree rtree = new STRtree();
-        java.util.stream.IntStream.range(0, zones.size())
-                .forEach(i -> {
-                    Polygon polygon = toJtsPolygon(zones.get(i).polygonRings());
-                    rtree.insert(polygon.getEnvelopeInternal(), i);
-                });
-        rtree.build();
-        return rtree;
+        for (int i = 0; i < zones.size(); i++) {
+            polygons[i] = toJtsPolygon(zones.get(i).polygonRings());
+            rtree.insert(polygons[i].getEnvelopeInternal(), i);
+        }
+
+        PreparedZones prepared = new PreparedZones(List.copyOf(zones), ZoneIndex.of(rtree), polygons,
+                new ConcurrentLinkedQueue<>());
+        preparedZones.set(prepared);
+        log.debug("Prepared {} flood zone polygons", zones.size());
+        return prepared;
     }
 
     private LineString toJtsLineString(List<Coordinate> coordinates) {
@@ -89,4 +155,111 @@ public class JtsHazardDetectionAdapter implements HazardDetectionPort {
                 .toArray(org.locationtech.jts.geom.Coordinate[]::new);
         return geometryFactory.createLinearRing(jtsCoords);
     }
+
+    /**
+     * Flood zones with their polygons, an index of polygon envelopes whose
+     * items are indices into {@code polygons}, and the sets of prepared
+     * polygons not currently borrowed by a worker.
+     */
+    private record PreparedZones(List<FloodZone> zones, ZoneIndex zoneIndex, Polygon[] polygons,
+                                 Queue<PreparedPolygon[]> idleSets) {
+
+        /** Take a set of prepared polygons for the calling worker alone, creating one if none is idle. */
+        PreparedPolygon[] borrow() {
+            PreparedPolygon[] set = idleSets.poll();
+            return set != null ? set : new PreparedPolygon[polygons.length];
+        }
+
+        void giveBack(PreparedPolygon[] set) {
+            idleSets.offer(set);
+        }
+
+        PreparedPolygon prepare(PreparedPolygon[] set, int zoneIndex) {
+            if (set[zoneIndex] == null) {
+                set[zoneIndex] = new PreparedPolygon(polygons[zoneIndex]);
+            }
+            return set[zoneIndex];
+        }
+    }
+
+    /**
+     * Nodes of a built STRtree copied into flat arrays. Node {@code n} owns the
+     * entries {@code firstEntry[n]} to {@code firstEntry[n + 1] - 1}; an entry
+     * holds the bounds of a child node or zone, and {@code target} is the child
+     * node index, or {@code -1 - zoneIndex} for a zone. Nodes are numbered
+     * breadth-first from the root, so children follow their parents in order.
+     */
+    static final class ZoneIndex {
+
+        private final int[] firstEntry;
+        private final int[] target;
+        private final double[] minX;
+        private final double[] minY;
+        private final double[] maxX;
+        private final double[] maxY;
+
+        private ZoneIndex(int[] firstEntry, int entryCount) {
+            this.firstEntry = firstEntry;
+            this.target = new int[entryCount];
+            this.minX = new double[entryCount];
+            this.minY = new double[entryCount];
+            this.maxX = new double[entryCount];
+            this.maxY = new double[entryCount];
+        }
+
+        /** Copies a tree whose items are {@link Integer} zone indices, building it first if needed. */
+        static ZoneIndex of(STRtree tree) {
+            List<AbstractNode> nodes = new ArrayList<>();
+            nodes.add(tree.getRoot());
+            for (int n = 0; n < nodes.size(); n++) {
+                for (Object child : nodes.get(n).getChildBoundables()) {
+                    if (child instanceof AbstractNode node) {
+                        nodes.add(node);
+                    }
+                }
+            }
+
+            int[] firstEntry = new int[nodes.size() + 1];
+            for (int n = 0; n < nodes.size(); n++) {
+                firstEntry[n + 1] = firstEntry[n] + nodes.get(n).getChildBoundables().size();
+            }
+            ZoneIndex index = new ZoneIndex(firstEntry, firstEntry[nodes.size()]);
+
+            int entry = 0;
+            int nextNode = 1;
+            for (AbstractNode node : nodes) {
+                for (Object child : node.getChildBoundables()) {
+                    Envelope bounds = (Envelope) ((Boundable) child).getBounds();
+                    index.minX[entry] = bounds.getMinX();
+                    index.minY[entry] = bounds.getMinY();
+                    index.maxX[entry] = bounds.getMaxX();
+                    index.maxY[entry] = bounds.getMaxY();
+                    index.target[entry] = child instanceof ItemBoundable item
+                            ? -1 - (Integer) item.getItem()
+                            : nextNode++;
+                    entry++;
+                }
+            }
+            return index;
+        }
+
+        /** Whether {@code test} accepts some zone whose envelope intersects {@code envelope}. */
+        boolean anyMatch(Envelope envelope, IntPredicate test) {
+            return anyMatch(0, envelope, test);
+        }
+
+        private boolean anyMatch(int node, Envelope envelope, IntPredicate test) {
+            for (int entry = firstEntry[node]; entry < firstEntry[node + 1]; entry++) {
+                if (minX[entry] > envelope.getMaxX() || maxX[entry] < envelope.getMinX()
+                        || minY[entry] > envelope.getMaxY() || maxY[entry] < envelope.getMinY()) {
+                    continue;
+                }
+                int child = target[entry];
+                if (child >= 0 ? anyMatch(child, envelope, test) : test.test(-1 - child)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
 }
@@ -1,16 +1,27 @@
 package com.sensorbite.evacroute.infrastructure.config;
 
 import com.sensorbite.evacroute.application.mapper.RouteMapper;
+import com.sensorbite.evacroute.application.service.HazardOverlayHolder;
+import com.sensorbite.evacroute.application.service.RoadNetworkSnapshotHolder;
 import com.sensorbite.evacroute.application.service.RouteApplicationService;
+import com.sensorbite.evacroute.application.service.RouteCache;
+import com.sensorbite.evacroute.application.service.ShelterRegistry;
+import com.sensorbite.evacroute.domain.model.SearchAlgorithm;
 import com.sensorbite.evacroute.domain.port.out.FloodZoneRepository;
 import com.sensorbite.evacroute.domain.port.out.HazardDetectionPort;
 import com.sensorbite.evacroute.domain.port.out.RoadNetworkRepository;
+import com.sensorbite.evacroute.domain.port.out.ShelterRepository;
 import com.sensorbite.evacroute.domain.service.GraphBuilder;
 import com.sensorbite.evacroute.domain.service.RouteCalculationService;
 import org.mapstruct.factory.Mappers;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
 @Configuration
 public class BeanConfiguration {
 
@@ -20,8 +31,32 @@ public class BeanConfiguration {
     }
 
     @Bean
-    public RouteCalculationService routeCalculationService() {
-        return new RouteCalculationService();
+    public RouteCalculationService routeCalculationService(
+            @Value("${routing.search-algorithm}") String searchAlgorithm,
+            @Value("${routing.max-snap-distance-meters}") double maxSnapDistanceMeters,
+            @Value("${routing.hub-labels.enabled:false}") boolean hubLabelsEnabled,
+            ExecutorService preprocessingExecutor
+    ) {
+        return new RouteCalculationService(
+                SearchAlgorithm.fromName(searchAlgorithm),
+                maxSnapDistanceMeters,
+                preprocessingExecutor,
+                hubLabelsEnabled
+        );
+    }
+
+    /**
+     * Single background thread for search preprocessing (e.g. contraction hierarchy
+     * builds), so a rebuild never runs on a request thread. Shut down with the
+     * application context; daemon, so a build still running does not hold up exit.
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService preprocessingExecutor() {
+        return Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "routing-preprocessing");
+            thread.setDaemon(true);
+            return thread;
+        });
     }
 
     @Bean
@@ -29,18 +64,50 @@ public class BeanConfiguration {
         return Mappers.getMapper(RouteMapper.class);
     }
 
+    @Bean
+    public RoadNetworkSnapshotHolder roadNetworkSnapshotHolder(RoadNetworkRepository roadNetworkRepository) {
+        return new RoadNetworkSnapshotHolder(roadNetworkRepository);
+    }
+
+    @Bean
+    public HazardOverlayHolder hazardOverlayHolder(HazardDetectionPort hazardDetectionPort) {
+        return new HazardOverlayHolder(hazardDetectionPort);
+    }
+
+    @Bean
+    public ShelterRegistry shelterRegistry(ShelterRepository shelterRepository) {
+        return new ShelterRegistry(shelterRepository);
+    }
+
+    @Bean
+    public RouteCache routeCache(
+            @Value("${routing.route-cache.max-size}") int maxSize,
+            @Value("${routing.route-cache.ttl-seconds}") long ttlSeconds
+    ) {
+        return new RouteCache(maxSize, Duration.ofSeconds(ttlSeconds));
+    }
+
+    @Bean
+    public RouteCacheMetrics routeCacheMetrics(RouteCache routeCache) {
+        return new RouteCacheMetrics(routeCache);
+    }
+
     @Bean
     public RouteApplicationService routeApplicationService(
-            RoadNetworkRepository roadNetworkRepository,
+            RoadNetworkSnapshotHolder roadNetworkSnapshotHolder,
             FloodZoneRepository floodZoneRepository,
-            HazardDetectionPort hazardDetectionPort,
+            HazardOverlayHolder hazardOverlayHolder,
+            ShelterRegistry shelterRegistry,
+            RouteCache routeCache,
             RouteCalculationService routeCalculationService,
             RouteMapper routeMapper
     ) {
         return new RouteApplicationService(
-                roadNetworkRepository,
+                roadNetworkSnapshotHolder,
                 floodZoneRepository,
-                hazardDetectionPort,
+                hazardOverlayHolder,
+                shelterRegistry,
+                routeCache,
                 routeCalculationService,
                 routeMapper
         );
@@ -0,0 +1,32 @@
+package com.sensorbite.evacroute.infrastructure.config;
+
+import com.sensorbite.evacroute.application.service.RoadNetworkSnapshotHolder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the road network snapshot during startup so the first route request
+ * does not pay the GeoJSON parsing and graph building cost.
+ *
+ * <p>A failed load is logged rather than aborting startup; the holder retries
+ * lazily on the first request.</p>
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RoadNetworkSnapshotInitializer implements ApplicationRunner {
+
+    private final RoadNetworkSnapshotHolder roadNetworkSnapshotHolder;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            roadNetworkSnapshotHolder.reload();
+        } catch (RuntimeException e) {
+            log.error("[SNAPSHOT] Failed to preload road network, will retry on first request: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.sensorbite.evacroute.infrastructure.config;
+
+import com.sensorbite.evacroute.application.service.RouteCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Publishes route cache statistics under Micrometer's standard cache meter
+ * names, tagged {@code cache=routes}, e.g. {@code /actuator/metrics/cache.gets?tag=result:hit}.
+ */
+@RequiredArgsConstructor
+public class RouteCacheMetrics implements MeterBinder {
+
+    private static final String CACHE_NAME = "routes";
+
+    private final RouteCache routeCache;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", routeCache, RouteCache::hitCount)
+                .tags("cache", CACHE_NAME, "result", "hit")
+                .description("Route requests served from the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.gets", routeCache, RouteCache::missCount)
+                .tags("cache", CACHE_NAME, "result", "miss")
+                .description("Route requests that needed a search")
+                .register(registry);
+        FunctionCounter.builder("cache.evictions", routeCache, RouteCache::evictionCount)
+                .tags("cache", CACHE_NAME)
+                .description("Cached routes evicted by size, expiry or hazard changes")
+                .register(registry);
+        FunctionCounter.builder("cache.coalesced", routeCache, RouteCache::coalescedCount)
+                .tags("cache", CACHE_NAME)
+                .description("Route cache misses that shared a search already in flight")
+                .register(registry);
+        Gauge.builder("cache.size", routeCache, RouteCache::size)
+                .tags("cache", CACHE_NAME)
+                .description("Number of cached routes")
+                .register(registry);
+    }
+}
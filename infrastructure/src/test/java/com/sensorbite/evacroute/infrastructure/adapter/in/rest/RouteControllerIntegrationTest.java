@@ -1,14 +1,17 @@
 package com.sensorbite.evacroute.infrastructure.adapter.in.rest;
 
-import com.sensorbite.evacroute.application.service.RouteApplicationService;
+import com.sensorbite.evacroute.application.service.RoadNetworkSnapshotHolder;
+import com.sensorbite.evacroute.application.service.ShelterRegistry;
 import com.sensorbite.evacroute.domain.model.Coordinate;
 import com.sensorbite.evacroute.domain.model.FloodZone;
 import com.sensorbite.evacroute.domain.model.Graph;
 import com.sensorbite.evacroute.domain.model.RoadNetwork;
 import com.sensorbite.evacroute.domain.model.RoadSegment;
+import com.sensorbite.evacroute.domain.model.Shelter;
 import com.sensorbite.evacroute.domain.port.out.FloodZoneRepository;
 import com.sensorbite.evacroute.domain.port.out.HazardDetectionPort;
 import com.sensorbite.evacroute.domain.port.out.RoadNetworkRepository;
+import com.sensorbite.evacroute.domain.port.out.ShelterRepository;
 import com.sensorbite.evacroute.domain.service.GraphBuilder;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -29,10 +32,12 @@ import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -53,6 +58,15 @@ class RouteControllerIntegrationTest {
     @MockBean
     private HazardDetectionPort hazardDetectionPort;
 
+    @MockBean
+    private ShelterRepository shelterRepository;
+
+    @Autowired
+    private RoadNetworkSnapshotHolder roadNetworkSnapshotHolder;
+
+    @Autowired
+    private ShelterRegistry shelterRegistry;
+
     @BeforeEach
     void setUp() {
         when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of());
@@ -66,7 +80,7 @@ class RouteControllerIntegrationTest {
         @Test
         @DisplayName("should return route for valid coordinates")
         void shouldReturnRouteForValidCoordinates() throws Exception {
-            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            givenRoadNetwork(createTestNetwork());
 
             mockMvc.perform(get("/api/evac/route")
                             .param("start", "52.0,21.0")
@@ -84,7 +98,7 @@ class RouteControllerIntegrationTest {
         @Test
         @DisplayName("should handle coordinates with whitespace")
         void shouldHandleCoordinatesWithWhitespace() throws Exception {
-            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            givenRoadNetwork(createTestNetwork());
 
             mockMvc.perform(get("/api/evac/route")
                             .param("start", " 52.0 , 21.0 ")
@@ -97,7 +111,7 @@ class RouteControllerIntegrationTest {
         @Test
         @DisplayName("should return GeoJSON with correct coordinate order (lon,lat)")
         void shouldReturnGeoJsonWithCorrectCoordinateOrder() throws Exception {
-            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            givenRoadNetwork(createTestNetwork());
 
             mockMvc.perform(get("/api/evac/route")
                             .param("start", "52.0,21.0")
@@ -190,6 +204,128 @@ class RouteControllerIntegrationTest {
         }
     }
 
+    @Nested
+    @DisplayName("Nearest shelter")
+    class NearestShelterTests {
+
+        @Test
+        @DisplayName("should return route to the nearest shelter")
+        void shouldReturnRouteToNearestShelter() throws Exception {
+            givenRoadNetwork(createTestNetwork());
+            when(shelterRepository.loadAll()).thenReturn(List.of(
+                    new Shelter("shelter_1", "School", new Coordinate(52.2, 21.2))));
+            shelterRegistry.reload();
+
+            mockMvc.perform(get("/api/evac/nearest-shelter")
+                            .param("start", "52.0,21.0")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.shelter.id", is("shelter_1")))
+                    .andExpect(jsonPath("$.route.type", is("Feature")))
+                    .andExpect(jsonPath("$.route.properties.distanceMeters", greaterThan(0.0)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Isochrone")
+    class IsochroneTests {
+
+        @Test
+        @DisplayName("should return reachable roads as MultiLineString")
+        void shouldReturnReachableRoads() throws Exception {
+            givenRoadNetwork(createTestNetwork());
+
+            mockMvc.perform(get("/api/evac/isochrone")
+                            .param("start", "52.0,21.0")
+                            .param("maxDistanceMeters", "5000")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.type", is("Feature")))
+                    .andExpect(jsonPath("$.geometry.type", is("MultiLineString")))
+                    .andExpect(jsonPath("$.geometry.coordinates[0][0][0]", is(21.0)))
+                    .andExpect(jsonPath("$.properties.reachedNodes", is(1)));
+        }
+
+        @Test
+        @DisplayName("should return 400 when distance exceeds maximum")
+        void shouldReturn400WhenDistanceExceedsMaximum() throws Exception {
+            mockMvc.perform(get("/api/evac/isochrone")
+                            .param("start", "52.0,21.0")
+                            .param("maxDistanceMeters", "100000")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errorType", is("VALIDATION_ERROR")))
+                    .andExpect(jsonPath("$.message", containsString("Maximum distance")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Distance lookup")
+    class DistanceLookupTests {
+
+        @Test
+        @DisplayName("should return network distance for valid coordinates")
+        void shouldReturnDistanceForValidCoordinates() throws Exception {
+            givenRoadNetwork(createTestNetwork());
+
+            mockMvc.perform(get("/api/evac/distance")
+                            .param("start", "52.0,21.0")
+                            .param("end", "52.2,21.2")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.distanceMeters", greaterThan(0.0)))
+                    .andExpect(jsonPath("$.crossesHazards", is(false)));
+        }
+
+        @Test
+        @DisplayName("should return 404 when no path exists")
+        void shouldReturn404WhenNoPathExists() throws Exception {
+            givenRoadNetwork(createDisconnectedNetwork());
+
+            mockMvc.perform(get("/api/evac/distance")
+                            .param("start", "52.0,21.0")
+                            .param("end", "53.0,22.0")
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNotFound())
+                    .andExpect(jsonPath("$.errorType", is("ROUTE_NOT_FOUND")));
+        }
+    }
+
+    @Nested
+    @DisplayName("Distance matrix")
+    class DistanceMatrixTests {
+
+        @Test
+        @DisplayName("should return matrix with null for unreachable pairs")
+        void shouldReturnMatrixWithNullForUnreachablePairs() throws Exception {
+            givenRoadNetwork(createDisconnectedNetwork());
+
+            mockMvc.perform(post("/api/evac/matrix")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"sources": ["52.0,21.0"], "targets": ["52.1,21.1", "53.1,22.1"]}
+                                    """)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.distancesMeters[0][0]", greaterThan(0.0)))
+                    .andExpect(jsonPath("$.distancesMeters[0][1]").value(nullValue()))
+                    .andExpect(jsonPath("$.crossesHazards[0][0]", is(false)));
+        }
+
+        @Test
+        @DisplayName("should return 400 when targets are missing")
+        void shouldReturn400WhenTargetsAreMissing() throws Exception {
+            mockMvc.perform(post("/api/evac/matrix")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("""
+                                    {"sources": ["52.0,21.0"], "targets": []}
+                                    """)
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.errorType", is("VALIDATION_ERROR")));
+        }
+    }
+
     @Nested
     @DisplayName("Error scenarios")
     class ErrorScenarioTests {
@@ -197,7 +333,7 @@ class RouteControllerIntegrationTest {
         @Test
         @DisplayName("should return 404 when no route found")
         void shouldReturn404WhenNoRouteFound() throws Exception {
-            when(roadNetworkRepository.load()).thenReturn(createDisconnectedNetwork());
+            givenRoadNetwork(createDisconnectedNetwork());
 
             mockMvc.perform(get("/api/evac/route")
                             .param("start", "52.0,21.0")
@@ -232,7 +368,7 @@ class RouteControllerIntegrationTest {
             RoadNetwork network = createNetworkWithAlternativePaths();
             FloodZone zone = createTestFloodZone();
 
-            when(roadNetworkRepository.load()).thenReturn(network);
+            givenRoadNetwork(network);
             when(floodZoneRepository.loadActiveAt(any(Instant.class))).thenReturn(List.of(zone));
             when(hazardDetectionPort.detectHazardousSegments(anyList(), anyList()))
                     .thenReturn(Set.of("seg1"));
@@ -253,7 +389,7 @@ class RouteControllerIntegrationTest {
         @Test
         @DisplayName("should return JSON by default")
         void shouldReturnJsonByDefault() throws Exception {
-            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            givenRoadNetwork(createTestNetwork());
 
             mockMvc.perform(get("/api/evac/route")
                             .param("start", "52.0,21.0")
@@ -265,7 +401,7 @@ class RouteControllerIntegrationTest {
         @Test
         @DisplayName("should accept application/json")
         void shouldAcceptApplicationJson() throws Exception {
-            when(roadNetworkRepository.load()).thenReturn(createTestNetwork());
+            givenRoadNetwork(createTestNetwork());
 
             mockMvc.perform(get("/api/evac/route")
                             .param("start", "52.0,21.0")
@@ -275,6 +411,11 @@ class RouteControllerIntegrationTest {
         }
     }
 
+    private void givenRoadNetwork(RoadNetwork network) {
+        when(roadNetworkRepository.load()).thenReturn(network);
+        roadNetworkSnapshotHolder.reload();
+    }
+
     private RoadNetwork createTestNetwork() {
         List<RoadSegment> segments = List.of(
                 new RoadSegment("seg1", List.of(
@@ -7,9 +7,14 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.index.strtree.STRtree;
 
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -330,5 +335,149 @@ class JtsHazardDetectionAdapterTest {
 
             assertThat(hazardous).containsExactlyInAnyOrder("seg1", "seg2");
         }
+
+        @Test
+        @DisplayName("should classify large networks in parallel with the same result")
+        void shouldClassifyLargeNetworksInParallel() {
+            List<RoadSegment> segments = new ArrayList<>();
+            Set<String> expected = new HashSet<>();
+            for (int i = 0; i < 20_000; i++) {
+                double latitude = 52.0 + i * 0.00001;
+                segments.add(new RoadSegment("seg" + i, List.of(
+                        new Coordinate(latitude, 21.0 + (i % 7) * 0.01),
+                        new Coordinate(latitude, 21.005 + (i % 7) * 0.01)
+                ), false));
+                if (i > 5000 && i <= 15000 && i % 7 < 3) {
+                    expected.add("seg" + i);
+                }
+            }
+            FloodZone zone = new FloodZone("zone1", List.of(
+                    List.of(
+                            new Coordinate(52.050005, 20.99),
+                            new Coordinate(52.150005, 20.99),
+                            new Coordinate(52.150005, 21.025),
+                            new Coordinate(52.050005, 21.025),
+                            new Coordinate(52.050005, 20.99)
+                    )
+            ), null, null);
+
+            Set<String> hazardous = adapter.detectHazardousSegments(segments, List.of(zone));
+
+            assertThat(hazardous).isEqualTo(expected);
+        }
+    }
+
+    @Nested
+    @DisplayName("Prepared flood zones")
+    class PreparedZoneTests {
+
+        private final RoadSegment segment = new RoadSegment("seg1", List.of(
+                new Coordinate(52.0, 21.0),
+                new Coordinate(52.1, 21.1)
+        ), false);
+
+        @Test
+        @DisplayName("should give the same result for equal flood zones on later calls")
+        void shouldReusePreparedZones() {
+            Set<String> first = adapter.detectHazardousSegments(List.of(segment), List.of(square("zone1", 52.05)));
+            Set<String> second = adapter.detectHazardousSegments(List.of(segment), List.of(square("zone1", 52.05)));
+
+            assertThat(first).containsExactly("seg1");
+            assertThat(second).isEqualTo(first);
+        }
+
+        @Test
+        @DisplayName("should prepare polygons again when the flood zones change")
+        void shouldPrepareChangedZones() {
+            assertThat(adapter.detectHazardousSegments(List.of(segment), List.of(square("zone1", 52.05))))
+                    .containsExactly("seg1");
+
+            assertThat(adapter.detectHazardousSegments(List.of(segment), List.of(square("zone1", 52.5))))
+                    .isEmpty();
+        }
+
+        @Test
+        @DisplayName("should test segments against detailed flood outlines")
+        void shouldHandleDetailedOutlines() {
+            List<Coordinate> ring = new ArrayList<>();
+            for (int i = 0; i < 4000; i++) {
+                double angle = 2 * Math.PI * i / 4000;
+                ring.add(new Coordinate(52.0 + 0.01 * Math.sin(angle), 21.0 + 0.01 * Math.cos(angle)));
+            }
+            ring.add(ring.getFirst());
+            FloodZone circle = new FloodZone("circle", List.of(ring), null, null);
+            List<RoadSegment> segments = List.of(
+                    new RoadSegment("crossing", List.of(new Coordinate(52.0, 20.98), new Coordinate(52.0, 21.0)),
+                            false),
+                    new RoadSegment("inside", List.of(new Coordinate(52.001, 21.001), new Coordinate(52.002, 21.002)),
+                            false),
+                    new RoadSegment("corner", List.of(new Coordinate(52.009, 21.009), new Coordinate(52.0095, 21.0095)),
+                            false)
+            );
+
+            Set<String> hazardous = adapter.detectHazardousSegments(segments, List.of(circle));
+
+            assertThat(hazardous).containsExactlyInAnyOrder("crossing", "inside");
+        }
+
+        private FloodZone square(String id, double southLatitude) {
+            return new FloodZone(id, List.of(
+                    List.of(
+                            new Coordinate(southLatitude, 21.05),
+                            new Coordinate(southLatitude + 0.1, 21.05),
+                            new Coordinate(southLatitude + 0.1, 21.15),
+                            new Coordinate(southLatitude, 21.15),
+                            new Coordinate(southLatitude, 21.05)
+                    )
+            ), null, null);
+        }
+    }
+
+    @Nested
+    @DisplayName("Zone index")
+    class ZoneIndexTests {
+
+        @Test
+        @DisplayName("should find the same zones as the STRtree it was copied from")
+        void shouldMatchStrTreeQueries() {
+            Random random = new Random(42);
+            STRtree tree = new STRtree();
+            for (int zone = 0; zone < 2000; zone++) {
+                tree.insert(randomEnvelope(random, 0.02), zone);
+            }
+            JtsHazardDetectionAdapter.ZoneIndex index = JtsHazardDetectionAdapter.ZoneIndex.of(tree);
+
+            for (int query = 0; query < 500; query++) {
+                Envelope envelope = randomEnvelope(random, 0.05);
+                Set<Integer> found = new HashSet<>();
+                index.anyMatch(envelope, zone -> !found.add(zone));
+
+                @SuppressWarnings("unchecked")
+                List<Integer> expected = tree.query(envelope);
+                assertThat(found).as("query %d", query).isEqualTo(new HashSet<>(expected));
+            }
+        }
+
+        @Test
+        @DisplayName("should stop at the first zone the test accepts")
+        void shouldStopAtFirstMatch() {
+            STRtree tree = new STRtree();
+            for (int zone = 0; zone < 100; zone++) {
+                tree.insert(new Envelope(0, 1, 0, 1), zone);
+            }
+            JtsHazardDetectionAdapter.ZoneIndex index = JtsHazardDetectionAdapter.ZoneIndex.of(tree);
+            List<Integer> visited = new ArrayList<>();
+
+            boolean matched = index.anyMatch(new Envelope(0.5, 0.6, 0.5, 0.6), zone -> visited.add(zone));
+
+            assertThat(matched).isTrue();
+            assertThat(visited).hasSize(1);
+        }
+
+        private Envelope randomEnvelope(Random random, double maxSize) {
+            double x = random.nextDouble();
+            double y = random.nextDouble();
+            return new Envelope(x, x + random.nextDouble() * maxSize, y, y + random.nextDouble() * maxSize);
+        }
     }
 }
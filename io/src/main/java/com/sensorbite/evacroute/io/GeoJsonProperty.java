@@ -1,7 +1,7 @@
-package com.sensorbite.evacroute.infrastructure.adapter.out.file;
+package com.sensorbite.evacroute.io;
 
 /**
- * GeoJSON property keys and values used in road network and flood zone data.
+ * GeoJSON property keys and values used in road network, flood zone and shelter data.
  *
  * <p>These constants represent the expected schema from OpenStreetMap-derived
  * GeoJSON exports and flood zone data formats.</p>
@@ -22,6 +22,9 @@ public final class GeoJsonProperty {
     public static final String VALID_UNTIL = "validUntil";
     public static final String HAZARD_LEVEL = "hazardLevel";
 
+    // Shelter properties
+    public static final String SHELTER_NAME = "name";
+
     // Common boolean value representations
     public static final String BOOLEAN_YES = "yes";
     public static final String BOOLEAN_TRUE = "true";
@@ -0,0 +1,374 @@
+package com.sensorbite.evacroute.io;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.RoadSegment;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Streaming reader for road network GeoJSON FeatureCollections.
+ *
+ * <p>Features are parsed one at a time with a Jackson token stream and handed
+ * to the consumer as road segments as soon as each feature ends, so memory use
+ * does not depend on the size of the file beyond the segments themselves. No
+ * feature collection or JTS geometry is built; positions go straight from
+ * tokens into {@link Coordinate}s.</p>
+ *
+ * <p>Segment ids and oneway flags follow the feature-based loader: a
+ * LineString becomes one segment named after the feature id, the i-th line of
+ * a MultiLineString becomes {@code <id>_<i>}. Features without an id are named
+ * after their position in the collection.</p>
+ *
+ * <p>{@link #readAll(Path)} parses the features of a file on all cores. It
+ * first skims the file once to find where each feature starts and ends, then
+ * parses features independently and concatenates their segments in file order,
+ * so the result is the same as reading the file sequentially. Files larger
+ * than one mapping can hold are mapped as several consecutive windows, and
+ * features lying across a window boundary are copied from both.</p>
+ */
+@Slf4j
+public final class GeoJsonRoadSegmentReader {
+
+    private static final String FEATURES = "features";
+    private static final String ID = "id";
+    private static final String PROPERTIES = "properties";
+    private static final String GEOMETRY = "geometry";
+    private static final String TYPE = "type";
+    private static final String COORDINATES = "coordinates";
+
+    /** Files with fewer features are parsed on the calling thread. */
+    private static final int PARALLEL_FEATURE_THRESHOLD = 1024;
+
+    /** Bytes mapped per window of a file; a buffer holds at most 2 GiB. */
+    private static final int WINDOW_BYTES = 1 << 30;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+    private final int windowBytes;
+
+    public GeoJsonRoadSegmentReader() {
+        this(WINDOW_BYTES);
+    }
+
+    GeoJsonRoadSegmentReader(int windowBytes) {
+        if (windowBytes <= 0) {
+            throw new IllegalArgumentException("Window size must be positive");
+        }
+        this.windowBytes = windowBytes;
+    }
+
+    /**
+     * Read every road segment of a FeatureCollection.
+     *
+     * @param input GeoJSON FeatureCollection; not closed by this method
+     * @param sink receives segments in file order
+     * @return number of features read
+     * @throws IOException if the input cannot be read or is not valid JSON
+     */
+    public int read(InputStream input, Consumer<RoadSegment> sink) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(input)) {
+            parser.disable(JsonParser.Feature.AUTO_CLOSE_SOURCE);
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+
+            int featureCount = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (FEATURES.equals(field) && value == JsonToken.START_ARRAY) {
+                    JsonToken token;
+                    while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                        readFeature(parser, featureCount++, sink);
+                    }
+                    expect(parser, token, JsonToken.END_ARRAY);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            expect(parser, parser.currentToken(), JsonToken.END_OBJECT);
+            return featureCount;
+        }
+    }
+
+    /**
+     * Read every road segment of a FeatureCollection file, parsing features in
+     * parallel.
+     *
+     * <p>The file is memory-mapped rather than read onto the heap.</p>
+     *
+     * @param path GeoJSON FeatureCollection file
+     * @return segments in file order
+     * @throws IOException if the file cannot be read or is not valid JSON
+     */
+    public List<RoadSegment> readAll(Path path) throws IOException {
+        MappedFile document;
+        try (FileChannel channel = FileChannel.open(path)) {
+            document = MappedFile.map(channel, windowBytes);
+        }
+
+        long[] featureBounds = indexFeatures(document);
+        int featureCount = featureBounds.length / 2;
+        IntStream features = IntStream.range(0, featureCount);
+        if (featureCount >= PARALLEL_FEATURE_THRESHOLD) {
+            features = features.parallel();
+        }
+        try {
+            return features
+                    .mapToObj(i -> parseFeature(document, featureBounds, i))
+                    .flatMap(List::stream)
+                    .toList();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Skims a FeatureCollection without decoding values.
+     *
+     * @return start and end byte offsets of every feature object, in pairs
+     */
+    private long[] indexFeatures(MappedFile document) throws IOException {
+        long[] bounds = new long[64];
+        int count = 0;
+        try (JsonParser parser = jsonFactory.createParser(document.newInputStream())) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if (FEATURES.equals(field) && value == JsonToken.START_ARRAY) {
+                    JsonToken token;
+                    while ((token = parser.nextToken()) == JsonToken.START_OBJECT) {
+                        if (count + 2 > bounds.length) {
+                            bounds = Arrays.copyOf(bounds, bounds.length * 2);
+                        }
+                        bounds[count++] = parser.currentTokenLocation().getByteOffset();
+                        parser.skipChildren();
+                        bounds[count++] = parser.currentLocation().getByteOffset();
+                    }
+                    expect(parser, token, JsonToken.END_ARRAY);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+            expect(parser, parser.currentToken(), JsonToken.END_OBJECT);
+        }
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private List<RoadSegment> parseFeature(MappedFile document, long[] featureBounds, int featureIndex) {
+        long start = featureBounds[2 * featureIndex];
+        long length = featureBounds[2 * featureIndex + 1] - start;
+        if (length > Integer.MAX_VALUE) {
+            throw new UncheckedIOException(new IOException("Feature " + featureIndex + " is larger than 2 GiB"));
+        }
+        byte[] feature = new byte[(int) length];
+        document.get(start, feature);
+        List<RoadSegment> segments = new ArrayList<>(1);
+        try (JsonParser parser = jsonFactory.createParser(feature)) {
+            expect(parser, parser.nextToken(), JsonToken.START_OBJECT);
+            readFeature(parser, featureIndex, segments::add);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return segments;
+    }
+
+    private void readFeature(JsonParser parser, int featureIndex, Consumer<RoadSegment> sink) throws IOException {
+        String id = null;
+        boolean oneway = false;
+        String geometryType = null;
+        List<List<Coordinate>> lines = new ArrayList<>(1);
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (ID.equals(field) && value.isScalarValue()) {
+                id = parser.getText();
+            } else if (PROPERTIES.equals(field) && value == JsonToken.START_OBJECT) {
+                oneway = readOneway(parser);
+            } else if (GEOMETRY.equals(field) && value == JsonToken.START_OBJECT) {
+                geometryType = readGeometry(parser, lines);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        expect(parser, parser.currentToken(), JsonToken.END_OBJECT);
+
+        if (geometryType == null) {
+            return;
+        }
+        String featureId = id != null ? id : "feature_" + featureIndex;
+        switch (GeometryType.fromGeoJsonName(geometryType)) {
+            case LINE_STRING -> {
+                for (List<Coordinate> line : lines) {
+                    sink.accept(new RoadSegment(featureId, line, oneway));
+                }
+            }
+            case MULTI_LINE_STRING -> {
+                for (int i = 0; i < lines.size(); i++) {
+                    sink.accept(new RoadSegment(featureId + "_" + i, lines.get(i), oneway));
+                }
+            }
+            case null, default -> log.warn("Unsupported geometry type: {}", geometryType);
+        }
+    }
+
+    private boolean readOneway(JsonParser parser) throws IOException {
+        boolean oneway = false;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (GeoJsonProperty.ONEWAY.equals(field) && value.isScalarValue()) {
+                oneway = GeoJsonProperty.parseBoolean(parser.getText());
+            } else {
+                parser.skipChildren();
+            }
+        }
+        expect(parser, parser.currentToken(), JsonToken.END_OBJECT);
+        return oneway;
+    }
+
+    /**
+     * Reads a geometry object, collecting its lines of positions.
+     *
+     * @return geometry type, or {@code null} if the geometry has none
+     */
+    private String readGeometry(JsonParser parser, List<List<Coordinate>> lines) throws IOException {
+        String type = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if (TYPE.equals(field) && value == JsonToken.VALUE_STRING) {
+                type = parser.getText();
+            } else if (COORDINATES.equals(field) && value == JsonToken.START_ARRAY) {
+                readPositions(parser, lines);
+            } else {
+                parser.skipChildren();
+            }
+        }
+        expect(parser, parser.currentToken(), JsonToken.END_OBJECT);
+        return type;
+    }
+
+    /**
+     * Reads a (possibly nested) coordinate array starting at its START_ARRAY.
+     * Every array whose elements are positions becomes one line.
+     *
+     * @return the position if this array is a single {@code [lon, lat]} position, otherwise {@code null}
+     */
+    private Coordinate readPositions(JsonParser parser, List<List<Coordinate>> lines) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token != null && token.isNumeric()) {
+            double longitude = parser.getDoubleValue();
+            expect(parser, parser.nextToken(), JsonToken.VALUE_NUMBER_FLOAT, JsonToken.VALUE_NUMBER_INT);
+            double latitude = parser.getDoubleValue();
+            for (JsonToken extra = parser.nextToken(); extra != JsonToken.END_ARRAY; extra = parser.nextToken()) {
+                expect(parser, extra, JsonToken.VALUE_NUMBER_FLOAT, JsonToken.VALUE_NUMBER_INT);
+            }
+            return new Coordinate(latitude, longitude);
+        }
+
+        List<Coordinate> line = null;
+        while (token == JsonToken.START_ARRAY) {
+            Coordinate position = readPositions(parser, lines);
+            if (position != null) {
+                if (line == null) {
+                    line = new ArrayList<>();
+                    lines.add(line);
+                }
+                line.add(position);
+            }
+            token = parser.nextToken();
+        }
+        expect(parser, token, JsonToken.END_ARRAY);
+        return null;
+    }
+
+    private static void expect(JsonParser parser, JsonToken actual, JsonToken... expected) throws IOException {
+        for (JsonToken token : expected) {
+            if (actual == token) {
+                return;
+            }
+        }
+        throw new JsonParseException(parser, "Unexpected token " + actual + " in road network GeoJSON");
+    }
+
+    /** A file mapped read-only as consecutive windows of at most a fixed size. */
+    private static final class MappedFile {
+        private final ByteBuffer[] windows;
+        private final int windowBytes;
+
+        private MappedFile(ByteBuffer[] windows, int windowBytes) {
+            this.windows = windows;
+            this.windowBytes = windowBytes;
+        }
+
+        static MappedFile map(FileChannel channel, int windowBytes) throws IOException {
+            long size = channel.size();
+            ByteBuffer[] windows = new ByteBuffer[(int) Math.max(1, (size + windowBytes - 1) / windowBytes)];
+            for (int i = 0; i < windows.length; i++) {
+                long start = (long) i * windowBytes;
+                windows[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(windowBytes, size - start));
+            }
+            return new MappedFile(windows, windowBytes);
+        }
+
+        /** Copies {@code target.length} bytes starting at {@code offset}, across windows if needed. */
+        void get(long offset, byte[] target) {
+            int copied = 0;
+            while (copied < target.length) {
+                long position = offset + copied;
+                ByteBuffer window = windows[(int) (position / windowBytes)];
+                int start = (int) (position % windowBytes);
+                int length = Math.min(target.length - copied, window.limit() - start);
+                window.get(start, target, copied, length);
+                copied += length;
+            }
+        }
+
+        /** Reads the whole file from the start, one window after another. */
+        InputStream newInputStream() {
+            return new InputStream() {
+                private int window;
+                private final ByteBuffer[] remaining = Arrays.stream(windows)
+                        .map(ByteBuffer::duplicate)
+                        .toArray(ByteBuffer[]::new);
+
+                @Override
+                public int read() {
+                    return nextWithData() ? remaining[window].get() & 0xFF : -1;
+                }
+
+                @Override
+                public int read(byte[] bytes, int offset, int length) {
+                    if (!nextWithData()) {
+                        return -1;
+                    }
+                    int count = Math.min(length, remaining[window].remaining());
+                    remaining[window].get(bytes, offset, count);
+                    return count;
+                }
+
+                private boolean nextWithData() {
+                    while (!remaining[window].hasRemaining() && window + 1 < remaining.length) {
+                        window++;
+                    }
+                    return remaining[window].hasRemaining();
+                }
+            };
+        }
+    }
+}
@@ -1,4 +1,4 @@
-package com.sensorbite.evacroute.infrastructure.adapter.out.file;
+package com.sensorbite.evacroute.io;
 
 /**
  * Standard GeoJSON geometry types used in road network and flood zone data.
@@ -0,0 +1,506 @@
+package com.sensorbite.evacroute.io;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.LandmarkDistances;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import com.sensorbite.evacroute.domain.model.RoadSegment;
+import com.sensorbite.evacroute.domain.model.SpatialNodeIndex;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
+
+/**
+ * Versioned binary snapshot of a road network: compact graph nodes and CSR
+ * edges, segment ids, flags, lengths and geometry, and optionally landmark
+ * distances.
+ *
+ * <p>A snapshot is written once from a network parsed from GeoJSON, either by
+ * the service itself or ahead of time by the offline graph compiler, and read back
+ * by mapping the file. A restart copies the graph and spatial index arrays in
+ * bulk instead of parsing and re-deriving them, and does not copy segment
+ * geometry at all: restored segments keep their stored length and read their
+ * coordinates from the mapped file when asked, so the JVMs on a host share
+ * those pages. Landmark distances are the only search preprocessing stored;
+ * contraction hierarchies and hub labels are built again after loading. Node
+ * and edge numbering is preserved exactly.</p>
+ *
+ * <p>All values are little-endian. After a fixed header, sections are laid
+ * out by element size so every value is naturally aligned:</p>
+ * <pre>
+ * header   magic, format version, source size and modification time,
+ *          node, edge, segment, coordinate and id byte counts, CRC32C of the rest,
+ *          landmark count, header flags
+ * double   node latitudes, node longitudes, edge weights, segment lengths,
+ *          segment coordinates (latitude, longitude pairs)
+ * int      first edge per node (+1), edge targets, edge segments,
+ *          first coordinate per segment (+1), first id byte per segment (+1),
+ *          spatial index nodes in tree order, landmark nodes
+ * float    distances from and to every landmark, node-major
+ * byte     segment flags, spatial index split axes, UTF-8 segment ids
+ * </pre>
+ *
+ * <p>The source size and modification time identify the GeoJSON file the
+ * snapshot was built from; a snapshot of another version of the file is
+ * ignored. Snapshots written by the offline compiler are flagged in the
+ * header so that a service parsing a changed GeoJSON file can tell them
+ * apart from its own and leave them in place.</p>
+ */
+@Slf4j
+public final class RoadNetworkSnapshotFile {
+
+    static final int MAGIC = 0x45564E53;
+    static final int FORMAT_VERSION = 5;
+
+    static final int HEADER_BYTES = 56;
+    private static final int HEADER_FLAGS_OFFSET = 52;
+    private static final int HEADER_COMPILED = 1;
+    private static final int FLAG_ONEWAY = 1;
+    private static final int FLAG_HAZARDOUS = 2;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    /** Snapshots with fewer segments are decoded on the calling thread. */
+    private static final int PARALLEL_SEGMENT_THRESHOLD = 4096;
+
+    /**
+     * Identity of the source file a snapshot was built from.
+     *
+     * @param sizeBytes file size
+     * @param lastModifiedMillis last modification time
+     */
+    public record Source(long sizeBytes, long lastModifiedMillis) {
+
+        public static Source of(Path path) throws IOException {
+            return new Source(Files.size(path), Files.getLastModifiedTime(path).toMillis());
+        }
+    }
+
+    /**
+     * Write a snapshot, replacing any existing file only once it is complete.
+     *
+     * @param network network to store, with the landmark distances it carries, if any
+     * @param source source file the network was parsed from
+     * @param path snapshot file
+     * @throws IOException if the snapshot cannot be written
+     */
+    public void write(RoadNetwork network, Source source, Path path) throws IOException {
+        write(network, source, path, 0);
+    }
+
+    /**
+     * Write a snapshot as {@link #write} does, flagged as compiled offline.
+     *
+     * @see #isCompiled(Path)
+     */
+    public void writeCompiled(RoadNetwork network, Source source, Path path) throws IOException {
+        write(network, source, path, HEADER_COMPILED);
+    }
+
+    /**
+     * Whether the file is a snapshot in the current format written by {@link #writeCompiled}.
+     *
+     * @param path snapshot file
+     * @return {@code false} if there is no such file or it is not a snapshot in the current format
+     * @throws IOException if the file cannot be read
+     */
+    public boolean isCompiled(Path path) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        try (FileChannel channel = FileChannel.open(path)) {
+            int read = 0;
+            while (header.hasRemaining() && read >= 0) {
+                read = channel.read(header, header.position());
+            }
+        }
+        return !header.hasRemaining()
+                && header.getInt(0) == MAGIC
+                && header.getInt(4) == FORMAT_VERSION
+                && (header.getInt(HEADER_FLAGS_OFFSET) & HEADER_COMPILED) != 0;
+    }
+
+    private void write(RoadNetwork network, Source source, Path path, int headerFlags) throws IOException {
+        CompactGraph graph = network.getCompactGraph();
+        SpatialNodeIndex nodeIndex = network.getNodeIndex();
+        LandmarkDistances landmarks = network.getLandmarks();
+        int nodeCount = graph.nodeCount();
+        int edgeCount = graph.edgeCount();
+        int segmentCount = network.getSegmentCount();
+        int landmarkCount = landmarks == null ? 0 : landmarks.landmarkCount();
+
+        List<byte[]> ids = new ArrayList<>(segmentCount);
+        int coordinateCount = 0;
+        int idByteCount = 0;
+        for (int i = 0; i < segmentCount; i++) {
+            RoadSegment segment = network.segmentAt(i);
+            byte[] id = segment.getId().getBytes(StandardCharsets.UTF_8);
+            ids.add(id);
+            coordinateCount += segment.getCoordinates().size();
+            idByteCount += id.length;
+        }
+
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ChecksummingWriter out = new ChecksummingWriter(channel, HEADER_BYTES);
+            for (int node = 0; node < nodeCount; node++) {
+                out.putDouble(graph.latitude(node));
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                out.putDouble(graph.longitude(node));
+            }
+            for (int edge = 0; edge < edgeCount; edge++) {
+                out.putDouble(graph.edgeWeight(edge));
+            }
+            for (int i = 0; i < segmentCount; i++) {
+                out.putDouble(network.segmentAt(i).getLengthMeters());
+            }
+            for (int i = 0; i < segmentCount; i++) {
+                for (Coordinate coordinate : network.segmentAt(i).getCoordinates()) {
+                    out.putDouble(coordinate.latitude());
+                    out.putDouble(coordinate.longitude());
+                }
+            }
+
+            for (int node = 0; node <= nodeCount; node++) {
+                out.putInt(graph.firstEdge(node));
+            }
+            for (int edge = 0; edge < edgeCount; edge++) {
+                out.putInt(graph.edgeTarget(edge));
+            }
+            for (int edge = 0; edge < edgeCount; edge++) {
+                out.putInt(graph.edgeSegment(edge));
+            }
+            int coordinateOffset = 0;
+            for (int i = 0; i < segmentCount; i++) {
+                out.putInt(coordinateOffset);
+                coordinateOffset += network.segmentAt(i).getCoordinates().size();
+            }
+            out.putInt(coordinateOffset);
+            int idOffset = 0;
+            for (byte[] id : ids) {
+                out.putInt(idOffset);
+                idOffset += id.length;
+            }
+            out.putInt(idOffset);
+            for (int slot = 0; slot < nodeCount; slot++) {
+                out.putInt(nodeIndex.nodeAt(slot));
+            }
+            for (int i = 0; i < landmarkCount; i++) {
+                out.putInt(landmarks.landmark(i));
+            }
+
+            for (int node = 0; node < nodeCount; node++) {
+                for (int i = 0; i < landmarkCount; i++) {
+                    out.putFloat(landmarks.fromLandmark(node, i));
+                }
+            }
+            for (int node = 0; node < nodeCount; node++) {
+                for (int i = 0; i < landmarkCount; i++) {
+                    out.putFloat(landmarks.toLandmark(node, i));
+                }
+            }
+
+            for (int i = 0; i < segmentCount; i++) {
+                RoadSegment segment = network.segmentAt(i);
+                out.putByte((segment.isOneway() ? FLAG_ONEWAY : 0) | (segment.isHazardous() ? FLAG_HAZARDOUS : 0));
+            }
+            for (int slot = 0; slot < nodeCount; slot++) {
+                out.putByte(nodeIndex.axisAt(slot));
+            }
+            for (byte[] id : ids) {
+                out.putBytes(id);
+            }
+            int checksum = out.finish();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN)
+                    .putInt(MAGIC).putInt(FORMAT_VERSION)
+                    .putLong(source.sizeBytes()).putLong(source.lastModifiedMillis())
+                    .putInt(nodeCount).putInt(edgeCount).putInt(segmentCount)
+                    .putInt(coordinateCount).putInt(idByteCount).putInt(checksum)
+                    .putInt(landmarkCount).putInt(headerFlags)
+                    .flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Read a snapshot built from the given source file.
+     *
+     * @param path snapshot file
+     * @param source source file the caller would otherwise parse, or {@code null}
+     *               to accept a snapshot of any source, e.g. a compiled snapshot
+     *               deployed without its GeoJSON file
+     * @return network, carrying the landmark distances stored with it and with
+     *         segment coordinates read from the mapped file, or empty if there is
+     *         no snapshot, it has another format version or it was built from a
+     *         different source file
+     * @throws IOException if the snapshot cannot be read or is corrupt
+     */
+    public Optional<RoadNetwork> read(Path path, Source source) throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return Optional.empty();
+        }
+
+        ByteBuffer document;
+        try (FileChannel channel = FileChannel.open(path)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Road network snapshot is truncated: " + path);
+            }
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException("Road network snapshot is too large to map: " + path);
+            }
+            document = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        if (document.getInt(0) != MAGIC) {
+            throw new IOException("Not a road network snapshot: " + path);
+        }
+        int version = document.getInt(4);
+        if (version != FORMAT_VERSION) {
+            log.info("[DATA_LOAD] Ignoring snapshot {} in format v{}, expected v{}", path, version, FORMAT_VERSION);
+            return Optional.empty();
+        }
+        Source snapshotSource = new Source(document.getLong(8), document.getLong(16));
+        if (source != null && !snapshotSource.equals(source)) {
+            log.info("[DATA_LOAD] Ignoring snapshot {} built from a different road network file", path);
+            return Optional.empty();
+        }
+
+        int nodeCount = document.getInt(24);
+        int edgeCount = document.getInt(28);
+        int segmentCount = document.getInt(32);
+        int coordinateCount = document.getInt(36);
+        int idByteCount = document.getInt(40);
+        int landmarkCount = document.getInt(48);
+        long expectedBytes = HEADER_BYTES
+                + (long) Double.BYTES * (2L * nodeCount + edgeCount + segmentCount + 2L * coordinateCount)
+                + (long) Integer.BYTES * (2L * nodeCount + 1 + 2L * edgeCount + 2L * (segmentCount + 1L)
+                        + landmarkCount)
+                + (long) Float.BYTES * 2L * nodeCount * landmarkCount
+                + segmentCount + (long) nodeCount + idByteCount;
+        if (nodeCount < 0 || edgeCount < 0 || segmentCount < 0 || coordinateCount < 0 || idByteCount < 0
+                || landmarkCount < 0 || expectedBytes != document.capacity()) {
+            throw new IOException("Road network snapshot is truncated or corrupt: " + path);
+        }
+        CRC32C checksum = new CRC32C();
+        checksum.update(document.slice(HEADER_BYTES, document.capacity() - HEADER_BYTES));
+        if ((int) checksum.getValue() != document.getInt(44)) {
+            throw new IOException("Road network snapshot checksum mismatch: " + path);
+        }
+
+        document.position(HEADER_BYTES);
+        double[] latitudes = doubles(document, nodeCount);
+        double[] longitudes = doubles(document, nodeCount);
+        double[] edgeWeights = doubles(document, edgeCount);
+        DoubleBuffer lengths = document.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        document.position(document.position() + Double.BYTES * segmentCount);
+        DoubleBuffer coordinates = document.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        document.position(document.position() + 2 * Double.BYTES * coordinateCount);
+        int[] firstEdge = ints(document, nodeCount + 1);
+        int[] edgeTargets = ints(document, edgeCount);
+        int[] edgeSegments = ints(document, edgeCount);
+        int[] firstCoordinate = ints(document, segmentCount + 1);
+        int[] firstIdByte = ints(document, segmentCount + 1);
+        int[] treeNodes = ints(document, nodeCount);
+        int[] landmarkNodes = ints(document, landmarkCount);
+        float[] fromLandmark = floats(document, nodeCount * landmarkCount);
+        float[] toLandmark = floats(document, nodeCount * landmarkCount);
+        byte[] flags = new byte[segmentCount];
+        document.get(flags);
+        byte[] treeAxes = new byte[nodeCount];
+        document.get(treeAxes);
+        byte[] ids = new byte[idByteCount];
+        document.get(ids);
+
+        try {
+            requireOffsets(firstCoordinate, coordinateCount, "coordinate");
+            requireOffsets(firstIdByte, idByteCount, "id");
+            requireCoordinates(coordinates, coordinateCount);
+            for (int segment : edgeSegments) {
+                if (segment < 0 || segment >= segmentCount) {
+                    throw new IllegalArgumentException("Edge segment out of range: " + segment);
+                }
+            }
+            CompactGraph graph = CompactGraph.fromCsr(latitudes, longitudes, firstEdge, edgeTargets, edgeWeights,
+                    edgeSegments);
+            SpatialNodeIndex nodeIndex = SpatialNodeIndex.fromTree(graph, treeNodes, treeAxes);
+
+            IntStream indices = IntStream.range(0, segmentCount);
+            if (segmentCount >= PARALLEL_SEGMENT_THRESHOLD) {
+                indices = indices.parallel();
+            }
+            List<RoadSegment> segments = indices
+                    .mapToObj(i -> decodeSegment(i, lengths, coordinates, firstCoordinate, ids, firstIdByte, flags[i]))
+                    .toList();
+            RoadNetwork network = new RoadNetwork(segments, graph, nodeIndex);
+            return Optional.of(landmarkCount == 0
+                    ? network
+                    : network.withLandmarks(LandmarkDistances.of(graph, landmarkNodes, fromLandmark, toLandmark)));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            throw new IOException("Road network snapshot is corrupt: " + path, e);
+        }
+    }
+
+    private static RoadSegment decodeSegment(int index, DoubleBuffer lengths, DoubleBuffer coordinates,
+                                             int[] firstCoordinate, byte[] ids, int[] firstIdByte, byte flags) {
+        List<Coordinate> points = new StoredCoordinates(coordinates, firstCoordinate[index],
+                firstCoordinate[index + 1]);
+        String id = new String(ids, firstIdByte[index], firstIdByte[index + 1] - firstIdByte[index],
+                StandardCharsets.UTF_8);
+        return RoadSegment.measured(id, points, lengths.get(index), (flags & FLAG_ONEWAY) != 0,
+                (flags & FLAG_HAZARDOUS) != 0);
+    }
+
+    /** Checks every stored coordinate up front, since segments only decode them when asked. */
+    private static void requireCoordinates(DoubleBuffer coordinates, int coordinateCount) {
+        for (int c = 0; c < coordinateCount; c++) {
+            double latitude = coordinates.get(2 * c);
+            double longitude = coordinates.get(2 * c + 1);
+            if (!(latitude >= Coordinate.MIN_LATITUDE && latitude <= Coordinate.MAX_LATITUDE
+                    && longitude >= Coordinate.MIN_LONGITUDE && longitude <= Coordinate.MAX_LONGITUDE)) {
+                throw new IllegalArgumentException("Coordinate " + c + " is out of range");
+            }
+        }
+    }
+
+    private static void requireOffsets(int[] offsets, int total, String name) {
+        if (offsets[0] != 0 || offsets[offsets.length - 1] != total) {
+            throw new IllegalArgumentException("Segment " + name + " offsets do not cover " + total + " entries");
+        }
+        for (int i = 1; i < offsets.length; i++) {
+            if (offsets[i] < offsets[i - 1]) {
+                throw new IllegalArgumentException("Segment " + name + " offsets decrease at segment " + (i - 1));
+            }
+        }
+    }
+
+    private static double[] doubles(ByteBuffer document, int count) {
+        double[] values = new double[count];
+        document.slice().order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer().get(values);
+        document.position(document.position() + Double.BYTES * count);
+        return values;
+    }
+
+    private static int[] ints(ByteBuffer document, int count) {
+        int[] values = new int[count];
+        document.slice().order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(values);
+        document.position(document.position() + Integer.BYTES * count);
+        return values;
+    }
+
+    private static float[] floats(ByteBuffer document, int count) {
+        float[] values = new float[count];
+        document.slice().order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().get(values);
+        document.position(document.position() + Float.BYTES * count);
+        return values;
+    }
+
+    /**
+     * Polyline of one segment, read from the mapped coordinate section on each
+     * access. Absolute reads leave the shared buffer untouched, so views may be
+     * read from any number of threads.
+     */
+    private static final class StoredCoordinates extends AbstractList<Coordinate> implements RandomAccess {
+        private final DoubleBuffer coordinates;
+        private final int from;
+        private final int size;
+
+        StoredCoordinates(DoubleBuffer coordinates, int from, int to) {
+            this.coordinates = coordinates;
+            this.from = from;
+            this.size = to - from;
+        }
+
+        @Override
+        public Coordinate get(int index) {
+            Objects.checkIndex(index, size);
+            int position = 2 * (from + index);
+            return new Coordinate(coordinates.get(position), coordinates.get(position + 1));
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    /** Buffered little-endian writer that checksums everything it writes. */
+    private static final class ChecksummingWriter {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        private final CRC32C checksum = new CRC32C();
+
+        ChecksummingWriter(FileChannel channel, long position) throws IOException {
+            this.channel = channel.position(position);
+        }
+
+        void putDouble(double value) throws IOException {
+            ensureRemaining(Double.BYTES).putDouble(value);
+        }
+
+        void putInt(int value) throws IOException {
+            ensureRemaining(Integer.BYTES).putInt(value);
+        }
+
+        void putFloat(float value) throws IOException {
+            ensureRemaining(Float.BYTES).putFloat(value);
+        }
+
+        void putByte(int value) throws IOException {
+            ensureRemaining(1).put((byte) value);
+        }
+
+        void putBytes(byte[] bytes) throws IOException {
+            for (int offset = 0; offset < bytes.length; ) {
+                int length = Math.min(bytes.length - offset, ensureRemaining(1).remaining());
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        /** Write out buffered bytes and return the checksum of everything written. */
+        int finish() throws IOException {
+            flush();
+            return (int) checksum.getValue();
+        }
+
+        private ByteBuffer ensureRemaining(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+            return buffer;
+        }
+
+        private void flush() throws IOException {
+            buffer.flip();
+            checksum.update(buffer.duplicate());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.sensorbite.evacroute.io;
+
+import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.RoadSegment;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("GeoJsonRoadSegmentReader")
+class GeoJsonRoadSegmentReaderTest {
+
+    private final GeoJsonRoadSegmentReader reader = new GeoJsonRoadSegmentReader();
+
+    @Test
+    @DisplayName("should read LineString features as segments named after the feature")
+    void shouldReadLineStrings() throws IOException {
+        List<RoadSegment> segments = read("""
+                {"type": "FeatureCollection", "features": [
+                  {"type": "Feature", "id": "road1", "properties": {"oneway": true},
+                   "geometry": {"type": "LineString", "coordinates": [[21.0, 52.0], [21.1, 52.1, 80.0]]}},
+                  {"type": "Feature", "properties": {"oneway": "no"},
+                   "geometry": {"type": "LineString", "coordinates": [[21.1, 52.1], [21, 52]]}}
+                ]}
+                """);
+
+        assertThat(segments).hasSize(2);
+        assertThat(segments.get(0).getId()).isEqualTo("road1");
+        assertThat(segments.get(0).isOneway()).isTrue();
+        assertThat(segments.get(0).getCoordinates())
+                .containsExactly(new Coordinate(52.0, 21.0), new Coordinate(52.1, 21.1));
+        assertThat(segments.get(1).getId()).isEqualTo("feature_1");
+        assertThat(segments.get(1).isOneway()).isFalse();
+    }
+
+    @Test
+    @DisplayName("should split MultiLineString features regardless of member order")
+    void shouldSplitMultiLineStrings() throws IOException {
+        List<RoadSegment> segments = read("""
+                {"features": [
+                  {"geometry": {"coordinates": [[[21.0, 52.0], [21.1, 52.1]], [[21.1, 52.1], [21.2, 52.2]]],
+                                "type": "MultiLineString"},
+                   "properties": {"name": "Main St", "tags": {"lanes": [2, 2]}, "oneway": "yes"},
+                   "id": 7, "type": "Feature"}
+                ], "type": "FeatureCollection"}
+                """);
+
+        assertThat(segments).extracting(RoadSegment::getId).containsExactly("7_0", "7_1");
+        assertThat(segments).allMatch(RoadSegment::isOneway);
+        assertThat(segments.get(1).getCoordinates())
+                .containsExactly(new Coordinate(52.1, 21.1), new Coordinate(52.2, 21.2));
+    }
+
+    @Test
+    @DisplayName("should skip features without a line geometry")
+    void shouldSkipUnsupportedGeometry() throws IOException {
+        List<RoadSegment> segments = new ArrayList<>();
+        int features = reader.read(stream("""
+                {"type": "FeatureCollection", "features": [
+                  {"type": "Feature", "id": "p", "properties": null,
+                   "geometry": {"type": "Point", "coordinates": [21.0, 52.0]}},
+                  {"type": "Feature", "id": "n", "properties": {}, "geometry": null}
+                ]}
+                """), segments::add);
+
+        assertThat(features).isEqualTo(2);
+        assertThat(segments).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should reject truncated input")
+    void shouldRejectTruncatedInput() {
+        assertThatThrownBy(() -> read("""
+                {"type": "FeatureCollection", "features": [
+                  {"type": "Feature", "geometry": {"type": "LineString", "coordinates": [[21.0, 52.0], [21
+                """)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    @DisplayName("should read a file in parallel with the same segments in the same order")
+    void shouldReadFileInParallel(@TempDir Path directory) throws IOException {
+        String document = featureCollection(5000);
+        Path file = directory.resolve("roads.geojson");
+        Files.writeString(file, document);
+
+        List<RoadSegment> parallel = reader.readAll(file);
+        List<RoadSegment> sequential = read(document);
+
+        assertThat(parallel).hasSize(5000 + 5000 / 3 + 1).hasSameSizeAs(sequential);
+        for (int i = 0; i < sequential.size(); i++) {
+            assertThat(parallel.get(i).getId()).isEqualTo(sequential.get(i).getId());
+            assertThat(parallel.get(i).isOneway()).isEqualTo(sequential.get(i).isOneway());
+            assertThat(parallel.get(i).getCoordinates()).isEqualTo(sequential.get(i).getCoordinates());
+        }
+        assertThat(parallel).extracting(RoadSegment::getId).contains("feature_7", "road8", "feature_21_1");
+    }
+
+    @Test
+    @DisplayName("should read a file mapped in windows smaller than its features")
+    void shouldReadFileAcrossMappedWindows(@TempDir Path directory) throws IOException {
+        String document = featureCollection(1500);
+        Path file = directory.resolve("roads.geojson");
+        Files.writeString(file, document);
+
+        List<RoadSegment> windowed = new GeoJsonRoadSegmentReader(97).readAll(file);
+        List<RoadSegment> sequential = read(document);
+
+        assertThat(windowed).hasSameSizeAs(sequential);
+        for (int i = 0; i < sequential.size(); i++) {
+            assertThat(windowed.get(i).getId()).isEqualTo(sequential.get(i).getId());
+            assertThat(windowed.get(i).getCoordinates()).isEqualTo(sequential.get(i).getCoordinates());
+        }
+    }
+
+    @Test
+    @DisplayName("should reject a file with malformed coordinates")
+    void shouldRejectMalformedFile(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("roads.geojson");
+        Files.writeString(file, """
+                {"type": "FeatureCollection", "features": [
+                  {"type": "Feature", "geometry": {"type": "LineString", "coordinates": [[21.0, 52.0], [21.1, 52.1]]}},
+                  {"type": "Feature", "geometry": {"type": "LineString", "coordinates": [[21.0, 52.0], [21.1, "52.1"]]}}
+                ]}
+                """);
+
+        assertThatThrownBy(() -> reader.readAll(file)).isInstanceOf(IOException.class);
+    }
+
+    /** Features with and without ids, LineStrings and MultiLineStrings, and braces inside strings. */
+    private static String featureCollection(int featureCount) {
+        StringBuilder json = new StringBuilder("{\"type\": \"FeatureCollection\", \"features\": [\n");
+        for (int i = 0; i < featureCount; i++) {
+            String id = i % 7 == 0 ? "" : "\"id\": \"road" + i + "\", ";
+            String geometry = i % 3 == 0
+                    ? "{\"type\": \"MultiLineString\", "
+                            + "\"coordinates\": [[[21.0, 52.0], [21.1, 52.%d]], [[21.2, 52.2], [21.3, 52.3]]]}"
+                    : "{\"type\": \"LineString\", \"coordinates\": [[21.0, 52.0], [21.1, 52.%d]]}";
+            json.append(i == 0 ? "" : ",\n")
+                    .append("{\"type\": \"Feature\", ").append(id)
+                    .append("\"properties\": {\"name\": \"St. {\\\"").append(i).append("\\\"}\", \"oneway\": ")
+                    .append(i % 2 == 0).append("}, \"geometry\": ").append(geometry.formatted(i)).append('}');
+        }
+        return json.append("\n]}").toString();
+    }
+
+    private List<RoadSegment> read(String json) throws IOException {
+        List<RoadSegment> segments = new ArrayList<>();
+        reader.read(stream(json), segments::add);
+        return segments;
+    }
+
+    private static ByteArrayInputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
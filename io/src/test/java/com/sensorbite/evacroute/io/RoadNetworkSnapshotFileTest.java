@@ -0,0 +1,176 @@
+package com.sensorbite.evacroute.io;
+
+import com.sensorbite.evacroute.domain.model.CompactGraph;
+import com.sensorbite.evacroute.domain.model.Coordinate;
+import com.sensorbite.evacroute.domain.model.LandmarkDistances;
+import com.sensorbite.evacroute.domain.model.RoadNetwork;
+import com.sensorbite.evacroute.domain.model.RoadSegment;
+import com.sensorbite.evacroute.domain.service.GraphBuilder;
+import com.sensorbite.evacroute.domain.service.search.LandmarkPreprocessor;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RoadNetworkSnapshotFile")
+class RoadNetworkSnapshotFileTest {
+
+    private static final RoadNetworkSnapshotFile.Source SOURCE = new RoadNetworkSnapshotFile.Source(1234L, 5678L);
+
+    private final RoadNetworkSnapshotFile snapshotFile = new RoadNetworkSnapshotFile();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("should read back segments and graph exactly as written")
+    void shouldRoundTripNetwork() throws IOException {
+        RoadNetwork network = createNetwork();
+        Path path = directory.resolve("roads.snapshot");
+
+        snapshotFile.write(network, SOURCE, path);
+        RoadNetwork restored = snapshotFile.read(path, SOURCE).orElseThrow();
+
+        assertThat(restored.getSegmentCount()).isEqualTo(network.getSegmentCount());
+        for (int i = 0; i < network.getSegmentCount(); i++) {
+            RoadSegment expected = network.segmentAt(i);
+            RoadSegment actual = restored.segmentAt(i);
+            assertThat(actual.getId()).isEqualTo(expected.getId());
+            assertThat(actual.getCoordinates()).isEqualTo(expected.getCoordinates());
+            assertThat(actual.isOneway()).isEqualTo(expected.isOneway());
+            assertThat(actual.isHazardous()).isEqualTo(expected.isHazardous());
+            assertThat(actual.getLengthMeters()).isEqualTo(expected.getLengthMeters());
+        }
+
+        CompactGraph expected = network.getCompactGraph();
+        CompactGraph actual = restored.getCompactGraph();
+        assertThat(actual.nodeCount()).isEqualTo(expected.nodeCount());
+        assertThat(actual.edgeCount()).isEqualTo(expected.edgeCount());
+        for (int node = 0; node <= expected.nodeCount(); node++) {
+            assertThat(actual.firstEdge(node)).isEqualTo(expected.firstEdge(node));
+        }
+        for (int node = 0; node < expected.nodeCount(); node++) {
+            assertThat(actual.coordinate(node)).isEqualTo(expected.coordinate(node));
+        }
+        for (int edge = 0; edge < expected.edgeCount(); edge++) {
+            assertThat(actual.edgeTarget(edge)).isEqualTo(expected.edgeTarget(edge));
+            assertThat(actual.edgeWeight(edge)).isEqualTo(expected.edgeWeight(edge));
+            assertThat(actual.edgeSegment(edge)).isEqualTo(expected.edgeSegment(edge));
+        }
+        assertThat(restored.isHazardous("bridge")).isTrue();
+        assertThat(restored.getLandmarks()).isNull();
+        assertThat(Files.exists(directory.resolve("roads.snapshot.tmp"))).isFalse();
+    }
+
+    @Test
+    @DisplayName("should read back landmark distances for the restored graph")
+    void shouldRoundTripLandmarks() throws IOException {
+        RoadNetwork base = createNetwork();
+        CompactGraph graph = base.getCompactGraph();
+        LandmarkDistances landmarks = LandmarkPreprocessor.compute(graph, 2);
+        Path path = directory.resolve("roads.snapshot");
+
+        snapshotFile.write(base.withLandmarks(landmarks), SOURCE, path);
+        RoadNetwork network = snapshotFile.read(path, SOURCE).orElseThrow();
+
+        LandmarkDistances restored = network.getLandmarks();
+        assertThat(restored.isComputedFor(network.getCompactGraph())).isTrue();
+        assertThat(restored.landmarkCount()).isEqualTo(landmarks.landmarkCount());
+        for (int i = 0; i < landmarks.landmarkCount(); i++) {
+            assertThat(restored.landmark(i)).isEqualTo(landmarks.landmark(i));
+        }
+        for (int node = 0; node < graph.nodeCount(); node++) {
+            for (int target = 0; target < graph.nodeCount(); target++) {
+                assertThat(restored.lowerBound(node, target)).isEqualTo(landmarks.lowerBound(node, target));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("should ignore a snapshot of a different source file or format version unless any source will do")
+    void shouldIgnoreStaleSnapshot() throws IOException {
+        Path path = directory.resolve("roads.snapshot");
+        snapshotFile.write(createNetwork(), SOURCE, path);
+
+        assertThat(snapshotFile.read(path, new RoadNetworkSnapshotFile.Source(1234L, 9999L))).isEmpty();
+        assertThat(snapshotFile.read(path, null)).isPresent();
+        assertThat(snapshotFile.read(directory.resolve("missing.snapshot"), SOURCE)).isEmpty();
+
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(4, RoadNetworkSnapshotFile.FORMAT_VERSION + 1);
+        Files.write(path, bytes);
+        assertThat(snapshotFile.read(path, SOURCE)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("should flag only snapshots compiled offline as compiled")
+    void shouldFlagCompiledSnapshots() throws IOException {
+        Path written = directory.resolve("written.snapshot");
+        Path compiled = directory.resolve("compiled.snapshot");
+        snapshotFile.write(createNetwork(), SOURCE, written);
+        snapshotFile.writeCompiled(createNetwork(), SOURCE, compiled);
+
+        assertThat(snapshotFile.isCompiled(written)).isFalse();
+        assertThat(snapshotFile.isCompiled(compiled)).isTrue();
+        assertThat(snapshotFile.read(compiled, SOURCE)).isPresent();
+        assertThat(snapshotFile.isCompiled(directory.resolve("missing.snapshot"))).isFalse();
+
+        byte[] bytes = Files.readAllBytes(compiled);
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).putInt(4, RoadNetworkSnapshotFile.FORMAT_VERSION + 1);
+        Files.write(compiled, bytes);
+        assertThat(snapshotFile.isCompiled(compiled)).isFalse();
+    }
+
+    @Test
+    @DisplayName("should reject truncated and corrupt snapshots")
+    void shouldRejectCorruptSnapshot() throws IOException {
+        RoadNetwork network = createNetwork();
+        Path path = directory.resolve("roads.snapshot");
+        snapshotFile.write(network, SOURCE, path);
+        byte[] bytes = Files.readAllBytes(path);
+
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThatThrownBy(() -> snapshotFile.read(path, SOURCE)).isInstanceOf(IOException.class);
+
+        CompactGraph graph = network.getCompactGraph();
+        int coordinateCount = network.getSegments().stream()
+                .mapToInt(segment -> segment.getCoordinates().size())
+                .sum();
+        int firstEdgeOffset = RoadNetworkSnapshotFile.HEADER_BYTES
+                + Double.BYTES * (2 * graph.nodeCount() + graph.edgeCount() + network.getSegmentCount()
+                        + 2 * coordinateCount);
+        byte[] badOffsets = bytes.clone();
+        ByteBuffer.wrap(badOffsets).order(ByteOrder.LITTLE_ENDIAN).putInt(firstEdgeOffset, 7);
+        Files.write(path, badOffsets);
+        assertThatThrownBy(() -> snapshotFile.read(path, SOURCE)).isInstanceOf(IOException.class);
+    }
+
+    private static RoadNetwork createNetwork() {
+        List<RoadSegment> segments = List.of(
+                new RoadSegment("main", List.of(
+                        new Coordinate(52.0, 21.0),
+                        new Coordinate(52.0005, 21.0005),
+                        new Coordinate(52.001, 21.001)
+                ), false),
+                new RoadSegment("bridge", List.of(
+                        new Coordinate(52.001, 21.001),
+                        new Coordinate(52.002, 21.0)
+                ), false, true),
+                new RoadSegment("ulica Żelazna", List.of(
+                        new Coordinate(52.002, 21.0),
+                        new Coordinate(52.0, 21.0)
+                ), true)
+        );
+        return new RoadNetwork(segments, new GraphBuilder().buildCompactGraph(segments));
+    }
+}